@@ -0,0 +1,103 @@
+package com.dsaanalyzer.dsaanalyzer.analysis;
+
+import com.dsaanalyzer.dsaanalyzer.cache.CacheKey;
+import com.dsaanalyzer.dsaanalyzer.model.GeminiAnalysisPayload;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Curated analyses of textbook algorithms (binary search, merge sort, BFS, Dijkstra, ...),
+ * loaded once from a resource and answered without an upstream call. A submission matches an
+ * implementation when their {@link CodeNormalizer#structuralFingerprint}s are equal.
+ *
+ * <p>Only a 64-bit hash of each implementation's fingerprint is kept, in a sorted array
+ * searched by bisection, next to the index of the entry it belongs to; the catalog is never
+ * modified after loading.
+ */
+@Component
+@Slf4j
+public class AlgorithmCatalog {
+
+    public record Entry(String id, GeminiAnalysisPayload analysis) {
+    }
+
+    private final List<Entry> entries;
+    private final long[] fingerprints; // sorted
+    private final int[] entryIndexes; // parallel to fingerprints
+
+    public AlgorithmCatalog(@Value("${analysis.catalog.enabled:true}") boolean enabled,
+                            @Value("${analysis.catalog.location:classpath:algorithm-catalog.txt}") Resource location,
+                            ObjectMapper objectMapper) {
+        List<Entry> entries = new ArrayList<>();
+        List<long[]> implementations = new ArrayList<>(); // {fingerprint, entry index}
+        if (enabled) {
+            try (InputStream in = location.getInputStream()) {
+                parse(new String(in.readAllBytes(), StandardCharsets.UTF_8), objectMapper, entries, implementations);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not load algorithm catalog " + location, e);
+            }
+        }
+        implementations.sort((a, b) -> Long.compare(a[0], b[0]));
+        this.entries = List.copyOf(entries);
+        this.fingerprints = new long[implementations.size()];
+        this.entryIndexes = new int[implementations.size()];
+        for (int i = 0; i < implementations.size(); i++) {
+            fingerprints[i] = implementations.get(i)[0];
+            entryIndexes[i] = (int) implementations.get(i)[1];
+            if (i > 0 && fingerprints[i] == fingerprints[i - 1] && entryIndexes[i] != entryIndexes[i - 1]) {
+                throw new IllegalStateException("Catalog entries " + this.entries.get(entryIndexes[i - 1]).id()
+                        + " and " + this.entries.get(entryIndexes[i]).id() + " share an implementation");
+            }
+        }
+        log.info("Algorithm catalog loaded: {} algorithms, {} implementations", entries.size(), fingerprints.length);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** @return the catalogued algorithm the code is an implementation of, or {@code null} */
+    public Entry find(String code, String language) {
+        if (fingerprints.length == 0 || code == null) {
+            return null;
+        }
+        int index = Arrays.binarySearch(fingerprints, fingerprint(code, Language.from(language, code)));
+        return index >= 0 ? entries.get(entryIndexes[index]) : null;
+    }
+
+    private static long fingerprint(String code, Language language) {
+        String key = CacheKey.of("catalog", language.name(), CodeNormalizer.structuralFingerprint(code, language));
+        return HexFormat.fromHexDigitsToLong(key, 0, 16);
+    }
+
+    // "## id", the analysis JSON up to the first "### language", then one code block per language
+    private static void parse(String catalog, ObjectMapper objectMapper, List<Entry> entries,
+                              List<long[]> implementations) throws IOException {
+        String[] sections = catalog.split("(?m)^## ");
+        for (int s = 1; s < sections.length; s++) {
+            String[] blocks = sections[s].split("(?m)^### ");
+            int idEnd = blocks[0].indexOf('\n');
+            String id = blocks[0].substring(0, idEnd).strip();
+            GeminiAnalysisPayload analysis = objectMapper.readValue(blocks[0].substring(idEnd + 1), GeminiAnalysisPayload.class);
+            entries.add(new Entry(id, analysis));
+            for (int b = 1; b < blocks.length; b++) {
+                int languageEnd = blocks[b].indexOf('\n');
+                Language language = Language.from(blocks[b].substring(0, languageEnd).strip(), "");
+                String code = blocks[b].substring(languageEnd + 1).strip();
+                implementations.add(new long[]{fingerprint(code, language), entries.size() - 1});
+            }
+        }
+    }
+}
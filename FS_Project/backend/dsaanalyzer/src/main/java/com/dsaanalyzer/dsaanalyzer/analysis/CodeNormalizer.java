@@ -0,0 +1,312 @@
+package com.dsaanalyzer.dsaanalyzer.analysis;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Canonical forms of a submission used as cache and coalescing keys, so that cosmetically
+ * different copies of the same code share one upstream call.
+ *
+ * <p>Both forms drop comments and whitespace and keep string literals verbatim. The
+ * {@link #fingerprint} used for analysis also renames declared locals and parameters in order
+ * of first appearance ({@code total}/{@code sum} both become {@code §1}); member accesses,
+ * function names and library identifiers are left alone. Python keeps its block structure as
+ * indentation depth. The {@link #lineFingerprint} used for debugging keeps names and line
+ * numbers, so line-numbered findings cached for one submission are valid for the other. The
+ * {@link #structuralFingerprint} used to recognise catalogued algorithms goes further than
+ * the analysis fingerprint and also ignores function names and access modifiers.
+ */
+public final class CodeNormalizer {
+
+    private static final Set<String> KEYWORDS = Set.of(
+            "abstract", "and", "as", "assert", "async", "await", "break", "case", "catch", "class", "const",
+            "continue", "def", "default", "del", "delete", "do", "elif", "else", "enum", "except", "export",
+            "extends", "false", "False", "final", "finally", "for", "from", "function", "global", "goto", "if",
+            "implements", "import", "in", "instanceof", "interface", "is", "lambda", "let", "namespace", "new",
+            "nonlocal", "not", "null", "None", "nullptr", "of", "or", "package", "pass", "private", "protected",
+            "public", "raise", "return", "static", "struct", "super", "switch", "synchronized", "template",
+            "this", "throw", "throws", "true", "True", "try", "typedef", "typeof", "using", "var", "void",
+            "while", "with", "yield");
+    private static final Set<String> DECLARATION_KEYWORDS = Set.of("let", "const", "var", "auto");
+    private static final Set<String> PRIMITIVE_TYPES = Set.of(
+            "int", "long", "short", "byte", "char", "boolean", "bool", "float", "double", "unsigned", "signed");
+    private static final Set<String> DECLARATOR_FOLLOWERS = Set.of("=", ";", ",", ")", ":", "[");
+    private static final Set<String> MODIFIERS = Set.of("public", "private", "protected", "static", "final");
+    private static final Set<String> MEMBER_ACCESS = Set.of(".", "->", "::");
+    private static final Set<String> ASSIGNMENTS = Set.of(
+            "=", "+=", "-=", "*=", "/=", "//=", "%=", "**=", "&=", "|=", "^=", ">>=", "<<=", ":");
+
+    private CodeNormalizer() {
+    }
+
+    /** Comment-, whitespace- and local-name-insensitive form of the code. */
+    public static String fingerprint(String code, Language language) {
+        return String.join(" ", canonicalTokens(code, language));
+    }
+
+    /**
+     * The tokens behind {@link #fingerprint}; Python lines start with a {@code "\n<depth>"}
+     * token.
+     */
+    public static List<String> canonicalTokens(String code, Language language) {
+        return canonicalTokens(code, language, false);
+    }
+
+    /**
+     * {@link #fingerprint} that also renames declared functions and classes, drops imports,
+     * {@code using namespace} and access modifiers, and unwraps a class around the whole
+     * submission in brace languages (as in {@code class Solution { ... }} templates), so a
+     * textbook implementation matches whatever the submitter called it.
+     */
+    public static String structuralFingerprint(String code, Language language) {
+        return String.join(" ", canonicalTokens(code, language, true));
+    }
+
+    private static List<String> canonicalTokens(String code, Language language, boolean structural) {
+        List<Token> tokens = SourceTokenizer.tokenize(code != null ? code : "", language, true);
+        if (structural) {
+            tokens = withoutBoilerplate(tokens, language);
+            tokens = language == Language.PYTHON ? tokens : unwrapClass(tokens);
+        }
+        Set<String> locals = language == Language.PYTHON ? pythonLocals(tokens) : braceLocals(tokens, language);
+        if (structural) {
+            locals.addAll(declaredNames(tokens, language));
+        }
+
+        Map<String, String> renamed = new HashMap<>();
+        Deque<Integer> indents = new ArrayDeque<>();
+        List<String> canonical = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            Token token = tokens.get(i);
+            if (language == Language.PYTHON && token.firstOnLine()) {
+                canonical.add("\n" + depth(indents, token.indent()));
+            }
+            String text = token.text();
+            if (locals.contains(text) && !(i > 0 && MEMBER_ACCESS.contains(tokens.get(i - 1).text()))) {
+                text = renamed.computeIfAbsent(text, name -> "§" + (renamed.size() + 1));
+            }
+            canonical.add(text);
+        }
+        return canonical;
+    }
+
+    /** Comment- and whitespace-insensitive form that keeps every token on its original line. */
+    public static String lineFingerprint(String code, Language language) {
+        StringBuilder fingerprint = new StringBuilder(code != null ? code.length() : 0);
+        int line = 0;
+        for (Token token : SourceTokenizer.tokenize(code != null ? code : "", language, true)) {
+            if (token.line() != line) {
+                line = token.line();
+                fingerprint.append('\n').append(line).append(':');
+                if (language == Language.PYTHON) {
+                    fingerprint.append(token.indent()).append(':');
+                }
+            }
+            fingerprint.append(token.text()).append(' ');
+        }
+        return fingerprint.toString();
+    }
+
+    // Indentation widths differ between submissions (2 vs 4 spaces, tabs); nesting depth does not
+    private static int depth(Deque<Integer> indents, int indent) {
+        while (!indents.isEmpty() && indents.peek() > indent) {
+            indents.pop();
+        }
+        if (indents.isEmpty() || indents.peek() < indent) {
+            indents.push(indent);
+        }
+        return indents.size() - 1;
+    }
+
+    // Java, C++ and JavaScript: "Type name =|;|,|)|:|[", "let|const|var|auto name", further
+    // declarators, and the parameters of JavaScript functions and arrow functions
+    private static Set<String> braceLocals(List<Token> tokens, Language language) {
+        Set<String> locals = new HashSet<>();
+        for (int i = 1; i < tokens.size(); i++) {
+            Token token = tokens.get(i);
+            if (!isName(token)) {
+                continue;
+            }
+            String previous = tokens.get(i - 1).text();
+            String next = i + 1 < tokens.size() ? tokens.get(i + 1).text() : ";";
+            boolean typed = isName(tokens.get(i - 1)) || PRIMITIVE_TYPES.contains(previous)
+                    || previous.equals("]") || previous.equals(">") || previous.equals(">>") || previous.equals("&") || previous.equals("*");
+            if (DECLARATION_KEYWORDS.contains(previous) || typed && DECLARATOR_FOLLOWERS.contains(next)
+                    // "int lo = 0, hi = n"
+                    || previous.equals(",") && next.equals("=")
+                    // C++ constructor-style declaration: "vector<int> dp(n + 1, 0);"
+                    || typed && next.equals("(") && followsCall(tokens, i + 1, ";")) {
+                locals.add(token.text());
+            }
+        }
+        if (language == Language.JAVASCRIPT) {
+            for (int i = 0; i < tokens.size(); i++) {
+                if (tokens.get(i).is("=>")) {
+                    if (i > 0 && isName(tokens.get(i - 1))) {
+                        locals.add(tokens.get(i - 1).text());
+                    } else if (i > 0 && tokens.get(i - 1).is(")")) {
+                        addParameters(tokens, matchingOpen(tokens, i - 1), locals);
+                    }
+                } else if (tokens.get(i).is("function")) {
+                    int open = i + 1 < tokens.size() && isName(tokens.get(i + 1)) ? i + 2 : i + 1;
+                    if (open < tokens.size() && tokens.get(open).is("(")) {
+                        addParameters(tokens, open, locals);
+                    }
+                }
+            }
+        }
+        return locals;
+    }
+
+    // Python: assignment targets at the start of a statement (including tuple and chained
+    // targets), loop and comprehension variables, def and lambda parameters, and "as" bindings
+    private static Set<String> pythonLocals(List<Token> tokens) {
+        Set<String> locals = new HashSet<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            Token token = tokens.get(i);
+            if (token.firstOnLine() && isName(token)) {
+                int end = i;
+                while (end + 2 < tokens.size() && tokens.get(end + 1).is(",") && isName(tokens.get(end + 2))) {
+                    end += 2;
+                }
+                if (end + 1 < tokens.size() && ASSIGNMENTS.contains(tokens.get(end + 1).text())) {
+                    for (int j = i; j <= end; j += 2) {
+                        locals.add(tokens.get(j).text());
+                    }
+                }
+            } else if (isName(token) && tokens.get(i - 1).is("=") && i + 1 < tokens.size() && tokens.get(i + 1).is("=")) {
+                locals.add(token.text());
+            } else if (token.is("for")) {
+                for (int j = i + 1; j < tokens.size() && !tokens.get(j).is("in"); j++) {
+                    if (isName(tokens.get(j))) {
+                        locals.add(tokens.get(j).text());
+                    }
+                }
+            } else if (token.is("lambda")) {
+                for (int j = i + 1; j < tokens.size() && !tokens.get(j).is(":"); j++) {
+                    if (isName(tokens.get(j)) && (tokens.get(j - 1).is("lambda") || tokens.get(j - 1).is(","))) {
+                        locals.add(tokens.get(j).text());
+                    }
+                }
+            } else if (token.is("as") && i + 1 < tokens.size() && isName(tokens.get(i + 1))) {
+                locals.add(tokens.get(i + 1).text());
+            } else if (token.is("def") && i + 2 < tokens.size() && tokens.get(i + 2).is("(")) {
+                addParameters(tokens, i + 2, locals);
+            }
+        }
+        return locals;
+    }
+
+    // Functions ("def name", "function name", "Type name(...) {") and classes
+    private static Set<String> declaredNames(List<Token> tokens, Language language) {
+        Set<String> names = new HashSet<>();
+        for (int i = 1; i < tokens.size(); i++) {
+            Token token = tokens.get(i);
+            if (!isName(token)) {
+                continue;
+            }
+            Token previous = tokens.get(i - 1);
+            if (previous.is("class") || previous.is("struct") || previous.is("def") || previous.is("function")
+                    || language != Language.PYTHON && i + 1 < tokens.size() && tokens.get(i + 1).is("(")
+                    && (isName(previous) || PRIMITIVE_TYPES.contains(previous.text()) || previous.is("void")
+                    || previous.is("]") || previous.is(">")) && followsCall(tokens, i + 1, "{")) {
+                names.add(token.text());
+            }
+        }
+        return names;
+    }
+
+    // Import lines, "using namespace", access modifiers and C++ access labels ("public:")
+    private static List<Token> withoutBoilerplate(List<Token> tokens, Language language) {
+        List<Token> kept = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            Token token = tokens.get(i);
+            boolean importLine = token.firstOnLine() && (token.is("import") || token.is("package")
+                    || language == Language.PYTHON && token.is("from")
+                    || token.is("using") && i + 1 < tokens.size() && tokens.get(i + 1).is("namespace"));
+            if (importLine) {
+                while (i + 1 < tokens.size() && !tokens.get(i + 1).firstOnLine()) {
+                    i++;
+                }
+            } else if (language != Language.PYTHON && MODIFIERS.contains(token.text())) {
+                if (language == Language.CPP && i + 1 < tokens.size() && tokens.get(i + 1).is(":")) {
+                    i++;
+                }
+            } else {
+                kept.add(token);
+            }
+        }
+        return kept;
+    }
+
+    // "class Name { ... }" (optionally followed by ";") around the whole submission
+    private static List<Token> unwrapClass(List<Token> tokens) {
+        if (tokens.size() < 4 || !tokens.get(0).is("class") || !tokens.get(2).is("{")) {
+            return tokens;
+        }
+        int end = tokens.size() - (tokens.get(tokens.size() - 1).is(";") ? 1 : 0);
+        int depth = 0;
+        for (int j = 2; j < end; j++) {
+            if (tokens.get(j).is("{")) {
+                depth++;
+            } else if (tokens.get(j).is("}") && --depth == 0) {
+                return j == end - 1 ? tokens.subList(3, end - 1) : tokens;
+            }
+        }
+        return tokens;
+    }
+
+    // Names directly after "(", "," or a Python "*"/"**" at the top level of the parenthesized list
+    private static void addParameters(List<Token> tokens, int open, Set<String> locals) {
+        int depth = 0;
+        for (int j = open; j < tokens.size(); j++) {
+            Token token = tokens.get(j);
+            if (token.is("(") || token.is("[") || token.is("{")) {
+                depth++;
+            } else if (token.is(")") || token.is("]") || token.is("}")) {
+                if (--depth == 0) {
+                    return;
+                }
+            } else if (depth == 1 && isName(token)) {
+                String previous = tokens.get(j - 1).text();
+                if (previous.equals("(") || previous.equals(",") || previous.equals("*") || previous.equals("**")) {
+                    locals.add(token.text());
+                }
+            }
+        }
+    }
+
+    private static boolean followsCall(List<Token> tokens, int open, String expected) {
+        int depth = 0;
+        for (int j = open; j < tokens.size(); j++) {
+            if (tokens.get(j).is("(")) {
+                depth++;
+            } else if (tokens.get(j).is(")") && --depth == 0) {
+                return j + 1 < tokens.size() && tokens.get(j + 1).is(expected);
+            }
+        }
+        return false;
+    }
+
+    private static int matchingOpen(List<Token> tokens, int close) {
+        int depth = 0;
+        for (int j = close; j >= 0; j--) {
+            if (tokens.get(j).is(")")) {
+                depth++;
+            } else if (tokens.get(j).is("(") && --depth == 0) {
+                return j;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean isName(Token token) {
+        return token.isIdentifier() && !KEYWORDS.contains(token.text()) && !PRIMITIVE_TYPES.contains(token.text());
+    }
+}
@@ -0,0 +1,295 @@
+package com.dsaanalyzer.dsaanalyzer.analysis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Loop and function ranges recovered from a token stream. Ranges are token indices,
+ * half-open ({@code [bodyStart, bodyEnd)}). Brace languages are delimited by matching
+ * braces (or a single statement), Python by indentation.
+ */
+public final class CodeStructure {
+
+    public record Loop(int start, int headerStart, int headerEnd, int bodyStart, int bodyEnd) {
+
+        public boolean contains(int index) {
+            return index >= start && index < bodyEnd;
+        }
+    }
+
+    public record Function(String name, int start, int bodyStart, int bodyEnd) {
+
+        public boolean contains(int index) {
+            return index >= bodyStart && index < bodyEnd;
+        }
+    }
+
+    private static final Set<String> NOT_FUNCTIONS = Set.of(
+            "if", "for", "while", "switch", "catch", "synchronized", "return", "function", "new", "else",
+            "do", "try", "with", "elif", "sizeof", "typeof", "await", "throw");
+
+    private static final Set<String> CALLBACK_LOOPS = Set.of(
+            "forEach", "map", "filter", "reduce", "some", "every", "flatMap", "find", "findIndex");
+
+    private final List<Token> tokens;
+    private final Language language;
+    private final List<Loop> loops = new ArrayList<>();
+    private final List<Function> functions = new ArrayList<>();
+
+    private CodeStructure(List<Token> tokens, Language language) {
+        this.tokens = tokens;
+        this.language = language;
+    }
+
+    public static CodeStructure of(List<Token> tokens, Language language) {
+        CodeStructure structure = new CodeStructure(tokens, language);
+        if (language.usesBraces()) {
+            structure.scanBraced();
+        } else {
+            structure.scanPython();
+        }
+        return structure;
+    }
+
+    public List<Token> tokens() {
+        return tokens;
+    }
+
+    public Language language() {
+        return language;
+    }
+
+    public List<Loop> loops() {
+        return Collections.unmodifiableList(loops);
+    }
+
+    public List<Function> functions() {
+        return Collections.unmodifiableList(functions);
+    }
+
+    // ---- brace languages -------------------------------------------------------------
+
+    private void scanBraced() {
+        for (int i = 0; i < tokens.size(); i++) {
+            Token token = tokens.get(i);
+
+            if ((token.is("for") || token.is("while")) && at(i + 1, "(") && !isDoWhileTail(i)) {
+                int headerEnd = matching(i + 1);
+                int bodyStart = headerEnd + 1;
+                loops.add(new Loop(i, i + 2, headerEnd, bodyStart(bodyStart), statementEnd(bodyStart)));
+            } else if (token.is("do") && at(i + 1, "{")) {
+                int close = matching(i + 1);
+                int headerEnd = close + 2 < tokens.size() && at(close + 2, "(") ? matching(close + 2) : close;
+                loops.add(new Loop(i, close + 3, headerEnd, i + 2, close));
+            } else if (token.is(".") && i + 2 < tokens.size() && CALLBACK_LOOPS.contains(tokens.get(i + 1).text())
+                    && at(i + 2, "(")) {
+                int close = matching(i + 2);
+                loops.add(new Loop(i + 1, i + 3, i + 3, i + 3, close));
+            } else if (token.isIdentifier() && !NOT_FUNCTIONS.contains(token.text()) && at(i + 1, "(")) {
+                detectFunction(i);
+            } else if (token.is("=") && i > 0 && tokens.get(i - 1).isIdentifier()) {
+                detectAssignedFunction(i);
+            }
+        }
+    }
+
+    private void detectFunction(int nameIndex) {
+        if (nameIndex > 0 && (at(nameIndex - 1, ".") || at(nameIndex - 1, "new"))) {
+            return;
+        }
+        int close = matching(nameIndex + 1);
+        int j = close + 1;
+        // Skip qualifiers between the parameter list and the body: const, throws X, noexcept, override
+        while (j < tokens.size() && (tokens.get(j).isIdentifier() || at(j, ",") || at(j, "."))
+                && !NOT_FUNCTIONS.contains(tokens.get(j).text())) {
+            j++;
+        }
+        if (at(j, "{")) {
+            functions.add(new Function(tokens.get(nameIndex).text(), nameIndex, j + 1, matching(j)));
+        }
+    }
+
+    // const name = (args) => { ... }   /   const name = function (args) { ... }
+    private void detectAssignedFunction(int equalsIndex) {
+        int open = equalsIndex + 1;
+        if (at(open, "async")) {
+            open++;
+        }
+        boolean keyword = at(open, "function");
+        if (keyword) {
+            open++;
+        }
+        if (!at(open, "(")) {
+            return;
+        }
+        int close = matching(open);
+        int brace = keyword ? close + 1 : close + 2;
+        if ((keyword || at(close + 1, "=>")) && at(brace, "{")) {
+            functions.add(new Function(tokens.get(equalsIndex - 1).text(), equalsIndex - 1, brace + 1, matching(brace)));
+        }
+    }
+
+    private boolean isDoWhileTail(int whileIndex) {
+        if (whileIndex == 0 || !at(whileIndex - 1, "}")) {
+            return false;
+        }
+        for (Loop loop : loops) {
+            if (loop.bodyEnd() == whileIndex - 1 && tokens.get(loop.start()).is("do")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int bodyStart(int index) {
+        return at(index, "{") ? index + 1 : index;
+    }
+
+    private int statementEnd(int index) {
+        if (index >= tokens.size()) {
+            return tokens.size();
+        }
+        if (at(index, "{")) {
+            return matching(index);
+        }
+        Token token = tokens.get(index);
+        if ((token.is("for") || token.is("while") || token.is("if")) && at(index + 1, "(")) {
+            int end = statementEnd(matching(index + 1) + 1);
+            if (token.is("if") && at(end + 1, "else")) {
+                end = statementEnd(end + 2);
+            }
+            return end;
+        }
+        int depth = 0;
+        for (int i = index; i < tokens.size(); i++) {
+            String text = tokens.get(i).text();
+            if (text.equals("(") || text.equals("[") || text.equals("{")) {
+                depth++;
+            } else if (text.equals(")") || text.equals("]") || text.equals("}")) {
+                if (depth == 0) {
+                    return i;
+                }
+                depth--;
+            } else if (text.equals(";") && depth == 0) {
+                return i;
+            }
+        }
+        return tokens.size();
+    }
+
+    // ---- python ------------------------------------------------------------------------
+
+    private void scanPython() {
+        for (int i = 0; i < tokens.size(); i++) {
+            Token token = tokens.get(i);
+            if (token.is("for") || token.is("while")) {
+                if (token.firstOnLine()) {
+                    // Truncated input ("...\nwhile") has no header; keep the range empty rather than inverted
+                    int colon = Math.max(headerColon(i + 1), i + 1);
+                    loops.add(new Loop(i, i + 1, colon, colon + 1, blockEnd(i, colon + 1)));
+                } else {
+                    // Comprehension / generator expression: later for/if clauses of the same
+                    // expression form its body, so "for a in x for b in y" nests
+                    int end = comprehensionEnd(i + 1);
+                    loops.add(new Loop(i, i + 1, end, end, enclosingEnd(end)));
+                }
+            } else if (token.is("def") && i + 2 < tokens.size() && at(i + 2, "(")) {
+                int colon = headerColon(matching(i + 2) + 1);
+                functions.add(new Function(tokens.get(i + 1).text(), i + 1, colon + 1, blockEnd(i, colon + 1)));
+            }
+        }
+    }
+
+    private int headerColon(int from) {
+        int depth = 0;
+        for (int i = from; i < tokens.size(); i++) {
+            String text = tokens.get(i).text();
+            if (text.equals("(") || text.equals("[") || text.equals("{")) {
+                depth++;
+            } else if (text.equals(")") || text.equals("]") || text.equals("}")) {
+                depth--;
+            } else if (text.equals(":") && depth <= 0) {
+                return i;
+            }
+        }
+        return tokens.size() - 1;
+    }
+
+    private int blockEnd(int headerIndex, int bodyStart) {
+        int indent = tokens.get(headerIndex).indent();
+        for (int i = bodyStart; i < tokens.size(); i++) {
+            Token token = tokens.get(i);
+            if (token.firstOnLine() && token.indent() <= indent) {
+                return i;
+            }
+        }
+        return tokens.size();
+    }
+
+    private int comprehensionEnd(int from) {
+        int depth = 0;
+        for (int i = from; i < tokens.size(); i++) {
+            String text = tokens.get(i).text();
+            if (text.equals("(") || text.equals("[") || text.equals("{")) {
+                depth++;
+            } else if (text.equals(")") || text.equals("]") || text.equals("}")) {
+                if (depth == 0) {
+                    return i;
+                }
+                depth--;
+            } else if (depth == 0 && (text.equals("for") || tokens.get(i).firstOnLine())) {
+                return i;
+            }
+        }
+        return tokens.size();
+    }
+
+    private int enclosingEnd(int from) {
+        int depth = 0;
+        for (int i = from; i < tokens.size(); i++) {
+            String text = tokens.get(i).text();
+            if (text.equals("(") || text.equals("[") || text.equals("{")) {
+                depth++;
+            } else if (text.equals(")") || text.equals("]") || text.equals("}")) {
+                if (depth == 0) {
+                    return i;
+                }
+                depth--;
+            } else if (depth == 0 && tokens.get(i).firstOnLine()) {
+                return i;
+            }
+        }
+        return tokens.size();
+    }
+
+    // ---- helpers -----------------------------------------------------------------------
+
+    private boolean at(int index, String text) {
+        return index >= 0 && index < tokens.size() && tokens.get(index).is(text);
+    }
+
+    /**
+     * Index of the bracket closing the one at {@code open}, or the end of input when
+     * the source is unbalanced.
+     */
+    int matching(int open) {
+        String opening = tokens.get(open).text();
+        String closing = switch (opening) {
+            case "(" -> ")";
+            case "[" -> "]";
+            default -> "}";
+        };
+        int depth = 0;
+        for (int i = open; i < tokens.size(); i++) {
+            String text = tokens.get(i).text();
+            if (text.equals(opening)) {
+                depth++;
+            } else if (text.equals(closing) && --depth == 0) {
+                return i;
+            }
+        }
+        return tokens.size();
+    }
+}
@@ -0,0 +1,161 @@
+package com.dsaanalyzer.dsaanalyzer.analysis;
+
+import com.dsaanalyzer.dsaanalyzer.cache.AnalysisCache;
+import com.dsaanalyzer.dsaanalyzer.cache.CacheKey;
+import com.dsaanalyzer.dsaanalyzer.model.CodeIssue;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Exact-line compiler findings for Java submissions, produced by javac in memory in a few
+ * milliseconds (and cached by code hash) instead of asking the LLM to guess line numbers.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CompilerDiagnostics {
+
+    private static final Pattern RUNTIME_FAILURE = Pattern.compile(
+            "Exception in thread|\\b\\w+(Exception|Error)\\b|\\bat [\\w.$]+\\(|Segmentation fault|timed out|wrong answer",
+            Pattern.CASE_INSENSITIVE);
+    // "line 3", "line: 3" or "Main.java:3"; a bare ": 3" is as likely an output value
+    private static final Pattern LINE_REFERENCE = Pattern.compile("\\bline\\s*:?\\s*(\\d{1,6})|\\.java:(\\d{1,6})",
+            Pattern.CASE_INSENSITIVE);
+    // Supplied by the judge, so unresolved locally for an otherwise correct submission
+    private static final Set<String> JUDGE_TYPES = Set.of("TreeNode", "ListNode", "Node");
+
+    private final InMemoryJavaCompiler compiler;
+    private final AnalysisCache analysisCache;
+
+    public boolean applies(String code, String language) {
+        return code != null && compiler.available() && Language.from(language, code) == Language.JAVA;
+    }
+
+    /**
+     * @return compiler errors and warnings with submission line numbers; empty for valid code,
+     *         non-Java submissions, or when no compiler is available
+     */
+    public List<CodeIssue> diagnose(String code, String language) {
+        if (!applies(code, language)) {
+            return List.of();
+        }
+        String key = CacheKey.of("diagnostics", withoutTrailingWhitespace(code));
+        List<CodeIssue> cached = analysisCache.getDiagnostics(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long start = System.nanoTime();
+        InMemoryJavaCompiler.Compilation compilation = compiler.compile(code);
+        int lastLine = (int) code.lines().count();
+        List<CodeIssue> issues = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : compilation.diagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.NOTE || diagnostic.getKind() == Diagnostic.Kind.OTHER) {
+                continue;
+            }
+            boolean error = diagnostic.getKind() == Diagnostic.Kind.ERROR;
+            // Errors reported inside the wrapper (e.g. a missing closing brace) land on the nearest real line
+            long line = Math.max(1, Math.min(lastLine, diagnostic.getLineNumber() - compilation.lineOffset()));
+            issues.add(CodeIssue.builder()
+                    .line((int) line)
+                    .type(error ? "error" : "warning")
+                    .message(message(diagnostic))
+                    .severity(error ? "high" : "medium")
+                    .build());
+        }
+        issues = List.copyOf(issues);
+        analysisCache.putDiagnostics(key, issues);
+        log.debug("Compiled submission in {} ms: {} diagnostics", (System.nanoTime() - start) / 1_000_000, issues.size());
+        return issues;
+    }
+
+    // Findings carry submission line numbers, so the key keeps every line, blank ones included
+    static String withoutTrailingWhitespace(String code) {
+        return Arrays.stream(code.replace("\r\n", "\n").replace('\r', '\n').split("\n", -1))
+                .map(String::stripTrailing)
+                .collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Whether the compiler errors are enough to answer the user: the reported error quotes one
+     * of them or points at its line. Unresolved judge-provided types explain nothing.
+     */
+    public static boolean explains(List<CodeIssue> issues, String errorMessage) {
+        List<CodeIssue> errors = issues.stream()
+                .filter(issue -> "error".equals(issue.getType()) && !isJudgeType(issue))
+                .toList();
+        if (errors.isEmpty() || errorMessage == null || errorMessage.isBlank()
+                || RUNTIME_FAILURE.matcher(errorMessage).find()) {
+            return false;
+        }
+        String reported = errorMessage.toLowerCase(Locale.ROOT);
+        for (CodeIssue error : errors) {
+            String headline = error.getMessage().toLowerCase(Locale.ROOT).split(":")[0];
+            if (reported.contains(headline)) {
+                return true;
+            }
+        }
+        Set<Integer> errorLines = errors.stream().map(CodeIssue::getLine).collect(Collectors.toSet());
+        Matcher lines = LINE_REFERENCE.matcher(errorMessage);
+        while (lines.find()) {
+            String line = lines.group(1) != null ? lines.group(1) : lines.group(2);
+            if (errorLines.contains(Integer.parseInt(line))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isJudgeType(CodeIssue issue) {
+        String message = issue.getMessage();
+        return message.startsWith("cannot find symbol: class ")
+                && JUDGE_TYPES.contains(message.substring("cannot find symbol: class ".length()).trim());
+    }
+
+    /** A concrete fix for a compiler finding, phrased like the LLM's fixSuggestions. */
+    public static String suggestion(CodeIssue issue) {
+        String message = issue.getMessage();
+        String fix;
+        if (message.startsWith("cannot find symbol")) {
+            int colon = message.indexOf(": ");
+            fix = "Declare or correct the spelling of " + (colon > 0 ? message.substring(colon + 2) : "the missing symbol");
+        } else if (message.endsWith("expected")) {
+            fix = "Insert the missing " + message.substring(0, message.length() - "expected".length()).trim();
+        } else if (message.startsWith("missing return")) {
+            fix = "Return a value on every path through the method";
+        } else if (message.startsWith("incompatible types")) {
+            fix = "Convert the value or change the declared type (" + message + ")";
+        } else if (message.startsWith("reached end of file")) {
+            fix = "Close every opened brace";
+        } else {
+            fix = "Fix: " + message;
+        }
+        return "Line " + issue.getLine() + ": " + fix;
+    }
+
+    // javac messages span lines ("cannot find symbol\n  symbol: variable x\n  location: class Submission");
+    // keep the headline and the symbol, drop the location that would expose the wrapper class
+    private static String message(Diagnostic<? extends JavaFileObject> diagnostic) {
+        String[] lines = diagnostic.getMessage(Locale.ROOT).split("\\R");
+        StringBuilder message = new StringBuilder(lines[0].trim());
+        for (int i = 1; i < lines.length; i++) {
+            String line = lines[i].trim();
+            if (line.startsWith("symbol:")) {
+                message.append(": ").append(line.substring("symbol:".length()).trim());
+            }
+        }
+        return message.toString();
+    }
+}
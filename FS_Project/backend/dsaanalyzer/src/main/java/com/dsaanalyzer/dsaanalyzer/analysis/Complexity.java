@@ -0,0 +1,124 @@
+package com.dsaanalyzer.dsaanalyzer.analysis;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Asymptotic growth of the form n^degree * log^logPower n, or 2^n when exponential.
+ */
+public record Complexity(int degree, int logPower, boolean exponential) implements Comparable<Complexity> {
+
+    public static final Complexity CONSTANT = new Complexity(0, 0, false);
+    public static final Complexity LOGARITHMIC = new Complexity(0, 1, false);
+    public static final Complexity LINEAR = new Complexity(1, 0, false);
+    public static final Complexity LINEARITHMIC = new Complexity(1, 1, false);
+    public static final Complexity QUADRATIC = new Complexity(2, 0, false);
+    public static final Complexity CUBIC = new Complexity(3, 0, false);
+    public static final Complexity EXPONENTIAL = new Complexity(0, 0, true);
+
+    private static final Pattern LOG = Pattern.compile("log(?:\\^(\\d+)|²)?\\s*\\(?\\s*[a-z]*\\s*\\)?");
+    private static final Pattern VARIABLE = Pattern.compile("\\b([a-z])\\b(?:\\s*\\^\\s*(\\d+)|(²)|(³))?");
+
+    /**
+     * Reads a Big-O notation as written by people or the LLM ({@code O(n²)}, {@code O(V + E)},
+     * {@code O(n * m log n)}): the largest term of a sum counts, and every variable counts as n.
+     *
+     * @return {@code null} when nothing in the text reads as a growth term
+     */
+    public static Complexity parse(String notation) {
+        if (notation == null) {
+            return null;
+        }
+        String text = notation.toLowerCase(Locale.ROOT).replaceFirst("^\\s*o\\s*\\(", "").replaceFirst("\\)\\s*$", "");
+        if (text.contains("^n") || text.contains("!")) {
+            return EXPONENTIAL;
+        }
+        Complexity largest = null;
+        for (String term : text.split("\\+")) {
+            Matcher log = LOG.matcher(term);
+            int logPower = 0;
+            while (log.find()) {
+                logPower += log.group(1) != null ? Integer.parseInt(log.group(1)) : log.group().startsWith("log²") ? 2 : 1;
+            }
+            Matcher variable = VARIABLE.matcher(log.replaceAll(" "));
+            int degree = 0;
+            boolean found = logPower > 0;
+            while (variable.find()) {
+                found = true;
+                degree += variable.group(2) != null ? Integer.parseInt(variable.group(2))
+                        : variable.group(3) != null ? 2 : variable.group(4) != null ? 3 : 1;
+            }
+            if (!found && term.strip().equals("1")) {
+                found = true;
+            }
+            if (found) {
+                Complexity complexity = new Complexity(degree, logPower, false);
+                largest = largest == null ? complexity : largest.max(complexity);
+            }
+        }
+        return largest;
+    }
+
+    /** Value of the growth function at {@code n}, for fitting measurements against this class. */
+    public double at(double n) {
+        if (exponential) {
+            return Math.pow(2, n);
+        }
+        double log = Math.max(1, Math.log(n) / Math.log(2));
+        return Math.pow(n, degree) * Math.pow(log, logPower);
+    }
+
+    public Complexity times(Complexity other) {
+        if (exponential || other.exponential) {
+            return EXPONENTIAL;
+        }
+        return new Complexity(degree + other.degree, logPower + other.logPower, false);
+    }
+
+    public Complexity max(Complexity other) {
+        return compareTo(other) >= 0 ? this : other;
+    }
+
+    @Override
+    public int compareTo(Complexity other) {
+        if (exponential != other.exponential) {
+            return exponential ? 1 : -1;
+        }
+        if (degree != other.degree) {
+            return Integer.compare(degree, other.degree);
+        }
+        return Integer.compare(logPower, other.logPower);
+    }
+
+    /**
+     * Big-O notation in the same spelling the prompt examples and graph generator use,
+     * e.g. {@code O(n log n)} or {@code O(n^2)}.
+     */
+    public String notation() {
+        if (exponential) {
+            return "O(2^n)";
+        }
+        StringBuilder sb = new StringBuilder("O(");
+        if (degree == 1) {
+            sb.append('n');
+        } else if (degree > 1) {
+            sb.append("n^").append(degree);
+        }
+        if (logPower > 0) {
+            if (degree > 0) {
+                sb.append(' ');
+            }
+            sb.append(logPower == 1 ? "log n" : "log^" + logPower + " n");
+        }
+        if (degree == 0 && logPower == 0) {
+            sb.append('1');
+        }
+        return sb.append(')').toString();
+    }
+
+    @Override
+    public String toString() {
+        return notation();
+    }
+}
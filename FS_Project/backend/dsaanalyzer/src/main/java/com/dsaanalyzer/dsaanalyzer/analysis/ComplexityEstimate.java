@@ -0,0 +1,17 @@
+package com.dsaanalyzer.dsaanalyzer.analysis;
+
+import java.util.List;
+
+/**
+ * Result of the local static analysis: Big-O estimates plus the reasoning that produced them.
+ */
+public record ComplexityEstimate(
+        Complexity time,
+        Complexity space,
+        String timeComplexity,
+        String spaceComplexity,
+        String pattern,
+        int maxLoopDepth,
+        List<String> reasons,
+        List<String> suggestions) {
+}
@@ -0,0 +1,697 @@
+package com.dsaanalyzer.dsaanalyzer.analysis;
+
+import com.dsaanalyzer.dsaanalyzer.analysis.CodeStructure.Function;
+import com.dsaanalyzer.dsaanalyzer.analysis.CodeStructure.Loop;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Millisecond Big-O estimate from loop nesting, loop step patterns, recursion shape and
+ * allocations. It is a heuristic, not a proof: it recognises the textbook shapes that make
+ * up most submissions (nested scans, halving loops, divide and conquer, memoized and
+ * exponential recursion, graph and tree traversals) and errs towards the larger class.
+ */
+@Component
+public class ComplexityEstimator {
+
+    private static final Set<String> SORT_CALLS = Set.of("sort", "sorted", "stable_sort");
+    private static final Set<String> LINEAR_CALLS = Set.of("indexOf", "includes", "lastIndexOf", "count");
+    private static final Set<String> HALVING_NAMES = Set.of("mid", "middle", "pivot", "partition", "half");
+    private static final Set<String> MEMO_NAMES = Set.of("memo", "cache", "dp", "memory", "lru_cache", "cached", "table");
+    private static final Set<String> VISITED_NAMES = Set.of("visited", "seen", "vis", "explored");
+    private static final Set<String> QUEUE_NAMES = Set.of("queue", "Queue", "deque", "ArrayDeque", "popleft", "poll", "shift", "offer");
+    private static final Set<String> FRONTIER_NAMES = Set.of("queue", "q", "stack", "st", "dq", "deque", "frontier",
+            "pq", "heap", "toVisit");
+    private static final Set<String> TREE_FIELDS = Set.of("left", "right", "children", "child");
+    private static final Set<String> HASH_NAMES = Set.of("HashMap", "HashSet", "Map", "Set", "dict", "set", "defaultdict",
+            "Counter", "unordered_map", "unordered_set", "containsKey", "get", "has");
+    private static final Set<String> COLLECTION_TYPES = Set.of("ArrayList", "LinkedList", "HashMap", "HashSet", "TreeMap",
+            "TreeSet", "ArrayDeque", "PriorityQueue", "Stack", "Array", "Map", "Set", "StringBuilder", "LinkedHashMap");
+    private static final Set<String> STL_CONTAINERS = Set.of("vector", "unordered_map", "unordered_set", "map", "set",
+            "queue", "stack", "deque", "priority_queue", "string");
+    private static final Set<String> PY_CONTAINERS = Set.of("dict", "set", "list", "defaultdict", "Counter", "deque");
+    private static final Set<String> GROWTH_CALLS = Set.of("push", "append", "add", "put", "push_back", "emplace_back",
+            "insert", "offer", "addLast", "unshift", "appendleft");
+    private static final Set<String> LOG_UPDATES = Set.of("*=", "/=", ">>=", "<<=", "//=");
+
+    public ComplexityEstimate estimate(String code, String language) {
+        Language lang = Language.from(language, code);
+        CodeStructure structure = CodeStructure.of(SourceTokenizer.tokenize(code != null ? code : "", lang), lang);
+        return new Analysis(structure).run();
+    }
+
+    /**
+     * How often each function calls the others: for every function, and every other function
+     * it calls (nested functions included), the product of the loop factors around the most
+     * repeated call site, e.g. O(n) for a call inside one linear loop. Same-named functions are
+     * merged.
+     */
+    public Map<String, Map<String, Complexity>> callSites(String code, String language) {
+        Language lang = Language.from(language, code);
+        CodeStructure structure = CodeStructure.of(SourceTokenizer.tokenize(code != null ? code : "", lang), lang);
+        return new Analysis(structure).callSites();
+    }
+
+    private static final class Analysis {
+
+        private final List<Token> tokens;
+        private final List<Loop> loops;
+        private final List<Function> functions;
+        private final Function[] owners;
+        private final Map<Function, Complexity> functionCosts = new HashMap<>();
+        private final Set<Function> visiting = new HashSet<>();
+        private final Set<String> reasons = new LinkedHashSet<>();
+
+        private boolean divideAndConquer;
+        private boolean memoized;
+        private boolean backtracking;
+        private boolean graphTraversal;
+        private boolean treeTraversal;
+        private boolean halvingRecursion;
+        private boolean binarySearchLoop;
+        private boolean halvingLoop;
+        private boolean recursion;
+        private boolean sorting;
+        private Complexity recursionSpace = Complexity.CONSTANT;
+
+        Analysis(CodeStructure structure) {
+            this.tokens = structure.tokens();
+            this.loops = structure.loops();
+            this.functions = structure.functions();
+            this.owners = new Function[tokens.size()];
+            // Innermost enclosing function per token; functions are discovered outermost first
+            for (Function function : functions) {
+                for (int i = function.bodyStart(); i < function.bodyEnd() && i < owners.length; i++) {
+                    owners[i] = function;
+                }
+            }
+        }
+
+        ComplexityEstimate run() {
+            Complexity time = cost(0, tokens.size(), null);
+            for (Function function : functions) {
+                time = time.max(functionCost(function));
+            }
+
+            int depth = maxLoopDepth();
+            if (depth >= 2) {
+                reasons.add("Loops are nested " + depth + " levels deep");
+            } else if (depth == 1) {
+                reasons.add("A single loop walks the input");
+            }
+
+            Complexity space = space();
+            String pattern = pattern(depth);
+            String timeNotation = graphTraversal && !backtracking && time.equals(Complexity.LINEAR)
+                    ? "O(V + E)" : time.notation();
+
+            return new ComplexityEstimate(time, space, timeNotation, space.notation(), pattern, depth,
+                    new ArrayList<>(reasons), suggestions(time, space));
+        }
+
+        Map<String, Map<String, Complexity>> callSites() {
+            Set<String> names = new HashSet<>();
+            Set<Integer> declarations = new HashSet<>();
+            for (Function function : functions) {
+                names.add(function.name());
+                declarations.add(function.start());
+            }
+            Map<String, Map<String, Complexity>> sites = new HashMap<>();
+            for (Function caller : functions) {
+                Map<String, Complexity> callees = sites.computeIfAbsent(caller.name(), name -> new HashMap<>());
+                for (int i = caller.bodyStart(); i < caller.bodyEnd() && i + 1 < tokens.size(); i++) {
+                    String name = tokens.get(i).text();
+                    if (name.equals(caller.name()) || !names.contains(name) || !tokens.get(i + 1).is("(")
+                            || declarations.contains(i)) {
+                        continue;
+                    }
+                    Complexity factor = Complexity.CONSTANT;
+                    for (Loop loop : loops) {
+                        if (loop.start() >= caller.bodyStart() && loop.contains(i)) {
+                            factor = factor.times(loopFactor(loop));
+                        }
+                    }
+                    callees.merge(name, factor, Complexity::max);
+                }
+            }
+            return sites;
+        }
+
+        // ---- time --------------------------------------------------------------------
+
+        private Complexity cost(int from, int to, Function owner) {
+            Complexity result = Complexity.CONSTANT;
+            List<Loop> children = new ArrayList<>();
+            for (Loop loop : loops) {
+                if (loop.start() >= from && loop.start() < to && owner(loop.start()) == owner
+                        && !nestedInSibling(loop, from, to, owner)) {
+                    children.add(loop);
+                }
+            }
+            for (Loop loop : children) {
+                Complexity body = cost(loop.bodyStart(), loop.bodyEnd(), owner);
+                result = result.max(loopFactor(loop).times(body));
+            }
+
+            for (int i = from; i < to && i + 1 < tokens.size(); i++) {
+                if (owner(i) != owner || insideAny(children, i) || !tokens.get(i + 1).is("(")) {
+                    continue;
+                }
+                String name = tokens.get(i).text();
+                boolean member = i > 0 && tokens.get(i - 1).is(".");
+                if (SORT_CALLS.contains(name)) {
+                    sorting = true;
+                    reasons.add("Sorting costs O(n log n)");
+                    result = result.max(Complexity.LINEARITHMIC);
+                } else if (member && LINEAR_CALLS.contains(name)) {
+                    reasons.add("'" + name + "' scans the collection linearly");
+                    result = result.max(Complexity.LINEAR);
+                } else if (owner == null || !name.equals(owner.name())) {
+                    for (Function callee : functions) {
+                        if (callee.name().equals(name) && callee != owner) {
+                            result = result.max(functionCost(callee));
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+
+        private Complexity functionCost(Function function) {
+            Complexity known = functionCosts.get(function);
+            if (known != null) {
+                return known;
+            }
+            if (!visiting.add(function)) {
+                return Complexity.CONSTANT;
+            }
+            Complexity body = cost(function.bodyStart(), function.bodyEnd(), function);
+            Complexity total = withRecursion(function, body);
+            visiting.remove(function);
+            functionCosts.put(function, total);
+            return total;
+        }
+
+        private Complexity withRecursion(Function function, Complexity body) {
+            List<Integer> calls = selfCalls(function);
+            if (calls.isEmpty()) {
+                return body;
+            }
+            recursion = true;
+
+            boolean halving = containsAny(function, HALVING_NAMES) || containsPair(function, "/", "2")
+                    || containsPair(function, ">>", "1") || containsPair(function, "//", "2");
+            boolean memo = containsAny(function, MEMO_NAMES);
+            boolean inLoop = calls.stream().anyMatch(call -> loops.stream()
+                    .anyMatch(loop -> owner(loop.start()) == function && loop.contains(call)));
+            boolean tree = calls.stream().anyMatch(this::argumentsTouchTree);
+            // if/else branches that each "return f(...)" only ever take one path
+            boolean exclusive = calls.stream().allMatch(call -> call > 0 && tokens.get(call - 1).is("return")
+                    && endsStatement(closing(call + 1) + 1));
+            int effectiveCalls = exclusive ? 1 : calls.size();
+
+            if (memo) {
+                memoized = true;
+                recursionSpace = recursionSpace.max(Complexity.LINEAR);
+                reasons.add("Memoized recursion solves each subproblem once");
+                return Complexity.LINEAR.times(body.max(Complexity.CONSTANT));
+            }
+            if (inLoop) {
+                recursionSpace = recursionSpace.max(Complexity.LINEAR);
+                if (containsAny(function, VISITED_NAMES)) {
+                    graphTraversal = true;
+                    reasons.add("Depth-first search visits each vertex and edge once");
+                    return Complexity.LINEAR.max(body);
+                }
+                backtracking = true;
+                reasons.add("A recursive call inside a loop explores every combination");
+                return Complexity.EXPONENTIAL;
+            }
+            if (tree) {
+                treeTraversal = true;
+                recursionSpace = recursionSpace.max(Complexity.LINEAR);
+                reasons.add("Recursion visits each tree node once");
+                return Complexity.LINEAR.times(body);
+            }
+            if (effectiveCalls == 1) {
+                if (halving) {
+                    halvingRecursion = true;
+                    recursionSpace = recursionSpace.max(Complexity.LOGARITHMIC);
+                    reasons.add("One recursive call on half of the input per step");
+                    return body.degree() >= 1 ? body : Complexity.LOGARITHMIC.max(body);
+                }
+                recursionSpace = recursionSpace.max(Complexity.LINEAR);
+                reasons.add("Recursion depth grows linearly with the input");
+                return Complexity.LINEAR.times(body);
+            }
+            if (halving) {
+                divideAndConquer = true;
+                recursionSpace = recursionSpace.max(Complexity.LOGARITHMIC);
+                reasons.add("Splits the input in half and recurses on both parts (T(n) = 2T(n/2) + f(n))");
+                if (body.degree() == 1) {
+                    return body.times(Complexity.LOGARITHMIC);
+                }
+                return body.degree() >= 2 ? body : Complexity.LINEAR;
+            }
+            recursionSpace = recursionSpace.max(Complexity.LINEAR);
+            reasons.add("Multiple recursive calls per step without memoization branch exponentially");
+            return Complexity.EXPONENTIAL;
+        }
+
+        private List<Integer> selfCalls(Function function) {
+            List<Integer> calls = new ArrayList<>();
+            for (int i = function.bodyStart(); i < function.bodyEnd() && i + 1 < tokens.size(); i++) {
+                if (owner(i) == function && tokens.get(i).is(function.name()) && tokens.get(i + 1).is("(")) {
+                    boolean member = i > 1 && tokens.get(i - 1).is(".");
+                    if (!member || tokens.get(i - 2).is("this") || tokens.get(i - 2).is("self")) {
+                        calls.add(i);
+                    }
+                }
+            }
+            return calls;
+        }
+
+        private boolean endsStatement(int index) {
+            return index >= tokens.size() || tokens.get(index).firstOnLine()
+                    || tokens.get(index).text().matches("[;)}]");
+        }
+
+        private boolean argumentsTouchTree(int call) {
+            int close = closing(call + 1);
+            for (int i = call + 2; i < close; i++) {
+                if (TREE_FIELDS.contains(tokens.get(i).text())
+                        && (tokens.get(i - 1).is(".") || tokens.get(i - 1).is("->"))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private Complexity loopFactor(Loop loop) {
+            int headerEnd = Math.min(loop.headerEnd(), tokens.size());
+            List<Token> header = tokens.subList(Math.min(loop.headerStart(), headerEnd), headerEnd);
+            Token keyword = tokens.get(loop.start());
+
+            if (keyword.is("while") && hasName(VISITED_NAMES)
+                    && header.stream().anyMatch(token -> FRONTIER_NAMES.contains(token.text()))) {
+                // Each vertex enters the frontier once; the inner neighbour loop then sums to O(E)
+                graphTraversal = true;
+                reasons.add("Breadth-first search dequeues each vertex once and scans each edge once");
+                return Complexity.CONSTANT;
+            }
+            if (isConstantBound(header, keyword)) {
+                reasons.add("A loop with a constant bound adds no growth");
+                return Complexity.CONSTANT;
+            }
+
+            Set<String> headerNames = new HashSet<>();
+            for (Token token : header) {
+                if (token.isIdentifier()) {
+                    headerNames.add(token.text());
+                }
+            }
+            int updateFrom = keyword.is("for") ? loop.headerStart() : loop.bodyStart();
+            int updateTo = keyword.is("for") ? loop.headerEnd() : loop.bodyEnd();
+            for (int i = Math.max(updateFrom, 1); i < updateTo && i + 2 < tokens.size(); i++) {
+                Token token = tokens.get(i);
+                String target = tokens.get(i - 1).text();
+                boolean compound = LOG_UPDATES.contains(token.text());
+                boolean spelled = token.is("=") && scalesItself(target, i + 1);
+                if ((compound || spelled) && headerNames.contains(target)) {
+                    halvingLoop = true;
+                    reasons.add("The loop variable '" + target + "' is multiplied or divided each iteration");
+                    return Complexity.LOGARITHMIC;
+                }
+            }
+
+            if (keyword.is("while") && rangeContains(loop.bodyStart(), loop.bodyEnd(), HALVING_NAMES)
+                    && (pairIn(loop.bodyStart(), loop.bodyEnd(), "/", "2") || pairIn(loop.bodyStart(), loop.bodyEnd(), ">>", "1")
+                    || pairIn(loop.bodyStart(), loop.bodyEnd(), "//", "2"))) {
+                binarySearchLoop = true;
+                reasons.add("Each iteration halves the search range around a midpoint");
+                return Complexity.LOGARITHMIC;
+            }
+            return Complexity.LINEAR;
+        }
+
+        // x = x / 2, x = Math.floor(x / 10), x = x * 2 ... up to the end of the statement
+        private boolean scalesItself(String target, int from) {
+            for (int i = from; i + 1 < tokens.size(); i++) {
+                Token token = tokens.get(i);
+                if (token.is(";") || i > from && token.firstOnLine()) {
+                    return false;
+                }
+                if (token.is(target) && tokens.get(i + 1).text().matches("\\*|/|//|>>|<<")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isConstantBound(List<Token> header, Token keyword) {
+            // python: range(26) / range(1, 10)
+            for (int i = 0; i + 1 < header.size(); i++) {
+                if (header.get(i).is("range") && header.get(i + 1).is("(")) {
+                    int j = i + 2;
+                    int numbers = 0;
+                    int others = 0;
+                    while (j < header.size() && !header.get(j).is(")")) {
+                        if (header.get(j).isNumber()) {
+                            numbers++;
+                        } else if (!header.get(j).is(",") && !header.get(j).is("-")) {
+                            others++;
+                        }
+                        j++;
+                    }
+                    return others == 0 && numbers > 0;
+                }
+            }
+            if (!keyword.is("for")) {
+                return false;
+            }
+            // C-style: for (init; i < 26; step)
+            int first = -1;
+            int second = -1;
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i).is(";")) {
+                    if (first < 0) {
+                        first = i;
+                    } else {
+                        second = i;
+                        break;
+                    }
+                }
+            }
+            if (first < 0 || second < 0 || second - first != 4) {
+                return false;
+            }
+            return header.get(first + 2).text().matches("<|<=|>|>=|!=") && header.get(first + 3).isNumber();
+        }
+
+        private int maxLoopDepth() {
+            int max = 0;
+            for (Loop loop : loops) {
+                int depth = 1;
+                for (Loop other : loops) {
+                    if (other != loop && other.bodyStart() <= loop.start() && loop.start() < other.bodyEnd()) {
+                        depth++;
+                    }
+                }
+                max = Math.max(max, depth);
+            }
+            return max;
+        }
+
+        // ---- space -------------------------------------------------------------------
+
+        private Complexity space() {
+            Complexity space = recursionSpace;
+            if (recursionSpace.compareTo(Complexity.CONSTANT) > 0) {
+                reasons.add("The call stack grows to " + recursionSpace.notation());
+            }
+
+            for (int i = 0; i + 1 < tokens.size(); i++) {
+                Token token = tokens.get(i);
+                Token next = tokens.get(i + 1);
+
+                if (token.is("new") && next.isIdentifier()) {
+                    space = space.max(newAllocation(i + 1));
+                } else if (token.is("vector") && next.is("<") && !passedByReference(i + 1)) {
+                    space = space.max(nestedVectors(i + 1) >= 2 ? Complexity.QUADRATIC : Complexity.LINEAR);
+                } else if (STL_CONTAINERS.contains(token.text()) && next.is("<") && !passedByReference(i + 1)) {
+                    space = space.max(Complexity.LINEAR);
+                } else if (token.is("=") && (next.is("[") || next.is("{"))
+                        || token.is("return") && next.is("[") && rangeContainsText(i + 1, closing(i + 1), "for")) {
+                    space = space.max(literalAllocation(i + 1));
+                } else if (PY_CONTAINERS.contains(token.text()) && next.is("(") && (i == 0 || !tokens.get(i - 1).is("."))) {
+                    space = space.max(Complexity.LINEAR);
+                } else if (token.is(".") && GROWTH_CALLS.contains(next.text()) && insideAny(loops, i)) {
+                    space = space.max(Complexity.LINEAR);
+                }
+            }
+            if (space.degree() >= 2) {
+                reasons.add("Allocates a two-dimensional table");
+            } else if (space.degree() == 1 && recursionSpace.degree() == 0) {
+                reasons.add("Allocates auxiliary storage proportional to the input");
+            }
+            return space;
+        }
+
+        private Complexity newAllocation(int typeIndex) {
+            int i = typeIndex;
+            if (COLLECTION_TYPES.contains(tokens.get(i).text())) {
+                return Complexity.LINEAR;
+            }
+            while (i < tokens.size() && (tokens.get(i).isIdentifier() || tokens.get(i).is("::"))) {
+                i++;
+            }
+            int dimensions = 0;
+            boolean constantSize = true;
+            while (i < tokens.size() && tokens.get(i).is("[")) {
+                int close = closing(i);
+                if (close - i != 2 || !tokens.get(i + 1).isNumber()) {
+                    constantSize = false;
+                }
+                dimensions++;
+                i = close + 1;
+            }
+            if (dimensions == 0 || constantSize) {
+                return Complexity.CONSTANT;
+            }
+            return dimensions >= 2 ? Complexity.QUADRATIC : Complexity.LINEAR;
+        }
+
+        private Complexity literalAllocation(int open) {
+            int close = closing(open);
+            if (rangeContainsText(open, close, "for") && (tokens.get(open + 1).is("[") || comprehensionClauses(open, close) >= 2)) {
+                return Complexity.QUADRATIC;
+            }
+            // [0] * n, [x for x in ...], or an empty literal that is filled later
+            return close - open <= 1 || rangeContainsText(open, close, "for")
+                    || close + 1 < tokens.size() && tokens.get(close + 1).is("*")
+                    ? Complexity.LINEAR : Complexity.CONSTANT;
+        }
+
+        private int comprehensionClauses(int open, int close) {
+            int clauses = 0;
+            for (Loop loop : loops) {
+                if (loop.start() > open && loop.start() < close && tokens.get(loop.start()).is("for")) {
+                    clauses++;
+                }
+            }
+            return clauses;
+        }
+
+        private int nestedVectors(int open) {
+            int count = 1;
+            for (int i = open + 1; i < tokens.size() && !tokens.get(i).text().startsWith(">"); i++) {
+                if (tokens.get(i).is("vector")) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        private boolean passedByReference(int open) {
+            int depth = 0;
+            for (int i = open; i < tokens.size(); i++) {
+                String text = tokens.get(i).text();
+                if (text.equals("<")) {
+                    depth++;
+                } else if (text.equals(">")) {
+                    depth--;
+                } else if (text.equals(">>")) {
+                    depth -= 2;
+                }
+                if (depth <= 0) {
+                    return i + 1 < tokens.size() && (tokens.get(i + 1).is("&") || tokens.get(i + 1).is("&&"));
+                }
+            }
+            return false;
+        }
+
+        // ---- pattern & advice --------------------------------------------------------
+
+        private String pattern(int depth) {
+            if (divideAndConquer) {
+                return "Divide & Conquer";
+            }
+            if (memoized || hasName(Set.of("dp"))) {
+                return "Dynamic Programming";
+            }
+            if (backtracking) {
+                return "Backtracking";
+            }
+            if (graphTraversal) {
+                return hasName(QUEUE_NAMES) ? "Breadth-First Search" : "Depth-First Search";
+            }
+            if (treeTraversal) {
+                return "Tree Traversal";
+            }
+            if (binarySearchLoop || halvingRecursion) {
+                return "Binary Search";
+            }
+            if (twoPointers()) {
+                return "Two Pointers";
+            }
+            if (hasName(HASH_NAMES) || hasLiteralMap()) {
+                return "Hashing";
+            }
+            if (sorting) {
+                return "Sorting";
+            }
+            if (halvingLoop) {
+                return "Repeated Halving";
+            }
+            if (recursion) {
+                return "Recursion";
+            }
+            if (depth >= 2) {
+                return "Nested Loops";
+            }
+            return depth == 1 ? "Linear Scan" : "Direct Computation";
+        }
+
+        private boolean twoPointers() {
+            for (Loop loop : loops) {
+                if (!tokens.get(loop.start()).is("while")) {
+                    continue;
+                }
+                boolean forward = false;
+                boolean backward = false;
+                for (int i = loop.bodyStart(); i < loop.bodyEnd() && i < tokens.size(); i++) {
+                    String text = tokens.get(i).text();
+                    forward |= text.equals("++") || text.equals("+=") && i + 1 < tokens.size() && tokens.get(i + 1).is("1");
+                    backward |= text.equals("--") || text.equals("-=") && i + 1 < tokens.size() && tokens.get(i + 1).is("1");
+                }
+                if (forward && backward) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean hasLiteralMap() {
+            for (int i = 0; i + 2 < tokens.size(); i++) {
+                if (tokens.get(i).is("=") && tokens.get(i + 1).is("{") && tokens.get(i + 2).is("}")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private List<String> suggestions(Complexity time, Complexity space) {
+            List<String> suggestions = new ArrayList<>();
+            if (time.exponential()) {
+                suggestions.add("Memoize overlapping subproblems or convert the recursion to bottom-up dynamic programming");
+                suggestions.add("Prune branches early when a partial solution cannot succeed");
+            } else if (time.degree() >= 2) {
+                suggestions.add("Replace the inner scan with a hash map/set lookup to drop a nesting level");
+                suggestions.add("Consider sorting first and using two pointers or binary search");
+            } else if (sorting) {
+                suggestions.add("If values are small integers, counting sort can make the sort step linear");
+            }
+            if (space.degree() >= 2) {
+                suggestions.add("Keep only the previous row of the table to cut space to O(n)");
+            } else if (recursionSpace.degree() >= 1) {
+                suggestions.add("Convert deep recursion to an explicit loop or stack to avoid stack overflow");
+            }
+            if (suggestions.isEmpty()) {
+                suggestions.add("Complexity is already close to optimal; focus on edge cases and constant factors");
+            }
+            return suggestions;
+        }
+
+        // ---- token helpers -----------------------------------------------------------
+
+        private Function owner(int index) {
+            return index < owners.length ? owners[index] : null;
+        }
+
+        private boolean nestedInSibling(Loop loop, int from, int to, Function owner) {
+            for (Loop other : loops) {
+                if (other != loop && other.start() >= from && other.start() < to && owner(other.start()) == owner
+                        && other.bodyStart() <= loop.start() && loop.start() < other.bodyEnd()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean insideAny(List<Loop> candidates, int index) {
+            for (Loop loop : candidates) {
+                if (loop.contains(index)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean containsAny(Function function, Set<String> names) {
+            return rangeContains(function.bodyStart(), function.bodyEnd(), names);
+        }
+
+        private boolean containsPair(Function function, String first, String second) {
+            return pairIn(function.bodyStart(), function.bodyEnd(), first, second);
+        }
+
+        private boolean hasName(Set<String> names) {
+            return rangeContains(0, tokens.size(), names);
+        }
+
+        private boolean rangeContains(int from, int to, Set<String> names) {
+            for (int i = from; i < to && i < tokens.size(); i++) {
+                if (names.contains(tokens.get(i).text())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean rangeContainsText(int from, int to, String text) {
+            return rangeContains(from, to, Set.of(text));
+        }
+
+        private boolean pairIn(int from, int to, String first, String second) {
+            for (int i = from; i + 1 < to && i + 1 < tokens.size(); i++) {
+                if (tokens.get(i).is(first) && tokens.get(i + 1).is(second)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int closing(int open) {
+            if (open >= tokens.size()) {
+                return tokens.size() - 1;
+            }
+            String opening = tokens.get(open).text();
+            String closingText = switch (opening) {
+                case "(" -> ")";
+                case "[" -> "]";
+                case "{" -> "}";
+                default -> null;
+            };
+            if (closingText == null) {
+                return open;
+            }
+            int depth = 0;
+            for (int i = open; i < tokens.size(); i++) {
+                String text = tokens.get(i).text();
+                if (text.equals(opening)) {
+                    depth++;
+                } else if (text.equals(closingText) && --depth == 0) {
+                    return i;
+                }
+            }
+            return tokens.size() - 1;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.dsaanalyzer.dsaanalyzer.analysis;
+
+import com.dsaanalyzer.dsaanalyzer.model.ComplexityMeasurement;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Measures a Java submission instead of guessing: compiles it in memory, runs it on a pooled
+ * worker JVM at growing input sizes and fits the measured wall time and allocation series
+ * against the usual complexity classes.
+ */
+@Component
+@Slf4j
+public class ComplexityMeasurer {
+
+    private static final long TIME_FLOOR_NANOS = 1_000;
+    private static final long ALLOCATION_FLOOR_BYTES = 1_024;
+
+    private final InMemoryJavaCompiler compiler;
+    private final MeasurementWorkerPool workerPool;
+    private final Duration budget;
+    private final Duration queueWait;
+
+    public ComplexityMeasurer(InMemoryJavaCompiler compiler,
+                              MeasurementWorkerPool workerPool,
+                              @Value("${analysis.measure.budget:PT2S}") Duration budget,
+                              @Value("${analysis.measure.queue-wait:PT2S}") Duration queueWait) {
+        this.compiler = compiler;
+        this.workerPool = workerPool;
+        this.budget = budget;
+        this.queueWait = queueWait;
+    }
+
+    public Mono<ComplexityMeasurement> measure(String code, String language) {
+        if (!workerPool.enabled()) {
+            return Mono.just(failure("Measurement is disabled on this server"));
+        }
+        if (Language.from(language, code) != Language.JAVA) {
+            return Mono.just(failure("Measurement is only available for Java submissions"));
+        }
+        if (!compiler.available()) {
+            return Mono.just(failure("No Java compiler available on this server"));
+        }
+        // Compiling and waiting on the worker pipe are both blocking
+        return Mono.fromCallable(() -> run(code))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> {
+                    log.warn("Measurement failed: {}", e.getMessage());
+                    return Mono.just(failure(e.getMessage()));
+                });
+    }
+
+    private ComplexityMeasurement run(String code) throws Exception {
+        long start = System.nanoTime();
+        InMemoryJavaCompiler.Compilation compilation = compiler.compile(code);
+        if (!compilation.success()) {
+            return failure("Compilation failed: " + firstError(compilation));
+        }
+
+        MeasurementWorkerPool.Run run = workerPool.run(compilation.classes(), compilation.entryClass(),
+                preferredMethod(code), budget, queueWait);
+
+        int count = run.points().size();
+        long[] sizes = new long[count];
+        long[] nanos = new long[count];
+        long[] bytes = new long[count];
+        List<Integer> sizeList = new ArrayList<>(count);
+        List<Long> nanoList = new ArrayList<>(count);
+        List<Long> byteList = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long[] point = run.points().get(i);
+            sizes[i] = point[0];
+            nanos[i] = point[1];
+            bytes[i] = point[2];
+            sizeList.add((int) point[0]);
+            nanoList.add(point[1]);
+            byteList.add(point[2]);
+        }
+
+        Complexity time = CurveFitter.fit(sizes, nanos, TIME_FLOOR_NANOS);
+        Complexity allocation = CurveFitter.fit(sizes, bytes, ALLOCATION_FLOOR_BYTES);
+        String error = run.error();
+        if (time == null && error == null) {
+            error = "Too few input sizes completed within the budget to fit a curve";
+        }
+        return ComplexityMeasurement.builder()
+                .method(run.method())
+                .sizes(sizeList)
+                .timeNanos(nanoList)
+                .allocatedBytes(byteList)
+                .timeComplexity(time != null ? time.notation() : null)
+                .allocationComplexity(allocation != null ? allocation.notation() : null)
+                .elapsedMillis((System.nanoTime() - start) / 1_000_000)
+                .error(error)
+                .build();
+    }
+
+    // The first method in the source is usually the one the user wants measured
+    private static String preferredMethod(String code) {
+        CodeStructure structure = CodeStructure.of(SourceTokenizer.tokenize(code, Language.JAVA), Language.JAVA);
+        return structure.functions().stream()
+                .map(CodeStructure.Function::name)
+                .filter(name -> !name.equals("main"))
+                .findFirst()
+                .orElse("");
+    }
+
+    private static String firstError(InMemoryJavaCompiler.Compilation compilation) {
+        for (Diagnostic<? extends JavaFileObject> diagnostic : compilation.diagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                return "line " + (diagnostic.getLineNumber() - compilation.lineOffset()) + ": "
+                        + diagnostic.getMessage(Locale.ROOT);
+            }
+        }
+        return "unknown error";
+    }
+
+    private static ComplexityMeasurement failure(String error) {
+        return ComplexityMeasurement.builder().error(error).build();
+    }
+}
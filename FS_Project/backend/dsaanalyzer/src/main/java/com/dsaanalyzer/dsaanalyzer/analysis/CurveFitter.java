@@ -0,0 +1,203 @@
+package com.dsaanalyzer.dsaanalyzer.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Picks the complexity class that best explains a measured series. Each polynomial candidate is
+ * fitted as {@code a + b*f(n)} by least squares weighted by {@code 1/y^2}, i.e. on relative error,
+ * so the fixed per-call overhead (a) does not drown the small sizes and the large sizes do not
+ * dominate; exponential growth is fitted in log space.
+ * The simplest class whose fit is within a small factor of the best one wins.
+ * Telling n from n log n is a heuristic: it assumes the sizes up to {@link #IN_CACHE_SIZE} run
+ * in cache, which the host is not asked about, and can report either class when they do not.
+ */
+public final class CurveFitter {
+
+    private static final List<Complexity> CANDIDATES = List.of(
+            Complexity.CONSTANT, Complexity.LOGARITHMIC, Complexity.LINEAR, Complexity.LINEARITHMIC,
+            Complexity.QUADRATIC, Complexity.CUBIC, Complexity.EXPONENTIAL);
+
+    static final int MIN_POINTS = 4;
+    /**
+     * Largest input size treated as running in cache, the same on every host: 32K elements is
+     * 128 KB of ints, half of the smallest L2 (256 KB) on x86-64 and ARM server cores.
+     */
+    static final long IN_CACHE_SIZE = 1 << 15;
+
+    private CurveFitter() {
+    }
+
+    /**
+     * @param floor values below this are measurement noise (timer resolution, a stray boxed
+     *              Integer) and are raised to it, so that 0 vs 16 bytes does not look like growth
+     * @return the best-fitting class, or {@code null} when there are fewer than {@link #MIN_POINTS} points
+     */
+    public static Complexity fit(long[] sizes, long[] values, long floor) {
+        if (sizes.length < MIN_POINTS) {
+            return null;
+        }
+        double minimum = Math.max(1, floor);
+        double[] y = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            y[i] = Math.max(minimum, values[i]);
+        }
+
+        double[] residuals = new double[CANDIDATES.size()];
+        double best = Double.MAX_VALUE;
+        for (int c = 0; c < CANDIDATES.size(); c++) {
+            Complexity candidate = CANDIDATES.get(c);
+            // 2^n overflows long before array sizes do; only scalar inputs grow slowly enough
+            if (candidate.exponential() && sizes[sizes.length - 1] > 128) {
+                residuals[c] = Double.MAX_VALUE;
+                continue;
+            }
+            residuals[c] = trimmed(candidate, sizes, y, minimum);
+            best = Math.min(best, residuals[c]);
+        }
+        for (int c = 0; c < CANDIDATES.size(); c++) {
+            // Generous margin: cache misses past L2/L3 make linear scans look slightly super-linear
+            if (residuals[c] <= best * 3 + 0.005) {
+                Complexity chosen = CANDIDATES.get(c);
+                boolean nearLinear = chosen.equals(Complexity.LINEAR) || chosen.equals(Complexity.LINEARITHMIC);
+                return nearLinear ? linearOrLinearithmic(sizes, y, minimum, chosen) : chosen;
+            }
+        }
+        return Complexity.CONSTANT;
+    }
+
+    // n and n log n differ by a factor of about 1.1 per doubling, less than the 2-3x steps a linear
+    // scan takes once its input falls out of L2 and then L3, so the least-squares residuals alone
+    // are decided by where those steps land. The median growth exponent between neighbouring sizes
+    // decides instead, taken where the input still fits in cache: n log n grows as
+    // 1 + log2(1 + 1/log2 n) per doubling there, n as exactly 1. Series that only rise above the
+    // floor out of cache use every size.
+    private static Complexity linearOrLinearithmic(long[] sizes, double[] y, double floor, Complexity fallback) {
+        List<double[]> exponents = growthExponents(sizes, y, floor, IN_CACHE_SIZE);
+        if (exponents.size() < 3) {
+            exponents = growthExponents(sizes, y, floor, Long.MAX_VALUE);
+        }
+        if (exponents.size() < 3) {
+            return fallback;
+        }
+        double median = exponents.stream().mapToDouble(pair -> pair[0]).sorted().toArray()[exponents.size() / 2];
+        double k = exponents.stream().mapToDouble(pair -> pair[1]).sorted().toArray()[exponents.size() / 2];
+        double midpoint = 1 + Math.log(1 + 1 / k) / Math.log(2) / 2;
+        return median > midpoint ? Complexity.LINEARITHMIC : Complexity.LINEAR;
+    }
+
+    // {exponent, log2 n} for each pair of neighbouring sizes up to maxSize above the floor
+    private static List<double[]> growthExponents(long[] sizes, double[] y, double floor, long maxSize) {
+        List<double[]> exponents = new ArrayList<>();
+        for (int i = 0; i + 1 < sizes.length && sizes[i + 1] <= maxSize; i++) {
+            if (y[i] > floor && sizes[i + 1] > sizes[i]) {
+                exponents.add(new double[]{Math.log(y[i + 1] / y[i]) / Math.log((double) sizes[i + 1] / sizes[i]),
+                        Math.log(sizes[i]) / Math.log(2)});
+            }
+        }
+        return exponents;
+    }
+
+    // One GC pause or JIT recompilation can triple a single sample, so the worst eighth of the
+    // points (by this candidate's own fit) is dropped and the candidate refitted
+    private static double trimmed(Complexity candidate, long[] sizes, double[] y, double floor) {
+        double[] errors = candidate.exponential() ? exponentialErrors(sizes, y, floor) : errors(candidate, sizes, y);
+        int drop = sizes.length / 8;
+        if (drop == 0) {
+            return mean(errors);
+        }
+        Integer[] order = new Integer[sizes.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(errors[a], errors[b]));
+        long[] keptSizes = new long[sizes.length - drop];
+        double[] keptY = new double[sizes.length - drop];
+        int[] kept = Arrays.stream(order, 0, keptSizes.length).mapToInt(Integer::intValue).sorted().toArray();
+        for (int i = 0; i < kept.length; i++) {
+            keptSizes[i] = sizes[kept[i]];
+            keptY[i] = y[kept[i]];
+        }
+        return mean(candidate.exponential()
+                ? exponentialErrors(keptSizes, keptY, floor) : errors(candidate, keptSizes, keptY));
+    }
+
+    private static double mean(double[] values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    // Exponential growth is fitted with a free base (fib(n) grows as 1.618^n, not 2^n) as
+    // ln y = a + b*n over the points above the noise floor; the model is clamped to the floor
+    private static double[] exponentialErrors(long[] sizes, double[] y, double floor) {
+        int n = 0;
+        double sx = 0, sy = 0, sxx = 0, sxy = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            if (y[i] > floor) {
+                double ly = Math.log(y[i]);
+                n++;
+                sx += sizes[i];
+                sy += ly;
+                sxx += (double) sizes[i] * sizes[i];
+                sxy += sizes[i] * ly;
+            }
+        }
+        double slope = n < 3 ? 0 : (n * sxy - sx * sy) / (n * sxx - sx * sx);
+        double intercept = n < 3 ? 0 : (sy - slope * sx) / n;
+        double[] errors = new double[sizes.length];
+        for (int i = 0; i < sizes.length; i++) {
+            // A base below ~1.2 per unit of n is polynomial growth seen through noise
+            double model = Math.max(floor, Math.exp(intercept + slope * sizes[i]));
+            double relative = slope < Math.log(1.2) ? 1 : (y[i] - model) / y[i];
+            errors[i] = relative * relative;
+        }
+        return errors;
+    }
+
+    private static double[] errors(Complexity candidate, long[] sizes, double[] y) {
+        int n = sizes.length;
+        double[] f = new double[n];
+        for (int i = 0; i < n; i++) {
+            f[i] = candidate.equals(Complexity.CONSTANT) ? 0 : candidate.at(sizes[i]);
+        }
+
+        double sw = 0, swf = 0, swff = 0, swy = 0, swfy = 0;
+        for (int i = 0; i < n; i++) {
+            double w = 1 / (y[i] * y[i]);
+            sw += w;
+            swf += w * f[i];
+            swff += w * f[i] * f[i];
+            swy += w * y[i];
+            swfy += w * f[i] * y[i];
+        }
+
+        double a;
+        double b;
+        double determinant = sw * swff - swf * swf;
+        if (determinant == 0) {
+            a = swy / sw;
+            b = 0;
+        } else {
+            a = (swy * swff - swf * swfy) / determinant;
+            b = (sw * swfy - swf * swy) / determinant;
+            if (b <= 0) {
+                a = swy / sw;
+                b = 0;
+            } else if (a < 0) {
+                a = 0;
+                b = swfy / swff;
+            }
+        }
+
+        double[] errors = new double[n];
+        for (int i = 0; i < n; i++) {
+            double relative = (y[i] - a - b * f[i]) / y[i];
+            errors[i] = relative * relative;
+        }
+        return errors;
+    }
+}
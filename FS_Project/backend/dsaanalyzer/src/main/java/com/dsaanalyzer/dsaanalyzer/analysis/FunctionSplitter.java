@@ -0,0 +1,85 @@
+package com.dsaanalyzer.dsaanalyzer.analysis;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a source file into its outermost functions and methods, as found by
+ * {@link CodeStructure}: methods of a class count, functions nested in another function stay
+ * part of it. Each piece is the full source lines from its header (with any annotations,
+ * decorators or template heads directly above) to its end; code outside every function is
+ * not returned.
+ */
+public final class FunctionSplitter {
+
+    /**
+     * @param startLine first line of the function in the file, 1-based
+     * @param endLine   last line of the function, inclusive
+     */
+    public record SourceFunction(String name, int startLine, int endLine, String code) {
+
+        /** The header line that declares the function, without its opening brace or colon. */
+        public String signature() {
+            for (String line : code.split("\n")) {
+                if (line.contains(name) && !isHeaderPrefix(line.strip())) {
+                    return line.strip().replaceFirst("\\s*[{:]?\\s*$", "");
+                }
+            }
+            return name;
+        }
+    }
+
+    private static final int MAX_CONTEXT_LINES = 100;
+
+    private FunctionSplitter() {
+    }
+
+    public static List<SourceFunction> split(String code, Language language) {
+        List<Token> tokens = SourceTokenizer.tokenize(code, language);
+        CodeStructure structure = CodeStructure.of(tokens, language);
+        String[] lines = code.split("\n", -1);
+
+        List<SourceFunction> functions = new ArrayList<>();
+        int coveredUntil = -1;
+        // Functions are listed in source order, so a nested one starts before its parent's end
+        for (CodeStructure.Function function : structure.functions()) {
+            if (function.start() < coveredUntil) {
+                continue;
+            }
+            coveredUntil = function.bodyEnd();
+            int startLine = tokens.get(function.start()).line();
+            while (startLine > 1 && isHeaderPrefix(lines[startLine - 2].strip())) {
+                startLine--;
+            }
+            // Braced bodies end at the closing brace; a Python body ends before the next dedented token
+            int lastToken = language.usesBraces() ? function.bodyEnd() : function.bodyEnd() - 1;
+            int endLine = tokens.get(Math.min(lastToken, tokens.size() - 1)).line();
+            functions.add(new SourceFunction(function.name(), startLine, endLine,
+                    String.join("\n", List.of(lines).subList(startLine - 1, endLine))));
+        }
+        return functions;
+    }
+
+    /**
+     * The declarations around the functions (imports, class headers, fields, helper types): the
+     * non-blank lines of {@code code} outside every function, up to {@value #MAX_CONTEXT_LINES}.
+     */
+    public static String context(String code, List<SourceFunction> functions) {
+        String[] lines = code.split("\n", -1);
+        List<String> context = new ArrayList<>();
+        for (int line = 1; line <= lines.length && context.size() < MAX_CONTEXT_LINES; line++) {
+            int current = line;
+            boolean inFunction = functions.stream()
+                    .anyMatch(function -> current >= function.startLine() && current <= function.endLine());
+            if (!inFunction && !lines[line - 1].isBlank()) {
+                context.add(lines[line - 1]);
+            }
+        }
+        return String.join("\n", context);
+    }
+
+    // Annotations, decorators and C++ template heads belong to the function below them
+    private static boolean isHeaderPrefix(String line) {
+        return line.startsWith("@") || line.startsWith("template");
+    }
+}
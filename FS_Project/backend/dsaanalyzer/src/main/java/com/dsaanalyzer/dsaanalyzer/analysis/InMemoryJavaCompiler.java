@@ -0,0 +1,164 @@
+package com.dsaanalyzer.dsaanalyzer.analysis;
+
+import org.springframework.stereotype.Component;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles a Java submission entirely in memory with the JDK's {@link JavaCompiler}.
+ * Submissions that are a bare method (the common case) are wrapped in a
+ * {@code Submission} class with the usual {@code java.util} imports; {@link Compilation#lineOffset()}
+ * maps diagnostic lines back to the caller's code.
+ */
+@Component
+public class InMemoryJavaCompiler {
+
+    static final String WRAPPER_CLASS = "Submission";
+
+    private static final String IMPORTS = "import java.util.*; import java.util.function.*; import java.util.stream.*;\n";
+    private static final Pattern CLASS_DECLARATION =
+            Pattern.compile("(?m)^\\s*(?:public\\s+)?(?:final\\s+|abstract\\s+)*(?:class|record|interface|enum)\\s+(\\w+)");
+    private static final Pattern PUBLIC_CLASS =
+            Pattern.compile("(?m)^\\s*public\\s+(?:final\\s+|abstract\\s+)*(?:class|record|interface|enum)\\s+(\\w+)");
+    private static final Pattern PACKAGE = Pattern.compile("(?m)^\\s*package\\s+[\\w.]+\\s*;");
+
+    public record Compilation(String entryClass, Map<String, byte[]> classes,
+                              List<Diagnostic<? extends JavaFileObject>> diagnostics, int lineOffset) {
+
+        public boolean success() {
+            return !classes.isEmpty()
+                    && diagnostics.stream().noneMatch(d -> d.getKind() == Diagnostic.Kind.ERROR);
+        }
+    }
+
+    private final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+
+    // StandardJavaFileManager caches the platform class index; it is not thread-safe, so one per thread
+    private final ThreadLocal<StandardJavaFileManager> fileManagers = ThreadLocal.withInitial(this::newFileManager);
+
+    public boolean available() {
+        return compiler != null;
+    }
+
+    public Compilation compile(String code) {
+        if (compiler == null) {
+            throw new IllegalStateException("No Java compiler available; run on a JDK rather than a JRE");
+        }
+        // Packages would require a matching directory layout, so drop them (keeping line numbers)
+        String source = PACKAGE.matcher(code).replaceAll("");
+        String entryClass;
+        int lineOffset;
+
+        Matcher declared = CLASS_DECLARATION.matcher(source);
+        if (declared.find()) {
+            entryClass = declared.group(1);
+            if (!source.contains("import ")) {
+                source = IMPORTS + source;
+                lineOffset = 1;
+            } else {
+                lineOffset = 0;
+            }
+        } else {
+            entryClass = WRAPPER_CLASS;
+            source = IMPORTS + "public class " + WRAPPER_CLASS + " {\n" + source + "\n}\n";
+            lineOffset = 2;
+        }
+        Matcher publicClass = PUBLIC_CLASS.matcher(source);
+        String fileName = publicClass.find() ? publicClass.group(1) : entryClass;
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        MemoryFileManager fileManager = new MemoryFileManager(fileManagers.get());
+        JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                List.of("-parameters", "-proc:none", "-Xlint:none", "-g"), null, List.of(new SourceFile(fileName, source)));
+        task.call();
+        return new Compilation(entryClass, fileManager.classes, diagnostics.getDiagnostics(), lineOffset);
+    }
+
+    private StandardJavaFileManager newFileManager() {
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8);
+        try {
+            // Submissions see the JDK only, never the application's own classpath
+            fileManager.setLocation(StandardLocation.CLASS_PATH, List.of());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return fileManager;
+    }
+
+    private static final class SourceFile extends SimpleJavaFileObject {
+
+        private final String source;
+
+        SourceFile(String className, String source) {
+            super(URI.create("string:///" + className + Kind.SOURCE.extension), Kind.SOURCE);
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+
+    private static final class ClassFile extends SimpleJavaFileObject {
+
+        private final String className;
+        private final Map<String, byte[]> sink;
+
+        ClassFile(String className, Map<String, byte[]> sink) {
+            super(URI.create("bytes:///" + className.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+            this.className = className;
+            this.sink = sink;
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return new ByteArrayOutputStream() {
+                @Override
+                public void close() {
+                    sink.put(className, toByteArray());
+                }
+            };
+        }
+    }
+
+    private static final class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+        private final Map<String, byte[]> classes = new LinkedHashMap<>();
+
+        MemoryFileManager(StandardJavaFileManager delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+                                                   FileObject sibling) {
+            return new ClassFile(className, classes);
+        }
+
+        @Override
+        public void close() {
+            // The shared standard file manager outlives this compilation
+        }
+    }
+}
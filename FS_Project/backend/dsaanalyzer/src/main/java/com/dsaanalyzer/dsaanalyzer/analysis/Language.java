@@ -0,0 +1,54 @@
+package com.dsaanalyzer.dsaanalyzer.analysis;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public enum Language {
+    JAVA,
+    JAVASCRIPT,
+    PYTHON,
+    CPP;
+
+    private static final Pattern CPP_HINT = Pattern.compile("#include\\b|std::|\\bcout\\b|\\bcin\\b");
+    private static final Pattern PYTHON_HINT = Pattern.compile("\\bdef\\s+\\w+\\s*\\(|^\\s*import\\s+\\w+\\s*$", Pattern.MULTILINE);
+    private static final Pattern JAVA_HINT = Pattern.compile("\\bpublic\\b|\\bstatic\\b|\\bvoid\\b|\\bclass\\b");
+
+    /**
+     * Resolves the language reported by the client, falling back to the same cheap
+     * detection the frontend uses when the field is missing or unknown.
+     */
+    public static Language from(String language, String code) {
+        if (language != null) {
+            switch (language.trim().toLowerCase(Locale.ROOT)) {
+                case "java":
+                    return JAVA;
+                case "javascript", "js", "typescript", "ts", "jsx":
+                    return JAVASCRIPT;
+                case "python", "py", "python3":
+                    return PYTHON;
+                case "cpp", "c++", "c", "cc":
+                    return CPP;
+                default:
+                    break;
+            }
+        }
+        return detect(code != null ? code : "");
+    }
+
+    private static Language detect(String code) {
+        if (CPP_HINT.matcher(code).find()) {
+            return CPP;
+        }
+        if (PYTHON_HINT.matcher(code).find()) {
+            return PYTHON;
+        }
+        if (JAVA_HINT.matcher(code).find()) {
+            return JAVA;
+        }
+        return JAVASCRIPT;
+    }
+
+    public boolean usesBraces() {
+        return this != PYTHON;
+    }
+}
@@ -0,0 +1,285 @@
+package com.dsaanalyzer.dsaanalyzer.analysis;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Entry point of the measurement worker JVMs started by {@link MeasurementWorkerPool}. It must
+ * depend on nothing but the JDK: the pool copies just this class onto the worker's classpath.
+ *
+ * <p>Protocol: the parent writes requests to stdin (class count, then name/bytes pairs, the entry
+ * class name, the preferred method name or "" and a time budget in millis); the worker answers
+ * on stdout with {@code method <signature>}, one {@code point <size> <nanos> <bytes>} line per
+ * input size, optionally {@code error <message>}, and finally {@code done}. Submitted code gets a
+ * discarded System.out so it cannot corrupt the protocol.
+ */
+public final class MeasurementWorker {
+
+    private static final Set<String> LOWER_BOUNDS = Set.of("l", "lo", "low", "left", "start", "begin", "from", "i");
+    private static final Set<String> UPPER_BOUNDS = Set.of("r", "hi", "high", "right", "end", "to", "j");
+    private static final int MAX_SIZE = 1 << 22;
+    private static final long MIN_SAMPLE_NANOS = 2_000_000;
+    private static final int MIN_REPETITIONS = 3;
+    private static final int MAX_REPETITIONS = 25;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private MeasurementWorker() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        PrintStream protocol = new PrintStream(new FileOutputStream(FileDescriptor.out), true);
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+        DataInputStream in = new DataInputStream(System.in);
+
+        warmUp();
+        protocol.println("ready");
+
+        while (true) {
+            Map<String, byte[]> classes = new HashMap<>();
+            try {
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    String name = in.readUTF();
+                    byte[] bytes = new byte[in.readInt()];
+                    in.readFully(bytes);
+                    classes.put(name, bytes);
+                }
+            } catch (EOFException e) {
+                return;
+            }
+            String entryClass = in.readUTF();
+            String preferredMethod = in.readUTF();
+            long budgetMillis = in.readLong();
+            try {
+                measure(new SubmissionLoader(classes), entryClass, preferredMethod, budgetMillis, protocol);
+            } catch (Throwable t) {
+                protocol.println("error " + describe(t));
+            }
+            protocol.println("done");
+        }
+    }
+
+    // Runs the harness itself hot so the first real request is not timed through the interpreter
+    private static void warmUp() throws Exception {
+        Method method = MeasurementWorker.class.getDeclaredMethod("warmUpTarget", int[].class);
+        long deadline = System.nanoTime() + 300_000_000L;
+        for (int size = 8; System.nanoTime() < deadline; size = size >= 4096 ? 8 : size * 2) {
+            Object[] arguments = arguments(method, size, new Random(size));
+            time(method, null, arguments);
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static int warmUpTarget(int[] values) {
+        int sum = 0;
+        for (int value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    private static void measure(ClassLoader loader, String entryClass, String preferredMethod, long budgetMillis,
+                                PrintStream protocol) throws Exception {
+        Class<?> type = Class.forName(entryClass, true, loader);
+        Method method = pickMethod(type, preferredMethod);
+        if (method == null) {
+            protocol.println("error No method with supported parameter types (int, long, int[], long[], "
+                    + "Integer[], char[], String, List<Integer>) found in " + entryClass);
+            return;
+        }
+        method.setAccessible(true);
+        Object target = Modifier.isStatic(method.getModifiers()) ? null : newInstance(type);
+        protocol.println("method " + signature(method));
+
+        boolean scalarOnly = Arrays.stream(method.getParameterTypes())
+                .allMatch(p -> p == int.class || p == long.class);
+        long deadline = System.nanoTime() + budgetMillis * 1_000_000;
+        Random random = new Random(42);
+
+        // JIT warm-up on small inputs, not reported
+        long warmUpEnd = System.nanoTime() + Math.min(budgetMillis / 10, 100) * 1_000_000;
+        while (System.nanoTime() < warmUpEnd) {
+            time(method, target, arguments(method, 8, random));
+        }
+
+        long previous = 0;
+        for (int size = scalarOnly ? 4 : 8; size <= MAX_SIZE; size = next(size, scalarOnly)) {
+            long best = Long.MAX_VALUE;
+            long bytes = 0;
+            long spent = 0;
+            int repetitions = 0;
+            while (repetitions < MAX_REPETITIONS && (repetitions < MIN_REPETITIONS || spent < MIN_SAMPLE_NANOS)) {
+                Object[] arguments = arguments(method, size, random);
+                long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+                long nanos = time(method, target, arguments);
+                long allocated = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+                if (nanos < best) {
+                    best = nanos;
+                    bytes = allocated;
+                }
+                spent += nanos;
+                repetitions++;
+            }
+            protocol.println("point " + size + " " + best + " " + bytes);
+
+            // Stop before a size whose predicted cost would overrun the budget
+            long remaining = deadline - System.nanoTime();
+            double growth = previous > 0 ? Math.max(2.0, (double) best / previous) : 4.0;
+            if (best * growth * MIN_REPETITIONS > remaining) {
+                return;
+            }
+            previous = best;
+        }
+    }
+
+    private static int next(int size, boolean scalarOnly) {
+        // Scalar inputs (fib(n)) may be exponential, so they grow gently; collections double
+        return scalarOnly ? size + Math.max(4, size / 4) : size * 2;
+    }
+
+    private static long time(Method method, Object target, Object[] arguments) throws Exception {
+        long start = System.nanoTime();
+        try {
+            method.invoke(target, arguments);
+        } catch (InvocationTargetException e) {
+            // Surface StackOverflowError/OutOfMemoryError and exceptions from the submission itself
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static Method pickMethod(Class<?> type, String preferredMethod) {
+        List<Method> candidates = new ArrayList<>();
+        for (Method method : type.getDeclaredMethods()) {
+            if (method.isSynthetic() || method.getName().equals("main") || method.getParameterCount() == 0) {
+                continue;
+            }
+            if (Arrays.stream(method.getParameterTypes()).allMatch(MeasurementWorker::supported)) {
+                candidates.add(method);
+            }
+        }
+        // Prefer the first method in the source, then methods taking a collection, then public
+        // ones, then the narrowest signature (helpers like merge(a, l, m, r) take more parameters)
+        candidates.sort(Comparator
+                .comparing((Method m) -> !m.getName().equals(preferredMethod))
+                .thenComparing(m -> Arrays.stream(m.getParameterTypes()).noneMatch(p -> !p.isPrimitive()))
+                .thenComparing(m -> !Modifier.isPublic(m.getModifiers()))
+                .thenComparingInt(Method::getParameterCount));
+        return candidates.isEmpty() ? null : candidates.get(0);
+    }
+
+    private static boolean supported(Class<?> type) {
+        return type == int.class || type == long.class || type == int[].class || type == long[].class
+                || type == Integer[].class || type == char[].class || type == String.class
+                || type == List.class || type == Collection.class || type == ArrayList.class;
+    }
+
+    private static Object[] arguments(Method method, int size, Random random) {
+        Parameter[] parameters = method.getParameters();
+        boolean hasCollection = Arrays.stream(parameters).anyMatch(p -> !p.getType().isPrimitive());
+        Object[] arguments = new Object[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            Class<?> type = parameters[i].getType();
+            String name = parameters[i].getName().toLowerCase();
+            if (type == int.class || type == long.class) {
+                long value;
+                if (!hasCollection) {
+                    value = size;
+                } else if (LOWER_BOUNDS.contains(name)) {
+                    value = 0;
+                } else if (UPPER_BOUNDS.contains(name)) {
+                    value = size - 1;
+                } else {
+                    value = random.nextInt(size);
+                }
+                arguments[i] = type == int.class ? (Object) (int) value : (Object) value;
+            } else if (type == int[].class) {
+                arguments[i] = random.ints(size, 0, size).toArray();
+            } else if (type == long[].class) {
+                arguments[i] = random.longs(size, 0, size).toArray();
+            } else if (type == Integer[].class) {
+                arguments[i] = random.ints(size, 0, size).boxed().toArray(Integer[]::new);
+            } else if (type == char[].class) {
+                arguments[i] = randomString(size, random).toCharArray();
+            } else if (type == String.class) {
+                arguments[i] = randomString(size, random);
+            } else {
+                arguments[i] = new ArrayList<>(random.ints(size, 0, size).boxed().toList());
+            }
+        }
+        return arguments;
+    }
+
+    private static String randomString(int size, Random random) {
+        char[] chars = new char[size];
+        for (int i = 0; i < size; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+
+    private static Object newInstance(Class<?> type) throws Exception {
+        var constructor = type.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        return constructor.newInstance();
+    }
+
+    private static String signature(Method method) {
+        StringBuilder sb = new StringBuilder(method.getName()).append('(');
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            sb.append(i > 0 ? ", " : "").append(parameters[i].getType().getSimpleName())
+                    .append(' ').append(parameters[i].getName());
+        }
+        return sb.append(')').toString();
+    }
+
+    private static String describe(Throwable t) {
+        String message = t.getClass().getSimpleName() + (t.getMessage() != null ? ": " + t.getMessage() : "");
+        return message.replace('\n', ' ');
+    }
+
+    /** Defines the submission's classes in a throwaway loader that only sees the JDK. */
+    private static final class SubmissionLoader extends ClassLoader {
+
+        private final Map<String, byte[]> classes;
+
+        SubmissionLoader(Map<String, byte[]> classes) {
+            super(ClassLoader.getPlatformClassLoader());
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] bytes = classes.get(name);
+            if (bytes == null) {
+                throw new ClassNotFoundException(name);
+            }
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.dsaanalyzer.dsaanalyzer.analysis;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps a few pre-started, JIT-warm {@link MeasurementWorker} JVMs around so running a submission
+ * costs a pipe round trip instead of a JVM start. Submitted code runs in a separate process with
+ * its own heap limit because it cannot be stopped from inside a JVM once it spins: a run that
+ * overshoots its deadline has its process destroyed and replaced.
+ */
+@Component
+@Slf4j
+public class MeasurementWorkerPool {
+
+    /** Raw worker output for one measurement. */
+    public record Run(String method, List<long[]> points, String error) {
+    }
+
+    private final boolean enabled;
+    private final int size;
+    private final String maxHeap;
+    private final int maxUses;
+    private final BlockingQueue<Worker> idle = new LinkedBlockingQueue<>();
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "measurement-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean closed;
+    private Path classpath;
+
+    public MeasurementWorkerPool(@Value("${analysis.measure.enabled:false}") boolean enabled,
+                                 @Value("${analysis.measure.workers:2}") int size,
+                                 @Value("${analysis.measure.max-heap:256m}") String maxHeap,
+                                 @Value("${analysis.measure.max-uses:50}") int maxUses) {
+        this.enabled = enabled;
+        this.size = size;
+        this.maxHeap = maxHeap;
+        this.maxUses = maxUses;
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        classpath = Files.createTempDirectory("dsa-measure");
+        copyWorkerClasses(classpath);
+        for (int i = 0; i < size; i++) {
+            replenish();
+        }
+        log.info("Starting {} measurement workers (max heap {})", size, maxHeap);
+    }
+
+    @PreDestroy
+    void stop() {
+        closed = true;
+        watchdog.shutdownNow();
+        Worker worker;
+        while ((worker = idle.poll()) != null) {
+            worker.process.destroyForcibly();
+        }
+    }
+
+    /**
+     * Runs the compiled submission on an idle worker. Blocking; callers should be on a
+     * bounded-elastic thread. Points produced before a timeout or crash are still returned.
+     */
+    public Run run(Map<String, byte[]> classes, String entryClass, String preferredMethod,
+                   Duration budget, Duration wait) throws IOException, InterruptedException {
+        if (!enabled) {
+            throw new IllegalStateException("Measurement is disabled (analysis.measure.enabled=false)");
+        }
+        Worker worker = idle.poll(wait.toMillis(), TimeUnit.MILLISECONDS);
+        if (worker == null) {
+            throw new IllegalStateException("No measurement worker became available within " + wait);
+        }
+
+        AtomicBoolean killed = new AtomicBoolean();
+        // Grace period on top of the budget covers class loading and the last repetition
+        ScheduledFuture<?> deadline = watchdog.schedule(() -> {
+            killed.set(true);
+            worker.process.destroyForcibly();
+        }, budget.toMillis() + 1_000, TimeUnit.MILLISECONDS);
+
+        String method = null;
+        String error = null;
+        List<long[]> points = new ArrayList<>();
+        boolean healthy = false;
+        try {
+            worker.send(classes, entryClass, preferredMethod, budget.toMillis());
+            String line;
+            while ((line = worker.stdout.readLine()) != null) {
+                if (line.equals("done")) {
+                    healthy = true;
+                    break;
+                } else if (line.startsWith("method ")) {
+                    method = line.substring(7);
+                } else if (line.startsWith("error ")) {
+                    error = line.substring(6);
+                } else if (line.startsWith("point ")) {
+                    String[] parts = line.split(" ");
+                    points.add(new long[]{Long.parseLong(parts[1]), Long.parseLong(parts[2]), Long.parseLong(parts[3])});
+                }
+            }
+        } catch (IOException e) {
+            if (!killed.get()) {
+                throw e;
+            }
+        } finally {
+            deadline.cancel(false);
+            release(worker, healthy && !killed.get());
+        }
+        if (killed.get()) {
+            error = "Stopped after exceeding the " + budget.toMillis() + " ms measurement budget";
+        } else if (!healthy && error == null) {
+            error = "Measurement worker exited unexpectedly";
+        }
+        return new Run(method, points, error);
+    }
+
+    private void release(Worker worker, boolean healthy) {
+        // Recycle workers periodically: submissions may leave threads or static garbage behind
+        if (healthy && ++worker.uses < maxUses && !closed) {
+            idle.offer(worker);
+        } else {
+            worker.process.destroyForcibly();
+            replenish();
+        }
+    }
+
+    private void replenish() {
+        if (closed) {
+            return;
+        }
+        Schedulers.boundedElastic().schedule(() -> {
+            try {
+                Worker worker = spawn();
+                if (closed) {
+                    worker.process.destroyForcibly();
+                } else {
+                    idle.offer(worker);
+                }
+            } catch (IOException e) {
+                log.error("Failed to start measurement worker: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    private Worker spawn() throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java,
+                "-Xmx" + maxHeap, "-Xss16m", "-XX:+UseSerialGC", "-XX:ActiveProcessorCount=1",
+                "-cp", classpath.toString(), MeasurementWorker.class.getName())
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        Worker worker = new Worker(process);
+        String ready = worker.stdout.readLine();
+        if (!"ready".equals(ready)) {
+            process.destroyForcibly();
+            throw new IOException("Measurement worker failed to start: " + ready);
+        }
+        return worker;
+    }
+
+    // The worker only needs its own class (and nested classes); copying them works from a fat jar too
+    private static void copyWorkerClasses(Path directory) throws IOException {
+        for (Class<?> type : MeasurementWorker.class.getNestMembers()) {
+            String resource = type.getName().replace('.', '/') + ".class";
+            Path target = directory.resolve(resource);
+            Files.createDirectories(target.getParent());
+            try (InputStream in = MeasurementWorker.class.getClassLoader().getResourceAsStream(resource)) {
+                if (in == null) {
+                    throw new IOException("Missing " + resource);
+                }
+                Files.copy(in, target);
+            }
+        }
+    }
+
+    private static final class Worker {
+
+        private final Process process;
+        private final DataOutputStream stdin;
+        private final BufferedReader stdout;
+        private int uses;
+
+        Worker(Process process) {
+            this.process = process;
+            this.stdin = new DataOutputStream(process.getOutputStream());
+            this.stdout = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        void send(Map<String, byte[]> classes, String entryClass, String preferredMethod, long budgetMillis)
+                throws IOException {
+            stdin.writeInt(classes.size());
+            for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+                stdin.writeUTF(entry.getKey());
+                stdin.writeInt(entry.getValue().length);
+                stdin.write(entry.getValue());
+            }
+            stdin.writeUTF(entryClass);
+            stdin.writeUTF(preferredMethod != null ? preferredMethod : "");
+            stdin.writeLong(budgetMillis);
+            stdin.flush();
+        }
+    }
+}
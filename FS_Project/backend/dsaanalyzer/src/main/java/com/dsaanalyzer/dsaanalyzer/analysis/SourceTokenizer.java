@@ -0,0 +1,147 @@
+package com.dsaanalyzer.dsaanalyzer.analysis;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Small hand-written lexer shared by the local analyzers. It understands just enough of
+ * Java, JavaScript, Python and C++ to drop comments, collapse string literals and split
+ * identifiers, numbers and operators, while keeping line and indentation information.
+ */
+public final class SourceTokenizer {
+
+    private static final String[] OPERATORS = {
+            ">>>=", ">>=", "<<=", "**=", "//=", "===", "!==", ">>>",
+            "->", "=>", "::", "++", "--", "+=", "-=", "*=", "/=", "%=", "&=", "|=", "^=",
+            "==", "!=", "<=", ">=", "&&", "||", ">>", "<<", "**", "//"
+    };
+
+    private SourceTokenizer() {
+    }
+
+    public static List<Token> tokenize(String code, Language language) {
+        return tokenize(code, language, false);
+    }
+
+    /**
+     * @param keepLiterals keep each string literal's source text (quotes included) instead of
+     *                     collapsing it to {@link Token#STRING}
+     */
+    public static List<Token> tokenize(String code, Language language, boolean keepLiterals) {
+        List<Token> tokens = new ArrayList<>();
+        int length = code.length();
+        int line = 1;
+        int indent = 0;
+        boolean atLineStart = true;
+        boolean firstOnLine = true;
+        int i = 0;
+
+        while (i < length) {
+            char c = code.charAt(i);
+
+            if (c == '\n') {
+                line++;
+                indent = 0;
+                atLineStart = true;
+                firstOnLine = true;
+                i++;
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                if (atLineStart) {
+                    indent += c == '\t' ? 4 : 1;
+                }
+                i++;
+                continue;
+            }
+            atLineStart = false;
+
+            // Comments and preprocessor lines
+            if (language == Language.PYTHON && c == '#'
+                    || language == Language.CPP && c == '#' && firstOnLine
+                    || language != Language.PYTHON && code.startsWith("//", i)) {
+                while (i < length && code.charAt(i) != '\n') {
+                    i++;
+                }
+                continue;
+            }
+            if (language != Language.PYTHON && code.startsWith("/*", i)) {
+                int end = code.indexOf("*/", i + 2);
+                end = end < 0 ? length : end + 2;
+                line += countNewlines(code, i, end);
+                i = end;
+                continue;
+            }
+
+            int start = i;
+            String text;
+            if (c == '"' || c == '\'' || c == '`') {
+                i = skipString(code, i, language);
+                line += countNewlines(code, start, i);
+                text = keepLiterals ? code.substring(start, i) : Token.STRING;
+            } else if (Character.isLetter(c) || c == '_' || c == '$') {
+                while (i < length && (Character.isLetterOrDigit(code.charAt(i)) || code.charAt(i) == '_' || code.charAt(i) == '$')) {
+                    i++;
+                }
+                text = code.substring(start, i);
+            } else if (Character.isDigit(c)) {
+                while (i < length && (Character.isLetterOrDigit(code.charAt(i)) || code.charAt(i) == '.' || code.charAt(i) == '_')) {
+                    i++;
+                }
+                text = code.substring(start, i);
+            } else {
+                text = matchOperator(code, i, language);
+                i += text.length();
+            }
+
+            tokens.add(new Token(text, line - countNewlines(code, start, i), indent, firstOnLine));
+            firstOnLine = false;
+        }
+        return tokens;
+    }
+
+    private static String matchOperator(String code, int i, Language language) {
+        for (String operator : OPERATORS) {
+            if (code.startsWith(operator, i) && (!operator.startsWith("//") || language == Language.PYTHON)) {
+                return operator;
+            }
+        }
+        return String.valueOf(code.charAt(i));
+    }
+
+    private static int skipString(String code, int i, Language language) {
+        char quote = code.charAt(i);
+        int length = code.length();
+        if (language == Language.PYTHON && code.startsWith(String.valueOf(quote).repeat(3), i)) {
+            int end = code.indexOf(String.valueOf(quote).repeat(3), i + 3);
+            return end < 0 ? length : end + 3;
+        }
+        i++;
+        while (i < length) {
+            char c = code.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == quote) {
+                return i + 1;
+            }
+            if (c == '\n' && quote != '`') {
+                // Unterminated literal: stop at end of line rather than swallowing the file
+                return i;
+            }
+            i++;
+        }
+        return length;
+    }
+
+    private static int countNewlines(String code, int from, int to) {
+        int count = 0;
+        for (int i = from; i < to && i < code.length(); i++) {
+            if (code.charAt(i) == '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,27 @@
+package com.dsaanalyzer.dsaanalyzer.analysis;
+
+/**
+ * A lexical token with its source position. String literals are collapsed to a single
+ * {@code "\"\""} token (unless the tokenizer is asked to keep them) and comments are
+ * dropped entirely.
+ *
+ * @param indent      indentation width of the line the token is on (tabs count as 4)
+ * @param firstOnLine whether this is the first token of its line
+ */
+public record Token(String text, int line, int indent, boolean firstOnLine) {
+
+    public static final String STRING = "\"\"";
+
+    public boolean is(String value) {
+        return text.equals(value);
+    }
+
+    public boolean isIdentifier() {
+        char c = text.charAt(0);
+        return Character.isLetter(c) || c == '_' || c == '$';
+    }
+
+    public boolean isNumber() {
+        return Character.isDigit(text.charAt(0));
+    }
+}
@@ -0,0 +1,94 @@
+package com.dsaanalyzer.dsaanalyzer.cache;
+
+import com.dsaanalyzer.dsaanalyzer.model.AnalyzeCodeResponse;
+import com.dsaanalyzer.dsaanalyzer.model.CodeIssue;
+import com.dsaanalyzer.dsaanalyzer.model.DebugCodeResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Bounded in-process cache of parsed Gemini results. Caffeine's W-TinyLFU admission
+ * keeps frequently submitted snippets resident even under a flood of one-off code.
+ * Analysis and debug results are written through to the {@link PersistentCache} and
+ * promoted back from it on a memory miss, so they survive restarts.
+ */
+@Component
+@Slf4j
+public class AnalysisCache {
+
+    private final Cache<String, AnalyzeCodeResponse> analysisCache;
+    private final Cache<String, DebugCodeResponse> debugCache;
+    private final Cache<String, List<CodeIssue>> diagnosticsCache;
+    private final PersistentCache persistentCache;
+
+    /** In memory only, without a disk tier. */
+    public AnalysisCache(long maxSize, Duration ttl, MeterRegistry meterRegistry) {
+        this(maxSize, ttl, PersistentCache.disabled(), meterRegistry);
+    }
+
+    @Autowired
+    public AnalysisCache(@Value("${analysis.cache.max-size:10000}") long maxSize,
+                         @Value("${analysis.cache.ttl:PT6H}") Duration ttl,
+                         PersistentCache persistentCache,
+                         MeterRegistry meterRegistry) {
+        this.persistentCache = persistentCache;
+        this.analysisCache = build(maxSize, ttl);
+        this.debugCache = build(maxSize, ttl);
+        this.diagnosticsCache = build(maxSize, ttl);
+        CaffeineCacheMetrics.monitor(meterRegistry, analysisCache, "analysis");
+        CaffeineCacheMetrics.monitor(meterRegistry, debugCache, "debug");
+        CaffeineCacheMetrics.monitor(meterRegistry, diagnosticsCache, "diagnostics");
+        log.info("Analysis cache configured with maxSize={} ttl={}", maxSize, ttl);
+    }
+
+    public AnalyzeCodeResponse getAnalysis(String key) {
+        AnalyzeCodeResponse response = analysisCache.getIfPresent(key);
+        if (response == null && (response = persistentCache.getAnalysis(key)) != null) {
+            analysisCache.put(key, response);
+        }
+        return response;
+    }
+
+    public void putAnalysis(String key, AnalyzeCodeResponse response) {
+        analysisCache.put(key, response);
+        persistentCache.putAnalysis(key, response);
+    }
+
+    public DebugCodeResponse getDebug(String key) {
+        DebugCodeResponse response = debugCache.getIfPresent(key);
+        if (response == null && (response = persistentCache.getDebug(key)) != null) {
+            debugCache.put(key, response);
+        }
+        return response;
+    }
+
+    public void putDebug(String key, DebugCodeResponse response) {
+        debugCache.put(key, response);
+        persistentCache.putDebug(key, response);
+    }
+
+    public List<CodeIssue> getDiagnostics(String key) {
+        return diagnosticsCache.getIfPresent(key);
+    }
+
+    public void putDiagnostics(String key, List<CodeIssue> issues) {
+        diagnosticsCache.put(key, issues);
+    }
+
+    private static <V> Cache<String, V> build(long maxSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+}
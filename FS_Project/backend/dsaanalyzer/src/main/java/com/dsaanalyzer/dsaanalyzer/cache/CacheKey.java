@@ -0,0 +1,36 @@
+package com.dsaanalyzer.dsaanalyzer.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public final class CacheKey {
+
+    private CacheKey() {
+    }
+
+    /**
+     * Builds a content-addressed key from the given parts. Each part is length-prefixed
+     * so that ("ab", "c") and ("a", "bc") never collide.
+     */
+    public static String of(String... parts) {
+        MessageDigest digest = sha256();
+        for (String part : parts) {
+            byte[] bytes = (part != null ? part : "").getBytes(StandardCharsets.UTF_8);
+            digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.US_ASCII));
+            digest.update((byte) ':');
+            digest.update(bytes);
+            digest.update(part != null ? (byte) 1 : (byte) 0);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
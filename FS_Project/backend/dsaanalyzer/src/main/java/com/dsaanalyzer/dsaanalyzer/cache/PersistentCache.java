@@ -0,0 +1,131 @@
+package com.dsaanalyzer.dsaanalyzer.cache;
+
+import com.dsaanalyzer.dsaanalyzer.model.AnalyzeCodeResponse;
+import com.dsaanalyzer.dsaanalyzer.model.DebugCodeResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Disk tier under {@link AnalysisCache}: parsed Gemini results stored as JSON in a
+ * {@link SegmentLog}, so a deploy or crash does not send the most common snippets back to
+ * Gemini. Every failure degrades to a miss.
+ */
+@Component
+@Slf4j
+public class PersistentCache {
+
+    private static final byte ANALYSIS = 1;
+    private static final byte DEBUG = 2;
+
+    private final SegmentLog segmentLog; // null when disabled or the directory could not be opened
+    private final ObjectMapper objectMapper;
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public PersistentCache(@Value("${analysis.cache.disk.enabled:false}") boolean enabled,
+                           @Value("${analysis.cache.disk.dir:data/analysis-cache}") Path directory,
+                           @Value("${analysis.cache.disk.segment-size:64MB}") DataSize segmentSize,
+                           @Value("${analysis.cache.disk.max-segments:16}") int maxSegments,
+                           @Value("${analysis.cache.disk.ttl:P7D}") Duration ttl,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        this(enabled ? open(directory, segmentSize, maxSegments, ttl) : null, objectMapper, meterRegistry);
+    }
+
+    private PersistentCache(SegmentLog segmentLog, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.segmentLog = segmentLog;
+        this.objectMapper = objectMapper;
+        this.hits = Counter.builder("analysis.cache.disk.requests").tag("result", "hit")
+                .description("Memory-cache misses answered from the disk cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("analysis.cache.disk.requests").tag("result", "miss")
+                .register(meterRegistry);
+        if (segmentLog != null) {
+            meterRegistry.gauge("analysis.cache.disk.entries", segmentLog, SegmentLog::size);
+            meterRegistry.gauge("analysis.cache.disk.bytes", segmentLog, SegmentLog::diskBytes);
+        }
+    }
+
+    public static PersistentCache disabled() {
+        return new PersistentCache(null, null, new SimpleMeterRegistry());
+    }
+
+    public AnalyzeCodeResponse getAnalysis(String key) {
+        return read(ANALYSIS, key, AnalyzeCodeResponse.class);
+    }
+
+    public void putAnalysis(String key, AnalyzeCodeResponse response) {
+        write(ANALYSIS, key, response);
+    }
+
+    public DebugCodeResponse getDebug(String key) {
+        return read(DEBUG, key, DebugCodeResponse.class);
+    }
+
+    public void putDebug(String key, DebugCodeResponse response) {
+        write(DEBUG, key, response);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (segmentLog != null) {
+            segmentLog.close();
+        }
+    }
+
+    private <T> T read(byte kind, String key, Class<T> type) {
+        if (segmentLog == null) {
+            return null;
+        }
+        ByteBuffer value = segmentLog.get(kind, key);
+        if (value == null) {
+            misses.increment();
+            return null;
+        }
+        // Parsed straight from the mapped pages, no intermediate byte[]
+        try {
+            T result = objectMapper.readValue(new ByteBufferBackedInputStream(value), type);
+            hits.increment();
+            return result;
+        } catch (IOException e) {
+            log.debug("Discarding unreadable disk cache entry {}: {}", key, e.getMessage());
+            misses.increment();
+            return null;
+        }
+    }
+
+    private void write(byte kind, String key, Object value) {
+        if (segmentLog == null) {
+            return;
+        }
+        try {
+            segmentLog.put(kind, key, objectMapper.writeValueAsBytes(value));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write disk cache entry {}: {}", key, e.getMessage());
+        }
+    }
+
+    private static SegmentLog open(Path directory, DataSize segmentSize, int maxSegments, Duration ttl) {
+        try {
+            return SegmentLog.open(directory, Math.toIntExact(segmentSize.toBytes()), maxSegments, ttl);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Disk cache disabled, could not open {}: {}", directory, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.dsaanalyzer.dsaanalyzer.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution: concurrent callers asking for the same key share one upstream
+ * call and all receive its result (or its error). The upstream call is cancelled once
+ * every waiter has gone away.
+ */
+@Component
+@Slf4j
+public class RequestCoalescer {
+
+    private final ConcurrentHashMap<String, Flight<?>> inFlight = new ConcurrentHashMap<>();
+    private final Counter joined;
+    private final Counter cancelled;
+
+    public RequestCoalescer(MeterRegistry meterRegistry) {
+        this.joined = Counter.builder("analysis.coalesce.joined")
+                .description("Requests served by an already in-flight upstream call")
+                .register(meterRegistry);
+        this.cancelled = Counter.builder("analysis.coalesce.cancelled")
+                .description("Upstream calls cancelled because every waiter left")
+                .register(meterRegistry);
+        meterRegistry.gauge("analysis.coalesce.inflight", inFlight, ConcurrentHashMap::size);
+    }
+
+    public <T> Mono<T> execute(String key, Supplier<Mono<T>> call) {
+        // The shared call runs with the context (e.g. the deadline) of the caller that started it
+        return Mono.deferContextual(context -> {
+            Flight<T> flight = joinOrStart(key, () -> call.get().contextWrite(context));
+            return Mono.fromFuture(flight.result, true)
+                    .doOnCancel(() -> leave(key, flight));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Flight<T> joinOrStart(String key, Supplier<Mono<T>> call) {
+        while (true) {
+            Flight<T> existing = (Flight<T>) inFlight.get(key);
+            if (existing != null && existing.tryJoin()) {
+                joined.increment();
+                log.debug("Joined in-flight request for key {}", key);
+                return existing;
+            }
+
+            Flight<T> created = new Flight<>();
+            boolean installed = existing == null
+                    ? inFlight.putIfAbsent(key, created) == null
+                    : inFlight.replace(key, existing, created);
+            if (installed) {
+                created.result.whenComplete((value, error) -> inFlight.remove(key, created));
+                try {
+                    created.subscription = call.get().subscribe(
+                            created.result::complete,
+                            created.result::completeExceptionally,
+                            () -> created.result.complete(null));
+                } catch (RuntimeException e) {
+                    created.result.completeExceptionally(e);
+                }
+                return created;
+            }
+        }
+    }
+
+    private void leave(String key, Flight<?> flight) {
+        if (flight.leave() && !flight.result.isDone()) {
+            inFlight.remove(key, flight);
+            Disposable subscription = flight.subscription;
+            if (subscription != null) {
+                subscription.dispose();
+            }
+            cancelled.increment();
+            log.debug("Cancelled upstream request for key {}: all waiters left", key);
+        }
+    }
+
+    private static final class Flight<T> {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final AtomicInteger waiters = new AtomicInteger(1);
+        volatile Disposable subscription;
+
+        boolean tryJoin() {
+            int current;
+            do {
+                current = waiters.get();
+                if (current == 0) {
+                    return false;
+                }
+            } while (!waiters.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        boolean leave() {
+            return waiters.decrementAndGet() == 0;
+        }
+    }
+}
@@ -0,0 +1,442 @@
+package com.dsaanalyzer.dsaanalyzer.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only key/value log split into fixed-size memory-mapped segments (Bitcask layout).
+ *
+ * <p>Record: {@code int bodyLength, int crc32(body), body = byte kind, long writtenAt,
+ * short keyLength, key, value}. The length is written last and the next header is zeroed
+ * first, so a process crash mid-append leaves a log that ends cleanly at the previous record;
+ * torn pages after an OS crash are caught by the CRC during recovery.
+ *
+ * <p>Every sealed segment gets a hint file listing its records, the on-disk index that lets a
+ * restart rebuild the in-memory hash index without checksumming every record; only the active
+ * segment is scanned. Values are returned as read-only slices of the mapping, without copying.
+ *
+ * <p>A background compactor copies the live records out of segments that are mostly
+ * overwritten and drops segments whose newest record is older than the TTL; once more than
+ * {@code maxSegments} exist the oldest is dropped (FIFO).
+ */
+@Slf4j
+public class SegmentLog implements Closeable {
+
+    private static final int HEADER = 8;
+    private static final int BODY_PREFIX = 1 + 8 + 2;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String HINT_SUFFIX = ".hint";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final long ttlMillis;
+    private final ConcurrentHashMap<String, Location> index = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "segment-log-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Object compactionLock = new Object();
+
+    private Segment active; // guarded by this
+    private boolean closed; // guarded by this
+
+    private record Location(Segment segment, int offset, int length, int keyLength, byte kind, long writtenAt) {
+
+        int size() {
+            return HEADER + length;
+        }
+    }
+
+    private static final class Segment {
+        final long id;
+        final Path path;
+        final MappedByteBuffer buffer;
+        final AtomicLong liveBytes = new AtomicLong();
+        volatile int end;
+        volatile long newestWrite;
+
+        Segment(long id, Path path, MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+
+    private SegmentLog(Path directory, int segmentSize, int maxSegments, Duration ttl) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    /** Opens (or creates) the log in {@code directory}, recovering the index from hints and the active segment. */
+    public static SegmentLog open(Path directory, int segmentSize, int maxSegments, Duration ttl) throws IOException {
+        SegmentLog log = new SegmentLog(directory, segmentSize, maxSegments, ttl);
+        log.recover();
+        return log;
+    }
+
+    /** @return a read-only view of the value, valid for as long as the caller holds it, or {@code null} */
+    public ByteBuffer get(byte kind, String key) {
+        Location location = index.get(key);
+        if (location == null || location.kind() != kind) {
+            return null;
+        }
+        if (expired(location.writtenAt())) {
+            removeEntry(key, location);
+            return null;
+        }
+        int valueOffset = location.offset() + HEADER + BODY_PREFIX + location.keyLength();
+        int valueLength = location.length() - BODY_PREFIX - location.keyLength();
+        return location.segment().buffer.slice(valueOffset, valueLength).asReadOnlyBuffer();
+    }
+
+    /** @return {@code false} when the record cannot fit in a segment or the log is closed */
+    public boolean put(byte kind, String key, byte[] value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int length = BODY_PREFIX + keyBytes.length + value.length;
+        if (keyBytes.length > Short.MAX_VALUE || HEADER + length + HEADER > segmentSize) {
+            return false;
+        }
+        ByteBuffer body = ByteBuffer.allocate(length)
+                .put(kind)
+                .putLong(System.currentTimeMillis())
+                .putShort((short) keyBytes.length)
+                .put(keyBytes)
+                .put(value)
+                .flip();
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            append(key, body, null);
+        }
+        return true;
+    }
+
+    /** @return the keys of the live, unexpired records of {@code kind}, in no particular order */
+    public List<String> keys(byte kind) {
+        List<String> keys = new ArrayList<>();
+        index.forEach((key, location) -> {
+            if (location.kind() == kind && !expired(location.writtenAt())) {
+                keys.add(key);
+            }
+        });
+        return keys;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public long diskBytes() {
+        return segments.values().stream().mapToLong(segment -> segment.end).sum();
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Rewrites mostly-dead segments and drops stale ones. Runs on the compactor thread after
+     * each segment roll; callable directly for tests.
+     */
+    public void compact() {
+        synchronized (compactionLock) {
+            for (Segment segment : segments.values()) {
+                synchronized (this) {
+                    if (closed || segment == active) {
+                        return;
+                    }
+                }
+                boolean stale = expired(segment.newestWrite);
+                if (stale || segment.liveBytes.get() * 2 < segment.end) {
+                    compact(segment, stale);
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        compactor.shutdownNow();
+        active.buffer.force();
+    }
+
+    private void compact(Segment segment, boolean stale) {
+        int moved = 0;
+        if (!stale) {
+            for (int offset = 0; offset < segment.end; ) {
+                int length = segment.buffer.getInt(offset);
+                String key = key(segment.buffer, offset);
+                Location location = index.get(key);
+                if (location != null && location.segment() == segment && location.offset() == offset) {
+                    if (expired(location.writtenAt())) {
+                        removeEntry(key, location);
+                    } else {
+                        synchronized (this) {
+                            if (closed) {
+                                return;
+                            }
+                            append(key, segment.buffer.slice(offset + HEADER, length), location);
+                        }
+                        moved++;
+                    }
+                }
+                offset += HEADER + length;
+            }
+            synchronized (this) {
+                // Copies must be durable before the only other copy is deleted
+                active.buffer.force();
+            }
+        }
+        drop(segment);
+        log.debug("Compacted segment {} ({} live records moved, stale={})", segment.id, moved, stale);
+    }
+
+    // Caller holds the lock. Compaction passes the location it is moving, so that a newer put
+    // of the same key that raced with the copy is not overwritten
+    private void append(String key, ByteBuffer body, Location moving) {
+        int length = body.remaining();
+        if (active.end + HEADER + length + HEADER > active.buffer.capacity()) {
+            roll();
+        }
+        Segment segment = active;
+        int offset = segment.end;
+        segment.buffer.put(offset + HEADER, body, body.position(), length);
+        segment.buffer.putInt(offset + HEADER + length, 0);
+        CRC32 crc = new CRC32();
+        crc.update(segment.buffer.slice(offset + HEADER, length));
+        segment.buffer.putInt(offset + 4, (int) crc.getValue());
+        segment.buffer.putInt(offset, length);
+        segment.end = offset + HEADER + length;
+
+        Location location = location(segment, offset);
+        segment.newestWrite = Math.max(segment.newestWrite, location.writtenAt());
+        if (moving == null) {
+            index(key, location);
+        } else if (index.replace(key, moving, location)) {
+            moving.segment().liveBytes.addAndGet(-moving.size());
+            segment.liveBytes.addAndGet(location.size());
+        }
+    }
+
+    private void roll() {
+        active.buffer.force();
+        try {
+            writeHint(active);
+            active = createSegment(active.id + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        while (segments.size() > maxSegments) {
+            Segment oldest = segments.firstEntry().getValue();
+            log.debug("Dropping segment {}: more than {} segments", oldest.id, maxSegments);
+            drop(oldest);
+        }
+        compactor.execute(this::compact);
+    }
+
+    private void drop(Segment segment) {
+        segments.remove(segment.id);
+        index.entrySet().removeIf(entry -> entry.getValue().segment() == segment);
+        // Readers holding a slice keep the mapping (and so the unlinked file's pages) alive
+        try {
+            Files.deleteIfExists(hintPath(segment.id));
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            log.warn("Could not delete segment {}: {}", segment.path, e.getMessage());
+        }
+    }
+
+    private void index(String key, Location location) {
+        Location previous = index.put(key, location);
+        if (previous != null) {
+            previous.segment().liveBytes.addAndGet(-previous.size());
+        }
+        location.segment().liveBytes.addAndGet(location.size());
+    }
+
+    private void removeEntry(String key, Location location) {
+        if (index.remove(key, location)) {
+            location.segment().liveBytes.addAndGet(-location.size());
+        }
+    }
+
+    private boolean expired(long writtenAt) {
+        return System.currentTimeMillis() - writtenAt > ttlMillis;
+    }
+
+    private void recover() throws IOException {
+        Files.createDirectories(directory);
+        List<Long> ids = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .forEach(name -> ids.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()))));
+        }
+        ids.sort(null);
+
+        for (int i = 0; i < ids.size(); i++) {
+            long id = ids.get(i);
+            boolean last = i == ids.size() - 1;
+            Segment segment = last && !Files.exists(hintPath(id)) ? createSegment(id) : mapSealed(id);
+            segments.put(id, segment);
+            if (!readHint(segment)) {
+                scan(segment);
+                if (!last) {
+                    // Crashed between sealing the segment and writing its hint
+                    writeHint(segment);
+                }
+            }
+            if (last && segment.buffer.isReadOnly()) {
+                active = createSegment(id + 1);
+            } else if (last) {
+                active = segment;
+            }
+        }
+        if (active == null) {
+            active = createSegment(0);
+        }
+        log.info("Recovered {} entries from {} segments in {}", index.size(), segments.size(), directory);
+        compactor.execute(this::compact);
+    }
+
+    // Scans records until the first zero or invalid header
+    private void scan(Segment segment) {
+        ByteBuffer buffer = segment.buffer;
+        int limit = buffer.capacity();
+        int offset = 0;
+        CRC32 crc = new CRC32();
+        while (offset + HEADER <= limit) {
+            int length = buffer.getInt(offset);
+            if (length < BODY_PREFIX || offset + HEADER + length > limit) {
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.slice(offset + HEADER, length));
+            if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+                log.warn("Truncating segment {} at offset {}: checksum mismatch", segment.id, offset);
+                break;
+            }
+            Location location = location(segment, offset);
+            segment.newestWrite = Math.max(segment.newestWrite, location.writtenAt());
+            index(key(buffer, offset), location);
+            offset += HEADER + length;
+        }
+        segment.end = offset;
+    }
+
+    private Location location(Segment segment, int offset) {
+        ByteBuffer buffer = segment.buffer;
+        return new Location(segment, offset, buffer.getInt(offset), buffer.getShort(offset + HEADER + 9),
+                buffer.get(offset + HEADER), buffer.getLong(offset + HEADER + 1));
+    }
+
+    private static String key(ByteBuffer buffer, int offset) {
+        byte[] key = new byte[buffer.getShort(offset + HEADER + 9)];
+        buffer.get(offset + HEADER + BODY_PREFIX, key);
+        return new String(key, StandardCharsets.UTF_8);
+    }
+
+    // Hint: the segment's record offsets plus its end, written to a temp file and renamed into place
+    private void writeHint(Segment segment) throws IOException {
+        Path temp = directory.resolve(segment.id + HINT_SUFFIX + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temp))) {
+            out.writeInt(segment.end);
+            for (int offset = 0; offset < segment.end; offset += HEADER + segment.buffer.getInt(offset)) {
+                out.writeInt(offset);
+            }
+            out.writeInt(-1);
+        }
+        Files.move(temp, hintPath(segment.id), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private boolean readHint(Segment segment) {
+        Path hint = hintPath(segment.id);
+        if (!Files.exists(hint)) {
+            return false;
+        }
+        Map<String, Location> found = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(hint))) {
+            int end = in.readInt();
+            if (end > segment.buffer.capacity()) {
+                return false;
+            }
+            for (int offset = in.readInt(); offset != -1; offset = in.readInt()) {
+                Location location = location(segment, offset);
+                found.put(key(segment.buffer, offset), location);
+                segment.newestWrite = Math.max(segment.newestWrite, location.writtenAt());
+            }
+            segment.end = end;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable hint {}: {}", hint, e.getMessage());
+            segment.newestWrite = 0;
+            return false;
+        }
+        found.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue((a, b) -> Integer.compare(a.offset(), b.offset())))
+                .forEach(entry -> index(entry.getKey(), entry.getValue()));
+        return true;
+    }
+
+    private Segment createSegment(long id) throws IOException {
+        Path path = segmentPath(id);
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The file is sparse: untouched pages of the preallocated segment take no disk space
+            long size = Math.max(segmentSize, channel.size());
+            Segment segment = new Segment(id, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            segments.put(id, segment);
+            return segment;
+        }
+    }
+
+    private Segment mapSealed(long id) throws IOException {
+        Path path = segmentPath(id);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new Segment(id, path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    private Path segmentPath(long id) {
+        return directory.resolve(String.format("%012d%s", id, SEGMENT_SUFFIX));
+    }
+
+    private Path hintPath(long id) {
+        return directory.resolve(String.format("%012d%s", id, HINT_SUFFIX));
+    }
+}
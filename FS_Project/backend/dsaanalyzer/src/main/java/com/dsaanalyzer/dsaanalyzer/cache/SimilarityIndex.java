@@ -0,0 +1,291 @@
+package com.dsaanalyzer.dsaanalyzer.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Near-duplicate lookup over previously analyzed submissions. A submission's canonical tokens
+ * are cut into k-grams, winnowed (the minimum hash of every window of consecutive k-grams, so
+ * an edit only disturbs the fingerprints around it) and summarized by a MinHash signature whose
+ * bands are indexed for LSH: two submissions share a band bucket with high probability once
+ * their fingerprint sets are similar, and candidates are then scored by signature agreement.
+ *
+ * <p>Entries live in flat primitive arrays (about 280 bytes each including the bucket table),
+ * the bucket table is open-addressed, and bucket chains are threaded through a per-entry array.
+ * When {@code maxEntries} is reached the index starts over.
+ */
+@Component
+@Slf4j
+public class SimilarityIndex {
+
+    static final int HASHES = 32;
+    private static final int BANDS = 8;
+    private static final int ROWS = HASHES / BANDS;
+    private static final int K = 5;
+    private static final int WINDOW = 4;
+    private static final int KEY_LONGS = 4;
+    private static final int MAX_CANDIDATES = 256;
+    private static final long[] SEEDS = new SplittableRandom(0x5EEDL).longs(HASHES).toArray();
+    private static final HexFormat HEX = HexFormat.of();
+
+    /**
+     * @param guard must match exactly for a reuse (language and local complexity estimate), so an
+     *              edit that changes the estimated complexity is never answered from the original
+     */
+    public record Sketch(short[] minHashes, int tokens, int guard) {
+    }
+
+    public record Match(String cacheKey, double similarity) {
+    }
+
+    private final boolean enabled;
+    private final double threshold;
+    private final int maxEntries;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int size;
+    private short[] signatures;
+    private int[] tokenCounts;
+    private int[] guards;
+    private long[] keys;
+    private int[] next; // BANDS per entry: the next entry in the same bucket, -1 at the end
+    private int[] bucketKeys;
+    private int[] bucketHeads; // -1 marks an empty slot
+
+    public SimilarityIndex(@Value("${analysis.similarity.enabled:true}") boolean enabled,
+                           @Value("${analysis.similarity.threshold:0.8}") double threshold,
+                           @Value("${analysis.similarity.max-entries:1000000}") int maxEntries) {
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.maxEntries = maxEntries;
+        clear();
+        log.info("Similarity index enabled={} threshold={} maxEntries={}", enabled, threshold, maxEntries);
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Winnowed k-gram fingerprints of the canonical token stream, summarized by MinHash. */
+    public static Sketch sketch(List<String> tokens, int guard) {
+        int[] tokenHashes = new int[tokens.size()];
+        for (int i = 0; i < tokenHashes.length; i++) {
+            tokenHashes[i] = tokens.get(i).hashCode();
+        }
+        int grams = Math.max(1, tokenHashes.length - K + 1);
+        long[] gramHashes = new long[grams];
+        for (int i = 0; i < grams; i++) {
+            long hash = 0;
+            for (int j = i; j < Math.min(i + K, tokenHashes.length); j++) {
+                hash = (hash ^ tokenHashes[j]) * 0x100000001B3L;
+            }
+            gramHashes[i] = mix(hash);
+        }
+
+        // Winnowing: the rightmost minimum of each window, recorded once per position
+        long[] fingerprints = new long[grams];
+        int count = 0;
+        int selected = -1;
+        for (int start = 0; start + Math.min(WINDOW, grams) <= grams; start++) {
+            int minimum = start;
+            for (int i = start; i < start + Math.min(WINDOW, grams); i++) {
+                if (gramHashes[i] <= gramHashes[minimum]) {
+                    minimum = i;
+                }
+            }
+            if (minimum != selected) {
+                fingerprints[count++] = gramHashes[minimum];
+                selected = minimum;
+            }
+        }
+
+        short[] minHashes = new short[HASHES];
+        for (int h = 0; h < HASHES; h++) {
+            long minimum = Long.MAX_VALUE;
+            for (int i = 0; i < count; i++) {
+                minimum = Math.min(minimum, mix(fingerprints[i] ^ SEEDS[h]));
+            }
+            minHashes[h] = (short) (minimum >>> 48);
+        }
+        return new Sketch(minHashes, tokens.size(), guard);
+    }
+
+    /** @return the most similar indexed entry at or above the threshold, or {@code null} */
+    public Match find(Sketch sketch) {
+        if (!enabled) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            int[] checked = new int[MAX_CANDIDATES];
+            int candidates = 0;
+            int best = -1;
+            int bestMatches = (int) Math.ceil(threshold * HASHES) - 1;
+            for (int band = 0; band < BANDS && candidates < MAX_CANDIDATES; band++) {
+                int slot = findSlot(bandKey(sketch.minHashes(), 0, band));
+                for (int entry = bucketHeads[slot]; entry >= 0 && candidates < MAX_CANDIDATES;
+                     entry = next[entry * BANDS + band]) {
+                    if (contains(checked, candidates, entry)) {
+                        continue;
+                    }
+                    checked[candidates++] = entry;
+                    if (guards[entry] != sketch.guard() || !similarLength(tokenCounts[entry], sketch.tokens())) {
+                        continue;
+                    }
+                    int matches = matches(sketch.minHashes(), entry);
+                    if (matches > bestMatches) {
+                        best = entry;
+                        bestMatches = matches;
+                    }
+                }
+            }
+            return best < 0 ? null : new Match(key(best), (double) bestMatches / HASHES);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Indexes an analyzed submission under its cache key (a hex SHA-256 from {@link CacheKey}). */
+    public void add(Sketch sketch, String cacheKey) {
+        if (!enabled || cacheKey.length() != KEY_LONGS * 16) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (size == maxEntries) {
+                log.info("Similarity index reached {} entries, starting over", maxEntries);
+                clear();
+            }
+            grow();
+            int entry = size++;
+            System.arraycopy(sketch.minHashes(), 0, signatures, entry * HASHES, HASHES);
+            tokenCounts[entry] = sketch.tokens();
+            guards[entry] = sketch.guard();
+            for (int i = 0; i < KEY_LONGS; i++) {
+                keys[entry * KEY_LONGS + i] = HexFormat.fromHexDigitsToLong(cacheKey, i * 16, i * 16 + 16);
+            }
+            for (int band = 0; band < BANDS; band++) {
+                insert(bandKey(signatures, entry * HASHES, band), entry, band);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void insert(int bandKey, int entry, int band) {
+        int slot = findSlot(bandKey);
+        next[entry * BANDS + band] = bucketHeads[slot];
+        bucketKeys[slot] = bandKey;
+        bucketHeads[slot] = entry;
+    }
+
+    private int findSlot(int bandKey) {
+        int mask = bucketKeys.length - 1;
+        int slot = (int) mix(bandKey) & mask;
+        while (bucketHeads[slot] >= 0 && bucketKeys[slot] != bandKey) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    // Caller holds the write lock
+    private void grow() {
+        if (size == tokenCounts.length) {
+            int capacity = Math.min(Math.max(size * 2, 1024), maxEntries);
+            signatures = Arrays.copyOf(signatures, capacity * HASHES);
+            tokenCounts = Arrays.copyOf(tokenCounts, capacity);
+            guards = Arrays.copyOf(guards, capacity);
+            keys = Arrays.copyOf(keys, capacity * KEY_LONGS);
+            next = Arrays.copyOf(next, capacity * BANDS);
+        }
+        // Load factor of at most 0.6 even if every band of every entry has its own bucket
+        if ((size + 1) * BANDS * 5L > bucketKeys.length * 3L) {
+            bucketKeys = new int[bucketKeys.length * 2];
+            bucketHeads = new int[bucketKeys.length];
+            Arrays.fill(bucketHeads, -1);
+            // Re-threads every chain; entries go in ascending order so newer ones stay in front
+            for (int entry = 0; entry < size; entry++) {
+                for (int band = 0; band < BANDS; band++) {
+                    insert(bandKey(signatures, entry * HASHES, band), entry, band);
+                }
+            }
+        }
+    }
+
+    private void clear() {
+        size = 0;
+        signatures = new short[0];
+        tokenCounts = new int[0];
+        guards = new int[0];
+        keys = new long[0];
+        next = new int[0];
+        bucketKeys = new int[1024];
+        bucketHeads = new int[1024];
+        Arrays.fill(bucketHeads, -1);
+    }
+
+    private int matches(short[] minHashes, int entry) {
+        int matches = 0;
+        int offset = entry * HASHES;
+        for (int h = 0; h < HASHES; h++) {
+            if (signatures[offset + h] == minHashes[h]) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    // An edit that adds or removes a large part of the code is not a near-duplicate, whatever
+    // the sampled hashes say
+    private boolean similarLength(int a, int b) {
+        return Math.min(a, b) >= threshold * Math.max(a, b);
+    }
+
+    private String key(int entry) {
+        StringBuilder key = new StringBuilder(KEY_LONGS * 16);
+        for (int i = 0; i < KEY_LONGS; i++) {
+            key.append(HEX.toHexDigits(keys[entry * KEY_LONGS + i]));
+        }
+        return key.toString();
+    }
+
+    private static int bandKey(short[] signature, int offset, int band) {
+        long hash = band;
+        for (int row = 0; row < ROWS; row++) {
+            hash = hash * 31 + signature[offset + band * ROWS + row];
+        }
+        return (int) mix(hash);
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
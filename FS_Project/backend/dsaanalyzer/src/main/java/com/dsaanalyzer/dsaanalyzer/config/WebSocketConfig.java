@@ -0,0 +1,23 @@
+package com.dsaanalyzer.dsaanalyzer.config;
+
+import com.dsaanalyzer.dsaanalyzer.controller.LiveAnalysisHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final LiveAnalysisHandler liveAnalysisHandler;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        // Same open policy as the REST endpoints' CORS mapping
+        registry.addHandler(liveAnalysisHandler, "/api/v1/live")
+                .setAllowedOrigins("*");
+    }
+}
@@ -0,0 +1,24 @@
+package com.dsaanalyzer.dsaanalyzer.controller;
+
+import org.springframework.web.context.request.async.DeferredResult;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+/**
+ * A DeferredResult fed by a Reactor subscription. Spring MVC cancels a returned Mono only when
+ * the async request times out; this one is also cancelled, upstream call included, when the
+ * {@link ClientDisconnectWatcher} finds that the client has gone away.
+ */
+class CancellableResult<T> extends DeferredResult<T> {
+
+    private final Disposable subscription;
+
+    CancellableResult(Mono<T> source) {
+        this.subscription = source.subscribe(this::setResult, this::setErrorResult);
+        onTimeout(subscription::dispose);
+    }
+
+    void cancel() {
+        subscription.dispose();
+    }
+}
@@ -0,0 +1,116 @@
+package com.dsaanalyzer.dsaanalyzer.controller;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Cancels a {@link CancellableResult} whose client has disconnected. Tomcat does not watch the
+ * socket of an async request that has read its whole body, so nothing reports the disconnect
+ * until the response is written. Instead, every {@code probe-interval} the watcher asks for
+ * the bytes available on the request stream, which in non-blocking mode makes Tomcat try a
+ * read: an idle connection has none, a closed one reports some (the next read would fail).
+ * Clients that pipeline a second request on the same connection would look disconnected too;
+ * browsers do not. A blocking request never becomes async, so there is nothing to watch:
+ * {@code analysis.execution-mode=blocking} needs {@code analysis.disconnect.probe-interval=0},
+ * which turns the watcher off, to say that disconnects are ignored.
+ */
+@Component
+@Slf4j
+public class ClientDisconnectWatcher implements DeferredResultProcessingInterceptor {
+
+    private static final ReadListener BODY_ALREADY_READ = new ReadListener() {
+        @Override
+        public void onDataAvailable() {
+        }
+
+        @Override
+        public void onAllDataRead() {
+        }
+
+        @Override
+        public void onError(Throwable t) {
+        }
+    };
+
+    private final Duration probeInterval;
+    private final Counter disconnects;
+
+    public ClientDisconnectWatcher(@Value("${analysis.disconnect.probe-interval:PT0.5S}") Duration probeInterval,
+                                   @Value("${analysis.execution-mode:reactive}") String executionMode,
+                                   MeterRegistry meterRegistry) {
+        if ("blocking".equalsIgnoreCase(executionMode) && !probeInterval.isZero()) {
+            throw new IllegalStateException("analysis.execution-mode=blocking cannot cancel requests whose client"
+                    + " disconnects; set analysis.disconnect.probe-interval=0 to run without");
+        }
+        this.probeInterval = probeInterval;
+        this.disconnects = Counter.builder("http.client.disconnects")
+                .description("Requests abandoned by their client before the response was ready")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, DeferredResult<T> deferredResult) {
+        HttpServletRequest servletRequest = request.getNativeRequest(HttpServletRequest.class);
+        if (probeInterval.isZero() || !(deferredResult instanceof CancellableResult<T> result)
+                || result.isSetOrExpired() || servletRequest == null) {
+            return;
+        }
+        ServletInputStream input;
+        try {
+            input = servletRequest.getInputStream();
+            // available() only reads from the socket once the stream is in non-blocking mode
+            input.setReadListener(BODY_ALREADY_READ);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Not watching {} for a disconnect: {}", servletRequest.getRequestURI(), e.getMessage());
+            return;
+        }
+        Disposable probe = Flux.interval(probeInterval)
+                .takeWhile(tick -> !result.isSetOrExpired())
+                .filter(tick -> disconnected(input, result))
+                .next()
+                .subscribe(tick -> cancel(servletRequest, result),
+                        e -> log.debug("Stopped watching {} for a disconnect: {}", servletRequest.getRequestURI(), e.getMessage()));
+        result.onCompletion(probe::dispose);
+    }
+
+    // Runs on a timer thread: the response may be written, and the request recycled, at any point
+    private void cancel(HttpServletRequest servletRequest, CancellableResult<?> result) {
+        if (result.isSetOrExpired()) {
+            return;
+        }
+        log.info("Client of {} disconnected, cancelling the request", servletRequest.getRequestURI());
+        disconnects.increment();
+        result.cancel();
+        try {
+            servletRequest.getAsyncContext().complete();
+        } catch (IllegalStateException e) {
+            log.debug("Request {} completed while cancelling: {}", servletRequest.getRequestURI(), e.getMessage());
+        }
+    }
+
+    private static boolean disconnected(ServletInputStream input, CancellableResult<?> result) {
+        if (result.isSetOrExpired()) {
+            return false;
+        }
+        try {
+            return input.available() > 0;
+        } catch (IOException | RuntimeException e) {
+            // A completed request's stream is recycled and throws; only a pending one has lost its client
+            return !result.isSetOrExpired();
+        }
+    }
+}
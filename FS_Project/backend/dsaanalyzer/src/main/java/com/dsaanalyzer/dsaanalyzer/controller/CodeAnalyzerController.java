@@ -1,19 +1,37 @@
 package com.dsaanalyzer.dsaanalyzer.controller;
 
 import com.dsaanalyzer.dsaanalyzer.model.AnalyzeCodeRequest;
-import com.dsaanalyzer.dsaanalyzer.model.AnalyzeCodeResponse;
+import com.dsaanalyzer.dsaanalyzer.model.BatchAnalysisResult;
 import com.dsaanalyzer.dsaanalyzer.model.DebugCodeRequest;
-import com.dsaanalyzer.dsaanalyzer.model.DebugCodeResponse;
+import com.dsaanalyzer.dsaanalyzer.model.IncrementalDebugRequest;
+import com.dsaanalyzer.dsaanalyzer.model.ReviewCodeRequest;
+import com.dsaanalyzer.dsaanalyzer.service.BatchAnalysisService;
 import com.dsaanalyzer.dsaanalyzer.service.CodeAnalyzerService;
+import com.dsaanalyzer.dsaanalyzer.service.EditRejectedException;
+import com.dsaanalyzer.dsaanalyzer.service.IncrementalDebugService;
+import com.dsaanalyzer.dsaanalyzer.service.RequestDeadline;
+import com.dsaanalyzer.dsaanalyzer.service.ReviewService;
+import com.dsaanalyzer.dsaanalyzer.service.UpstreamCallPolicy;
+import com.dsaanalyzer.dsaanalyzer.service.UpstreamOverloadedException;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/api/v1")
@@ -22,31 +40,74 @@ import java.util.Map;
 public class CodeAnalyzerController {
 
     private final CodeAnalyzerService codeAnalyzerService;
+    private final UpstreamCallPolicy upstreamCallPolicy;
+    private final BatchAnalysisService batchAnalysisService;
+    private final IncrementalDebugService incrementalDebugService;
+    private final ReviewService reviewService;
+
+    // "reactive" frees the servlet thread while Gemini is pending; "blocking" waits on the request
+    // thread, which is cheap when spring.threads.virtual.enabled=true
+    @Value("${analysis.execution-mode:reactive}")
+    private String executionMode;
 
     @PostMapping("/analyze")
-    public ResponseEntity<?> analyzeCode(@Valid @RequestBody AnalyzeCodeRequest request) {
-        try {
-            log.info("Received code analysis request for language: {}", request.getLanguage());
-            AnalyzeCodeResponse response = codeAnalyzerService.analyzeCode(request);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            log.error("Error analyzing code: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(createErrorResponse("Failed to analyze code: " + e.getMessage()));
-        }
+    public DeferredResult<ResponseEntity<?>> analyzeCode(@Valid @RequestBody AnalyzeCodeRequest request,
+                                                         @RequestHeader(value = RequestDeadline.HEADER, required = false) String timeout) {
+        log.info("Received code analysis request for language: {}", request.getLanguage());
+        return respond(codeAnalyzerService.analyzeCode(request), upstreamCallPolicy.deadline(timeout),
+                "Error analyzing code", "Failed to analyze code: ");
+    }
+
+    // Reads the body itself so that large uploads are parsed item by item instead of bound up front
+    @PostMapping(value = "/analyze/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BatchAnalysisResult> analyzeBatch(HttpServletRequest request,
+                                                  @RequestHeader(value = RequestDeadline.HEADER, required = false) String timeout) throws IOException {
+        log.info("Received batch code analysis request");
+        return batchAnalysisService.analyzeBatch(request.getInputStream(), timeout);
     }
 
     @PostMapping("/debug")
-    public ResponseEntity<?> debugCode(@Valid @RequestBody DebugCodeRequest request) {
-        try {
-            log.info("Received code debug request for language: {}", request.getLanguage());
-            DebugCodeResponse response = codeAnalyzerService.debugCode(request);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            log.error("Error debugging code: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(createErrorResponse("Failed to debug code: " + e.getMessage()));
-        }
+    public DeferredResult<ResponseEntity<?>> debugCode(@Valid @RequestBody DebugCodeRequest request,
+                                                       @RequestHeader(value = RequestDeadline.HEADER, required = false) String timeout) {
+        log.info("Received code debug request for language: {}", request.getLanguage());
+        return respond(codeAnalyzerService.debugCode(request), upstreamCallPolicy.deadline(timeout),
+                "Error debugging code", "Failed to debug code: ");
+    }
+
+    // Line edits against the session's latest revision; only the regions they touch are debugged again
+    @PostMapping("/debug/incremental")
+    public DeferredResult<ResponseEntity<?>> debugIncremental(@Valid @RequestBody IncrementalDebugRequest request,
+                                                              @RequestHeader(value = RequestDeadline.HEADER, required = false) String timeout) {
+        log.info("Received incremental code debug request for session: {}", request.getSessionId());
+        return respond(incrementalDebugService.debug(request), upstreamCallPolicy.deadline(timeout),
+                "Error debugging code", "Failed to debug code: ");
+    }
+
+    // Analysis and debug findings together, from one Gemini call when neither is cached
+    @PostMapping("/review")
+    public DeferredResult<ResponseEntity<?>> reviewCode(@Valid @RequestBody ReviewCodeRequest request,
+                                                        @RequestHeader(value = RequestDeadline.HEADER, required = false) String timeout) {
+        log.info("Received code review request for language: {}", request.getLanguage());
+        return respond(reviewService.reviewCode(request), upstreamCallPolicy.deadline(timeout),
+                "Error reviewing code", "Failed to review code: ");
+    }
+
+    @PostMapping(value = "/analyze/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamAnalysis(@Valid @RequestBody AnalyzeCodeRequest request,
+                                                        @RequestHeader(value = RequestDeadline.HEADER, required = false) String timeout) {
+        log.info("Received streamed code analysis request for language: {}", request.getLanguage());
+        return codeAnalyzerService.streamAnalysis(request)
+                .onErrorResume(e -> streamError("Error analyzing code", "Failed to analyze code: ", e))
+                .contextWrite(upstreamCallPolicy.deadline(timeout)::addTo);
+    }
+
+    @PostMapping(value = "/debug/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamDebug(@Valid @RequestBody DebugCodeRequest request,
+                                                     @RequestHeader(value = RequestDeadline.HEADER, required = false) String timeout) {
+        log.info("Received streamed code debug request for language: {}", request.getLanguage());
+        return codeAnalyzerService.streamDebug(request)
+                .onErrorResume(e -> streamError("Error debugging code", "Failed to debug code: ", e))
+                .contextWrite(upstreamCallPolicy.deadline(timeout)::addTo);
     }
 
     @GetMapping("/health")
@@ -58,6 +119,49 @@ public class CodeAnalyzerController {
         return ResponseEntity.ok(response);
     }
 
+    // The deadline bounds the whole request, retries included
+    private DeferredResult<ResponseEntity<?>> respond(Mono<?> result, RequestDeadline deadline, String logMessage, String errorPrefix) {
+        Mono<ResponseEntity<?>> response = result
+                .timeout(deadline.remaining(), Mono.error(deadline::exceeded))
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(UpstreamOverloadedException.class, e -> Mono.just(ResponseEntity.status(e.getStatus())
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfter().toSeconds()))
+                        .body(createErrorResponse(errorPrefix + e.getMessage()))))
+                .onErrorResume(EditRejectedException.class, e -> Mono.just(ResponseEntity.status(e.getStatus())
+                        .body(createErrorResponse(errorPrefix + e.getMessage()))))
+                .onErrorResume(TimeoutException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                        .body(createErrorResponse(errorPrefix + e.getMessage()))))
+                .onErrorResume(e -> {
+                    log.error("{}: {}", logMessage, e.getMessage(), e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(createErrorResponse(errorPrefix + e.getMessage())));
+                })
+                .contextWrite(deadline::addTo);
+
+        if ("blocking".equalsIgnoreCase(executionMode)) {
+            DeferredResult<ResponseEntity<?>> blocked = new DeferredResult<>();
+            blocked.setResult(response.block());
+            return blocked;
+        }
+        // Cancelled, upstream call included, if the client disconnects first
+        return new CancellableResult<>(response);
+    }
+
+    // The stream has already started with a 200, so an overload is reported in the event instead of the status
+    private Flux<ServerSentEvent<Object>> streamError(String logMessage, String errorPrefix, Throwable e) {
+        Map<String, String> error = createErrorResponse(errorPrefix + e.getMessage());
+        if (e instanceof UpstreamOverloadedException overloaded) {
+            error.put("retryAfter", String.valueOf(overloaded.getRetryAfter().toSeconds()));
+        } else if (e instanceof TimeoutException) {
+            log.warn("{}: {}", logMessage, e.getMessage());
+        } else {
+            log.error("{}: {}", logMessage, e.getMessage(), e);
+        }
+        return Flux.just(ServerSentEvent.<Object>builder(error)
+                .event("error")
+                .build());
+    }
+
     private Map<String, String> createErrorResponse(String message) {
         Map<String, String> error = new HashMap<>();
         error.put("error", message);
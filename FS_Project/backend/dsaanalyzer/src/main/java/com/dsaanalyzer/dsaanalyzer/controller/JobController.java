@@ -0,0 +1,83 @@
+package com.dsaanalyzer.dsaanalyzer.controller;
+
+import com.dsaanalyzer.dsaanalyzer.model.Job;
+import com.dsaanalyzer.dsaanalyzer.model.JobRequest;
+import com.dsaanalyzer.dsaanalyzer.service.JobRejectedException;
+import com.dsaanalyzer.dsaanalyzer.service.JobService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/jobs")
+@RequiredArgsConstructor
+@Slf4j
+public class JobController {
+
+    /** Jobs of different tenants take turns; without the header a job belongs to the shared "anonymous" tenant. */
+    public static final String TENANT_HEADER = "X-Tenant-Id";
+
+    private final JobService jobService;
+
+    @Value("${analysis.jobs.max-wait:PT60S}")
+    private Duration maxWait;
+
+    @PostMapping
+    public ResponseEntity<?> submit(@Valid @RequestBody JobRequest request,
+                                    @RequestHeader(value = TENANT_HEADER, defaultValue = "anonymous") String tenant) {
+        try {
+            Job job = jobService.submit(request, tenant);
+            log.info("Accepted {} job {} for tenant {}", job.getRequest().getType(), job.getId(), tenant);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/jobs/" + job.getId()))
+                    .body(job);
+        } catch (JobRejectedException e) {
+            log.warn("Rejected job for tenant {}: {}", tenant, e.getMessage());
+            return ResponseEntity.status(e.getStatus()).body(createErrorResponse(e.getMessage()));
+        }
+    }
+
+    // With ?wait=PT30S (or 30s) the response is held until the job finishes or the wait runs out
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<?>> get(@PathVariable String id, @RequestParam(required = false) Duration wait) {
+        Mono<Job> job = wait == null
+                ? Mono.fromSupplier(() -> jobService.get(id))
+                : jobService.await(id, wait.compareTo(maxWait) > 0 ? maxWait : wait);
+        return job.<ResponseEntity<?>>map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).body(createErrorResponse("Unknown job " + id)));
+    }
+
+    // One "status" event per state change; the stream ends once the job has finished
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> events(@PathVariable String id) {
+        if (jobService.get(id) == null) {
+            return Flux.just(ServerSentEvent.<Object>builder(createErrorResponse("Unknown job " + id))
+                    .event("error")
+                    .build());
+        }
+        return jobService.events(id)
+                .map(job -> ServerSentEvent.<Object>builder(job)
+                        .event("status")
+                        .build());
+    }
+
+    private Map<String, String> createErrorResponse(String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        error.put("status", "failed");
+        return error;
+    }
+}
@@ -0,0 +1,92 @@
+package com.dsaanalyzer.dsaanalyzer.controller;
+
+import com.dsaanalyzer.dsaanalyzer.model.LiveResult;
+import com.dsaanalyzer.dsaanalyzer.model.LiveUpdate;
+import com.dsaanalyzer.dsaanalyzer.service.LiveAnalysisService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import reactor.core.Disposable;
+import reactor.core.publisher.Sinks;
+
+import java.io.IOException;
+
+/**
+ * The /api/v1/live WebSocket: the editor sends a {@link LiveUpdate} per revision as the user
+ * types and receives a {@link LiveResult} whenever the latest one has been processed. Each
+ * connection is its own session; closing it cancels whatever it still has pending.
+ */
+@Component
+@Slf4j
+public class LiveAnalysisHandler extends TextWebSocketHandler {
+
+    private static final String CHANNEL = "liveChannel";
+    private static final int SEND_TIME_LIMIT_MILLIS = 10_000;
+
+    private final LiveAnalysisService liveAnalysisService;
+    private final ObjectMapper objectMapper;
+    private final int maxMessageSize;
+
+    public LiveAnalysisHandler(LiveAnalysisService liveAnalysisService,
+                               ObjectMapper objectMapper,
+                               @Value("${analysis.live.max-message-size:512KB}") DataSize maxMessageSize) {
+        this.liveAnalysisService = liveAnalysisService;
+        this.objectMapper = objectMapper;
+        this.maxMessageSize = (int) maxMessageSize.toBytes();
+    }
+
+    // Everything sent on the connection, error replies included, goes through out
+    private record Channel(WebSocketSession out, Sinks.Many<LiveUpdate> revisions, Disposable results) {
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        session.setTextMessageSizeLimit(maxMessageSize);
+        // Results are sent from Reactor threads while the container may be writing too
+        WebSocketSession out = new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MILLIS, 2 * maxMessageSize);
+        Sinks.Many<LiveUpdate> revisions = Sinks.many().unicast().onBackpressureBuffer();
+        Disposable results = liveAnalysisService.results(revisions.asFlux())
+                .subscribe(result -> send(out, result));
+        session.getAttributes().put(CHANNEL, new Channel(out, revisions, results));
+        log.info("Live analysis connection {} opened", session.getId());
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        Channel channel = (Channel) session.getAttributes().get(CHANNEL);
+        LiveUpdate update;
+        try {
+            update = objectMapper.readValue(message.getPayload(), LiveUpdate.class);
+        } catch (JsonProcessingException e) {
+            send(channel.out(), LiveResult.builder().error("Unreadable message: " + e.getOriginalMessage()).build());
+            return;
+        }
+        // The container delivers one message at a time per connection, so emissions never race
+        channel.revisions().tryEmitNext(update);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Channel channel = (Channel) session.getAttributes().remove(CHANNEL);
+        if (channel != null) {
+            channel.results().dispose();
+        }
+        log.info("Live analysis connection {} closed: {}", session.getId(), status);
+    }
+
+    private void send(WebSocketSession session, LiveResult result) {
+        try {
+            session.sendMessage(new TextMessage(objectMapper.writeValueAsString(result)));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Could not send live result to {}: {}", session.getId(), e.getMessage());
+        }
+    }
+}
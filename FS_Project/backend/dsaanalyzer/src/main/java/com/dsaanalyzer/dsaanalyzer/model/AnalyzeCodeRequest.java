@@ -16,4 +16,7 @@ public class AnalyzeCodeRequest {
     private String code;
 
     private String language; // e.g., "javascript", "java", "python"
+
+    private String mode; // "full" (default), "fast" (local estimate only), "hybrid" (local now, LLM warms the cache),
+                         // "measure" (full analysis plus a measured run of Java code)
 }
\ No newline at end of file
@@ -10,7 +10,7 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class AnalyzeCodeResponse {
 
     private String timeComplexity;
@@ -28,4 +28,15 @@ public class AnalyzeCodeResponse {
     private List<Integer> timeGraph;
 
     private List<Integer> spaceGraph;
+
+    private String source; // "local" for static estimates, "catalog" for catalogued algorithms, "similar" for a near-duplicate's LLM result; omitted for LLM results
+
+    private Double similarity; // only for source "similar": estimated similarity to the submission the result was computed for
+
+    private Boolean degraded; // true when Gemini was unavailable and the answer is the local estimate (source "local")
+
+    private ComplexityMeasurement measurement; // only for mode "measure"; the graphs then hold measured values
+
+    private List<FunctionAnalysis> functions; // only for large files analyzed function by function; the top-level
+                                              // fields then describe the most expensive function, callees included
 }
\ No newline at end of file
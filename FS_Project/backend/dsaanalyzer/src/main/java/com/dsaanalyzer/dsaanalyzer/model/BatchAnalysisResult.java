@@ -0,0 +1,25 @@
+package com.dsaanalyzer.dsaanalyzer.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of the /analyze/batch NDJSON response. Lines arrive in completion order, so
+ * {@code index} (and {@code id}, when the item had one) tie each back to its item.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchAnalysisResult {
+
+    private long index; // position of the item in the uploaded batch; -1 for an error about the batch itself
+
+    private String id; // the item's own "id" field, echoed back; omitted if it had none
+
+    private AnalyzeCodeResponse result;
+
+    private String error; // set instead of result when the item could not be analyzed
+}
@@ -0,0 +1,31 @@
+package com.dsaanalyzer.dsaanalyzer.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ComplexityMeasurement {
+
+    private String method; // signature of the method that was executed, e.g. "sort(int[] a)"
+
+    private List<Integer> sizes;
+
+    private List<Long> timeNanos; // best-of-repetitions wall time per size
+
+    private List<Long> allocatedBytes; // bytes allocated by that run (ThreadMXBean)
+
+    private String timeComplexity; // best-fitting class for timeNanos
+
+    private String allocationComplexity; // best-fitting class for allocatedBytes (total allocation, not peak space)
+
+    private Long elapsedMillis;
+
+    private String error; // why measuring stopped early or could not run
+}
@@ -20,4 +20,8 @@ public class DebugCodeResponse {
     private String explanation;
 
     private List<String> fixSuggestions;
+
+    private String source; // "compiler" when answered from compiler diagnostics alone; omitted otherwise
+
+    private Boolean degraded; // true when Gemini was unavailable and only compiler diagnostics are reported
 }
\ No newline at end of file
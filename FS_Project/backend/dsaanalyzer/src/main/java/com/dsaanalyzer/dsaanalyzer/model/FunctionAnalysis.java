@@ -0,0 +1,31 @@
+package com.dsaanalyzer.dsaanalyzer.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FunctionAnalysis {
+
+    private String name;
+
+    private int startLine; // 1-based, in the submitted file
+
+    private int endLine; // inclusive
+
+    private String timeComplexity; // including the functions it calls
+
+    private String spaceComplexity;
+
+    private String pattern;
+
+    private String summary;
+
+    private String source; // as in AnalyzeCodeResponse; omitted for LLM results
+
+    private Boolean degraded; // true when this function was answered from the local estimate
+}
@@ -0,0 +1,28 @@
+package com.dsaanalyzer.dsaanalyzer.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shape of the JSON Gemini returns for an analysis prompt. Missing fields fall back to
+ * the same defaults the tree-based parser used; a list sent as a single string is one item.
+ */
+public record GeminiAnalysisPayload(
+        String timeComplexity,
+        String spaceComplexity,
+        String pattern,
+        String summary,
+        @JsonFormat(with = JsonFormat.Feature.ACCEPT_SINGLE_VALUE_AS_ARRAY) List<String> intuition,
+        @JsonFormat(with = JsonFormat.Feature.ACCEPT_SINGLE_VALUE_AS_ARRAY) List<String> suggestions) {
+
+    public GeminiAnalysisPayload {
+        timeComplexity = timeComplexity != null ? timeComplexity : "O(n)";
+        spaceComplexity = spaceComplexity != null ? spaceComplexity : "O(1)";
+        pattern = pattern != null ? pattern : "Unknown";
+        summary = summary != null ? summary : "";
+        intuition = intuition != null ? intuition : new ArrayList<>();
+        suggestions = suggestions != null ? suggestions : new ArrayList<>();
+    }
+}
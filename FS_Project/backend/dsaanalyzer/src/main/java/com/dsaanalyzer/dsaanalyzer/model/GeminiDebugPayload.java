@@ -0,0 +1,41 @@
+package com.dsaanalyzer.dsaanalyzer.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shape of the JSON Gemini returns for a debug prompt. Missing fields fall back to
+ * the same defaults the tree-based parser used; a list sent as a single value is one item.
+ */
+public record GeminiDebugPayload(
+        @JsonFormat(with = JsonFormat.Feature.ACCEPT_SINGLE_VALUE_AS_ARRAY) List<Issue> issues,
+        String explanation,
+        @JsonFormat(with = JsonFormat.Feature.ACCEPT_SINGLE_VALUE_AS_ARRAY) List<String> fixSuggestions) {
+
+    public GeminiDebugPayload {
+        issues = issues != null ? issues : new ArrayList<>();
+        explanation = explanation != null ? explanation : "";
+        fixSuggestions = fixSuggestions != null ? fixSuggestions : new ArrayList<>();
+    }
+
+    public record Issue(Integer line, String type, String message, String severity) {
+
+        public Issue {
+            line = line != null ? line : 0;
+            type = type != null ? type : "info";
+            message = message != null ? message : "";
+            severity = severity != null ? severity : "medium";
+        }
+
+        public CodeIssue toCodeIssue() {
+            return CodeIssue.builder()
+                    .line(line)
+                    .type(type)
+                    .message(message)
+                    .severity(severity)
+                    .build();
+        }
+    }
+}
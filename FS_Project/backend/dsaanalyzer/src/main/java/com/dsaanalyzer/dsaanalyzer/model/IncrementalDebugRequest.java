@@ -0,0 +1,29 @@
+package com.dsaanalyzer.dsaanalyzer.model;
+
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IncrementalDebugRequest {
+
+    private String sessionId; // omitted to start a session, which then needs the full code
+
+    private Long baseRevision; // the revision the edits apply to; must be the session's latest
+
+    private String code; // full code: starts a session, or replaces its code (e.g. after a 409)
+
+    @Valid
+    private List<LineEdit> edits; // changes against baseRevision, used when code is omitted
+
+    private String language;
+
+    private String errorMessage;
+}
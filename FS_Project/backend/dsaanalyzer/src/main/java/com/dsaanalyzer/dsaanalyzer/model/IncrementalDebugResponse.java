@@ -0,0 +1,23 @@
+package com.dsaanalyzer.dsaanalyzer.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IncrementalDebugResponse {
+
+    private String sessionId;
+
+    private long revision; // base revision for the next edits
+
+    private int regions; // functions and the code between them, each debugged on its own
+
+    private int reanalyzedRegions; // regions whose text changed since the session last saw them
+
+    private DebugCodeResponse debug; // for the whole file, with issue lines numbered in this revision
+}
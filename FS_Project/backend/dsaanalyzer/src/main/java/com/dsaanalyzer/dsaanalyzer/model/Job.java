@@ -0,0 +1,39 @@
+package com.dsaanalyzer.dsaanalyzer.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class Job {
+
+    private String id;
+
+    private String tenant; // from the X-Tenant-Id header; jobs of different tenants take turns
+
+    private String status; // "queued", "running", "succeeded" or "failed"
+
+    private JobRequest request;
+
+    private long submittedAt; // epoch milliseconds, as are startedAt and finishedAt
+
+    private Long startedAt;
+
+    private Long finishedAt;
+
+    private Long queueWaitMillis; // submission to the (last) start
+
+    private Long processingMillis; // the (last) start to completion
+
+    private int attempts; // starts so far; more than one when a restart interrupted the job
+
+    private AnalyzeCodeResponse analysis; // result of an "analyze" job
+
+    private DebugCodeResponse debug; // result of a "debug" job
+
+    private String error; // set instead of a result when the job failed
+}
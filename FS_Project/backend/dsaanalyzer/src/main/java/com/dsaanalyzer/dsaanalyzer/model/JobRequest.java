@@ -0,0 +1,30 @@
+package com.dsaanalyzer.dsaanalyzer.model;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class JobRequest {
+
+    @Pattern(regexp = "analyze|debug", message = "Type must be \"analyze\" or \"debug\"")
+    private String type; // "analyze" (default) or "debug"
+
+    @Pattern(regexp = "high|normal|low", message = "Priority must be \"high\", \"normal\" or \"low\"")
+    private String priority; // "normal" (default); higher priorities are always started first
+
+    @NotBlank(message = "Code cannot be empty")
+    private String code;
+
+    private String language;
+
+    private String mode; // analyze only, as in AnalyzeCodeRequest
+
+    private String errorMessage; // debug only, as in DebugCodeRequest
+}
@@ -0,0 +1,30 @@
+package com.dsaanalyzer.dsaanalyzer.model;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Replaces lines {@code startLine..endLine} (1-based, inclusive, numbered as in the base
+ * revision) with {@code lines}. An insertion before line k is {@code startLine = k,
+ * endLine = k - 1}; a deletion has no lines.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LineEdit {
+
+    @Min(1)
+    private int startLine;
+
+    private int endLine;
+
+    @NotNull
+    private List<String> lines;
+}
@@ -0,0 +1,27 @@
+package com.dsaanalyzer.dsaanalyzer.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A message pushed to the editor on the /api/v1/live WebSocket once the latest revision has
+ * been analyzed or debugged.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LiveResult {
+
+    private Long revision; // the revision answered; omitted for an unreadable message
+
+    private String type;
+
+    private AnalyzeCodeResponse analysis;
+
+    private DebugCodeResponse debug;
+
+    private String error; // set instead of analysis/debug when the revision could not be processed
+}
@@ -0,0 +1,32 @@
+package com.dsaanalyzer.dsaanalyzer.model;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A message from the editor on the /api/v1/live WebSocket: the code as of one revision.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LiveUpdate {
+
+    private long revision; // chosen by the client and echoed back; results only ever answer the latest one
+
+    @Pattern(regexp = "analyze|debug", message = "Type must be analyze or debug")
+    private String type; // "analyze" (default) or "debug"
+
+    @NotBlank(message = "Code cannot be empty")
+    private String code;
+
+    private String language;
+
+    private String mode; // analyze only, as in AnalyzeCodeRequest
+
+    private String errorMessage; // debug only, as in DebugCodeRequest
+}
@@ -0,0 +1,17 @@
+package com.dsaanalyzer.dsaanalyzer.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReviewCodeResponse {
+
+    private AnalyzeCodeResponse analysis; // as /analyze would answer (mode "full")
+
+    private DebugCodeResponse debug; // as /debug would answer
+}
@@ -0,0 +1,276 @@
+package com.dsaanalyzer.dsaanalyzer.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional micro-batching in front of {@link GeminiService#generateContent}: prompts arriving
+ * within {@code window} of the first one are sent as one upstream call, up to {@code max-size}
+ * prompts or an estimated {@code max-tokens} of input. The combined prompt repeats each prompt
+ * verbatim under a request id and asks for a JSON array of {@code {"id", "result"}} objects;
+ * each caller receives its own result as JSON text, just as a single call would have returned it.
+ *
+ * <p>If the reply cannot be parsed, or lacks a caller's id, the affected prompts are sent again
+ * as single calls. An upstream error fails every caller of the batch. The batch call runs with
+ * the earliest deadline among its callers, and is cancelled once every one of them has cancelled.
+ */
+@Component
+@Slf4j
+public class AnalysisBatcher {
+
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private final GeminiService geminiService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxSize;
+    private final int maxTokens;
+    private final Counter batches;
+    private final Counter fallbacks;
+    private final DistributionSummary batchSize;
+
+    // Guarded by this
+    private List<Item> pending = new ArrayList<>();
+    private int pendingTokens;
+    private long generation;
+
+    public AnalysisBatcher(GeminiService geminiService,
+                           ObjectMapper objectMapper,
+                           @Value("${analysis.batch.enabled:false}") boolean enabled,
+                           @Value("${analysis.batch.window:PT0.03S}") Duration window,
+                           @Value("${analysis.batch.max-size:8}") int maxSize,
+                           @Value("${analysis.batch.max-tokens:12000}") int maxTokens,
+                           MeterRegistry meterRegistry) {
+        this.geminiService = geminiService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxSize = Math.max(1, maxSize);
+        this.maxTokens = maxTokens;
+        this.batches = Counter.builder("analysis.batch.calls")
+                .description("Upstream calls carrying more than one analysis")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("analysis.batch.fallbacks")
+                .description("Batched analyses re-sent as single calls after an unusable batch reply")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("analysis.batch.size")
+                .description("Analyses per upstream call")
+                .register(meterRegistry);
+        log.info("Analysis batching enabled={} window={} maxSize={} maxTokens={}", enabled, window, maxSize, maxTokens);
+    }
+
+    public Mono<String> generateContent(String prompt) {
+        if (!enabled || maxSize == 1) {
+            return geminiService.generateContent(prompt);
+        }
+        return Mono.deferContextual(context -> Mono.<String>create(sink -> {
+            Item item = new Item(prompt, sink, context, prompt.length() / CHARS_PER_TOKEN);
+            sink.onCancel(() -> withdraw(item));
+            enqueue(item).forEach(this::dispatch);
+        }));
+    }
+
+    private synchronized List<List<Item>> enqueue(Item item) {
+        List<List<Item>> ready = new ArrayList<>(2);
+        if (!pending.isEmpty() && pendingTokens + item.tokens > maxTokens) {
+            ready.add(takePending());
+        }
+        pending.add(item);
+        pendingTokens += item.tokens;
+        if (pending.size() >= maxSize || pendingTokens >= maxTokens) {
+            ready.add(takePending());
+        } else if (pending.size() == 1) {
+            long scheduled = generation;
+            Schedulers.parallel().schedule(() -> flush(scheduled), windowNanos, TimeUnit.NANOSECONDS);
+        }
+        return ready;
+    }
+
+    private void flush(long scheduled) {
+        List<Item> batch;
+        synchronized (this) {
+            if (generation != scheduled || pending.isEmpty()) {
+                return;
+            }
+            batch = takePending();
+        }
+        dispatch(batch);
+    }
+
+    // Caller holds the lock
+    private List<Item> takePending() {
+        List<Item> batch = pending;
+        pending = new ArrayList<>();
+        pendingTokens = 0;
+        generation++;
+        return batch;
+    }
+
+    private void withdraw(Item item) {
+        Call call;
+        synchronized (this) {
+            if (pending.remove(item)) {
+                pendingTokens -= item.tokens;
+                return;
+            }
+            item.cancelled = true;
+            call = item.call;
+        }
+        if (call != null) {
+            call.release();
+        }
+    }
+
+    // A new upstream call for the items still wanted, or null when every one has cancelled
+    private synchronized Call bind(List<Item> items) {
+        List<Item> live = items.stream().filter(item -> !item.cancelled).toList();
+        if (live.isEmpty()) {
+            return null;
+        }
+        Call call = new Call(live.size());
+        live.forEach(item -> item.call = call);
+        return call;
+    }
+
+    private void dispatch(List<Item> batch) {
+        if (batch.size() == 1) {
+            single(batch.get(0));
+            return;
+        }
+        Call call = bind(batch);
+        if (call == null) {
+            return;
+        }
+        batches.increment();
+        batchSize.record(batch.size());
+        log.debug("Sending {} analyses in one upstream call", batch.size());
+
+        // The tightest caller deadline bounds the shared call
+        RequestDeadline deadline = batch.stream()
+                .map(item -> RequestDeadline.from(item.context).orElse(null))
+                .filter(Objects::nonNull)
+                .min(Comparator.comparingLong(RequestDeadline::expiresAtNanos))
+                .orElse(null);
+        call.upstream.update(geminiService.generateContent(batchPrompt(batch))
+                .defaultIfEmpty("")
+                .contextWrite(context -> deadline != null ? deadline.addTo(context) : context)
+                .subscribe(text -> demultiplex(batch, text),
+                        error -> batch.forEach(item -> item.sink.error(error))));
+    }
+
+    private void demultiplex(List<Item> batch, String text) {
+        Map<String, JsonNode> results = parseResults(text);
+        for (int i = 0; i < batch.size(); i++) {
+            Item item = batch.get(i);
+            JsonNode result = results.get(id(i));
+            if (result != null && result.isObject()) {
+                item.sink.success(result.toString());
+            } else {
+                fallbacks.increment();
+                single(item);
+            }
+        }
+    }
+
+    private Map<String, JsonNode> parseResults(String text) {
+        String array = JsonLocator.extractArray(text);
+        Map<String, JsonNode> results = new HashMap<>();
+        if (array == null) {
+            log.warn("Batch reply holds no JSON array, falling back to single calls");
+            return results;
+        }
+        try {
+            for (JsonNode element : objectMapper.readTree(array)) {
+                if (element.hasNonNull("id") && element.has("result")) {
+                    results.put(element.get("id").asText(), element.get("result"));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Unparseable batch reply, falling back to single calls: {}", e.getMessage());
+        }
+        return results;
+    }
+
+    private void single(Item item) {
+        Call call = bind(List.of(item));
+        if (call == null) {
+            return;
+        }
+        call.upstream.update(geminiService.generateContent(item.prompt)
+                .contextWrite(item.context)
+                .subscribe(item.sink::success, item.sink::error, item.sink::success));
+    }
+
+    private static String batchPrompt(List<Item> batch) {
+        StringBuilder prompt = new StringBuilder(String.format("""
+                Answer each of the %d independent requests below on its own.
+                Reply with ONLY a JSON array (no markdown or extra text) holding one element per request:
+                [{"id": "<request id>", "result": <the JSON object that request asks for>}]
+                """, batch.size()));
+        for (int i = 0; i < batch.size(); i++) {
+            prompt.append("\n=== REQUEST ").append(id(i)).append(" ===\n")
+                    .append(batch.get(i).prompt.strip())
+                    .append("\n=== END ").append(id(i)).append(" ===\n");
+        }
+        return prompt.toString();
+    }
+
+    private static String id(int index) {
+        return "r" + index;
+    }
+
+    // One upstream call and how many of its callers still want the result
+    private static final class Call {
+        final Disposable.Swap upstream = Disposables.swap();
+        private int live;
+
+        Call(int live) {
+            this.live = live;
+        }
+
+        synchronized void release() {
+            if (--live == 0) {
+                upstream.dispose();
+            }
+        }
+    }
+
+    private static final class Item {
+        final String prompt;
+        final MonoSink<String> sink;
+        final ContextView context;
+        final int tokens;
+        // Guarded by the batcher
+        boolean cancelled;
+        Call call;
+
+        Item(String prompt, MonoSink<String> sink, ContextView context, int tokens) {
+            this.prompt = prompt;
+            this.sink = sink;
+            this.context = context;
+            this.tokens = tokens;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.dsaanalyzer.dsaanalyzer.service;
+
+import com.dsaanalyzer.dsaanalyzer.analysis.AlgorithmCatalog;
+import com.dsaanalyzer.dsaanalyzer.analysis.ComplexityEstimate;
+import com.dsaanalyzer.dsaanalyzer.analysis.ComplexityEstimator;
+import com.dsaanalyzer.dsaanalyzer.model.AnalyzeCodeRequest;
+import com.dsaanalyzer.dsaanalyzer.model.AnalyzeCodeResponse;
+import com.dsaanalyzer.dsaanalyzer.model.GeminiAnalysisPayload;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds analysis responses from a Gemini reply, a catalog entry or the local estimator; shared
+ * by the whole-file, per-function and review paths.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AnalysisResponses {
+
+    private final ObjectMapper objectMapper;
+    private final ComplexityEstimator complexityEstimator;
+    private final AlgorithmCatalog algorithmCatalog;
+
+    AnalyzeCodeResponse parseAnalysisResponse(String response) throws JsonProcessingException {
+        // Extract JSON from response (in case there's extra text)
+        String jsonStr = JsonLocator.extract(response);
+        return toAnalysisResponse(objectMapper.readValue(jsonStr, GeminiAnalysisPayload.class));
+    }
+
+    AnalyzeCodeResponse catalogAnalysis(AnalyzeCodeRequest request) {
+        AlgorithmCatalog.Entry entry = algorithmCatalog.find(request.getCode(), request.getLanguage());
+        if (entry == null) {
+            return null;
+        }
+        log.debug("Answering from catalog entry {}", entry.id());
+        return toAnalysisResponse(entry.analysis()).toBuilder().source("catalog").build();
+    }
+
+    AnalyzeCodeResponse localAnalysis(AnalyzeCodeRequest request) {
+        ComplexityEstimate estimate = complexityEstimator.estimate(request.getCode(), request.getLanguage());
+        return AnalyzeCodeResponse.builder()
+                .timeComplexity(estimate.timeComplexity())
+                .spaceComplexity(estimate.spaceComplexity())
+                .pattern(estimate.pattern())
+                .summary(String.format("Static estimate: %s time and %s space (%s).",
+                        estimate.timeComplexity(), estimate.spaceComplexity(), estimate.pattern()))
+                .intuition(estimate.reasons())
+                .suggestions(estimate.suggestions())
+                .timeGraph(generateGraphData(estimate.time().notation()))
+                .spaceGraph(generateGraphData(estimate.spaceComplexity()))
+                .source("local")
+                .build();
+    }
+
+    // The local estimate standing in for an LLM answer that could not be had; never cached
+    AnalyzeCodeResponse degradedAnalysis(AnalyzeCodeRequest request) {
+        log.debug("Gemini unavailable, answering from the local estimate");
+        return localAnalysis(request).toBuilder().degraded(true).build();
+    }
+
+    private AnalyzeCodeResponse toAnalysisResponse(GeminiAnalysisPayload payload) {
+        return AnalyzeCodeResponse.builder()
+                .timeComplexity(payload.timeComplexity())
+                .spaceComplexity(payload.spaceComplexity())
+                .pattern(payload.pattern())
+                .summary(payload.summary())
+                .intuition(payload.intuition())
+                .suggestions(payload.suggestions())
+                // Generate graph data based on complexity
+                .timeGraph(generateGraphData(payload.timeComplexity()))
+                .spaceGraph(generateGraphData(payload.spaceComplexity()))
+                .build();
+    }
+
+    static List<Integer> generateGraphData(String complexity) {
+        // Generate sample data points based on complexity
+        // This simulates how the complexity grows with input size
+        complexity = complexity.toUpperCase().trim();
+
+        List<Integer> data = new ArrayList<>();
+        int[] sizes = {10, 20, 40, 80, 160}; // Input sizes
+
+        for (int n : sizes) {
+            int value;
+            if (complexity.contains("O(1)")) {
+                value = 5; // Constant
+            } else if (complexity.contains("O(LOG N)") || complexity.contains("O(LOGN)")) {
+                value = (int) (Math.log(n) / Math.log(2)) * 5;
+            } else if (complexity.contains("O(N LOG N)") || complexity.contains("O(NLOGN)")) {
+                value = (int) (n * (Math.log(n) / Math.log(2)));
+            } else if (complexity.contains("O(N²)") || complexity.contains("O(N^2)")) {
+                value = n * n / 10;
+            } else if (complexity.contains("O(N³)") || complexity.contains("O(N^3)")) {
+                value = n * n * n / 100;
+            } else if (complexity.contains("O(2^N)")) {
+                value = (int) Math.pow(2, n / 10);
+            } else { // Default O(n)
+                value = n;
+            }
+            data.add(value);
+        }
+
+        return data;
+    }
+}
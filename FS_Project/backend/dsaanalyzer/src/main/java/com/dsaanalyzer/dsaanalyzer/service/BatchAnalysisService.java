@@ -0,0 +1,137 @@
+package com.dsaanalyzer.dsaanalyzer.service;
+
+import com.dsaanalyzer.dsaanalyzer.model.AnalyzeCodeRequest;
+import com.dsaanalyzer.dsaanalyzer.model.BatchAnalysisResult;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Analyzes an uploaded batch of submissions. The body (a JSON array of AnalyzeCodeRequest
+ * objects, or the same objects as NDJSON, each optionally with an {@code id}) is parsed one item
+ * at a time as the items are needed, at most {@code parallelism} items are analyzed at once,
+ * and each result is emitted as soon as it completes; memory use does not grow with the batch.
+ *
+ * <p>Items go through {@link CodeAnalyzerService#analyzeCode} like single requests, so repeated
+ * submissions are analyzed once: a duplicate of an item still in flight joins its upstream
+ * call, a later one is a cache hit. A bad item yields an error line; a malformed body ends the
+ * stream with an error line of index -1.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BatchAnalysisService {
+
+    private final CodeAnalyzerService codeAnalyzerService;
+    private final UpstreamCallPolicy upstreamCallPolicy;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${analysis.batch-api.parallelism:8}")
+    private int parallelism;
+
+    public Flux<BatchAnalysisResult> analyzeBatch(InputStream body, String requestedTimeout) {
+        AtomicReference<Throwable> malformed = new AtomicReference<>();
+        Flux<BatchAnalysisResult> results = items(body)
+                .onErrorResume(e -> {
+                    malformed.set(e);
+                    return Flux.empty();
+                })
+                .index()
+                .flatMap(item -> analyzeItem(item.getT1(), item.getT2(), requestedTimeout), parallelism);
+        return results.concatWith(Mono.defer(() -> {
+            Throwable error = malformed.get();
+            if (error == null) {
+                return Mono.empty();
+            }
+            log.warn("Malformed batch body: {}", error.getMessage());
+            return Mono.just(failure(-1, null, "Malformed batch body: " + rootMessage(error)));
+        }));
+    }
+
+    // Blocking reads of the request body, pulled one item per demand on a worker thread
+    private Flux<ObjectNode> items(InputStream body) {
+        return Flux.<ObjectNode, JsonParser>generate(
+                        () -> objectMapper.getFactory().createParser(body),
+                        (parser, sink) -> {
+                            try {
+                                JsonToken token = parser.nextToken();
+                                if (token == JsonToken.START_ARRAY) {
+                                    token = parser.nextToken();
+                                }
+                                if (token == null || token == JsonToken.END_ARRAY) {
+                                    sink.complete();
+                                } else if (token == JsonToken.START_OBJECT) {
+                                    sink.next(parser.readValueAsTree());
+                                } else {
+                                    sink.error(new IllegalArgumentException("Expected an object but found " + token
+                                            + " at line " + parser.currentLocation().getLineNr()));
+                                }
+                            } catch (IOException e) {
+                                sink.error(e);
+                            }
+                            return parser;
+                        },
+                        parser -> {
+                            try {
+                                parser.close();
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<BatchAnalysisResult> analyzeItem(long index, ObjectNode item, String requestedTimeout) {
+        JsonNode idNode = item.remove("id");
+        String id = idNode == null || idNode.isNull() ? null : idNode.asText();
+        AnalyzeCodeRequest request;
+        try {
+            request = objectMapper.treeToValue(item, AnalyzeCodeRequest.class);
+        } catch (JsonProcessingException e) {
+            return Mono.just(failure(index, id, "Invalid item: " + e.getOriginalMessage()));
+        }
+        Set<ConstraintViolation<AnalyzeCodeRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return Mono.just(failure(index, id, violations.iterator().next().getMessage()));
+        }
+
+        // Each item gets its own deadline, starting when its analysis starts
+        RequestDeadline deadline = upstreamCallPolicy.deadline(requestedTimeout);
+        return codeAnalyzerService.analyzeCode(request)
+                .timeout(deadline.remaining(), Mono.error(deadline::exceeded))
+                .map(result -> BatchAnalysisResult.builder().index(index).id(id).result(result).build())
+                .onErrorResume(e -> Mono.just(failure(index, id, "Failed to analyze code: " + e.getMessage())))
+                .contextWrite(deadline::addTo);
+    }
+
+    private static BatchAnalysisResult failure(long index, String id, String message) {
+        return BatchAnalysisResult.builder().index(index).id(id).error(message).build();
+    }
+
+    private static String rootMessage(Throwable error) {
+        Throwable root = error;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+}
@@ -0,0 +1,9 @@
+package com.dsaanalyzer.dsaanalyzer.service;
+
+/** A Gemini call the {@link UpstreamCircuitBreaker} did not attempt. */
+public class CircuitOpenException extends RuntimeException {
+
+    public CircuitOpenException(String message) {
+        super(message, null, false, false);
+    }
+}
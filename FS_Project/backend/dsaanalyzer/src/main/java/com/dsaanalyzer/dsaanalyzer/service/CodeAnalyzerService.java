@@ -1,49 +1,422 @@
 package com.dsaanalyzer.dsaanalyzer.service;
 
+import com.dsaanalyzer.dsaanalyzer.analysis.AlgorithmCatalog;
+import com.dsaanalyzer.dsaanalyzer.analysis.CodeNormalizer;
+import com.dsaanalyzer.dsaanalyzer.analysis.CompilerDiagnostics;
+import com.dsaanalyzer.dsaanalyzer.analysis.ComplexityEstimate;
+import com.dsaanalyzer.dsaanalyzer.analysis.ComplexityEstimator;
+import com.dsaanalyzer.dsaanalyzer.analysis.ComplexityMeasurer;
+import com.dsaanalyzer.dsaanalyzer.analysis.FunctionSplitter;
+import com.dsaanalyzer.dsaanalyzer.analysis.Language;
+import com.dsaanalyzer.dsaanalyzer.cache.AnalysisCache;
+import com.dsaanalyzer.dsaanalyzer.cache.CacheKey;
+import com.dsaanalyzer.dsaanalyzer.cache.RequestCoalescer;
+import com.dsaanalyzer.dsaanalyzer.cache.SimilarityIndex;
 import com.dsaanalyzer.dsaanalyzer.model.AnalyzeCodeRequest;
 import com.dsaanalyzer.dsaanalyzer.model.AnalyzeCodeResponse;
 import com.dsaanalyzer.dsaanalyzer.model.CodeIssue;
+import com.dsaanalyzer.dsaanalyzer.model.ComplexityMeasurement;
 import com.dsaanalyzer.dsaanalyzer.model.DebugCodeRequest;
 import com.dsaanalyzer.dsaanalyzer.model.DebugCodeResponse;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.dsaanalyzer.dsaanalyzer.model.GeminiDebugPayload;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CodeAnalyzerService {
 
+    // Bump whenever buildAnalysisPrompt/buildDebugPrompt change so stale cache entries are not served
+    static final String PROMPT_VERSION = "1";
+
+    private static final Set<String> ANALYSIS_STREAM_FIELDS =
+            Set.of("timeComplexity", "spaceComplexity", "pattern", "summary", "intuition", "suggestions");
+    private static final Set<String> DEBUG_STREAM_FIELDS = Set.of("issues", "explanation", "fixSuggestions");
+
     private final GeminiService geminiService;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AnalysisCache analysisCache;
+    private final RequestCoalescer requestCoalescer;
+    private final ObjectMapper objectMapper;
+    private final ComplexityEstimator complexityEstimator;
+    private final ComplexityMeasurer complexityMeasurer;
+    private final CompilerDiagnostics compilerDiagnostics;
+    private final SimilarityIndex similarityIndex;
+    private final AnalysisBatcher analysisBatcher;
+    private final AnalysisResponses analysisResponses;
+    private final FunctionSplitAnalysisService functionSplitAnalysisService;
+
+    // Builds the payload deserializers (and Blackbird accessors) before the first real request
+    @PostConstruct
+    void warmUpParsers() throws JsonProcessingException {
+        analysisResponses.parseAnalysisResponse("""
+                {"timeComplexity": "O(n)", "spaceComplexity": "O(1)", "pattern": "Warm-up", "summary": "",
+                 "intuition": ["a"], "suggestions": ["b"]}""");
+        parseDebugResponse("""
+                {"issues": [{"line": 1, "type": "info", "message": "", "severity": "low"}],
+                 "explanation": "", "fixSuggestions": ["c"]}""", "");
+    }
 
-    public AnalyzeCodeResponse analyzeCode(AnalyzeCodeRequest request) {
-        log.info("Starting code analysis for language: {}", request.getLanguage());
+    /**
+     * Analyzes the submission according to {@link AnalyzeCodeRequest#getMode()}: "fast" answers
+     * from the local static estimator only, "hybrid" answers locally right away (unless the LLM
+     * result is already cached) and fetches the LLM analysis in the background so the next
+     * identical request gets the full answer, "measure" runs Java code at growing input sizes
+     * alongside the LLM call and replaces the graphs with the measured series, anything else
+     * waits for the LLM. Apart from "fast", a near-duplicate of an already analyzed submission
+     * is answered from that submission's result. Textbook implementations in the
+     * {@link AlgorithmCatalog} are answered from the catalog in every mode.
+     */
+    public Mono<AnalyzeCodeResponse> analyzeCode(AnalyzeCodeRequest request) {
+        log.info("Starting code analysis for language: {} (mode: {})", request.getLanguage(), request.getMode());
+
+        AnalyzeCodeResponse catalogued = analysisResponses.catalogAnalysis(request);
+        if (catalogued != null && !"measure".equalsIgnoreCase(request.getMode())) {
+            return Mono.just(catalogued);
+        }
+        if ("fast".equalsIgnoreCase(request.getMode())) {
+            return Mono.fromSupplier(() -> analysisResponses.localAnalysis(request));
+        }
+        if (request.getMode() == null || "full".equalsIgnoreCase(request.getMode())) {
+            List<FunctionSplitter.SourceFunction> functions = functionSplitAnalysisService.split(request);
+            if (functions != null) {
+                return functionSplitAnalysisService.analyze(request, functions);
+            }
+        }
 
-        String prompt = buildAnalysisPrompt(request);
-        String geminiResponse = geminiService.generateContent(prompt);
+        String cacheKey = analysisCacheKey(request);
+        AnalyzeCodeResponse cached = catalogued != null ? catalogued : analysisCache.getAnalysis(cacheKey);
+        if (cached == null) {
+            cached = similarAnalysis(request);
+        }
+        if ("measure".equalsIgnoreCase(request.getMode())) {
+            // The measurement runs while the LLM call is in flight, so it rarely adds latency
+            return Mono.zip(cached != null ? Mono.just(cached) : fetchAnalysis(cacheKey, request),
+                    complexityMeasurer.measure(request.getCode(), request.getLanguage()),
+                    this::withMeasurement);
+        }
+        if (cached != null) {
+            log.debug("Analysis cache hit for key {}", cacheKey);
+            return Mono.just(cached);
+        }
+
+        if ("hybrid".equalsIgnoreCase(request.getMode())) {
+            fetchAnalysis(cacheKey, request).subscribe(
+                    response -> log.debug("Background analysis cached for key {}", cacheKey),
+                    error -> log.warn("Background analysis failed: {}", error.getMessage()));
+            return Mono.fromSupplier(() -> analysisResponses.localAnalysis(request));
+        }
+
+        return fetchAnalysis(cacheKey, request);
+    }
+
+    private Mono<AnalyzeCodeResponse> fetchAnalysis(String cacheKey, AnalyzeCodeRequest request) {
+        return requestCoalescer.execute(cacheKey, () -> analysisBatcher.generateContent(buildAnalysisPrompt(request))
+                        .map(geminiResponse -> toAnalysisResponse(cacheKey, request, geminiResponse))
+                        .switchIfEmpty(Mono.fromSupplier(() -> analysisResponses.degradedAnalysis(request))))
+                .onErrorResume(CodeAnalyzerService::isUpstreamUnavailable, e -> Mono.fromSupplier(() -> analysisResponses.degradedAnalysis(request)));
+    }
 
-        return parseAnalysisResponse(geminiResponse);
+    // Copies rather than mutates: the analysis may be a shared cache entry
+    private AnalyzeCodeResponse withMeasurement(AnalyzeCodeResponse analysis, ComplexityMeasurement measurement) {
+        AnalyzeCodeResponse.AnalyzeCodeResponseBuilder response = analysis.toBuilder().measurement(measurement);
+        if (measurement.getTimeNanos() != null && !measurement.getTimeNanos().isEmpty()) {
+            response.timeGraph(measurement.getTimeNanos().stream()
+                    .map(nanos -> (int) Math.min(Integer.MAX_VALUE, nanos / 1_000))
+                    .toList());
+            response.spaceGraph(measurement.getAllocatedBytes().stream()
+                    .map(bytes -> (int) Math.min(Integer.MAX_VALUE, bytes))
+                    .toList());
+        }
+        return response.build();
     }
 
-    public DebugCodeResponse debugCode(DebugCodeRequest request) {
+    /**
+     * Compiler diagnostics come first: when javac's errors alone account for the reported error
+     * the LLM is not called at all, otherwise its findings are merged behind the exact-line
+     * compiler issues.
+     */
+    public Mono<DebugCodeResponse> debugCode(DebugCodeRequest request) {
         log.info("Starting code debugging for language: {}", request.getLanguage());
 
-        String prompt = buildDebugPrompt(request);
-        String geminiResponse = geminiService.generateContent(prompt);
+        return compilerIssues(request).flatMap(compilerIssues -> debugCode(request, compilerIssues));
+    }
+
+    // For the ReviewService, and for single regions of the IncrementalDebugService, which merges the whole file's compiler issues itself
+    Mono<DebugCodeResponse> debugCode(DebugCodeRequest request, List<CodeIssue> compilerIssues) {
+        DebugCodeResponse known = knownDebug(request, compilerIssues);
+        if (known != null) {
+            return Mono.just(known);
+        }
+
+        // A coalesced result may have been produced for another caller's (equivalent) submission
+        String cacheKey = debugCacheKey(request);
+        return requestCoalescer.execute(cacheKey, () -> geminiService.generateContent(buildDebugPrompt(request))
+                        .map(geminiResponse -> toDebugResponse(cacheKey, geminiResponse, request.getCode()))
+                        .switchIfEmpty(Mono.fromSupplier(() -> degradedDebugResponse(request.getCode()))))
+                .onErrorResume(CodeAnalyzerService::isUpstreamUnavailable,
+                        e -> Mono.fromSupplier(() -> degradedDebugResponse(request.getCode())))
+                .map(response -> withCompilerIssues(withCode(response, request.getCode()), compilerIssues));
+    }
+
+    // What the debugger answers without calling Gemini, or null
+    DebugCodeResponse knownDebug(DebugCodeRequest request, List<CodeIssue> compilerIssues) {
+        if (CompilerDiagnostics.explains(compilerIssues, request.getErrorMessage())) {
+            log.debug("Compiler diagnostics explain the reported error, skipping Gemini");
+            return createCompilerDebugResponse(request.getCode(), compilerIssues);
+        }
+        String cacheKey = debugCacheKey(request);
+        DebugCodeResponse cached = analysisCache.getDebug(cacheKey);
+        if (cached != null) {
+            log.debug("Debug cache hit for key {}", cacheKey);
+            return withCompilerIssues(withCode(cached, request.getCode()), compilerIssues);
+        }
+        return null;
+    }
+
+    // What /analyze answers in mode "full" without calling Gemini, or null
+    AnalyzeCodeResponse knownAnalysis(AnalyzeCodeRequest request) {
+        AnalyzeCodeResponse known = analysisResponses.catalogAnalysis(request);
+        if (known == null) {
+            known = analysisCache.getAnalysis(analysisCacheKey(request));
+        }
+        return known != null ? known : similarAnalysis(request);
+    }
+
+    Mono<List<CodeIssue>> compilerIssues(DebugCodeRequest request) {
+        if (!compilerDiagnostics.applies(request.getCode(), request.getLanguage())) {
+            return Mono.just(List.of());
+        }
+        // javac is CPU-bound and blocking; keep it off the event loop
+        return Mono.fromCallable(() -> compilerDiagnostics.diagnose(request.getCode(), request.getLanguage()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> {
+                    log.warn("Compiler diagnostics failed: {}", e.getMessage());
+                    return Mono.just(List.of());
+                });
+    }
+
+    /**
+     * Streams analysis fields as SSE events while Gemini is still generating, followed by a
+     * final "result" event carrying the complete response (including graph data).
+     */
+    public Flux<ServerSentEvent<Object>> streamAnalysis(AnalyzeCodeRequest request) {
+        log.info("Starting streamed code analysis for language: {}", request.getLanguage());
+
+        AnalyzeCodeResponse catalogued = analysisResponses.catalogAnalysis(request);
+        if (catalogued != null) {
+            return Flux.just(event("result", catalogued));
+        }
+
+        String cacheKey = analysisCacheKey(request);
+        AnalyzeCodeResponse cached = analysisCache.getAnalysis(cacheKey);
+        if (cached == null) {
+            cached = similarAnalysis(request);
+        }
+        if (cached != null) {
+            log.debug("Analysis cache hit for key {}", cacheKey);
+            return Flux.just(event("result", cached));
+        }
+
+        return Flux.defer(() -> {
+            IncrementalJsonParser parser = new IncrementalJsonParser(objectMapper);
+            StringBuilder text = new StringBuilder();
+            // The local estimate lands long before the first Gemini chunk
+            return Mono.fromSupplier(() -> event("estimate", analysisResponses.localAnalysis(request)))
+                    .concatWith(geminiService.streamContent(buildAnalysisPrompt(request))
+                            .concatMapIterable(chunk -> {
+                                text.append(chunk);
+                                return toStreamEvents(parser, chunk, ANALYSIS_STREAM_FIELDS);
+                            })
+                            .onErrorResume(CodeAnalyzerService::isUpstreamUnavailable, e -> discard(text)))
+                    .concatWith(Mono.fromSupplier(() -> event("result", text.isEmpty()
+                            ? analysisResponses.degradedAnalysis(request)
+                            : toAnalysisResponse(cacheKey, request, text.toString()))));
+        });
+    }
+
+    public Flux<ServerSentEvent<Object>> streamDebug(DebugCodeRequest request) {
+        log.info("Starting streamed code debugging for language: {}", request.getLanguage());
+
+        return compilerIssues(request).flatMapMany(compilerIssues -> {
+            // Exact compiler findings go out before the first Gemini chunk
+            Flux<ServerSentEvent<Object>> compilerEvents = Flux.fromIterable(compilerIssues).map(issue -> event("issue", issue));
+            if (CompilerDiagnostics.explains(compilerIssues, request.getErrorMessage())) {
+                log.debug("Compiler diagnostics explain the reported error, skipping Gemini");
+                return compilerEvents.concatWith(Mono.fromSupplier(() ->
+                        event("result", createCompilerDebugResponse(request.getCode(), compilerIssues))));
+            }
+
+            String cacheKey = debugCacheKey(request);
+            DebugCodeResponse cached = analysisCache.getDebug(cacheKey);
+            if (cached != null) {
+                log.debug("Debug cache hit for key {}", cacheKey);
+                return Flux.just(event("result", withCompilerIssues(withCode(cached, request.getCode()), compilerIssues)));
+            }
+
+            IncrementalJsonParser parser = new IncrementalJsonParser(objectMapper);
+            StringBuilder text = new StringBuilder();
+            return compilerEvents.concatWith(geminiService.streamContent(buildDebugPrompt(request))
+                    .concatMapIterable(chunk -> {
+                        text.append(chunk);
+                        return toStreamEvents(parser, chunk, DEBUG_STREAM_FIELDS);
+                    })
+                    .onErrorResume(CodeAnalyzerService::isUpstreamUnavailable, e -> discard(text)))
+                    .concatWith(Mono.fromSupplier(() -> event("result", withCompilerIssues(text.isEmpty()
+                            ? degradedDebugResponse(request.getCode())
+                            : toDebugResponse(cacheKey, text.toString(), request.getCode()), compilerIssues))));
+        });
+    }
+
+    private List<ServerSentEvent<Object>> toStreamEvents(IncrementalJsonParser parser, String chunk, Set<String> fields) {
+        try {
+            List<ServerSentEvent<Object>> events = new ArrayList<>();
+            for (IncrementalJsonParser.Field field : parser.feed(chunk)) {
+                if (!fields.contains(field.name())) {
+                    continue;
+                }
+                events.add("issues".equals(field.name())
+                        ? event("issue", objectMapper.treeToValue(field.value(), GeminiDebugPayload.Issue.class).toCodeIssue())
+                        : event(field.name(), field.value().asText()));
+            }
+            return events;
+        } catch (IOException e) {
+            // The final "result" event still goes through the lenient full parse
+            log.warn("Malformed streamed JSON, skipping incremental events: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    // A failed upstream stream ends quietly with nothing kept, so the "result" event falls back to the local answer
+    private static <T> Flux<T> discard(StringBuilder text) {
+        text.setLength(0);
+        return Flux.empty();
+    }
+
+    // Only an upstream that failed or is known to be failing is answered locally
+    static boolean isUpstreamUnavailable(Throwable e) {
+        return e instanceof GeminiCallException || e instanceof CircuitOpenException;
+    }
+
+    private static ServerSentEvent<Object> event(String name, Object data) {
+        return ServerSentEvent.builder(data).event(name).build();
+    }
+
+    AnalyzeCodeResponse toAnalysisResponse(String cacheKey, AnalyzeCodeRequest request, String geminiResponse) {
+        try {
+            AnalyzeCodeResponse response = analysisResponses.parseAnalysisResponse(geminiResponse);
+            analysisCache.putAnalysis(cacheKey, response);
+            if (similarityIndex.enabled()) {
+                similarityIndex.add(similaritySketch(request), cacheKey);
+            }
+            return response;
+        } catch (Exception e) {
+            log.error("Error parsing analysis response: {}", e.getMessage(), e);
+            return analysisResponses.degradedAnalysis(request);
+        }
+    }
+
+    DebugCodeResponse toDebugResponse(String cacheKey, String geminiResponse, String code) {
+        try {
+            DebugCodeResponse response = parseDebugResponse(geminiResponse, code);
+            analysisCache.putDebug(cacheKey, response);
+            return response;
+        } catch (Exception e) {
+            log.error("Error parsing debug response: {}", e.getMessage(), e);
+            return degradedDebugResponse(code);
+        }
+    }
 
-        return parseDebugResponse(geminiResponse, request.getCode());
+    // Comments, formatting and local names do not change the analysis, so they do not change the key
+    String analysisCacheKey(AnalyzeCodeRequest request) {
+        Language language = Language.from(request.getLanguage(), request.getCode());
+        return CacheKey.of("analyze", PROMPT_VERSION, geminiService.getApiUrl(),
+                language.name(), CodeNormalizer.fingerprint(request.getCode(), language));
     }
 
-    private String buildAnalysisPrompt(AnalyzeCodeRequest request) {
+    // The stored result of a near-duplicate, marked as reused. Not cached under this submission's key:
+    // the copy would outlive the entry it was taken from
+    private AnalyzeCodeResponse similarAnalysis(AnalyzeCodeRequest request) {
+        if (!similarityIndex.enabled()) {
+            return null;
+        }
+        SimilarityIndex.Match match = similarityIndex.find(similaritySketch(request));
+        AnalyzeCodeResponse similar = match != null ? analysisCache.getAnalysis(match.cacheKey()) : null;
+        if (similar == null) {
+            return null;
+        }
+        log.debug("Reusing analysis {} at similarity {}", match.cacheKey(), match.similarity());
+        return similar.toBuilder().source("similar").similarity(match.similarity()).build();
+    }
+
+    // Only submissions the static estimator puts in the same complexity class count as near-duplicates
+    private SimilarityIndex.Sketch similaritySketch(AnalyzeCodeRequest request) {
+        Language language = Language.from(request.getLanguage(), request.getCode());
+        ComplexityEstimate estimate = complexityEstimator.estimate(request.getCode(), request.getLanguage());
+        return SimilarityIndex.sketch(CodeNormalizer.canonicalTokens(request.getCode(), language),
+                Objects.hash(language, estimate.time().notation(), estimate.spaceComplexity()));
+    }
+
+    // Debug findings carry line numbers and variable names, so only same-line, same-name variants share a key
+    String debugCacheKey(DebugCodeRequest request) {
+        Language language = Language.from(request.getLanguage(), request.getCode());
+        return CacheKey.of("debug", PROMPT_VERSION, geminiService.getApiUrl(),
+                language.name(), CodeNormalizer.lineFingerprint(request.getCode(), language), request.getErrorMessage());
+    }
+
+    // Cached or shared entries may come from a cosmetically different submission, so echo the caller's code back
+    DebugCodeResponse withCode(DebugCodeResponse cached, String code) {
+        return DebugCodeResponse.builder()
+                .code(code)
+                .issues(cached.getIssues())
+                .explanation(cached.getExplanation())
+                .fixSuggestions(cached.getFixSuggestions())
+                .source(cached.getSource())
+                .degraded(cached.getDegraded())
+                .build();
+    }
+
+    // Compiler issues carry exact lines, so they win over the LLM's guesses about the same lines
+    DebugCodeResponse withCompilerIssues(DebugCodeResponse response, List<CodeIssue> compilerIssues) {
+        if (compilerIssues.isEmpty()) {
+            return response;
+        }
+        Set<Integer> compilerErrorLines = compilerIssues.stream()
+                .filter(issue -> "error".equals(issue.getType()))
+                .map(CodeIssue::getLine)
+                .collect(Collectors.toSet());
+        List<CodeIssue> issues = new ArrayList<>(compilerIssues);
+        for (CodeIssue issue : response.getIssues()) {
+            if (!("error".equals(issue.getType()) && compilerErrorLines.contains(issue.getLine()))) {
+                issues.add(issue);
+            }
+        }
+        return DebugCodeResponse.builder()
+                .code(response.getCode())
+                .issues(issues)
+                .explanation(response.getExplanation())
+                .fixSuggestions(response.getFixSuggestions())
+                .source(response.getSource())
+                .degraded(response.getDegraded())
+                .build();
+    }
+
+    static String buildAnalysisPrompt(AnalyzeCodeRequest request) {
         return String.format("""
                         You are an expert DSA Analyzer AI. Analyze the following %s code and provide a concise DSA analysis.
                         
@@ -154,176 +527,46 @@ public class CodeAnalyzerService {
         return prompt.toString();
     }
 
-    private AnalyzeCodeResponse parseAnalysisResponse(String response) {
-        try {
-            // Extract JSON from response (in case there's extra text)
-            String jsonStr = extractJson(response);
-            JsonNode node = objectMapper.readTree(jsonStr);
-
-            // Parse intuition array
-            List<String> intuition = new ArrayList<>();
-            if (node.has("intuition") && node.get("intuition").isArray()) {
-                node.get("intuition").forEach(item -> intuition.add(item.asText()));
-            }
-
-            // Parse suggestions array
-            List<String> suggestions = new ArrayList<>();
-            if (node.has("suggestions") && node.get("suggestions").isArray()) {
-                node.get("suggestions").forEach(item -> suggestions.add(item.asText()));
-            }
+    private DebugCodeResponse parseDebugResponse(String response, String originalCode) throws JsonProcessingException {
+        String jsonStr = JsonLocator.extract(response);
+        GeminiDebugPayload payload = objectMapper.readValue(jsonStr, GeminiDebugPayload.class);
 
-            // Generate graph data based on complexity
-            String timeComplexity = node.has("timeComplexity") ? node.get("timeComplexity").asText() : "O(n)";
-            String spaceComplexity = node.has("spaceComplexity") ? node.get("spaceComplexity").asText() : "O(1)";
-
-            return AnalyzeCodeResponse.builder()
-                    .timeComplexity(timeComplexity)
-                    .spaceComplexity(spaceComplexity)
-                    .pattern(node.has("pattern") ? node.get("pattern").asText() : "Unknown")
-                    .summary(node.has("summary") ? node.get("summary").asText() : "")
-                    .intuition(intuition)
-                    .suggestions(suggestions)
-                    .timeGraph(generateGraphData(timeComplexity))
-                    .spaceGraph(generateGraphData(spaceComplexity))
-                    .build();
+        List<CodeIssue> issues = payload.issues().stream()
+                .filter(Objects::nonNull)
+                .map(GeminiDebugPayload.Issue::toCodeIssue)
+                .collect(Collectors.toCollection(ArrayList::new));
 
-        } catch (Exception e) {
-            log.error("Error parsing analysis response: {}", e.getMessage(), e);
-            // Return a fallback response
-            return createFallbackAnalysisResponse();
-        }
-    }
-
-    private DebugCodeResponse parseDebugResponse(String response, String originalCode) {
-        try {
-            String jsonStr = extractJson(response);
-            JsonNode node = objectMapper.readTree(jsonStr);
-
-            // Parse issues array
-            List<CodeIssue> issues = new ArrayList<>();
-            if (node.has("issues") && node.get("issues").isArray()) {
-                node.get("issues").forEach(item -> {
-                    CodeIssue issue = CodeIssue.builder()
-                            .line(item.has("line") ? item.get("line").asInt() : 0)
-                            .type(item.has("type") ? item.get("type").asText() : "info")
-                            .message(item.has("message") ? item.get("message").asText() : "")
-                            .severity(item.has("severity") ? item.get("severity").asText() : "medium")
-                            .build();
-                    issues.add(issue);
-                });
-            }
-
-            // Parse fix suggestions
-            List<String> fixSuggestions = new ArrayList<>();
-            if (node.has("fixSuggestions") && node.get("fixSuggestions").isArray()) {
-                node.get("fixSuggestions").forEach(item -> fixSuggestions.add(item.asText()));
-            }
-
-            return DebugCodeResponse.builder()
-                    .code(originalCode)
-                    .issues(issues)
-                    .explanation(node.has("explanation") ? node.get("explanation").asText() : "")
-                    .fixSuggestions(fixSuggestions)
-                    .build();
-
-        } catch (Exception e) {
-            log.error("Error parsing debug response: {}", e.getMessage(), e);
-            return createFallbackDebugResponse(originalCode);
-        }
-    }
-
-    private String extractJson(String response) {
-        // Try to find JSON object in the response
-        Pattern pattern = Pattern.compile("\\{[^{}]*(?:\\{[^{}]*\\}[^{}]*)*\\}", Pattern.DOTALL);
-        Matcher matcher = pattern.matcher(response);
-
-        if (matcher.find()) {
-            return matcher.group();
-        }
-
-        // If no JSON found, try to clean the response
-        response = response.trim();
-        if (response.startsWith("```json")) {
-            response = response.substring(7);
-        }
-        if (response.startsWith("```")) {
-            response = response.substring(3);
-        }
-        if (response.endsWith("```")) {
-            response = response.substring(0, response.length() - 3);
-        }
-
-        return response.trim();
-    }
-
-    private List<Integer> generateGraphData(String complexity) {
-        // Generate sample data points based on complexity
-        // This simulates how the complexity grows with input size
-        complexity = complexity.toUpperCase().trim();
-
-        List<Integer> data = new ArrayList<>();
-        int[] sizes = {10, 20, 40, 80, 160}; // Input sizes
-
-        for (int n : sizes) {
-            int value;
-            if (complexity.contains("O(1)")) {
-                value = 5; // Constant
-            } else if (complexity.contains("O(LOG N)") || complexity.contains("O(LOGN)")) {
-                value = (int) (Math.log(n) / Math.log(2)) * 5;
-            } else if (complexity.contains("O(N LOG N)") || complexity.contains("O(NLOGN)")) {
-                value = (int) (n * (Math.log(n) / Math.log(2)));
-            } else if (complexity.contains("O(N²)") || complexity.contains("O(N^2)")) {
-                value = n * n / 10;
-            } else if (complexity.contains("O(N³)") || complexity.contains("O(N^3)")) {
-                value = n * n * n / 100;
-            } else if (complexity.contains("O(2^N)")) {
-                value = (int) Math.pow(2, n / 10);
-            } else { // Default O(n)
-                value = n;
-            }
-            data.add(value);
-        }
-
-        return data;
+        return DebugCodeResponse.builder()
+                .code(originalCode)
+                .issues(issues)
+                .explanation(payload.explanation())
+                .fixSuggestions(payload.fixSuggestions())
+                .build();
     }
 
-    private AnalyzeCodeResponse createFallbackAnalysisResponse() {
-        return AnalyzeCodeResponse.builder()
-                .timeComplexity("O(n)")
-                .spaceComplexity("O(1)")
-                .pattern("Unknown")
-                .summary("Unable to analyze the code. Please try again.")
-                .intuition(Arrays.asList(
-                        "Review the problem statement carefully",
-                        "Identify the core data structures needed",
-                        "Consider edge cases"
-                ))
-                .suggestions(Arrays.asList(
-                        "Ensure code is syntactically correct",
-                        "Add comments for clarity"
-                ))
-                .timeGraph(Arrays.asList(10, 20, 40, 80, 160))
-                .spaceGraph(Arrays.asList(5, 5, 5, 5, 5))
+    private DebugCodeResponse createCompilerDebugResponse(String code, List<CodeIssue> compilerIssues) {
+        List<CodeIssue> errors = compilerIssues.stream().filter(issue -> "error".equals(issue.getType())).toList();
+        CodeIssue first = errors.get(0);
+        return DebugCodeResponse.builder()
+                .code(code)
+                .issues(compilerIssues)
+                .explanation(String.format("The code does not compile (%d error%s); the first is on line %d: %s.",
+                        errors.size(), errors.size() == 1 ? "" : "s", first.getLine(), first.getMessage()))
+                .fixSuggestions(errors.stream().map(CompilerDiagnostics::suggestion).distinct().toList())
+                .source("compiler")
                 .build();
     }
 
-    private DebugCodeResponse createFallbackDebugResponse(String code) {
+    // Compiler issues (merged in by the caller) are all that is left when Gemini is unavailable
+    DebugCodeResponse degradedDebugResponse(String code) {
+        log.debug("Gemini unavailable, answering with compiler diagnostics only");
         return DebugCodeResponse.builder()
                 .code(code)
-                .issues(Arrays.asList(
-                        CodeIssue.builder()
-                                .line(0)
-                                .type("info")
-                                .message("Unable to analyze code. Please check syntax.")
-                                .severity("low")
-                                .build()
-                ))
-                .explanation("Unable to perform detailed debugging analysis.")
-                .fixSuggestions(Arrays.asList(
-                        "Verify code syntax",
-                        "Check for common errors",
-                        "Review documentation"
-                ))
+                .issues(List.of())
+                .explanation("Detailed debugging is unavailable right now; only compiler diagnostics are reported.")
+                .fixSuggestions(List.of())
+                .source("compiler")
+                .degraded(true)
                 .build();
     }
 }
\ No newline at end of file
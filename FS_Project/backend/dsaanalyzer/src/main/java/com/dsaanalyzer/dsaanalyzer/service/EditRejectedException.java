@@ -0,0 +1,20 @@
+package com.dsaanalyzer.dsaanalyzer.service;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * An incremental debug request the {@link IncrementalDebugService} cannot apply: 409 when the
+ * session is unknown or the edits are based on an older revision (the client should resend
+ * its full code), 400 when the edits themselves are invalid.
+ */
+@Getter
+public class EditRejectedException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public EditRejectedException(HttpStatus status, String message) {
+        super(message, null, false, false);
+        this.status = status;
+    }
+}
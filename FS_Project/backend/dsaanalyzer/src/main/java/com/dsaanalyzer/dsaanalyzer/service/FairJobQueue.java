@@ -0,0 +1,56 @@
+package com.dsaanalyzer.dsaanalyzer.service;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Queued job ids by priority level, then by tenant. {@link #poll()} takes from the highest
+ * non-empty level, and within it serves the tenants round robin, one job per turn, so a tenant
+ * that submits a thousand jobs delays another tenant's job by at most one job per tenant ahead
+ * of it. Jobs of one tenant and level run in submission order.
+ */
+final class FairJobQueue {
+
+    // Per level (0 = highest), the tenants with queued jobs in turn order
+    private final LinkedHashMap<String, ArrayDeque<String>>[] levels;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    FairJobQueue(int priorities) {
+        levels = new LinkedHashMap[priorities];
+        for (int i = 0; i < priorities; i++) {
+            levels[i] = new LinkedHashMap<>();
+        }
+    }
+
+    synchronized void offer(String id, String tenant, int priority) {
+        levels[priority].computeIfAbsent(tenant, ignored -> new ArrayDeque<>()).addLast(id);
+        size++;
+    }
+
+    /** @return the next job id, or {@code null} when nothing is queued */
+    synchronized String poll() {
+        for (LinkedHashMap<String, ArrayDeque<String>> level : levels) {
+            Iterator<Map.Entry<String, ArrayDeque<String>>> tenants = level.entrySet().iterator();
+            if (!tenants.hasNext()) {
+                continue;
+            }
+            Map.Entry<String, ArrayDeque<String>> next = tenants.next();
+            String id = next.getValue().pollFirst();
+            // The tenant goes to the back of the line, or leaves it when it has nothing left
+            tenants.remove();
+            if (!next.getValue().isEmpty()) {
+                level.put(next.getKey(), next.getValue());
+            }
+            size--;
+            return id;
+        }
+        return null;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+}
@@ -0,0 +1,261 @@
+package com.dsaanalyzer.dsaanalyzer.service;
+
+import com.dsaanalyzer.dsaanalyzer.analysis.CodeNormalizer;
+import com.dsaanalyzer.dsaanalyzer.analysis.Complexity;
+import com.dsaanalyzer.dsaanalyzer.analysis.ComplexityEstimator;
+import com.dsaanalyzer.dsaanalyzer.analysis.FunctionSplitter;
+import com.dsaanalyzer.dsaanalyzer.analysis.Language;
+import com.dsaanalyzer.dsaanalyzer.cache.AnalysisCache;
+import com.dsaanalyzer.dsaanalyzer.cache.CacheKey;
+import com.dsaanalyzer.dsaanalyzer.cache.RequestCoalescer;
+import com.dsaanalyzer.dsaanalyzer.model.AnalyzeCodeRequest;
+import com.dsaanalyzer.dsaanalyzer.model.AnalyzeCodeResponse;
+import com.dsaanalyzer.dsaanalyzer.model.FunctionAnalysis;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Analyzes each function of a large file on its own, so latency follows the call depth rather
+ * than the file size and every function has its own cache entry: after an edit only the changed
+ * functions (and callers whose callees changed cost) are sent again. Callees go first, and each
+ * prompt carries the declarations around the functions and the signatures and costs of the
+ * functions it calls; functions on the same level run in parallel. A function's reported time
+ * includes its callees, composed along the call graph, and the file is reported at the most
+ * expensive function.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FunctionSplitAnalysisService {
+
+    private final GeminiService geminiService;
+    private final AnalysisCache analysisCache;
+    private final RequestCoalescer requestCoalescer;
+    private final ComplexityEstimator complexityEstimator;
+    private final AnalysisBatcher analysisBatcher;
+    private final AnalysisResponses analysisResponses;
+
+    // Files of at least this many lines with two or more functions are analyzed function by function; 0 disables
+    @Value("${analysis.split.min-lines:150}")
+    private int splitMinLines;
+
+    @Value("${analysis.split.parallelism:32}")
+    private int splitParallelism;
+
+    // The outermost functions of a large file, or null when it is analyzed whole
+    List<FunctionSplitter.SourceFunction> split(AnalyzeCodeRequest request) {
+        if (splitMinLines <= 0 || request.getCode().lines().count() < splitMinLines) {
+            return null;
+        }
+        List<FunctionSplitter.SourceFunction> functions =
+                FunctionSplitter.split(request.getCode(), Language.from(request.getLanguage(), request.getCode()));
+        return functions.size() >= 2 ? functions : null;
+    }
+
+    Mono<AnalyzeCodeResponse> analyze(AnalyzeCodeRequest request, List<FunctionSplitter.SourceFunction> functions) {
+        log.debug("Analyzing {} functions separately", functions.size());
+        // Resolved once: a lone method may not look like the file's language
+        String language = Language.from(request.getLanguage(), request.getCode()).name().toLowerCase(Locale.ROOT);
+        String context = FunctionSplitter.context(request.getCode(), functions);
+        Map<String, Map<String, Complexity>> callSites = complexityEstimator.callSites(request.getCode(), language);
+        List<List<Integer>> callees = new ArrayList<>();
+        for (FunctionSplitter.SourceFunction function : functions) {
+            Map<String, Complexity> called = callSites.getOrDefault(function.name(), Map.of());
+            List<Integer> indices = new ArrayList<>();
+            for (int i = 0; i < functions.size(); i++) {
+                if (called.containsKey(functions.get(i).name())) {
+                    indices.add(i);
+                }
+            }
+            callees.add(indices);
+        }
+
+        Map<Integer, AnalyzeCodeResponse> analyses = new ConcurrentHashMap<>();
+        Map<Integer, Complexity> inclusive = new ConcurrentHashMap<>();
+        return Flux.fromIterable(callLevels(callees))
+                .concatMap(level -> Flux.fromIterable(level)
+                        .flatMap(index -> {
+                            // Callees on a cycle are not analyzed yet and go without a cost
+                            List<Integer> known = callees.get(index).stream().filter(analyses::containsKey).toList();
+                            return analyzeFunction(language, context, functions.get(index),
+                                    known.stream().map(callee -> calleeNote(functions.get(callee), analyses.get(callee),
+                                            inclusive.get(callee))).toList())
+                                    .doOnNext(analysis -> {
+                                        Complexity own = Objects.requireNonNullElse(Complexity.parse(analysis.getTimeComplexity()),
+                                                Complexity.CONSTANT);
+                                        Map<String, Complexity> factors = callSites.getOrDefault(functions.get(index).name(), Map.of());
+                                        for (int callee : known) {
+                                            own = own.max(factors.get(functions.get(callee).name()).times(inclusive.get(callee)));
+                                        }
+                                        inclusive.put(index, own);
+                                        analyses.put(index, analysis);
+                                    });
+                        }, Math.max(1, splitParallelism)))
+                .then(Mono.fromSupplier(() -> aggregateAnalysis(functions,
+                        IntStream.range(0, functions.size()).mapToObj(analyses::get).toList(),
+                        IntStream.range(0, functions.size()).mapToObj(inclusive::get).toList())));
+    }
+
+    // Functions grouped so each one's callees are on an earlier level; calls that close a cycle are ignored
+    private static List<List<Integer>> callLevels(List<List<Integer>> callees) {
+        int[] levels = new int[callees.size()];
+        Arrays.fill(levels, -1);
+        for (int i = 0; i < callees.size(); i++) {
+            callLevel(i, callees, levels, new HashSet<>());
+        }
+        List<List<Integer>> grouped = new ArrayList<>();
+        for (int i = 0; i < levels.length; i++) {
+            while (grouped.size() <= levels[i]) {
+                grouped.add(new ArrayList<>());
+            }
+            grouped.get(levels[i]).add(i);
+        }
+        return grouped;
+    }
+
+    private static int callLevel(int function, List<List<Integer>> callees, int[] levels, Set<Integer> visiting) {
+        if (levels[function] >= 0) {
+            return levels[function];
+        }
+        visiting.add(function);
+        int level = 0;
+        for (int callee : callees.get(function)) {
+            if (callee != function && !visiting.contains(callee)) {
+                level = Math.max(level, callLevel(callee, callees, levels, visiting) + 1);
+            }
+        }
+        visiting.remove(function);
+        return levels[function] = level;
+    }
+
+    private static String calleeNote(FunctionSplitter.SourceFunction callee, AnalyzeCodeResponse analysis, Complexity inclusive) {
+        return String.format("%s: %s time, %s space per call", callee.signature(),
+                timeNotation(analysis, inclusive), analysis.getSpaceComplexity());
+    }
+
+    // The LLM's notation unless composing the callees' costs raised it
+    private static String timeNotation(AnalyzeCodeResponse analysis, Complexity inclusive) {
+        Complexity own = Complexity.parse(analysis.getTimeComplexity());
+        return own == null || inclusive.compareTo(own) > 0 ? inclusive.notation() : analysis.getTimeComplexity();
+    }
+
+    private Mono<AnalyzeCodeResponse> analyzeFunction(String language, String context, FunctionSplitter.SourceFunction function,
+                                                      List<String> calleeNotes) {
+        AnalyzeCodeRequest request = new AnalyzeCodeRequest(function.code(), language, "full");
+        if (calleeNotes.isEmpty()) {
+            AnalyzeCodeResponse catalogued = analysisResponses.catalogAnalysis(request);
+            if (catalogued != null) {
+                return Mono.just(catalogued);
+            }
+        }
+        Language lang = Language.from(language, function.code());
+        String cacheKey = CacheKey.of("analyze-function", CodeAnalyzerService.PROMPT_VERSION, geminiService.getApiUrl(), lang.name(),
+                CodeNormalizer.fingerprint(function.code(), lang), CodeNormalizer.fingerprint(context, lang),
+                String.join("\n", calleeNotes));
+        AnalyzeCodeResponse cached = analysisCache.getAnalysis(cacheKey);
+        if (cached != null) {
+            log.debug("Analysis cache hit for key {}", cacheKey);
+            return Mono.just(cached);
+        }
+        return requestCoalescer.execute(cacheKey, () -> analysisBatcher.generateContent(buildFunctionPrompt(request, function, context, calleeNotes))
+                        .map(geminiResponse -> toFunctionAnalysisResponse(cacheKey, request, geminiResponse))
+                        .switchIfEmpty(Mono.fromSupplier(() -> analysisResponses.degradedAnalysis(request))))
+                .onErrorResume(CodeAnalyzerService::isUpstreamUnavailable,
+                        e -> Mono.fromSupplier(() -> analysisResponses.degradedAnalysis(request)));
+    }
+
+    // Not added to the similarity index: the result depends on the context and callees as well as the code
+    private AnalyzeCodeResponse toFunctionAnalysisResponse(String cacheKey, AnalyzeCodeRequest request, String geminiResponse) {
+        try {
+            AnalyzeCodeResponse response = analysisResponses.parseAnalysisResponse(geminiResponse);
+            analysisCache.putAnalysis(cacheKey, response);
+            return response;
+        } catch (Exception e) {
+            log.error("Error parsing analysis response: {}", e.getMessage(), e);
+            return analysisResponses.degradedAnalysis(request);
+        }
+    }
+
+    private AnalyzeCodeResponse aggregateAnalysis(List<FunctionSplitter.SourceFunction> functions, List<AnalyzeCodeResponse> analyses,
+                                                  List<Complexity> inclusive) {
+        List<FunctionAnalysis> perFunction = new ArrayList<>();
+        int slowest = 0;
+        for (int i = 0; i < functions.size(); i++) {
+            FunctionSplitter.SourceFunction function = functions.get(i);
+            AnalyzeCodeResponse analysis = analyses.get(i);
+            perFunction.add(FunctionAnalysis.builder()
+                    .name(function.name())
+                    .startLine(function.startLine())
+                    .endLine(function.endLine())
+                    .timeComplexity(timeNotation(analysis, inclusive.get(i)))
+                    .spaceComplexity(analysis.getSpaceComplexity())
+                    .pattern(analysis.getPattern())
+                    .summary(analysis.getSummary())
+                    .source(analysis.getSource())
+                    .degraded(analysis.getDegraded())
+                    .build());
+            if (inclusive.get(i).compareTo(inclusive.get(slowest)) > 0) {
+                slowest = i;
+            }
+        }
+        AnalyzeCodeResponse largest = analyses.stream().max(byComplexity(AnalyzeCodeResponse::getSpaceComplexity)).orElseThrow();
+        FunctionAnalysis slowestFunction = perFunction.get(slowest);
+        return AnalyzeCodeResponse.builder()
+                .timeComplexity(slowestFunction.getTimeComplexity())
+                .spaceComplexity(largest.getSpaceComplexity())
+                .pattern(slowestFunction.getPattern())
+                .summary(String.format("%d functions analyzed separately; the most expensive, counting the functions it calls, "
+                                + "is %s (lines %d-%d). %s", functions.size(), slowestFunction.getName(),
+                        slowestFunction.getStartLine(), slowestFunction.getEndLine(), slowestFunction.getSummary()))
+                .intuition(perFunction.stream()
+                        .map(function -> String.format("%s: %s time, %s space", function.getName(),
+                                function.getTimeComplexity(), function.getSpaceComplexity()))
+                        .toList())
+                .suggestions(analyses.get(slowest).getSuggestions())
+                .timeGraph(AnalysisResponses.generateGraphData(slowestFunction.getTimeComplexity()))
+                .spaceGraph(AnalysisResponses.generateGraphData(largest.getSpaceComplexity()))
+                .degraded(analyses.stream().anyMatch(analysis -> Boolean.TRUE.equals(analysis.getDegraded())) ? true : null)
+                .functions(perFunction)
+                .build();
+    }
+
+    // Unreadable notations rank lowest; ties keep the earlier function
+    private static Comparator<AnalyzeCodeResponse> byComplexity(Function<AnalyzeCodeResponse, String> notation) {
+        return Comparator.comparing(analysis -> Objects.requireNonNullElse(Complexity.parse(notation.apply(analysis)),
+                Complexity.CONSTANT));
+    }
+
+    // The usual prompt for one function, preceded by what it cannot be understood without
+    private static String buildFunctionPrompt(AnalyzeCodeRequest request, FunctionSplitter.SourceFunction function,
+                                              String context, List<String> calleeNotes) {
+        StringBuilder prompt = new StringBuilder("The code below is the function `")
+                .append(function.signature())
+                .append("` from a larger file. Its time and space complexity must include the cost of every call it makes.\n");
+        if (!context.isBlank()) {
+            prompt.append("\nDECLARATIONS AROUND IT:\n```").append(request.getLanguage()).append('\n')
+                    .append(context).append("\n```\n");
+        }
+        if (!calleeNotes.isEmpty()) {
+            prompt.append("\nFUNCTIONS IT CALLS (already analyzed):\n");
+            calleeNotes.forEach(note -> prompt.append("- ").append(note).append('\n'));
+        }
+        return prompt.append('\n').append(CodeAnalyzerService.buildAnalysisPrompt(request)).toString();
+    }
+}
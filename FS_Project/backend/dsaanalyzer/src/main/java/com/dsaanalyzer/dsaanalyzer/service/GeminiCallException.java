@@ -0,0 +1,9 @@
+package com.dsaanalyzer.dsaanalyzer.service;
+
+/** A Gemini call that was sent and failed (connection error, error status, retries exhausted). */
+public class GeminiCallException extends RuntimeException {
+
+    public GeminiCallException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -2,75 +2,158 @@ package com.dsaanalyzer.dsaanalyzer.service;
 
 import com.dsaanalyzer.dsaanalyzer.model.GeminiRequest;
 import com.dsaanalyzer.dsaanalyzer.model.GeminiResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 
 import java.util.Collections;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class GeminiService {
 
+    private static final ParameterizedTypeReference<ServerSentEvent<GeminiResponse>> SSE_RESPONSE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private static final String SERVER_TIMEOUT = "X-Server-Timeout";
+
     private final WebClient webClient;
+    private final UpstreamLimiter upstreamLimiter;
+    private final UpstreamCallPolicy upstreamCallPolicy;
+    private final UpstreamCircuitBreaker upstreamCircuitBreaker;
+    private final MeterRegistry meterRegistry;
 
     @Value("${gemini.api.key}")
     private String apiKey;
 
+    @Getter
     @Value("${gemini.api.url}")
     private String apiUrl;
 
-    public String generateContent(String prompt) {
-        try {
-            log.info("Calling Gemini API with prompt length: {}", prompt.length());
-
-            GeminiRequest request = GeminiRequest.builder()
-                    .contents(Collections.singletonList(
-                            GeminiRequest.Content.builder()
-                                    .parts(Collections.singletonList(
-                                            GeminiRequest.Part.builder()
-                                                    .text(prompt)
-                                                    .build()
-                                    ))
-                                    .build()
-                    ))
-                    .build();
-
-            GeminiResponse response = webClient.post()
-                    .uri(apiUrl + "?key=" + apiKey)
-                    .header("Content-Type", "application/json")
-                    .bodyValue(request)
-                    .retrieve()
-                    .bodyToMono(GeminiResponse.class)
-                    .block();
-
-            if (response != null &&
-                    response.getCandidates() != null &&
-                    !response.getCandidates().isEmpty() &&
-                    response.getCandidates().get(0).getContent() != null &&
-                    response.getCandidates().get(0).getContent().getParts() != null &&
-                    !response.getCandidates().get(0).getContent().getParts().isEmpty()) {
-
-                String generatedText = response.getCandidates().get(0)
-                        .getContent()
-                        .getParts()
-                        .get(0)
-                        .getText();
-
-                log.info("Successfully received response from Gemini API");
-                return generatedText;
-            }
-
-            log.warn("Empty response from Gemini API");
-            return null;
-
-        } catch (Exception e) {
-            log.error("Error calling Gemini API: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to generate content from Gemini API", e);
+    public Mono<String> generateContent(String prompt) {
+        log.info("Calling Gemini API with prompt length: {}", prompt.length());
+
+        GeminiRequest request = buildRequest(prompt);
+        AtomicBoolean answered = new AtomicBoolean();
+        return upstreamCircuitBreaker.execute(() -> upstreamCallPolicy.call(deadline -> upstreamLimiter.execute(() -> webClient.post()
+                        .uri(apiUrl + "?key=" + apiKey)
+                        .header("Content-Type", "application/json")
+                        .header(SERVER_TIMEOUT, serverTimeout(deadline))
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToMono(GeminiResponse.class))))
+                .flatMap(response -> {
+                    String generatedText = extractText(response);
+                    if (generatedText != null) {
+                        log.info("Successfully received response from Gemini API");
+                        return Mono.just(generatedText);
+                    }
+
+                    log.warn("Empty response from Gemini API");
+                    return Mono.empty();
+                })
+                .onErrorMap(GeminiService::isUpstreamFailure, e -> {
+                    log.error("Error calling Gemini API: {}", e.getMessage(), e);
+                    return new GeminiCallException("Failed to generate content from Gemini API", e);
+                })
+                // Some callers cancel right after taking the value; only a cancel before it counts
+                .doOnNext(text -> answered.set(true))
+                .doFinally(signal -> countCall(signal == SignalType.CANCEL && answered.get() ? SignalType.ON_COMPLETE : signal));
+    }
+
+    /**
+     * Calls the streamGenerateContent variant of the configured model and emits each
+     * text fragment as soon as Gemini sends it.
+     */
+    public Flux<String> streamContent(String prompt) {
+        log.info("Streaming Gemini API with prompt length: {}", prompt.length());
+
+        String streamUrl = apiUrl.replace(":generateContent", ":streamGenerateContent");
+        GeminiRequest request = buildRequest(prompt);
+        return upstreamCircuitBreaker.executeMany(() -> upstreamCallPolicy.callMany(deadline -> upstreamLimiter.executeMany(() -> webClient.post()
+                        .uri(streamUrl + "?alt=sse&key=" + apiKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header(SERVER_TIMEOUT, serverTimeout(deadline))
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToFlux(SSE_RESPONSE))))
+                .mapNotNull(ServerSentEvent::data)
+                .mapNotNull(this::extractText)
+                .onErrorMap(GeminiService::isUpstreamFailure, e -> {
+                    log.error("Error streaming Gemini API: {}", e.getMessage(), e);
+                    return new GeminiCallException("Failed to stream content from Gemini API", e);
+                })
+                .doFinally(this::countCall);
+    }
+
+    // A cancelled call is one the caller gave up on (client gone, newer revision, every coalesced waiter left);
+    // its exchange is disposed, which closes the upstream connection
+    private void countCall(SignalType signal) {
+        String outcome = switch (signal) {
+            case ON_COMPLETE -> "completed";
+            case ON_ERROR -> "failed";
+            default -> "cancelled";
+        };
+        Counter.builder("gemini.calls")
+                .tag("outcome", outcome)
+                .description("Upstream calls by how they ended")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // Errors raised on this side of the call pass as they are
+    private static boolean isUpstreamFailure(Throwable e) {
+        return !(e instanceof UpstreamOverloadedException || e instanceof TimeoutException || e instanceof CircuitOpenException);
+    }
+
+    // Google APIs accept the caller's remaining deadline in whole seconds
+    private static String serverTimeout(RequestDeadline deadline) {
+        return String.valueOf(Math.max(1, (long) Math.ceil(deadline.remaining().toMillis() / 1000.0)));
+    }
+
+    private GeminiRequest buildRequest(String prompt) {
+        return GeminiRequest.builder()
+                .contents(Collections.singletonList(
+                        GeminiRequest.Content.builder()
+                                .parts(Collections.singletonList(
+                                        GeminiRequest.Part.builder()
+                                                .text(prompt)
+                                                .build()
+                                ))
+                                .build()
+                ))
+                .build();
+    }
+
+    private String extractText(GeminiResponse response) {
+        if (response.getCandidates() != null &&
+                !response.getCandidates().isEmpty() &&
+                response.getCandidates().get(0).getContent() != null &&
+                response.getCandidates().get(0).getContent().getParts() != null &&
+                !response.getCandidates().get(0).getContent().getParts().isEmpty()) {
+
+            return response.getCandidates().get(0)
+                    .getContent()
+                    .getParts()
+                    .get(0)
+                    .getText();
         }
+        return null;
     }
-}
\ No newline at end of file
+}
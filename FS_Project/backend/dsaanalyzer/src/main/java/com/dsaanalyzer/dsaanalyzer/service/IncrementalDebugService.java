@@ -0,0 +1,298 @@
+package com.dsaanalyzer.dsaanalyzer.service;
+
+import com.dsaanalyzer.dsaanalyzer.analysis.FunctionSplitter;
+import com.dsaanalyzer.dsaanalyzer.analysis.Language;
+import com.dsaanalyzer.dsaanalyzer.model.CodeIssue;
+import com.dsaanalyzer.dsaanalyzer.model.DebugCodeRequest;
+import com.dsaanalyzer.dsaanalyzer.model.DebugCodeResponse;
+import com.dsaanalyzer.dsaanalyzer.model.IncrementalDebugRequest;
+import com.dsaanalyzer.dsaanalyzer.model.IncrementalDebugResponse;
+import com.dsaanalyzer.dsaanalyzer.model.LineEdit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Session-scoped incremental debugging. A session holds the latest revision of a file and the
+ * debug findings for each of its regions: the outermost functions found by
+ * {@link FunctionSplitter} and any top-level statements between them. A request either sends the
+ * full code or line edits against the latest revision; the regions of the new revision whose
+ * text the session has already seen reuse their findings with issue lines moved to where the
+ * region now starts, and only the others are sent through {@link CodeAnalyzerService#debugCode}.
+ * Compiler diagnostics still run on the whole file, since an edit in one function can break
+ * another.
+ *
+ * <p>Sessions live in memory only and expire {@code ttl} after their last use; a client whose
+ * session is gone or whose base revision is stale gets a 409 and resends its full code.
+ */
+@Component
+public class IncrementalDebugService {
+
+    private static final int MAX_FIX_SUGGESTIONS = 6;
+    // Top-level lines that run nothing: blanks, brackets, comments, imports, decorators and class headers
+    private static final Pattern DECLARATION = Pattern.compile(
+            "\\s*([{}()\\[\\];\\s]*|(#|//|/\\*|\\*).*|@.*|(import|from|(export\\s+(default\\s+)?)?class)\\b.*)");
+
+    private final CodeAnalyzerService codeAnalyzerService;
+    private final Cache<String, EditSession> sessions;
+    private final int parallelism;
+    private final Counter reusedRegions;
+    private final Counter reanalyzedRegions;
+
+    public IncrementalDebugService(CodeAnalyzerService codeAnalyzerService,
+                                   @Value("${analysis.sessions.max-size:10000}") long maxSize,
+                                   @Value("${analysis.sessions.ttl:PT30M}") Duration ttl,
+                                   @Value("${analysis.split.parallelism:32}") int parallelism,
+                                   MeterRegistry meterRegistry) {
+        this.codeAnalyzerService = codeAnalyzerService;
+        this.parallelism = Math.max(1, parallelism);
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, sessions, "debug-sessions");
+        this.reusedRegions = Counter.builder("debug.incremental.regions")
+                .tag("result", "reused")
+                .description("Regions answered from the session's findings for an earlier revision")
+                .register(meterRegistry);
+        this.reanalyzedRegions = Counter.builder("debug.incremental.regions")
+                .tag("result", "reanalyzed")
+                .description("Regions debugged again because their text changed")
+                .register(meterRegistry);
+    }
+
+    public Mono<IncrementalDebugResponse> debug(IncrementalDebugRequest request) {
+        return Mono.fromCallable(() -> advance(request)).flatMap(this::debugRevision);
+    }
+
+    // Moves the session to the request's revision; the findings known at that point travel with it
+    private Revision advance(IncrementalDebugRequest request) {
+        EditSession session = request.getSessionId() != null ? sessions.getIfPresent(request.getSessionId()) : null;
+        if (session == null) {
+            if (request.getCode() == null) {
+                throw request.getSessionId() == null
+                        ? new EditRejectedException(HttpStatus.BAD_REQUEST, "A new session needs the full code")
+                        : new EditRejectedException(HttpStatus.CONFLICT, "Unknown or expired session; send the full code");
+            }
+            session = new EditSession(UUID.randomUUID().toString());
+            sessions.put(session.id, session);
+        }
+
+        synchronized (session) {
+            String code;
+            if (request.getCode() != null) {
+                code = request.getCode();
+            } else if (request.getEdits() == null) {
+                throw new EditRejectedException(HttpStatus.BAD_REQUEST, "Either code or edits is required");
+            } else if (!Objects.equals(request.getBaseRevision(), session.revision)) {
+                throw new EditRejectedException(HttpStatus.CONFLICT, "Edits are based on revision " + request.getBaseRevision()
+                        + " but the session is at revision " + session.revision + "; send the full code");
+            } else {
+                code = applyEdits(session.code, request.getEdits());
+            }
+            if (code.isBlank()) {
+                throw new EditRejectedException(HttpStatus.BAD_REQUEST, "Code cannot be empty");
+            }
+            String language = request.getLanguage() != null ? request.getLanguage() : session.language;
+            String resolved = Language.from(language, code).name().toLowerCase(Locale.ROOT);
+            // Findings depend on the reported error and the language, so a different one starts the regions afresh
+            if (!Objects.equals(request.getErrorMessage(), session.errorMessage) || !resolved.equals(session.resolvedLanguage)) {
+                session.regions = Map.of();
+            }
+            session.revision++;
+            session.code = code;
+            session.language = language;
+            session.resolvedLanguage = resolved;
+            session.errorMessage = request.getErrorMessage();
+            return new Revision(session, session.revision, code, resolved, request.getErrorMessage(), session.regions);
+        }
+    }
+
+    // Edits are numbered against the base revision, so they are applied bottom-up
+    static String applyEdits(String code, List<LineEdit> edits) {
+        List<String> lines = new ArrayList<>(List.of(code.split("\n", -1)));
+        List<LineEdit> ordered = edits.stream()
+                .sorted(Comparator.comparingInt(LineEdit::getStartLine).thenComparingInt(LineEdit::getEndLine).reversed())
+                .toList();
+        int baseLines = lines.size();
+        int applyBefore = baseLines + 1;
+        for (LineEdit edit : ordered) {
+            if (edit.getStartLine() < 1 || edit.getEndLine() < edit.getStartLine() - 1 || edit.getEndLine() > baseLines) {
+                throw new EditRejectedException(HttpStatus.BAD_REQUEST, "Edit of lines " + edit.getStartLine() + "-"
+                        + edit.getEndLine() + " is outside the " + baseLines + " lines of the base revision");
+            }
+            if (edit.getEndLine() >= applyBefore) {
+                throw new EditRejectedException(HttpStatus.BAD_REQUEST, "Edits overlap at line " + edit.getEndLine());
+            }
+            List<String> replaced = lines.subList(edit.getStartLine() - 1, edit.getEndLine());
+            replaced.clear();
+            replaced.addAll(edit.getLines());
+            applyBefore = edit.getStartLine();
+        }
+        return String.join("\n", lines);
+    }
+
+    private Mono<IncrementalDebugResponse> debugRevision(Revision revision) {
+        List<Region> regions = regions(revision.code(), Language.from(revision.language(), revision.code()));
+        AtomicInteger reanalyzed = new AtomicInteger();
+        Mono<List<DebugCodeResponse>> findings = Flux.fromIterable(regions)
+                .flatMapSequential(region -> {
+                    DebugCodeResponse known = revision.known().get(region.code());
+                    if (known != null) {
+                        reusedRegions.increment();
+                        return Mono.just(known);
+                    }
+                    reanalyzedRegions.increment();
+                    reanalyzed.incrementAndGet();
+                    return codeAnalyzerService.debugCode(
+                            new DebugCodeRequest(region.code(), revision.language(), revision.errorMessage()), List.of());
+                }, parallelism)
+                .collectList();
+        Mono<List<CodeIssue>> compilerIssues = codeAnalyzerService.compilerIssues(
+                new DebugCodeRequest(revision.code(), revision.language(), revision.errorMessage()));
+
+        return Mono.zip(findings, compilerIssues).map(tuple -> {
+            remember(revision, regions, tuple.getT1());
+            DebugCodeResponse merged = merge(revision.code(), regions, tuple.getT1());
+            return IncrementalDebugResponse.builder()
+                    .sessionId(revision.session().id)
+                    .revision(revision.number())
+                    .regions(regions.size())
+                    .reanalyzedRegions(reanalyzed.get())
+                    .debug(codeAnalyzerService.withCompilerIssues(merged, tuple.getT2()))
+                    .build();
+        });
+    }
+
+    // Only the latest revision's regions are kept; degraded findings are not worth reusing
+    private void remember(Revision revision, List<Region> regions, List<DebugCodeResponse> findings) {
+        EditSession session = revision.session();
+        synchronized (session) {
+            if (session.revision != revision.number()) {
+                return;
+            }
+            Map<String, DebugCodeResponse> known = new HashMap<>();
+            for (int i = 0; i < regions.size(); i++) {
+                if (!Boolean.TRUE.equals(findings.get(i).getDegraded())) {
+                    known.put(regions.get(i).code(), findings.get(i));
+                }
+            }
+            session.regions = known;
+        }
+    }
+
+    /**
+     * The outermost functions, in source order, and the code between them that runs: Java and C++
+     * only declare things there (imports, class headers, fields), which the whole-file compiler
+     * diagnostics cover, so only Python and JavaScript top-level statements are kept. Code with no
+     * functions at all is one region.
+     */
+    static List<Region> regions(String code, Language language) {
+        List<FunctionSplitter.SourceFunction> functions = FunctionSplitter.split(code, language);
+        if (functions.isEmpty()) {
+            return List.of(new Region(1, code));
+        }
+        String[] lines = code.split("\n", -1);
+        List<Region> regions = new ArrayList<>();
+        int next = 1;
+        for (FunctionSplitter.SourceFunction function : functions) {
+            addGap(regions, lines, next, function.startLine() - 1, language);
+            regions.add(new Region(function.startLine(), function.code()));
+            next = function.endLine() + 1;
+        }
+        addGap(regions, lines, next, lines.length, language);
+        return regions;
+    }
+
+    private static void addGap(List<Region> regions, String[] lines, int startLine, int endLine, Language language) {
+        if (startLine > endLine || language == Language.JAVA || language == Language.CPP) {
+            return;
+        }
+        List<String> gap = List.of(lines).subList(startLine - 1, endLine);
+        if (!gap.stream().allMatch(line -> DECLARATION.matcher(line).matches())) {
+            regions.add(new Region(startLine, String.join("\n", gap)));
+        }
+    }
+
+    // Region findings are numbered from the region's first line
+    private static DebugCodeResponse merge(String code, List<Region> regions, List<DebugCodeResponse> findings) {
+        List<CodeIssue> issues = new ArrayList<>();
+        List<String> explanations = new ArrayList<>();
+        List<String> fixSuggestions = new ArrayList<>();
+        boolean degraded = false;
+        for (int i = 0; i < regions.size(); i++) {
+            DebugCodeResponse finding = findings.get(i);
+            int offset = regions.get(i).startLine() - 1;
+            List<CodeIssue> regionIssues = finding.getIssues() != null ? finding.getIssues() : List.of();
+            for (CodeIssue issue : regionIssues) {
+                issues.add(new CodeIssue(issue.getLine() != null ? issue.getLine() + offset : null,
+                        issue.getType(), issue.getMessage(), issue.getSeverity()));
+            }
+            if (!regionIssues.isEmpty() && finding.getExplanation() != null && !explanations.contains(finding.getExplanation())) {
+                explanations.add(finding.getExplanation());
+            }
+            if (finding.getFixSuggestions() != null) {
+                finding.getFixSuggestions().stream()
+                        .filter(suggestion -> !fixSuggestions.contains(suggestion))
+                        .forEach(fixSuggestions::add);
+            }
+            degraded |= Boolean.TRUE.equals(finding.getDegraded());
+        }
+        if (explanations.isEmpty() && !findings.isEmpty() && findings.get(0).getExplanation() != null) {
+            explanations.add(findings.get(0).getExplanation());
+        }
+        return DebugCodeResponse.builder()
+                .code(code)
+                .issues(issues)
+                .explanation(String.join("\n\n", explanations))
+                .fixSuggestions(fixSuggestions.stream().limit(MAX_FIX_SUGGESTIONS).toList())
+                .degraded(degraded ? true : null)
+                .build();
+    }
+
+    /**
+     * @param startLine first line of the region in the file, 1-based
+     */
+    record Region(int startLine, String code) {
+    }
+
+    private record Revision(EditSession session, long number, String code, String language, String errorMessage,
+                            Map<String, DebugCodeResponse> known) {
+    }
+
+    // Guarded by its own monitor
+    private static final class EditSession {
+
+        private final String id;
+        private long revision;
+        private String code;
+        private String language;
+        private String resolvedLanguage;
+        private String errorMessage;
+        private Map<String, DebugCodeResponse> regions = Map.of(); // region text -> findings numbered from its first line
+
+        private EditSession(String id) {
+            this.id = id;
+        }
+    }
+}
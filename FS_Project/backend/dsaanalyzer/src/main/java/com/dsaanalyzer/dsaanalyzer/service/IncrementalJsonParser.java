@@ -0,0 +1,132 @@
+package com.dsaanalyzer.dsaanalyzer.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Feeds LLM output chunk by chunk into Jackson's non-blocking parser and reports each
+ * top-level field of the first JSON object (and each element of top-level arrays) the
+ * moment its value is complete. Text before the opening brace, such as a markdown fence,
+ * is skipped, and everything after the closing brace is ignored.
+ */
+class IncrementalJsonParser {
+
+    record Field(String name, JsonNode value, boolean arrayElement) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+
+    private boolean started;
+    private boolean finished;
+    private int depth;
+    private String fieldName;
+    private TokenBuffer capture;
+    private int captureDepth;
+
+    IncrementalJsonParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        try {
+            this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    List<Field> feed(String chunk) throws IOException {
+        List<Field> fields = new ArrayList<>();
+        if (finished || chunk == null || chunk.isEmpty()) {
+            return fields;
+        }
+
+        String input = chunk;
+        if (!started) {
+            int start = chunk.indexOf('{');
+            if (start < 0) {
+                return fields;
+            }
+            started = true;
+            input = chunk.substring(start);
+        }
+
+        byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        feeder.feedInput(bytes, 0, bytes.length);
+
+        try {
+            JsonToken token;
+            while (!finished && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                handle(token, fields);
+            }
+        } catch (IOException e) {
+            // A broken stream cannot be resumed, so stop parsing further chunks
+            finished = true;
+            throw e;
+        }
+        return fields;
+    }
+
+    private void handle(JsonToken token, List<Field> fields) throws IOException {
+        if (capture != null) {
+            capture.copyCurrentEvent(parser);
+            if (token.isStructStart()) {
+                captureDepth++;
+            } else if (token.isStructEnd() && --captureDepth == 0) {
+                emit(fields);
+            }
+            return;
+        }
+
+        switch (token) {
+            case START_OBJECT -> {
+                if (depth == 0) {
+                    depth = 1;
+                } else {
+                    startCapture(1);
+                }
+            }
+            case START_ARRAY -> {
+                if (depth == 1) {
+                    depth = 2;
+                } else {
+                    startCapture(1);
+                }
+            }
+            case END_ARRAY -> depth = 1;
+            case END_OBJECT -> {
+                depth = 0;
+                finished = true;
+            }
+            case FIELD_NAME -> fieldName = parser.currentName();
+            default -> {
+                // Scalar value: either a top-level field or an element of a top-level array
+                startCapture(0);
+                emit(fields);
+            }
+        }
+    }
+
+    private void startCapture(int initialDepth) throws IOException {
+        capture = new TokenBuffer(parser);
+        capture.copyCurrentEvent(parser);
+        captureDepth = initialDepth;
+    }
+
+    private void emit(List<Field> fields) throws IOException {
+        try (JsonParser captured = capture.asParser()) {
+            fields.add(new Field(fieldName, objectMapper.readTree(captured), depth == 2));
+        }
+        capture = null;
+    }
+}
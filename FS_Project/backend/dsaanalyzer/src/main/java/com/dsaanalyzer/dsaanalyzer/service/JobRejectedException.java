@@ -0,0 +1,19 @@
+package com.dsaanalyzer.dsaanalyzer.service;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * A job submission refused by the {@link JobService}: 503 when the job API is disabled, 429
+ * when the queue is full, 413 when the job is too large to store.
+ */
+@Getter
+public class JobRejectedException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public JobRejectedException(HttpStatus status, String message) {
+        super(message, null, false, false);
+        this.status = status;
+    }
+}
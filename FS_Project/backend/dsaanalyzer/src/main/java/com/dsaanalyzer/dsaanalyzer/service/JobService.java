@@ -0,0 +1,251 @@
+package com.dsaanalyzer.dsaanalyzer.service;
+
+import com.dsaanalyzer.dsaanalyzer.model.AnalyzeCodeRequest;
+import com.dsaanalyzer.dsaanalyzer.model.DebugCodeRequest;
+import com.dsaanalyzer.dsaanalyzer.model.Job;
+import com.dsaanalyzer.dsaanalyzer.model.JobRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous analyze and debug jobs. A submitted job is written to the {@link JobStore}
+ * before its id is returned, then waits in a {@link FairJobQueue} until one of {@code workers}
+ * slots is free; it runs through the same {@link CodeAnalyzerService} path as a synchronous
+ * request, under a deadline of {@code timeout}. Every state change is written back to the store
+ * and published to watchers ({@link #await}, {@link #events}).
+ *
+ * <p>On startup, jobs still queued or running when the previous process stopped are queued
+ * again in submission order; an interrupted job simply runs again. Queue wait
+ * ({@code jobs.queue.wait}) and processing time ({@code jobs.processing}) are recorded apart.
+ */
+@Component
+@Slf4j
+public class JobService {
+
+    public static final String QUEUED = "queued";
+    public static final String RUNNING = "running";
+    public static final String SUCCEEDED = "succeeded";
+    public static final String FAILED = "failed";
+
+    private static final List<String> PRIORITIES = List.of("high", "normal", "low");
+
+    private final JobStore jobStore;
+    private final CodeAnalyzerService codeAnalyzerService;
+    private final int workers;
+    private final int maxQueued;
+    private final Duration timeout;
+    private final FairJobQueue queue = new FairJobQueue(PRIORITIES.size());
+    private final AtomicInteger running = new AtomicInteger();
+    private final Sinks.Many<Job> updates = Sinks.many().multicast().directBestEffort();
+    private final MeterRegistry meterRegistry;
+    private final Counter recovered;
+
+    public JobService(JobStore jobStore,
+                      CodeAnalyzerService codeAnalyzerService,
+                      @Value("${analysis.jobs.workers:4}") int workers,
+                      @Value("${analysis.jobs.max-queued:10000}") int maxQueued,
+                      @Value("${analysis.jobs.timeout:PT5M}") Duration timeout,
+                      MeterRegistry meterRegistry) {
+        this.jobStore = jobStore;
+        this.codeAnalyzerService = codeAnalyzerService;
+        this.workers = Math.max(1, workers);
+        this.maxQueued = maxQueued;
+        this.timeout = timeout;
+        this.meterRegistry = meterRegistry;
+        this.recovered = Counter.builder("jobs.recovered")
+                .description("Unfinished jobs queued again after a restart")
+                .register(meterRegistry);
+        meterRegistry.gauge("jobs.queued", queue, FairJobQueue::size);
+        meterRegistry.gauge("jobs.running", running);
+    }
+
+    @PostConstruct
+    void recover() {
+        if (!jobStore.isEnabled()) {
+            return;
+        }
+        List<Job> unfinished = jobStore.loadAll().stream()
+                .filter(job -> QUEUED.equals(job.getStatus()) || RUNNING.equals(job.getStatus()))
+                .sorted(Comparator.comparingLong(Job::getSubmittedAt))
+                .toList();
+        for (Job job : unfinished) {
+            if (RUNNING.equals(job.getStatus())) {
+                jobStore.save(job.toBuilder().status(QUEUED).build());
+            }
+            queue.offer(job.getId(), job.getTenant(), PRIORITIES.indexOf(job.getRequest().getPriority()));
+            recovered.increment();
+        }
+        log.info("Job queue started with {} workers, {} unfinished jobs recovered", workers, unfinished.size());
+        dispatch();
+    }
+
+    public boolean isEnabled() {
+        return jobStore.isEnabled();
+    }
+
+    public Job submit(JobRequest request, String tenant) {
+        if (!jobStore.isEnabled()) {
+            throw new JobRejectedException(HttpStatus.SERVICE_UNAVAILABLE, "The job API is disabled");
+        }
+        if (queue.size() >= maxQueued) {
+            throw new JobRejectedException(HttpStatus.TOO_MANY_REQUESTS, "The job queue is full");
+        }
+        JobRequest normalized = request.toBuilder()
+                .type(request.getType() != null ? request.getType() : "analyze")
+                .priority(request.getPriority() != null ? request.getPriority() : "normal")
+                .build();
+        Job job = Job.builder()
+                .id(UUID.randomUUID().toString())
+                .tenant(tenant)
+                .status(QUEUED)
+                .request(normalized)
+                .submittedAt(System.currentTimeMillis())
+                .build();
+        if (!jobStore.save(job)) {
+            throw new JobRejectedException(HttpStatus.PAYLOAD_TOO_LARGE, "The job could not be stored");
+        }
+        queue.offer(job.getId(), tenant, PRIORITIES.indexOf(normalized.getPriority()));
+        log.debug("Queued {} job {} for tenant {} ({} queued)", normalized.getType(), job.getId(), tenant, queue.size());
+        dispatch();
+        return job;
+    }
+
+    /** @return the job, or {@code null} when it is unknown or its record has expired */
+    public Job get(String id) {
+        return jobStore.isEnabled() ? jobStore.load(id) : null;
+    }
+
+    /** Long poll: the job once it has finished, or as it is when {@code wait} runs out. */
+    public Mono<Job> await(String id, Duration wait) {
+        // Subscribed to the updates before the current state is read, so a completion in between is not missed
+        return Flux.merge(updates.asFlux().filter(job -> id.equals(job.getId()) && isFinished(job)),
+                        Mono.fromSupplier(() -> get(id)).filter(JobService::isFinished))
+                .next()
+                .timeout(wait, Mono.fromSupplier(() -> get(id)));
+    }
+
+    /** The job's current state, then each change of state until it has finished. */
+    public Flux<Job> events(String id) {
+        return Flux.merge(updates.asFlux().filter(job -> id.equals(job.getId())), Mono.fromSupplier(() -> get(id)))
+                .distinctUntilChanged(Job::getStatus)
+                .takeUntil(JobService::isFinished);
+    }
+
+    private static boolean isFinished(Job job) {
+        return SUCCEEDED.equals(job.getStatus()) || FAILED.equals(job.getStatus());
+    }
+
+    // Starts queued jobs while there are free slots
+    private void dispatch() {
+        while (true) {
+            int busy = running.get();
+            if (busy >= workers) {
+                return;
+            }
+            if (!running.compareAndSet(busy, busy + 1)) {
+                continue;
+            }
+            String id = queue.poll();
+            if (id != null) {
+                start(id);
+                continue;
+            }
+            running.decrementAndGet();
+            // A job offered after the poll, whose own dispatch saw no free slot, is picked up here
+            if (queue.size() == 0) {
+                return;
+            }
+        }
+    }
+
+    private void start(String id) {
+        Job queued = jobStore.load(id);
+        if (queued == null) {
+            log.warn("Skipping job {}: its record has expired", id);
+            running.decrementAndGet();
+            return;
+        }
+        long startedAt = System.currentTimeMillis();
+        Job job = queued.toBuilder()
+                .status(RUNNING)
+                .startedAt(startedAt)
+                .attempts(queued.getAttempts() + 1)
+                .queueWaitMillis(startedAt - queued.getSubmittedAt())
+                .build();
+        publish(job);
+        Timer.builder("jobs.queue.wait")
+                .description("Time from job submission to its start")
+                .tag("priority", job.getRequest().getPriority())
+                .register(meterRegistry)
+                .record(job.getQueueWaitMillis(), TimeUnit.MILLISECONDS);
+
+        RequestDeadline deadline = RequestDeadline.after(timeout);
+        Mono.defer(() -> execute(job))
+                .timeout(deadline.remaining(), Mono.error(deadline::exceeded))
+                .switchIfEmpty(Mono.fromSupplier(() -> failed(job, "The job produced no result")))
+                .onErrorResume(e -> {
+                    log.warn("Job {} failed: {}", job.getId(), e.getMessage());
+                    return Mono.just(failed(job, e.getMessage()));
+                })
+                .contextWrite(deadline::addTo)
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(this::finish);
+    }
+
+    private Mono<Job> execute(Job job) {
+        JobRequest request = job.getRequest();
+        if ("debug".equals(request.getType())) {
+            DebugCodeRequest debug = new DebugCodeRequest(request.getCode(), request.getLanguage(), request.getErrorMessage());
+            return codeAnalyzerService.debugCode(debug)
+                    .map(result -> job.toBuilder().status(SUCCEEDED).debug(result).build());
+        }
+        AnalyzeCodeRequest analyze = new AnalyzeCodeRequest(request.getCode(), request.getLanguage(), request.getMode());
+        return codeAnalyzerService.analyzeCode(analyze)
+                .map(result -> job.toBuilder().status(SUCCEEDED).analysis(result).build());
+    }
+
+    private static Job failed(Job job, String error) {
+        return job.toBuilder().status(FAILED).error(error).build();
+    }
+
+    private void finish(Job result) {
+        long finishedAt = System.currentTimeMillis();
+        Job job = result.toBuilder()
+                .finishedAt(finishedAt)
+                .processingMillis(finishedAt - result.getStartedAt())
+                .build();
+        publish(job);
+        Timer.builder("jobs.processing")
+                .description("Time from job start to completion")
+                .tag("type", job.getRequest().getType())
+                .tag("status", job.getStatus())
+                .register(meterRegistry)
+                .record(job.getProcessingMillis(), TimeUnit.MILLISECONDS);
+        running.decrementAndGet();
+        dispatch();
+    }
+
+    private void publish(Job job) {
+        if (!jobStore.save(job)) {
+            log.warn("Job {} is {} but its record could not be updated", job.getId(), job.getStatus());
+        }
+        updates.emitNext(job, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+    }
+}
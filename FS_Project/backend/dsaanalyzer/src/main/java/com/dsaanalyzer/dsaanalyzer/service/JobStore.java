@@ -0,0 +1,95 @@
+package com.dsaanalyzer.dsaanalyzer.service;
+
+import com.dsaanalyzer.dsaanalyzer.cache.SegmentLog;
+import com.dsaanalyzer.dsaanalyzer.model.Job;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Durable job records, one JSON record per job in a {@link SegmentLog} rewritten on every
+ * state change, so queued and interrupted jobs can be picked up again after a restart. A
+ * record is kept for {@code retention} after its last change; {@code max-segments} bounds
+ * the disk used.
+ */
+@Component
+@Slf4j
+public class JobStore {
+
+    private static final byte JOB = 1;
+
+    private final SegmentLog segmentLog; // null when disabled or the directory could not be opened
+    private final ObjectMapper objectMapper;
+
+    public JobStore(@Value("${analysis.jobs.enabled:false}") boolean enabled,
+                    @Value("${analysis.jobs.dir:data/jobs}") Path directory,
+                    @Value("${analysis.jobs.segment-size:16MB}") DataSize segmentSize,
+                    @Value("${analysis.jobs.max-segments:64}") int maxSegments,
+                    @Value("${analysis.jobs.retention:P1D}") Duration retention,
+                    ObjectMapper objectMapper) {
+        this.segmentLog = enabled ? open(directory, segmentSize, maxSegments, retention) : null;
+        this.objectMapper = objectMapper;
+    }
+
+    public boolean isEnabled() {
+        return segmentLog != null;
+    }
+
+    /** @return {@code false} when the job could not be written, e.g. because it is larger than a segment */
+    public boolean save(Job job) {
+        try {
+            return segmentLog.put(JOB, job.getId(), objectMapper.writeValueAsBytes(job));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write job {}: {}", job.getId(), e.getMessage());
+            return false;
+        }
+    }
+
+    /** @return the job, or {@code null} when it is unknown or has expired */
+    public Job load(String id) {
+        ByteBuffer value = segmentLog.get(JOB, id);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(new ByteBufferBackedInputStream(value), Job.class);
+        } catch (IOException e) {
+            log.warn("Discarding unreadable job record {}: {}", id, e.getMessage());
+            return null;
+        }
+    }
+
+    public List<Job> loadAll() {
+        return segmentLog.keys(JOB).stream()
+                .map(this::load)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (segmentLog != null) {
+            segmentLog.close();
+        }
+    }
+
+    private static SegmentLog open(Path directory, DataSize segmentSize, int maxSegments, Duration retention) {
+        try {
+            return SegmentLog.open(directory, Math.toIntExact(segmentSize.toBytes()), maxSegments, retention);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Job API disabled, could not open {}: {}", directory, e.getMessage());
+            return null;
+        }
+    }
+}
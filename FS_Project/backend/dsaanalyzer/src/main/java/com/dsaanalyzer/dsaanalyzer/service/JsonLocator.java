@@ -0,0 +1,95 @@
+package com.dsaanalyzer.dsaanalyzer.service;
+
+/**
+ * Single-pass locator for the first complete top-level JSON object (or array of objects) in
+ * free-form LLM output.
+ * Tracks nesting depth, string literals and escapes, so braces inside string values and
+ * arbitrarily deep nesting are handled, and never backtracks.
+ */
+public final class JsonLocator {
+
+    private JsonLocator() {
+    }
+
+    /**
+     * Returns the first complete JSON object in {@code text}. If none is found (for example
+     * because the output was truncated), returns the text with surrounding markdown fences
+     * stripped so the caller's parser can report a meaningful error.
+     */
+    public static String extract(String text) {
+        String object = locate(text, '{', '}', '"');
+        return object != null ? object : stripFences(text);
+    }
+
+    /** Returns the first complete JSON array of objects in {@code text}, or {@code null}. */
+    public static String extractArray(String text) {
+        return locate(text, '[', ']', '{');
+    }
+
+    private static String locate(String text, char open, char close, char first) {
+        int length = text.length();
+        int start = -1;
+        int depth = 0;
+        boolean inString = false;
+
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (start < 0) {
+                if (c == open && looksLikeStart(text, i + 1, first, close)) {
+                    start = i;
+                    depth = 1;
+                }
+            } else if (inString) {
+                if (c == '\\') {
+                    i++;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == open) {
+                depth++;
+            } else if (c == close && --depth == 0) {
+                return text.substring(start, i + 1);
+            }
+        }
+        return null;
+    }
+
+    // Skips prose such as "use {braces} here" or "arr[i]" by requiring a key (an element) or an immediate close
+    private static boolean looksLikeStart(String text, int from, char first, char close) {
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                return c == first || c == close;
+            }
+        }
+        return false;
+    }
+
+    private static String stripFences(String text) {
+        int begin = 0;
+        int end = text.length();
+        while (begin < end && Character.isWhitespace(text.charAt(begin))) {
+            begin++;
+        }
+        while (end > begin && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        if (text.startsWith("```json", begin)) {
+            begin += 7;
+        } else if (text.startsWith("```", begin)) {
+            begin += 3;
+        }
+        if (end - begin >= 3 && text.startsWith("```", end - 3)) {
+            end -= 3;
+        }
+        while (begin < end && Character.isWhitespace(text.charAt(begin))) {
+            begin++;
+        }
+        while (end > begin && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        return text.substring(begin, end);
+    }
+}
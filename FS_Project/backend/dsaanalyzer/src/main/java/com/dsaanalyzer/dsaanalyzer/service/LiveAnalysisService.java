@@ -0,0 +1,124 @@
+package com.dsaanalyzer.dsaanalyzer.service;
+
+import com.dsaanalyzer.dsaanalyzer.model.AnalyzeCodeRequest;
+import com.dsaanalyzer.dsaanalyzer.model.DebugCodeRequest;
+import com.dsaanalyzer.dsaanalyzer.model.LiveResult;
+import com.dsaanalyzer.dsaanalyzer.model.LiveUpdate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Live analysis for one editor connection. Each revision waits out a {@code debounce} quiet
+ * period before it is analyzed or debugged; a newer revision arriving in the meantime replaces
+ * it, and one arriving while it is already being processed cancels that work, including the
+ * upstream call (shared calls are cancelled once no caller is left, see
+ * {@link com.dsaanalyzer.dsaanalyzer.cache.RequestCoalescer}). A burst of keystrokes therefore
+ * costs one upstream call, for the code the user ended up with.
+ *
+ * <p>{@code live.updates} counts revisions received, {@code live.results} results sent, and
+ * {@code live.updates.dropped} revisions given up before a result, by stage.
+ */
+@Service
+@Slf4j
+public class LiveAnalysisService {
+
+    private final CodeAnalyzerService codeAnalyzerService;
+    private final UpstreamCallPolicy upstreamCallPolicy;
+    private final Validator validator;
+    private final Duration debounce;
+    private final Counter updates;
+    private final Counter results;
+    private final Counter droppedWhileDebouncing;
+    private final Counter droppedInFlight;
+
+    public LiveAnalysisService(CodeAnalyzerService codeAnalyzerService,
+                               UpstreamCallPolicy upstreamCallPolicy,
+                               Validator validator,
+                               @Value("${analysis.live.debounce:PT0.3S}") Duration debounce,
+                               MeterRegistry meterRegistry) {
+        this.codeAnalyzerService = codeAnalyzerService;
+        this.upstreamCallPolicy = upstreamCallPolicy;
+        this.validator = validator;
+        this.debounce = debounce;
+        this.updates = Counter.builder("live.updates")
+                .description("Revisions received on live analysis connections")
+                .register(meterRegistry);
+        this.results = Counter.builder("live.results")
+                .description("Results pushed on live analysis connections")
+                .register(meterRegistry);
+        this.droppedWhileDebouncing = dropped(meterRegistry, "debounce");
+        this.droppedInFlight = dropped(meterRegistry, "in-flight");
+    }
+
+    private static Counter dropped(MeterRegistry meterRegistry, String stage) {
+        return Counter.builder("live.updates.dropped")
+                .tag("stage", stage)
+                .description("Revisions given up before a result, because a newer one arrived or the connection closed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Results for the revisions of one connection, in order; only the latest revision at any
+     * time can still produce one.
+     */
+    public Flux<LiveResult> results(Flux<LiveUpdate> revisions) {
+        return revisions
+                .doOnNext(update -> updates.increment())
+                .switchMap(this::debounced)
+                .doOnNext(result -> results.increment());
+    }
+
+    private Mono<LiveResult> debounced(LiveUpdate update) {
+        Set<ConstraintViolation<LiveUpdate>> violations = validator.validate(update);
+        if (!violations.isEmpty()) {
+            return Mono.just(failure(update, violations.iterator().next().getMessage()));
+        }
+        AtomicReference<Counter> dropped = new AtomicReference<>(droppedWhileDebouncing);
+        return Mono.delay(debounce)
+                .then(Mono.defer(() -> {
+                    dropped.set(droppedInFlight);
+                    return process(update);
+                }))
+                // A cancel can still arrive after the result has gone out; that revision was not dropped
+                .doOnNext(result -> dropped.set(null))
+                .doOnCancel(() -> {
+                    Counter stage = dropped.get();
+                    if (stage != null) {
+                        stage.increment();
+                    }
+                });
+    }
+
+    private Mono<LiveResult> process(LiveUpdate update) {
+        log.debug("Processing live revision {}", update.getRevision());
+        RequestDeadline deadline = upstreamCallPolicy.deadline(null);
+        Mono<LiveResult> result = "debug".equals(update.getType())
+                ? codeAnalyzerService.debugCode(new DebugCodeRequest(update.getCode(), update.getLanguage(), update.getErrorMessage()))
+                        .map(debug -> LiveResult.builder().revision(update.getRevision()).type("debug").debug(debug).build())
+                : codeAnalyzerService.analyzeCode(new AnalyzeCodeRequest(update.getCode(), update.getLanguage(), update.getMode()))
+                        .map(analysis -> LiveResult.builder().revision(update.getRevision()).type("analyze").analysis(analysis).build());
+        return result
+                .timeout(deadline.remaining(), Mono.error(deadline::exceeded))
+                .onErrorResume(e -> Mono.just(failure(update, "Failed to process revision: " + e.getMessage())))
+                .contextWrite(deadline::addTo);
+    }
+
+    private static LiveResult failure(LiveUpdate update, String message) {
+        return LiveResult.builder()
+                .revision(update.getRevision())
+                .type(update.getType() != null ? update.getType() : "analyze")
+                .error(message)
+                .build();
+    }
+}
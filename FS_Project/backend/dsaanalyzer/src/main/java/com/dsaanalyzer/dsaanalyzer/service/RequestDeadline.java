@@ -0,0 +1,35 @@
+package com.dsaanalyzer.dsaanalyzer.service;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+
+/** When a request must be answered by; carried in the Reactor context to the upstream calls. */
+public record RequestDeadline(Duration timeout, long expiresAtNanos) {
+
+    /** Client override of the default deadline, in milliseconds or as an ISO-8601 duration. */
+    public static final String HEADER = "X-Request-Timeout";
+
+    public static RequestDeadline after(Duration timeout) {
+        return new RequestDeadline(timeout, System.nanoTime() + timeout.toNanos());
+    }
+
+    public static Optional<RequestDeadline> from(ContextView context) {
+        return context.getOrEmpty(RequestDeadline.class);
+    }
+
+    public Context addTo(Context context) {
+        return context.put(RequestDeadline.class, this);
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, expiresAtNanos - System.nanoTime()));
+    }
+
+    public TimeoutException exceeded() {
+        return new TimeoutException("Request deadline of " + timeout.toMillis() + " ms exceeded");
+    }
+}
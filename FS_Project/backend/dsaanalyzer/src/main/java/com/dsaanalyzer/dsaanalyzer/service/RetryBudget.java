@@ -0,0 +1,45 @@
+package com.dsaanalyzer.dsaanalyzer.service;
+
+/** Token bucket capping retries and hedges at {@code ratio} of the calls, plus {@code minPerSecond}. */
+public class RetryBudget {
+
+    private final double ratio;
+    private final double minPerSecond;
+    private final double capacity;
+
+    // Guarded by this
+    private double balance;
+    private long lastRefillNanos = System.nanoTime();
+
+    public RetryBudget(double ratio, double minPerSecond) {
+        this.ratio = ratio;
+        this.minPerSecond = minPerSecond;
+        this.capacity = Math.max(1, 1000 * ratio + minPerSecond);
+        this.balance = Math.min(capacity, Math.max(1, minPerSecond));
+    }
+
+    public synchronized void deposit() {
+        refill();
+        balance = Math.min(capacity, balance + ratio);
+    }
+
+    public synchronized boolean tryWithdraw() {
+        refill();
+        if (balance < 1) {
+            return false;
+        }
+        balance--;
+        return true;
+    }
+
+    public synchronized double balance() {
+        refill();
+        return balance;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        balance = Math.min(capacity, balance + (now - lastRefillNanos) / 1e9 * minPerSecond);
+        lastRefillNanos = now;
+    }
+}
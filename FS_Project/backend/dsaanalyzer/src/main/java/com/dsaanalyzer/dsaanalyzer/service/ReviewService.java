@@ -0,0 +1,162 @@
+package com.dsaanalyzer.dsaanalyzer.service;
+
+import com.dsaanalyzer.dsaanalyzer.cache.CacheKey;
+import com.dsaanalyzer.dsaanalyzer.cache.RequestCoalescer;
+import com.dsaanalyzer.dsaanalyzer.model.AnalyzeCodeRequest;
+import com.dsaanalyzer.dsaanalyzer.model.AnalyzeCodeResponse;
+import com.dsaanalyzer.dsaanalyzer.model.DebugCodeRequest;
+import com.dsaanalyzer.dsaanalyzer.model.DebugCodeResponse;
+import com.dsaanalyzer.dsaanalyzer.model.ReviewCodeRequest;
+import com.dsaanalyzer.dsaanalyzer.model.ReviewCodeResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Analysis and debug findings for one submission, each as /analyze and /debug would give it.
+ * A half that is known without Gemini (catalog, cache, near-duplicate, compiler diagnostics)
+ * is used as is; when both halves are missing, one prompt asks for both schemas, so the code
+ * is sent and the model called once. Each half is cached under its own key, so a later
+ * /analyze or /debug of the same code is a cache hit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReviewService {
+
+    private final CodeAnalyzerService codeAnalyzerService;
+    private final AnalysisResponses analysisResponses;
+    private final GeminiService geminiService;
+    private final RequestCoalescer requestCoalescer;
+    private final ObjectMapper objectMapper;
+
+    public Mono<ReviewCodeResponse> reviewCode(ReviewCodeRequest request) {
+        log.info("Starting code review for language: {}", request.getLanguage());
+        AnalyzeCodeRequest analyzeRequest = new AnalyzeCodeRequest(request.getCode(), request.getLanguage(), null);
+        DebugCodeRequest debugRequest = new DebugCodeRequest(request.getCode(), request.getLanguage(), request.getErrorMessage());
+
+        return codeAnalyzerService.compilerIssues(debugRequest).flatMap(compilerIssues -> {
+            AnalyzeCodeResponse analysis = codeAnalyzerService.knownAnalysis(analyzeRequest);
+            DebugCodeResponse debug = codeAnalyzerService.knownDebug(debugRequest, compilerIssues);
+            if (analysis != null || debug != null) {
+                // At most one half is missing, and its own prompt is the cheaper call
+                return Mono.zip(analysis != null ? Mono.just(analysis) : codeAnalyzerService.analyzeCode(analyzeRequest),
+                        debug != null ? Mono.just(debug) : codeAnalyzerService.debugCode(debugRequest, compilerIssues),
+                        ReviewCodeResponse::new);
+            }
+
+            String analysisKey = codeAnalyzerService.analysisCacheKey(analyzeRequest);
+            String debugKey = codeAnalyzerService.debugCacheKey(debugRequest);
+            return requestCoalescer.execute(CacheKey.of("review", analysisKey, debugKey),
+                            () -> geminiService.generateContent(buildReviewPrompt(debugRequest))
+                                    .map(geminiResponse -> toReviewResponse(analysisKey, debugKey, analyzeRequest, geminiResponse))
+                                    .switchIfEmpty(Mono.fromSupplier(() -> degradedReview(analyzeRequest))))
+                    .onErrorResume(CodeAnalyzerService::isUpstreamUnavailable,
+                            e -> Mono.fromSupplier(() -> degradedReview(analyzeRequest)))
+                    .map(review -> new ReviewCodeResponse(review.getAnalysis(), codeAnalyzerService.withCompilerIssues(
+                            codeAnalyzerService.withCode(review.getDebug(), request.getCode()), compilerIssues)));
+        });
+    }
+
+    // Each half is parsed (and cached) on its own, so a malformed or missing half degrades alone
+    private ReviewCodeResponse toReviewResponse(String analysisKey, String debugKey, AnalyzeCodeRequest request, String geminiResponse) {
+        JsonNode review;
+        try {
+            review = objectMapper.readTree(JsonLocator.extract(geminiResponse));
+        } catch (Exception e) {
+            log.error("Error parsing review response: {}", e.getMessage(), e);
+            return degradedReview(request);
+        }
+        if (!review.hasNonNull("analysis") || !review.hasNonNull("debug")) {
+            log.warn("Review response is missing {}", review.hasNonNull("analysis") ? "debug" : "analysis");
+        }
+        return new ReviewCodeResponse(
+                review.hasNonNull("analysis")
+                        ? codeAnalyzerService.toAnalysisResponse(analysisKey, request, review.get("analysis").toString())
+                        : analysisResponses.degradedAnalysis(request),
+                review.hasNonNull("debug")
+                        ? codeAnalyzerService.toDebugResponse(debugKey, review.get("debug").toString(), request.getCode())
+                        : codeAnalyzerService.degradedDebugResponse(request.getCode()));
+    }
+
+    private ReviewCodeResponse degradedReview(AnalyzeCodeRequest request) {
+        return new ReviewCodeResponse(analysisResponses.degradedAnalysis(request),
+                codeAnalyzerService.degradedDebugResponse(request.getCode()));
+    }
+
+    // Both requirement lists against a single copy of the code; the reply nests the two usual objects
+    private static String buildReviewPrompt(DebugCodeRequest request) {
+        StringBuilder prompt = new StringBuilder(String.format("""
+                You are an expert DSA Analyzer and Code Debugger AI. Review the following %s code twice over:
+                analyze its algorithmic complexity, and debug it for all issues.
+
+                CODE:
+                ```%s
+                %s
+                ```
+
+                """,
+                request.getLanguage() != null ? request.getLanguage() : "code",
+                request.getLanguage() != null ? request.getLanguage() : "",
+                request.getCode()
+        ));
+
+        if (request.getErrorMessage() != null && !request.getErrorMessage().isEmpty()) {
+            prompt.append(String.format("""
+                    REPORTED ERROR:
+                    %s
+
+                    """,
+                    request.getErrorMessage()
+            ));
+        }
+
+        prompt.append("""
+                ANALYSIS REQUIREMENTS:
+                1. timeComplexity: Big O time complexity
+                2. spaceComplexity: Big O space complexity
+                3. pattern: Main algorithmic pattern
+                4. summary: 1–2 sentence description
+                5. intuition: 4–6 key reasoning points
+                6. suggestions: 3–5 specific optimization ideas
+
+                DEBUG REQUIREMENTS:
+                1. Identify all issues:
+                   - Syntax, runtime, logic, performance, and code quality problems
+                2. Explain briefly what’s wrong and why
+                3. Give 4–6 concise, actionable fixes
+
+                OUTPUT FORMAT (JSON only, no markdown or extra text):
+                {
+                  "analysis": {
+                    "timeComplexity": "O(n log n)",
+                    "spaceComplexity": "O(n)",
+                    "pattern": "Divide & Conquer",
+                    "summary": "Implements merge sort by dividing and merging arrays.",
+                    "intuition": ["Divide array recursively", "Merge halves efficiently", "Base case: single element", "Extra space for faster sorting"],
+                    "suggestions": ["Use in-place Quick Sort for lower space use", "Implement iterative version to avoid recursion overhead"]
+                  },
+                  "debug": {
+                    "issues": [
+                      {"line": 6, "type": "error", "message": "Function 'merge' not defined", "severity": "high"},
+                      {"line": 2, "type": "warning", "message": "No null/undefined input check", "severity": "medium"}
+                    ],
+                    "explanation": "Code calls undefined 'merge' function causing runtime error; lacks input validation.",
+                    "fixSuggestions": ["Define 'merge' before use.", "Validate input array for null or undefined."]
+                  }
+                }
+
+                GUIDELINES:
+                - Keep it accurate, concise, and code-specific
+                - Mention only the dominant pattern
+                - Use accurate line numbers; use 'error' (high), 'warning' (medium), 'info' (low)
+                - Keep the debug explanation under 3 sentences
+                - Avoid repetition or generic advice
+                """);
+
+        return prompt.toString();
+    }
+}
@@ -0,0 +1,214 @@
+package com.dsaanalyzer.dsaanalyzer.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * Deadline, budgeted retries and p95 hedging for Gemini calls; each attempt goes through the
+ * {@link UpstreamLimiter}. Streams are retried only until their first element and never hedged.
+ */
+@Component
+@Slf4j
+public class UpstreamCallPolicy {
+
+    private static final int LATENCY_WINDOW = 1000;
+    private static final int MIN_SAMPLES = 50;
+    private static final int RECOMPUTE_EVERY = 50;
+
+    private final Duration defaultDeadline;
+    private final Duration maxDeadline;
+    private final int maxAttempts;
+    private final long backoffNanos;
+    private final long maxBackoffNanos;
+    private final boolean hedgeEnabled;
+    private final double hedgePercentile;
+    private final long hedgeMinDelayNanos;
+    private final RetryBudget retryBudget;
+    private final Counter retried;
+    private final Counter hedged;
+    private final Counter hedgeWon;
+    private final Counter budgetExhausted;
+
+    // Guarded by latencies: successful attempt latencies, a ring buffer
+    private final long[] latencies = new long[LATENCY_WINDOW];
+    private long samples;
+    private volatile long hedgeDelayNanos = -1;
+
+    public UpstreamCallPolicy(@Value("${gemini.deadline.default:PT30S}") Duration defaultDeadline,
+                              @Value("${gemini.deadline.max:PT120S}") Duration maxDeadline,
+                              @Value("${gemini.retry.max-attempts:3}") int maxAttempts,
+                              @Value("${gemini.retry.backoff:PT0.2S}") Duration backoff,
+                              @Value("${gemini.retry.max-backoff:PT2S}") Duration maxBackoff,
+                              @Value("${gemini.retry.budget-ratio:0.1}") double budgetRatio,
+                              @Value("${gemini.retry.budget-min-per-second:1}") double budgetMinPerSecond,
+                              @Value("${gemini.hedge.enabled:true}") boolean hedgeEnabled,
+                              @Value("${gemini.hedge.percentile:0.95}") double hedgePercentile,
+                              @Value("${gemini.hedge.min-delay:PT0.05S}") Duration hedgeMinDelay,
+                              MeterRegistry meterRegistry) {
+        this.defaultDeadline = defaultDeadline;
+        this.maxDeadline = maxDeadline;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffNanos = backoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgePercentile = hedgePercentile;
+        this.hedgeMinDelayNanos = hedgeMinDelay.toNanos();
+        this.retryBudget = new RetryBudget(budgetRatio, budgetMinPerSecond);
+        this.retried = Counter.builder("gemini.calls.retried")
+                .description("Gemini attempts retried after a 429, 5xx or connection error")
+                .register(meterRegistry);
+        this.hedged = Counter.builder("gemini.calls.hedged")
+                .description("Hedged second attempts sent after the p95 latency")
+                .register(meterRegistry);
+        this.hedgeWon = Counter.builder("gemini.calls.hedge.won")
+                .description("Hedged attempts that answered before the original")
+                .register(meterRegistry);
+        this.budgetExhausted = Counter.builder("gemini.retry.budget.exhausted")
+                .description("Retries and hedges skipped because the retry budget was spent")
+                .register(meterRegistry);
+        Gauge.builder("gemini.hedge.delay", this, policy -> Math.max(0, policy.hedgeDelayNanos) / 1e6)
+                .description("Current hedging delay in milliseconds (0 while warming up)")
+                .register(meterRegistry);
+        Gauge.builder("gemini.retry.budget", retryBudget, RetryBudget::balance).register(meterRegistry);
+        log.info("Upstream call policy: deadline={} (max {}) attempts={} backoff={}..{} budget={}+{}/s hedge={} p{}",
+                defaultDeadline, maxDeadline, maxAttempts, backoff, maxBackoff, budgetRatio, budgetMinPerSecond,
+                hedgeEnabled, (int) (hedgePercentile * 100));
+    }
+
+    /** The deadline for a request that asked for {@code requested} (header value, may be null). */
+    public RequestDeadline deadline(String requested) {
+        Duration timeout = defaultDeadline;
+        if (requested != null && !requested.isBlank()) {
+            try {
+                String value = requested.strip();
+                timeout = value.startsWith("P") ? Duration.parse(value) : Duration.ofMillis(Long.parseLong(value));
+            } catch (RuntimeException e) {
+                log.debug("Ignoring malformed {} header '{}'", RequestDeadline.HEADER, requested);
+            }
+        }
+        if (timeout.isNegative() || timeout.isZero()) {
+            timeout = defaultDeadline;
+        }
+        return RequestDeadline.after(timeout.compareTo(maxDeadline) > 0 ? maxDeadline : timeout);
+    }
+
+    public <T> Mono<T> call(Function<RequestDeadline, Mono<T>> attempt) {
+        return Mono.deferContextual(context -> {
+            RequestDeadline deadline = RequestDeadline.from(context).orElseGet(() -> deadline(null));
+            retryBudget.deposit();
+            return hedged(attempt, deadline)
+                    .retryWhen(retries(deadline, () -> true))
+                    .timeout(deadline.remaining(), Mono.error(deadline::exceeded));
+        });
+    }
+
+    public <T> Flux<T> callMany(Function<RequestDeadline, Flux<T>> attempt) {
+        return Flux.deferContextual(context -> {
+            RequestDeadline deadline = RequestDeadline.from(context).orElseGet(() -> deadline(null));
+            retryBudget.deposit();
+            // Once fragments have been passed on, a retry would repeat them
+            AtomicBoolean started = new AtomicBoolean();
+            return Flux.defer(() -> attempt.apply(deadline))
+                    .doOnNext(element -> started.set(true))
+                    .retryWhen(retries(deadline, () -> !started.get()))
+                    // Every element re-arms a timer for what is left, bounding the stream as a whole
+                    .timeout(Mono.delay(deadline.remaining()), element -> Mono.delay(deadline.remaining()),
+                            Flux.error(deadline::exceeded));
+        });
+    }
+
+    private <T> Mono<T> hedged(Function<RequestDeadline, Mono<T>> attempt, RequestDeadline deadline) {
+        return Mono.defer(() -> {
+            Mono<T> primary = timed(attempt, deadline);
+            long delay = hedgeDelayNanos;
+            if (!hedgeEnabled || delay < 0 || deadline.remaining().toNanos() <= delay) {
+                return primary;
+            }
+            // A failed or unaffordable hedge just completes empty and leaves the race to the primary
+            Mono<T> hedge = Mono.delay(Duration.ofNanos(delay)).flatMap(tick -> {
+                if (!retryBudget.tryWithdraw()) {
+                    budgetExhausted.increment();
+                    return Mono.empty();
+                }
+                hedged.increment();
+                return timed(attempt, deadline)
+                        .doOnNext(value -> hedgeWon.increment())
+                        .onErrorResume(e -> Mono.empty());
+            });
+            return Flux.merge(primary, hedge).next();
+        });
+    }
+
+    private <T> Mono<T> timed(Function<RequestDeadline, Mono<T>> attempt, RequestDeadline deadline) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return attempt.apply(deadline).doOnNext(value -> recordLatency(System.nanoTime() - start));
+        });
+    }
+
+    private Retry retries(RequestDeadline deadline, BooleanSupplier allowed) {
+        return Retry.from(signals -> signals.concatMap(signal -> {
+            Throwable error = signal.failure();
+            if (signal.totalRetries() + 1 >= maxAttempts || !allowed.getAsBoolean()
+                    || !UpstreamLimiter.isOverloadSignal(error)) {
+                return Mono.error(error);
+            }
+            Duration backoff = backoff(signal.totalRetries(), error);
+            if (backoff.compareTo(deadline.remaining()) >= 0) {
+                return Mono.error(error);
+            }
+            if (!retryBudget.tryWithdraw()) {
+                budgetExhausted.increment();
+                log.debug("Retry budget spent, not retrying: {}", error.getMessage());
+                return Mono.error(error);
+            }
+            retried.increment();
+            log.debug("Retrying Gemini call in {} ms after: {}", backoff.toMillis(), error.getMessage());
+            return Mono.delay(backoff);
+        }));
+    }
+
+    // Full jitter over an exponentially growing cap, but never sooner than the upstream asked for
+    private Duration backoff(long retry, Throwable error) {
+        long cap = Math.min(maxBackoffNanos, backoffNanos << Math.min(20, retry));
+        long nanos = ThreadLocalRandom.current().nextLong(cap + 1);
+        if (error instanceof WebClientResponseException response) {
+            String retryAfter = response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+            if (retryAfter != null && retryAfter.strip().matches("\\d{1,6}")) {
+                nanos = Math.max(nanos, Duration.ofSeconds(Long.parseLong(retryAfter.strip())).toNanos());
+            }
+        }
+        return Duration.ofNanos(nanos);
+    }
+
+    private void recordLatency(long nanos) {
+        long[] window = null;
+        synchronized (latencies) {
+            latencies[(int) (samples++ % LATENCY_WINDOW)] = nanos;
+            if (samples >= MIN_SAMPLES && samples % RECOMPUTE_EVERY == 0) {
+                window = Arrays.copyOf(latencies, (int) Math.min(samples, LATENCY_WINDOW));
+            }
+        }
+        if (window != null) {
+            Arrays.sort(window);
+            long percentile = window[Math.min(window.length - 1, (int) (hedgePercentile * window.length))];
+            hedgeDelayNanos = Math.max(hedgeMinDelayNanos, percentile);
+        }
+    }
+}
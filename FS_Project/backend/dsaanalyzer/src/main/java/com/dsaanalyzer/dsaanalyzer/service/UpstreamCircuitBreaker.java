@@ -0,0 +1,242 @@
+package com.dsaanalyzer.dsaanalyzer.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker around whole Gemini calls (retries and hedges included), opened by the failure
+ * or slow-call rate over a sliding window. For streams the latency is the time to the first element.
+ */
+@Component
+@Slf4j
+public class UpstreamCircuitBreaker {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private static final int BUCKETS = 10;
+
+    private final boolean enabled;
+    private final long bucketNanos;
+    private final int minCalls;
+    private final double failureRate;
+    private final long slowCallNanos;
+    private final double slowCallRate;
+    private final long openNanos;
+    private final int probes;
+    private final Counter shortCircuited;
+
+    // Guarded by this
+    private State state = State.CLOSED;
+    private long generation;
+    private long openedNanos;
+    private int probesStarted;
+    private int probesSucceeded;
+    private final long[] bucketEpochs = new long[BUCKETS];
+    private final int[] calls = new int[BUCKETS];
+    private final int[] failures = new int[BUCKETS];
+    private final int[] slowCalls = new int[BUCKETS];
+
+    public UpstreamCircuitBreaker(@Value("${gemini.circuit.enabled:true}") boolean enabled,
+                                  @Value("${gemini.circuit.window:PT30S}") Duration window,
+                                  @Value("${gemini.circuit.min-calls:20}") int minCalls,
+                                  @Value("${gemini.circuit.failure-rate:0.5}") double failureRate,
+                                  @Value("${gemini.circuit.slow-call-threshold:PT15S}") Duration slowCallThreshold,
+                                  @Value("${gemini.circuit.slow-call-rate:0.5}") double slowCallRate,
+                                  @Value("${gemini.circuit.open-duration:PT15S}") Duration openDuration,
+                                  @Value("${gemini.circuit.half-open-probes:3}") int probes,
+                                  MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.bucketNanos = Math.max(1, window.toNanos() / BUCKETS);
+        this.minCalls = Math.max(1, minCalls);
+        this.failureRate = failureRate;
+        this.slowCallNanos = slowCallThreshold.toNanos();
+        this.slowCallRate = slowCallRate;
+        this.openNanos = openDuration.toNanos();
+        this.probes = Math.max(1, probes);
+        this.shortCircuited = Counter.builder("gemini.circuit.short-circuited")
+                .description("Gemini calls failed fast because the circuit was open")
+                .register(meterRegistry);
+        Gauge.builder("gemini.circuit.state", this, breaker -> breaker.state().ordinal())
+                .description("Circuit state: 0 closed, 1 half-open, 2 open")
+                .register(meterRegistry);
+        Arrays.fill(bucketEpochs, Long.MIN_VALUE);
+        log.info("Upstream circuit breaker enabled={} window={} minCalls={} failureRate={} slow={}@{} open={} probes={}",
+                enabled, window, minCalls, failureRate, slowCallThreshold, slowCallRate, openDuration, probes);
+    }
+
+    public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        if (!enabled) {
+            return Mono.defer(call);
+        }
+        return Mono.defer(() -> {
+            Permit permit = acquire();
+            if (permit == null) {
+                return Mono.error(rejection());
+            }
+            return call.get()
+                    .doOnSuccess(value -> complete(permit, System.nanoTime() - permit.startNanos, null))
+                    .doOnError(error -> complete(permit, System.nanoTime() - permit.startNanos, error))
+                    .doOnCancel(() -> cancel(permit));
+        });
+    }
+
+    public <T> Flux<T> executeMany(Supplier<Flux<T>> call) {
+        if (!enabled) {
+            return Flux.defer(call);
+        }
+        return Flux.defer(() -> {
+            Permit permit = acquire();
+            if (permit == null) {
+                return Flux.error(rejection());
+            }
+            AtomicLong firstNanos = new AtomicLong();
+            return call.get()
+                    .doOnNext(element -> firstNanos.compareAndSet(0, System.nanoTime() - permit.startNanos))
+                    .doOnComplete(() -> complete(permit, latency(permit, firstNanos), null))
+                    .doOnError(error -> complete(permit, latency(permit, firstNanos), error))
+                    .doOnCancel(() -> cancel(permit));
+        });
+    }
+
+    public synchronized State state() {
+        if (state == State.OPEN && System.nanoTime() - openedNanos >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    private synchronized Permit acquire() {
+        long now = System.nanoTime();
+        if (state == State.OPEN && now - openedNanos >= openNanos) {
+            transition(State.HALF_OPEN, now);
+        }
+        if (state == State.CLOSED) {
+            return new Permit(generation, false, now);
+        }
+        if (state == State.HALF_OPEN && probesStarted < probes) {
+            probesStarted++;
+            return new Permit(generation, true, now);
+        }
+        return null;
+    }
+
+    private synchronized void complete(Permit permit, long latencyNanos, Throwable error) {
+        if (permit.generation != generation) {
+            // Started before the last transition; its outcome says nothing about the current state
+            return;
+        }
+        boolean failure = error != null && isFailure(error);
+        boolean slow = latencyNanos >= slowCallNanos;
+        if (error != null && !failure && !slow) {
+            if (permit.probe) {
+                probesStarted--;
+            }
+            return;
+        }
+        long now = System.nanoTime();
+        if (permit.probe) {
+            if (failure || slow) {
+                log.warn("Gemini circuit probe {}, reopening", failure ? "failed: " + error.getMessage() : "was slow");
+                transition(State.OPEN, now);
+            } else if (++probesSucceeded >= probes) {
+                transition(State.CLOSED, now);
+            }
+            return;
+        }
+        record(now, failure, slow);
+        if (tripped(now)) {
+            transition(State.OPEN, now);
+        }
+    }
+
+    private synchronized void cancel(Permit permit) {
+        if (permit.probe && permit.generation == generation) {
+            probesStarted--;
+        }
+    }
+
+    // Caller holds the lock
+    private void transition(State next, long now) {
+        log.warn("Gemini circuit {} -> {}", state, next);
+        state = next;
+        generation++;
+        probesStarted = 0;
+        probesSucceeded = 0;
+        if (next == State.OPEN) {
+            openedNanos = now;
+        } else if (next == State.CLOSED) {
+            Arrays.fill(bucketEpochs, Long.MIN_VALUE);
+        }
+    }
+
+    // Caller holds the lock
+    private void record(long now, boolean failure, boolean slow) {
+        long epoch = Math.floorDiv(now, bucketNanos);
+        int bucket = (int) Math.floorMod(epoch, (long) BUCKETS);
+        if (bucketEpochs[bucket] != epoch) {
+            bucketEpochs[bucket] = epoch;
+            calls[bucket] = 0;
+            failures[bucket] = 0;
+            slowCalls[bucket] = 0;
+        }
+        calls[bucket]++;
+        failures[bucket] += failure ? 1 : 0;
+        slowCalls[bucket] += slow ? 1 : 0;
+    }
+
+    // Caller holds the lock
+    private boolean tripped(long now) {
+        long epoch = Math.floorDiv(now, bucketNanos);
+        int total = 0;
+        int failed = 0;
+        int slow = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (bucketEpochs[i] != Long.MIN_VALUE && epoch - bucketEpochs[i] < BUCKETS) {
+                total += calls[i];
+                failed += failures[i];
+                slow += slowCalls[i];
+            }
+        }
+        return total >= minCalls && (failed >= failureRate * total || slow >= slowCallRate * total);
+    }
+
+    private CircuitOpenException rejection() {
+        shortCircuited.increment();
+        return new CircuitOpenException("Gemini circuit is open, answering locally");
+    }
+
+    private static long latency(Permit permit, AtomicLong firstNanos) {
+        long first = firstNanos.get();
+        return first != 0 ? first : System.nanoTime() - permit.startNanos;
+    }
+
+    private static boolean isFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof WebClientResponseException response) {
+                return response.getStatusCode().value() == 429 || response.getStatusCode().is5xxServerError();
+            }
+            if (cause instanceof WebClientRequestException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Permit(long generation, boolean probe, long startNanos) {
+    }
+}
@@ -0,0 +1,282 @@
+package com.dsaanalyzer.dsaanalyzer.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Adaptive concurrency limit on Gemini calls; calls over the limit queue, and are shed with 429
+ * (queue full) or 503 (waited past queue-target in a standing queue, or past max-wait).
+ */
+@Component
+@Slf4j
+public class UpstreamLimiter {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final int LONG_WINDOW = 100;
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueSize;
+    private final long queueTargetNanos;
+    private final long queueIntervalNanos;
+    private final Duration maxWait;
+    private final Counter queueFull;
+    private final Counter queueDelay;
+    private final Counter waitTimeout;
+
+    // Guarded by this
+    private final Deque<Waiter> queue = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+    private double longRttNanos;
+    private long lastEmptyNanos = System.nanoTime();
+
+    public UpstreamLimiter(@Value("${gemini.limit.enabled:true}") boolean enabled,
+                           @Value("${gemini.limit.initial:20}") int initialLimit,
+                           @Value("${gemini.limit.min:2}") int minLimit,
+                           @Value("${gemini.limit.max:200}") int maxLimit,
+                           @Value("${gemini.limit.queue-size:100}") int queueSize,
+                           @Value("${gemini.limit.queue-target:PT0.5S}") Duration queueTarget,
+                           @Value("${gemini.limit.queue-interval:PT2S}") Duration queueInterval,
+                           @Value("${gemini.limit.max-wait:PT10S}") Duration maxWait,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.queueSize = queueSize;
+        this.queueTargetNanos = queueTarget.toNanos();
+        this.queueIntervalNanos = queueInterval.toNanos();
+        this.maxWait = maxWait;
+        this.queueFull = shedCounter(meterRegistry, "queue-full");
+        this.queueDelay = shedCounter(meterRegistry, "queue-delay");
+        this.waitTimeout = shedCounter(meterRegistry, "wait-timeout");
+        Gauge.builder("gemini.concurrency.limit", this, UpstreamLimiter::limit)
+                .description("Current adaptive limit on concurrent Gemini calls")
+                .register(meterRegistry);
+        Gauge.builder("gemini.concurrency.inflight", this, UpstreamLimiter::inFlight).register(meterRegistry);
+        Gauge.builder("gemini.concurrency.queue", this, UpstreamLimiter::queueDepth).register(meterRegistry);
+        log.info("Upstream limiter enabled={} limit={} [{}, {}] queueSize={} target={} interval={} maxWait={}",
+                enabled, limit, minLimit, maxLimit, queueSize, queueTarget, queueInterval, maxWait);
+    }
+
+    public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        if (!enabled) {
+            return Mono.defer(call);
+        }
+        return Mono.usingWhen(acquire(),
+                permit -> call.get(),
+                permit -> release(permit, Outcome.SUCCESS),
+                (permit, error) -> release(permit, isOverloadSignal(error) ? Outcome.OVERLOAD : Outcome.SUCCESS),
+                permit -> release(permit, Outcome.CANCELLED));
+    }
+
+    /** Streams hold their permit until they end; the time to the first element is the sample. */
+    public <T> Flux<T> executeMany(Supplier<Flux<T>> call) {
+        if (!enabled) {
+            return Flux.defer(call);
+        }
+        return Flux.usingWhen(acquire(),
+                permit -> call.get().doOnNext(element -> sample(permit, Outcome.SUCCESS)),
+                permit -> release(permit, Outcome.SUCCESS),
+                (permit, error) -> release(permit, isOverloadSignal(error) ? Outcome.OVERLOAD : Outcome.SUCCESS),
+                permit -> release(permit, Outcome.CANCELLED));
+    }
+
+    public synchronized double limit() {
+        return limit;
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    public synchronized int queueDepth() {
+        return queue.size();
+    }
+
+    private Mono<Permit> acquire() {
+        Mono<Permit> permit = Mono.create(sink -> {
+            Waiter waiter = null;
+            UpstreamOverloadedException rejection = null;
+            synchronized (this) {
+                long now = System.nanoTime();
+                if (queue.isEmpty() && inFlight < (int) limit) {
+                    inFlight++;
+                    lastEmptyNanos = now;
+                } else if (queue.size() >= queueSize) {
+                    queueFull.increment();
+                    rejection = overloaded(HttpStatus.TOO_MANY_REQUESTS, "Gemini request queue is full");
+                } else {
+                    waiter = new Waiter(sink, now);
+                    queue.addLast(waiter);
+                }
+            }
+            if (rejection != null) {
+                sink.error(rejection);
+            } else if (waiter == null) {
+                sink.success(new Permit(System.nanoTime()));
+            } else {
+                Waiter queued = waiter;
+                sink.onCancel(() -> abandon(queued));
+            }
+        });
+        return permit.timeout(maxWait, Mono.defer(() -> {
+            waitTimeout.increment();
+            return Mono.error(overloadedNow(HttpStatus.SERVICE_UNAVAILABLE, "Timed out waiting for a Gemini slot"));
+        }));
+    }
+
+    // The waiter's subscriber left (timeout or client gone) before it received a permit
+    private void abandon(Waiter waiter) {
+        boolean release;
+        synchronized (this) {
+            release = !queue.remove(waiter) && waiter.granted;
+        }
+        if (release) {
+            release(new Permit(System.nanoTime()), Outcome.CANCELLED).subscribe();
+        }
+    }
+
+    private Mono<Void> release(Permit permit, Outcome outcome) {
+        return Mono.fromRunnable(() -> {
+            if (!permit.released.compareAndSet(false, true)) {
+                return;
+            }
+            sample(permit, outcome);
+            List<Runnable> emissions = new ArrayList<>();
+            synchronized (this) {
+                inFlight--;
+                drain(emissions);
+            }
+            emissions.forEach(Runnable::run);
+        });
+    }
+
+    private void sample(Permit permit, Outcome outcome) {
+        if (outcome == Outcome.CANCELLED || !permit.sampled.compareAndSet(false, true)) {
+            return;
+        }
+        long rtt = System.nanoTime() - permit.startNanos;
+        synchronized (this) {
+            update(rtt, outcome == Outcome.OVERLOAD);
+        }
+    }
+
+    // Caller holds the lock
+    private void update(long rttNanos, boolean overload) {
+        longRttNanos = longRttNanos == 0 ? rttNanos : longRttNanos + (rttNanos - longRttNanos) / LONG_WINDOW;
+        double gradient = overload ? 0.5 : Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / Math.max(1, rttNanos)));
+        if (gradient >= 1.0 && inFlight < limit / 2) {
+            // Far below the limit: fast calls say nothing about whether more would still be fast
+            return;
+        }
+        double next = limit * gradient + Math.sqrt(limit);
+        double previous = limit;
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + next * SMOOTHING));
+        if ((int) limit != (int) previous) {
+            log.debug("Gemini concurrency limit {} -> {} (rtt {} ms, average {} ms)", (int) previous, (int) limit,
+                    rttNanos / 1_000_000, (long) longRttNanos / 1_000_000);
+        }
+    }
+
+    // Caller holds the lock; hands freed slots to waiters, shedding the stale ones of a standing queue
+    private void drain(List<Runnable> emissions) {
+        long now = System.nanoTime();
+        while (!queue.isEmpty() && inFlight < (int) limit) {
+            Waiter waiter = queue.pollFirst();
+            if (now - lastEmptyNanos > queueIntervalNanos && now - waiter.enqueuedNanos > queueTargetNanos) {
+                queueDelay.increment();
+                UpstreamOverloadedException rejection =
+                        overloaded(HttpStatus.SERVICE_UNAVAILABLE, "Gemini is overloaded, request shed after queueing");
+                emissions.add(() -> waiter.sink.error(rejection));
+                continue;
+            }
+            inFlight++;
+            waiter.granted = true;
+            emissions.add(() -> waiter.sink.success(new Permit(System.nanoTime())));
+        }
+        if (queue.isEmpty()) {
+            lastEmptyNanos = now;
+        }
+    }
+
+    private UpstreamOverloadedException overloadedNow(HttpStatus status, String message) {
+        synchronized (this) {
+            return overloaded(status, message);
+        }
+    }
+
+    // Caller holds the lock; Retry-After is the time the current queue needs to drain
+    private UpstreamOverloadedException overloaded(HttpStatus status, String message) {
+        double drainNanos = (queue.size() + 1) * longRttNanos / Math.max(1, (int) limit);
+        long seconds = Math.max(1, Math.min(60, (long) Math.ceil(drainNanos / 1e9)));
+        log.debug("{} (limit {}, in flight {}, queued {}), retry after {}s", message, (int) limit, inFlight, queue.size(), seconds);
+        return new UpstreamOverloadedException(status, Duration.ofSeconds(seconds), message);
+    }
+
+    // Only signs of an overloaded upstream shrink the limit hard (and are retried); a 400 for a bad prompt is neither
+    static boolean isOverloadSignal(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof WebClientResponseException response) {
+                return response.getStatusCode().value() == 429 || response.getStatusCode().is5xxServerError();
+            }
+            if (cause instanceof TimeoutException || cause instanceof WebClientRequestException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Counter shedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("gemini.concurrency.shed").tag("reason", reason)
+                .description("Gemini calls rejected before being sent")
+                .register(meterRegistry);
+    }
+
+    private enum Outcome {
+        SUCCESS, OVERLOAD, CANCELLED
+    }
+
+    private static final class Permit {
+        final long startNanos;
+        final AtomicBoolean sampled = new AtomicBoolean();
+        final AtomicBoolean released = new AtomicBoolean();
+
+        Permit(long startNanos) {
+            this.startNanos = startNanos;
+        }
+    }
+
+    private static final class Waiter {
+        final MonoSink<Permit> sink;
+        final long enqueuedNanos;
+        boolean granted; // guarded by the limiter
+
+        Waiter(MonoSink<Permit> sink, long enqueuedNanos) {
+            this.sink = sink;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+}
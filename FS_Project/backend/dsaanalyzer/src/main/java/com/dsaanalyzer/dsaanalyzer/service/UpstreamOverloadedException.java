@@ -0,0 +1,20 @@
+package com.dsaanalyzer.dsaanalyzer.service;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+/** A Gemini call shed by the {@link UpstreamLimiter} before it was sent. */
+@Getter
+public class UpstreamOverloadedException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final Duration retryAfter;
+
+    public UpstreamOverloadedException(HttpStatus status, Duration retryAfter, String message) {
+        super(message, null, false, false);
+        this.status = status;
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,105 @@
+package com.dsaanalyzer.dsaanalyzer.analysis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AlgorithmCatalogTest {
+
+    private final AlgorithmCatalog catalog =
+            new AlgorithmCatalog(true, new ClassPathResource("algorithm-catalog.txt"), new ObjectMapper());
+
+    @Test
+    void templatedAndRenamedImplementationsMatch() {
+        String java = """
+                import java.util.*;
+
+                public class Solution {
+                    // LeetCode 704
+                    public int search(int[] a, int t) {
+                        int l = 0, r = a.length - 1;
+                        while (l <= r) {
+                            int m = l + (r - l) / 2;
+                            if (a[m] == t) { return m; }
+                            else if (a[m] < t) { l = m + 1; }
+                            else { r = m - 1; }
+                        }
+                        return -1;
+                    }
+                }""";
+        assertEquals("binary-search", catalog.find(java, "java").id());
+
+        String cpp = """
+                #include <vector>
+                #include <unordered_map>
+                using namespace std;
+
+                class Solution {
+                public:
+                    vector<int> findPair(vector<int>& a, int goal) {
+                        unordered_map<int, int> index;
+                        for (int k = 0; k < a.size(); k++) {
+                            int need = goal - a[k];
+                            if (index.count(need)) {
+                                return {index[need], k};
+                            }
+                            index[a[k]] = k;
+                        }
+                        return {};
+                    }
+                };""";
+        assertEquals("two-sum", catalog.find(cpp, "cpp").id());
+
+        String python = """
+                def sort_list(xs):  # recursive
+                  if len(xs) <= 1:
+                    return xs
+                  half = len(xs) // 2
+                  a = sort_list(xs[:half])
+                  b = sort_list(xs[half:])
+                  return combine(a, b)
+
+                def combine(a, b):
+                  out = []
+                  p = q = 0
+                  while p < len(a) and q < len(b):
+                    if a[p] <= b[q]:
+                      out.append(a[p])
+                      p += 1
+                    else:
+                      out.append(b[q])
+                      q += 1
+                  out.extend(a[p:])
+                  out.extend(b[q:])
+                  return out""";
+        assertEquals("merge-sort", catalog.find(python, "python").id());
+    }
+
+    @Test
+    void changedLogicAndOtherLanguagesDoNotMatch() {
+        assertEquals(8, catalog.size());
+        String offByOne = """
+                function binarySearch(nums, target) {
+                    let lo = 0, hi = nums.length;
+                    while (lo <= hi) {
+                        const mid = Math.floor((lo + hi) / 2);
+                        if (nums[mid] === target) {
+                            return mid;
+                        } else if (nums[mid] < target) {
+                            lo = mid + 1;
+                        } else {
+                            hi = mid - 1;
+                        }
+                    }
+                    return -1;
+                }""";
+        assertNull(catalog.find(offByOne, "javascript"));
+        assertEquals("binary-search", catalog.find(offByOne.replace("nums.length;", "nums.length - 1;"), "javascript").id());
+        assertNull(catalog.find(offByOne.replace("nums.length;", "nums.length - 1;"), "java"));
+        assertNull(new AlgorithmCatalog(false, new ClassPathResource("algorithm-catalog.txt"), new ObjectMapper())
+                .find(offByOne, "javascript"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.dsaanalyzer.dsaanalyzer.analysis;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class CodeNormalizerTest {
+
+    @Test
+    void cosmeticVariantsShareAFingerprint() {
+        String java = """
+                int sum(int[] a) {
+                    int s = 0, n = a.length;
+                    for (int i = 0; i < n; i++) s += a[i];
+                    return s;
+                }""";
+        String javaVariant = """
+                // running total
+                int sum(int[] nums)
+                {
+                \tint total=0, size=nums.length;
+                \tfor (int k=0; k<size; k++) total += nums[k]; /* add */
+                \treturn total;
+                }""";
+        assertEquals(fingerprint(java, Language.JAVA), fingerprint(javaVariant, Language.JAVA));
+
+        String python = """
+                def two_sum(nums, target):
+                    seen = {}
+                    for i, x in enumerate(nums):
+                        if target - x in seen:
+                            return [seen[target - x], i]
+                        seen[x] = i""";
+        String pythonVariant = """
+                def two_sum(arr, goal):  # hash map
+                  index = {}
+                  for j, value in enumerate(arr):
+                    if goal - value in index:
+                      return [index[goal - value], j]
+                    index[value] = j""";
+        assertEquals(fingerprint(python, Language.PYTHON), fingerprint(pythonVariant, Language.PYTHON));
+    }
+
+    @Test
+    void semanticDifferencesChangeTheFingerprint() {
+        // Different nesting of the same Python lines
+        assertNotEquals(fingerprint("for x in a:\n    f(x)\n    g(x)", Language.PYTHON),
+                fingerprint("for x in a:\n    f(x)\ng(x)", Language.PYTHON));
+        // Library calls and members are not renamed
+        assertNotEquals(fingerprint("int f(int[] a) { return Math.max(a[0], 1); }", Language.JAVA),
+                fingerprint("int f(int[] a) { return Math.min(a[0], 1); }", Language.JAVA));
+        // String literals are kept
+        assertNotEquals(fingerprint("let s = \"abc\";", Language.JAVASCRIPT),
+                fingerprint("let s = \"abd\";", Language.JAVASCRIPT));
+        // Two locals swapped is not the same program
+        assertNotEquals(fingerprint("int f(int a, int b) { return a - b; }", Language.JAVA),
+                fingerprint("int f(int a, int b) { return b - a; }", Language.JAVA));
+    }
+
+    @Test
+    void lineFingerprintKeepsNamesAndLines() {
+        String code = "int f(int a) {\n    return a + 1;\n}";
+        assertEquals(CodeNormalizer.lineFingerprint(code, Language.JAVA),
+                CodeNormalizer.lineFingerprint("int f(int a) {   // entry\n  return a+1;\n}", Language.JAVA));
+        assertNotEquals(CodeNormalizer.lineFingerprint(code, Language.JAVA),
+                CodeNormalizer.lineFingerprint("// entry\n" + code, Language.JAVA));
+        assertNotEquals(CodeNormalizer.lineFingerprint(code, Language.JAVA),
+                CodeNormalizer.lineFingerprint(code.replace("a", "b"), Language.JAVA));
+    }
+
+    private static String fingerprint(String code, Language language) {
+        return CodeNormalizer.fingerprint(code, language);
+    }
+}
@@ -0,0 +1,78 @@
+package com.dsaanalyzer.dsaanalyzer.analysis;
+
+import com.dsaanalyzer.dsaanalyzer.cache.AnalysisCache;
+import com.dsaanalyzer.dsaanalyzer.model.CodeIssue;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompilerDiagnosticsTest {
+
+    private final CompilerDiagnostics diagnostics = new CompilerDiagnostics(new InMemoryJavaCompiler(),
+            new AnalysisCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry()));
+
+    @Test
+    void reportsErrorsOnTheSubmissionLine() {
+        String unresolved = """
+                int total(int[] a) {
+                    int s = 0;
+                    for (int x : a) s += y;
+                    return s;
+                }""";
+        List<CodeIssue> issues = diagnostics.diagnose(unresolved, "java");
+        // javac stops at parse errors before resolving symbols, so these come from separate submissions
+        List<CodeIssue> syntax = diagnostics.diagnose("int one() {\n    return 1\n}", "java");
+
+        assertEquals(1, issues.size(), issues.toString());
+        assertEquals(3, issues.get(0).getLine());
+        assertEquals("cannot find symbol: variable y", issues.get(0).getMessage());
+        assertEquals("error", issues.get(0).getType());
+        assertEquals(2, syntax.get(0).getLine());
+        assertEquals("';' expected", syntax.get(0).getMessage());
+        assertSame(issues, diagnostics.diagnose(unresolved, "java"));
+        assertTrue(diagnostics.diagnose("int one() { return 1; }", "java").isEmpty());
+        assertTrue(diagnostics.diagnose("def f(:\n  pass", "python").isEmpty());
+    }
+
+    @Test
+    void leadingBlankLinesMoveTheReportedLine() {
+        String broken = "class Solution {\n    int f() {\n        return x;\n    }\n}";
+
+        assertEquals(3, diagnostics.diagnose(broken, "java").get(0).getLine());
+        assertEquals(4, diagnostics.diagnose("\n" + broken, "java").get(0).getLine());
+        assertEquals(3, diagnostics.diagnose(broken.replace("\n", "  \r\n"), "java").get(0).getLine());
+    }
+
+    @Test
+    void explainsCompilerOutputButNotRuntimeFailures() {
+        List<CodeIssue> issues = diagnostics.diagnose("int f() {\n    return x;\n}", "java");
+
+        assertTrue(CompilerDiagnostics.explains(issues, "Main.java:2: error: cannot find symbol"));
+        assertTrue(CompilerDiagnostics.explains(issues, "it fails on line 2"));
+        assertTrue(CompilerDiagnostics.explains(issues, "Solution.java:2"));
+        assertFalse(CompilerDiagnostics.explains(issues, null));
+        assertFalse(CompilerDiagnostics.explains(issues, "gives wrong answer: 2"));
+        assertFalse(CompilerDiagnostics.explains(issues, "Exception in thread \"main\" java.lang.NullPointerException"));
+        assertFalse(CompilerDiagnostics.explains(issues, "expected output 5 but got 3"));
+        assertFalse(CompilerDiagnostics.explains(List.of(), "cannot find symbol"));
+    }
+
+    @Test
+    void judgeProvidedTypesExplainNothing() {
+        List<CodeIssue> issues = diagnostics.diagnose("""
+                int depth(TreeNode root) {
+                    return root == null ? 0 : 1 + Math.max(depth(root.left), depth(root.right));
+                }""", "java");
+
+        assertEquals("cannot find symbol: class TreeNode", issues.get(0).getMessage());
+        assertFalse(CompilerDiagnostics.explains(issues, "cannot find symbol"));
+        assertFalse(CompilerDiagnostics.explains(issues, "wrong depth on line 1"));
+    }
+}
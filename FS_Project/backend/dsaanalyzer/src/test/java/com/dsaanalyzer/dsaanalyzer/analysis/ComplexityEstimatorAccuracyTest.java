@@ -0,0 +1,93 @@
+package com.dsaanalyzer.dsaanalyzer.analysis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Scores the static estimator against the labeled snippets in complexity-corpus.txt and
+ * logs a per-snippet report, so regressions in the heuristics show up as a drop in accuracy.
+ */
+@Slf4j
+class ComplexityEstimatorAccuracyTest {
+
+    private static final double MIN_TIME_ACCURACY = 0.85;
+    private static final double MIN_SPACE_ACCURACY = 0.75;
+
+    private record Sample(String language, String time, String space, String code) {
+    }
+
+    private final ComplexityEstimator estimator = new ComplexityEstimator();
+
+    @Test
+    void estimatesMatchTheLabeledCorpus() throws IOException {
+        List<Sample> samples = loadCorpus();
+        int timeHits = 0;
+        int spaceHits = 0;
+        long start = System.nanoTime();
+
+        StringBuilder report = new StringBuilder();
+        for (Sample sample : samples) {
+            ComplexityEstimate estimate = estimator.estimate(sample.code(), sample.language());
+            boolean timeOk = estimate.timeComplexity().equals(sample.time());
+            boolean spaceOk = estimate.spaceComplexity().equals(sample.space());
+            timeHits += timeOk ? 1 : 0;
+            spaceHits += spaceOk ? 1 : 0;
+            report.append(String.format("%-10s %-10s %s %-10s %-10s %s %-10s %s%n", sample.language(),
+                    sample.time(), timeOk ? "==" : "!=", estimate.timeComplexity(),
+                    sample.space(), spaceOk ? "==" : "!=", estimate.spaceComplexity(), estimate.pattern()));
+        }
+        double micros = (System.nanoTime() - start) / 1_000.0 / samples.size();
+
+        double timeAccuracy = (double) timeHits / samples.size();
+        double spaceAccuracy = (double) spaceHits / samples.size();
+        String summary = String.format("time accuracy %d/%d (%.2f), space accuracy %d/%d (%.2f), %.0f us/snippet",
+                timeHits, samples.size(), timeAccuracy, spaceHits, samples.size(), spaceAccuracy, micros);
+        log.info("{}\n{}", summary, report);
+
+        assertTrue(timeAccuracy >= MIN_TIME_ACCURACY, summary + "\n" + report);
+        assertTrue(spaceAccuracy >= MIN_SPACE_ACCURACY, summary + "\n" + report);
+    }
+
+    @Test
+    void truncatedCodeDoesNotThrow() throws IOException {
+        // The live channel sends code mid-keystroke, so loop headers can be cut off anywhere
+        assertDoesNotThrow(() -> estimator.estimate("print(1)\nwhile", "python"));
+        assertDoesNotThrow(() -> estimator.estimate("def total(nums):\n    s = 0\n    for", "python"));
+        assertDoesNotThrow(() -> estimator.estimate("int f(int n) {\n    do { n--; }", "java"));
+        for (Sample sample : loadCorpus()) {
+            String code = sample.code();
+            for (int end = 0; end <= code.length(); end++) {
+                String prefix = code.substring(0, end);
+                assertDoesNotThrow(() -> estimator.estimate(prefix, sample.language()), prefix);
+            }
+        }
+    }
+
+    private List<Sample> loadCorpus() throws IOException {
+        String corpus;
+        try (InputStream in = getClass().getResourceAsStream("/complexity-corpus.txt")) {
+            assertNotNull(in, "complexity-corpus.txt missing");
+            corpus = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<Sample> samples = new ArrayList<>();
+        for (String block : corpus.split("(?m)^### ")) {
+            int headerEnd = block.indexOf('\n');
+            String[] header = block.substring(0, Math.max(headerEnd, 0)).split("\\|");
+            if (header.length != 3) {
+                continue; // file preamble
+            }
+            samples.add(new Sample(header[0].trim(), header[1].trim(), header[2].trim(), block.substring(headerEnd + 1)));
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,82 @@
+package com.dsaanalyzer.dsaanalyzer.analysis;
+
+import com.dsaanalyzer.dsaanalyzer.model.ComplexityMeasurement;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ComplexityMeasurerTest {
+
+    private static MeasurementWorkerPool pool;
+    private static ComplexityMeasurer measurer;
+
+    @BeforeAll
+    static void startPool() throws Exception {
+        pool = new MeasurementWorkerPool(true, 1, "128m", 50);
+        pool.start();
+        measurer = new ComplexityMeasurer(new InMemoryJavaCompiler(), pool, Duration.ofSeconds(2), Duration.ofSeconds(20));
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.stop();
+    }
+
+    @Test
+    void ranksQuadraticAboveLinear() {
+        ComplexityMeasurement linear = measure("""
+                int sum(int[] a) {
+                    int s = 0;
+                    for (int x : a) s += x;
+                    return s;
+                }""");
+        ComplexityMeasurement quadratic = measure("""
+                int pairs(int[] a) {
+                    int c = 0;
+                    for (int i = 0; i < a.length; i++)
+                        for (int j = i + 1; j < a.length; j++)
+                            if (a[i] < a[j]) c++;
+                    return c;
+                }""");
+
+        assertEquals("sum(int[] a)", linear.getMethod());
+        // Fitted classes come from wall-clock timings, so only their order is stable
+        assertTrue(Complexity.parse(quadratic.getTimeComplexity()).compareTo(Complexity.parse(linear.getTimeComplexity())) > 0,
+                linear + " vs " + quadratic);
+        assertEquals("O(1)", linear.getAllocationComplexity(), linear.toString());
+        assertEquals(linear.getSizes().size(), linear.getTimeNanos().size());
+    }
+
+    @Test
+    void runawayCodeIsStoppedAtTheBudget() {
+        long start = System.nanoTime();
+        ComplexityMeasurement spin = measure("""
+                int spin(int n) {
+                    while (true) { n++; }
+                }""");
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        assertNotNull(spin.getError());
+        assertTrue(millis < 10_000, "took " + millis + " ms");
+    }
+
+    @Test
+    void reportsCompileErrorsWithSubmissionLineNumbers() {
+        ComplexityMeasurement broken = measure("""
+                int broken(int[] a) {
+                    return a.length
+                }""");
+
+        assertTrue(broken.getError().startsWith("Compilation failed: line 2"), broken.getError());
+    }
+
+    private static ComplexityMeasurement measure(String code) {
+        return measurer.measure(code, "java").block(Duration.ofSeconds(30));
+    }
+}
@@ -0,0 +1,24 @@
+package com.dsaanalyzer.dsaanalyzer.analysis;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ComplexityTest {
+
+    @Test
+    void parsesTheNotationsTheModelWrites() {
+        assertEquals(Complexity.CONSTANT, Complexity.parse("O(1)"));
+        assertEquals(Complexity.LOGARITHMIC, Complexity.parse("O(log n)"));
+        assertEquals(Complexity.LINEAR, Complexity.parse("O(V + E)"));
+        assertEquals(Complexity.LINEARITHMIC, Complexity.parse("O(n log(n))"));
+        assertEquals(Complexity.QUADRATIC, Complexity.parse("O(n²)"));
+        assertEquals(Complexity.QUADRATIC, Complexity.parse("O(n * m)"));
+        assertEquals(Complexity.CUBIC, Complexity.parse("O(N^3)"));
+        assertEquals(new Complexity(2, 1, false), Complexity.parse("O(n^2 log n + n)"));
+        assertEquals(Complexity.EXPONENTIAL, Complexity.parse("O(2^n)"));
+        assertEquals(Complexity.EXPONENTIAL, Complexity.parse("O(n!)"));
+        assertNull(Complexity.parse("depends on the input"));
+    }
+}
@@ -0,0 +1,81 @@
+package com.dsaanalyzer.dsaanalyzer.analysis;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FunctionSplitterTest {
+
+    @Test
+    void splitsOutermostFunctionsAndMethods() {
+        String java = """
+                import java.util.*;
+
+                class Solver {
+                    private int calls;
+
+                    @Override
+                    public int hashCode() {
+                        return Objects.hash(calls);
+                    }
+
+                    int sum(List<Integer> xs) {
+                        Runnable r = () -> { calls++; };
+                        int s = 0;
+                        for (int x : xs) s += x;
+                        return s;
+                    }
+                }""";
+        assertFunctions(FunctionSplitter.split(java, Language.JAVA), "hashCode:6-9", "sum:11-16");
+        assertTrue(FunctionSplitter.split(java, Language.JAVA).get(0).code().startsWith("    @Override"));
+
+        String python = """
+                class Graph:
+                    def __init__(self, n):
+                        self.adj = [[] for _ in range(n)]
+
+                    @staticmethod
+                    def bfs(adj, start):
+                        def visit(v):
+                            return v
+                        seen = {start}
+                        return seen
+
+                def main():
+                    print(Graph(3))
+
+                main()""";
+        assertFunctions(FunctionSplitter.split(python, Language.PYTHON), "__init__:2-3", "bfs:5-10", "main:12-13");
+
+        String javascript = """
+                function twoSum(nums, target) {
+                  const seen = new Map();
+                  nums.forEach((x, i) => seen.set(x, i));
+                  return seen;
+                }
+                const square = (x) => {
+                  return x * x;
+                };""";
+        assertFunctions(FunctionSplitter.split(javascript, Language.JAVASCRIPT), "twoSum:1-5", "square:6-8");
+
+        String cpp = """
+                #include <vector>
+                template <typename T>
+                T largest(const std::vector<T>& v) {
+                    T best = v[0];
+                    for (const T& x : v) if (x > best) best = x;
+                    return best;
+                }
+                int main() { return largest(std::vector<int>{1, 2}); }""";
+        assertFunctions(FunctionSplitter.split(cpp, Language.CPP), "largest:2-7", "main:8-8");
+    }
+
+    private static void assertFunctions(List<FunctionSplitter.SourceFunction> functions, String... expected) {
+        assertEquals(List.of(expected), functions.stream()
+                .map(function -> function.name() + ":" + function.startLine() + "-" + function.endLine())
+                .toList());
+    }
+}
@@ -0,0 +1,181 @@
+package com.dsaanalyzer.dsaanalyzer.bench;
+
+import com.dsaanalyzer.dsaanalyzer.analysis.CodeNormalizer;
+import com.dsaanalyzer.dsaanalyzer.analysis.Language;
+import com.dsaanalyzer.dsaanalyzer.cache.CacheKey;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Replays synthetic traffic over the snippets of complexity-corpus.txt and reports the analysis
+ * cache hit rate with the old key (line endings and trailing whitespace only) and with the
+ * {@link CodeNormalizer} fingerprint. Popularity is Zipf-distributed over the snippets and each
+ * request is submitted in one of five styles: as written, reformatted, commented, with renamed
+ * locals, or all three. The ceiling is the hit rate of a key that knew which snippet was sent.
+ *
+ * <p>Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.dsaanalyzer.dsaanalyzer.bench.CacheKeyHitRateBenchmark}
+ * (optional arg: number of requests).
+ */
+public class CacheKeyHitRateBenchmark {
+
+    private static final Map<String, String> RENAMES = new LinkedHashMap<>();
+
+    static {
+        String[] pairs = {"s", "total", "a", "arr", "arr", "values", "nums", "data", "i", "idx", "j", "k",
+                "n", "size", "res", "result", "result", "out", "lo", "left", "hi", "right", "count", "cnt",
+                "dp", "table", "seen", "visited", "t", "tmp", "mid", "m", "x", "value", "q", "pending",
+                "target", "goal", "memo", "cache", "stack", "st", "node", "cur", "graph", "adj"};
+        for (int i = 0; i < pairs.length; i += 2) {
+            RENAMES.put(pairs[i], pairs[i + 1]);
+        }
+    }
+
+    private record Snippet(String language, String code) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        List<Snippet> snippets = loadCorpus();
+        List<Function<Snippet, String>> styles = List.of(
+                Snippet::code,
+                CacheKeyHitRateBenchmark::reformat,
+                CacheKeyHitRateBenchmark::comment,
+                CacheKeyHitRateBenchmark::rename,
+                snippet -> reformat(new Snippet(snippet.language(), comment(new Snippet(snippet.language(), rename(snippet))))));
+
+        double[] cumulative = new double[snippets.size()];
+        double total = 0;
+        for (int rank = 0; rank < snippets.size(); rank++) {
+            total += 1.0 / (rank + 1);
+            cumulative[rank] = total;
+        }
+
+        Random random = new Random(42);
+        Set<String> oldKeys = new HashSet<>();
+        Set<String> newKeys = new HashSet<>();
+        Set<Integer> seenSnippets = new HashSet<>();
+        Map<String, Integer> fingerprintOwner = new HashMap<>();
+        int oldHits = 0;
+        int newHits = 0;
+        int ceilingHits = 0;
+        int collisions = 0;
+        long fingerprintNanos = 0;
+        for (int r = 0; r < requests; r++) {
+            double draw = random.nextDouble() * total;
+            int index = 0;
+            while (cumulative[index] < draw) {
+                index++;
+            }
+            Snippet snippet = snippets.get(index);
+            String code = styles.get(random.nextInt(styles.size())).apply(snippet);
+
+            oldHits += oldKeys.add(CacheKey.of(snippet.language(), oldNormalization(code))) ? 0 : 1;
+            long start = System.nanoTime();
+            Language language = Language.from(snippet.language(), code);
+            String fingerprint = CodeNormalizer.fingerprint(code, language);
+            String newKey = CacheKey.of(language.name(), fingerprint);
+            fingerprintNanos += System.nanoTime() - start;
+            newHits += newKeys.add(newKey) ? 0 : 1;
+            ceilingHits += seenSnippets.add(index) ? 0 : 1;
+            if (fingerprintOwner.merge(newKey, index, (owner, ignored) -> owner) != index) {
+                collisions++;
+            }
+        }
+
+        System.out.printf("%d requests over %d snippets x %d styles%n", requests, snippets.size(), styles.size());
+        System.out.printf("hit rate before normalization: %5.1f%% (%d distinct keys)%n",
+                100.0 * oldHits / requests, oldKeys.size());
+        System.out.printf("hit rate after normalization:  %5.1f%% (%d distinct keys)%n",
+                100.0 * newHits / requests, newKeys.size());
+        System.out.printf("ceiling (one key per snippet): %5.1f%%%n", 100.0 * ceilingHits / requests);
+        System.out.printf("requests keyed onto another snippet's entry: %d%n", collisions);
+        System.out.printf("fingerprint + hash: %.1f us/request%n", fingerprintNanos / 1_000.0 / requests);
+    }
+
+    // The key before CodeNormalizer: line endings, trailing whitespace and surrounding blank lines only
+    private static String oldNormalization(String code) {
+        return Arrays.stream(code.replace("\r\n", "\n").replace('\r', '\n').split("\n", -1))
+                .map(String::stripTrailing)
+                .collect(Collectors.joining("\n"))
+                .strip();
+    }
+
+    // Re-indents with a different width (tabs for brace languages), drops the spaces around
+    // operators and adds blank lines and trailing whitespace
+    private static String reformat(Snippet snippet) {
+        boolean python = Language.from(snippet.language(), snippet.code()) == Language.PYTHON;
+        StringBuilder out = new StringBuilder();
+        for (String line : snippet.code().split("\n")) {
+            int indent = 0;
+            while (indent < line.length() && line.charAt(indent) == ' ') {
+                indent++;
+            }
+            String body = line.substring(indent);
+            if (python) {
+                out.append(" ".repeat(indent / 2)).append(body);
+            } else {
+                out.append("\t".repeat(indent / 4)).append(body.replaceAll(" ?([=+*/<>]=?|==|&&|\\|\\|) ", "$1"));
+            }
+            out.append("  \n");
+            if (body.endsWith("{") || body.endsWith(":")) {
+                out.append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+    private static String comment(Snippet snippet) {
+        String marker = Language.from(snippet.language(), snippet.code()) == Language.PYTHON ? "#" : "//";
+        String[] lines = snippet.code().split("\n", 2);
+        return marker + " My solution\n" + lines[0] + "  " + marker + " entry point\n" + (lines.length > 1 ? lines[1] : "");
+    }
+
+    // Renames the usual local names, skipping a rename whose new name is already taken
+    private static String rename(Snippet snippet) {
+        String code = snippet.code();
+        Map<String, String> applicable = new HashMap<>();
+        RENAMES.forEach((from, to) -> {
+            if (!Pattern.compile("\\b" + to + "\\b").matcher(code).find()) {
+                applicable.put(from, to);
+            }
+        });
+        Matcher matcher = Pattern.compile("(?<![.\\w'])(" + String.join("|", applicable.keySet()) + ")\\b").matcher(code);
+        StringBuilder out = new StringBuilder();
+        while (matcher.find()) {
+            matcher.appendReplacement(out, applicable.get(matcher.group(1)));
+        }
+        return matcher.appendTail(out).toString();
+    }
+
+    private static List<Snippet> loadCorpus() throws IOException {
+        String corpus;
+        try (InputStream in = CacheKeyHitRateBenchmark.class.getResourceAsStream("/complexity-corpus.txt")) {
+            corpus = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<Snippet> snippets = new ArrayList<>();
+        for (String block : corpus.split("(?m)^### ")) {
+            int headerEnd = block.indexOf('\n');
+            String[] header = block.substring(0, Math.max(headerEnd, 0)).split("\\|");
+            if (header.length == 3) {
+                snippets.add(new Snippet(header[0].trim(), block.substring(headerEnd + 1).strip()));
+            }
+        }
+        return snippets;
+    }
+}
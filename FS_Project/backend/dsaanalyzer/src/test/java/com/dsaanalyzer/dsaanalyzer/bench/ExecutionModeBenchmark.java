@@ -0,0 +1,60 @@
+package com.dsaanalyzer.dsaanalyzer.bench;
+
+import com.dsaanalyzer.dsaanalyzer.DsaanalyzerApplication;
+import com.dsaanalyzer.dsaanalyzer.testing.GeminiStubServer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+
+/**
+ * Compares the three request-handling configurations against a stub upstream that takes
+ * a fixed time to answer. Every request carries distinct code so neither the result cache
+ * nor request coalescing can short-circuit the upstream call.
+ *
+ * <p>Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.dsaanalyzer.dsaanalyzer.bench.ExecutionModeBenchmark}
+ * (optional args: upstream delay in ms, then concurrency levels). Client, server and stub share
+ * one process, so each in-flight call holds about four sockets; 5000 needs {@code ulimit -n} above 20000.
+ */
+public class ExecutionModeBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        long delayMillis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        int[] levels = args.length > 1
+                ? Arrays.stream(args).skip(1).mapToInt(Integer::parseInt).toArray()
+                : new int[]{100, 1000, 5000};
+
+        String[][] modes = {
+                {"platform-blocking", "blocking", "false"},
+                {"virtual-blocking", "blocking", "true"},
+                {"reactive", "reactive", "false"},
+        };
+
+        try (GeminiStubServer stub = GeminiStubServer.start(() -> delayMillis)) {
+            for (String[] mode : modes) {
+                try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DsaanalyzerApplication.class)
+                        .run("--server.port=0",
+                                "--gemini.api.url=" + stub.url(),
+                                "--analysis.execution-mode=" + mode[1],
+                                "--analysis.disconnect.probe-interval=" + ("blocking".equals(mode[1]) ? "0" : "PT0.5S"),
+                                "--spring.threads.virtual.enabled=" + mode[2],
+                                "--gemini.http.max-connections=10000",
+                                "--gemini.limit.enabled=false",
+                                "--server.tomcat.max-connections=20000",
+                                "--server.tomcat.accept-count=10000",
+                                "--logging.level.com.dsaanalyzer=WARN")) {
+                    String port = context.getEnvironment().getProperty("local.server.port");
+                    String url = "http://127.0.0.1:" + port + "/api/v1/analyze";
+
+                    for (int concurrency : levels) {
+                        int offset = concurrency * 7919;
+                        LoadDriver.Result result = LoadDriver.run(url, concurrency,
+                                i -> "{\"language\":\"java\",\"code\":\"int x = " + (offset + i) + ";\"}");
+                        System.out.printf("%-18s upstream=%dms %s%n", mode[0], delayMillis, result);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.dsaanalyzer.dsaanalyzer.bench;
+
+import com.dsaanalyzer.dsaanalyzer.DsaanalyzerApplication;
+import com.dsaanalyzer.dsaanalyzer.testing.GeminiStubServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Latency of /analyze for one large Java file (40 methods, ~2,000 lines) analyzed whole versus
+ * function by function, against a stub whose latency grows with the code it is given (150 ms
+ * plus 0.5 ms per line). Each round sends a file not seen before, then the same file with one
+ * method edited, to show the per-function cache.
+ *
+ * <p>Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.dsaanalyzer.dsaanalyzer.bench.FunctionSplitBenchmark}
+ * (optional args: rounds, methods per file).
+ */
+public class FunctionSplitBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int methods = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+
+        String[][] modes = {
+                {"whole-file", "0", "8"},
+                {"split-parallelism-8", "150", "8"},
+                {"split-parallelism-32", "150", "32"},
+        };
+
+        try (GeminiStubServer stub = GeminiStubServer.start(() -> 0)) {
+            stub.setResponder(prompt -> {
+                GeminiStubServer.sleep(150 + prompt.lines().count() / 2);
+                return GeminiStubServer.ANALYSIS_JSON;
+            });
+            HttpClient client = HttpClient.newHttpClient();
+            for (String[] mode : modes) {
+                try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DsaanalyzerApplication.class)
+                        .run("--server.port=0",
+                                "--gemini.api.url=" + stub.url(),
+                                "--gemini.hedge.enabled=false",
+                                "--analysis.split.min-lines=" + mode[1],
+                                "--analysis.split.parallelism=" + mode[2],
+                                "--analysis.similarity.enabled=false",
+                                "--analysis.catalog.enabled=false",
+                                "--logging.level.com.dsaanalyzer=OFF")) {
+                    String url = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port") + "/api/v1/analyze";
+                    long[] fresh = new long[rounds];
+                    long[] edited = new long[rounds];
+                    int before = stub.requestCount();
+                    for (int round = 0; round < rounds; round++) {
+                        fresh[round] = post(client, url, file(mode[0] + round, methods, -1));
+                        edited[round] = post(client, url, file(mode[0] + round, methods, methods / 2));
+                    }
+                    System.out.printf("%-21s new file median=%dms  one method edited median=%dms  upstream-requests=%d%n",
+                            mode[0], median(fresh), median(edited), stub.requestCount() - before);
+                }
+            }
+        }
+    }
+
+    // Methods of ~50 lines; the edited one gets an extra statement
+    private static String file(String seed, int methods, int edited) {
+        StringBuilder code = new StringBuilder("class Solution {\n");
+        for (int m = 0; m < methods; m++) {
+            code.append("    int method").append(m).append("(int[] a) {\n")
+                    .append("        int s = ").append(Math.abs(seed.hashCode())).append(";\n");
+            for (int line = 0; line < 46; line++) {
+                code.append("        for (int i = 0; i < a.length; i++) s += a[i] * ").append(line).append(";\n");
+            }
+            if (m == edited) {
+                code.append("        s ^= 1;\n");
+            }
+            code.append("        return s;\n    }\n");
+        }
+        return code.append("}\n").toString();
+    }
+
+    private static long post(HttpClient client, String url, String code) throws Exception {
+        String body = MAPPER.writeValueAsString(Map.of("language", "java", "code", code));
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("HTTP " + response.statusCode() + ": " + response.body());
+        }
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,140 @@
+package com.dsaanalyzer.dsaanalyzer.bench;
+
+import com.dsaanalyzer.dsaanalyzer.DsaanalyzerApplication;
+import com.dsaanalyzer.dsaanalyzer.testing.GeminiStubServer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end latency of single-line edits to a 200-line Java file (10 methods), checked with
+ * a full /debug of the edited file versus /debug/incremental with the one-line edit, against a
+ * stub whose latency grows with the code it is given (150 ms plus 0.5 ms per prompt line).
+ * Each round edits a different method, so the full request never hits the cache.
+ *
+ * <p>Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.dsaanalyzer.dsaanalyzer.bench.IncrementalDebugBenchmark}
+ * (optional arg: rounds).
+ */
+public class IncrementalDebugBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int METHODS = 10;
+    private static final int METHOD_LINES = 19;
+
+    public static void main(String[] args) throws Exception {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        AtomicLong promptChars = new AtomicLong();
+
+        try (GeminiStubServer stub = GeminiStubServer.start(() -> 0)) {
+            stub.setResponder(prompt -> {
+                promptChars.addAndGet(prompt.length());
+                GeminiStubServer.sleep(150 + prompt.lines().count() / 2);
+                return """
+                        {"issues": [{"line": 3, "type": "warning", "message": "m", "severity": "low"}],
+                         "explanation": "e", "fixSuggestions": ["f"]}""";
+            });
+            HttpClient client = HttpClient.newHttpClient();
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DsaanalyzerApplication.class)
+                    .run("--server.port=0",
+                            "--gemini.api.url=" + stub.url(),
+                            "--gemini.hedge.enabled=false",
+                            "--analysis.similarity.enabled=false",
+                            "--logging.level.com.dsaanalyzer=OFF")) {
+                String base = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port") + "/api/v1";
+
+                List<String> lines = new ArrayList<>(file());
+                long[] full = new long[rounds];
+                int before = stub.requestCount();
+                promptChars.set(0);
+                for (int round = 0; round < rounds; round++) {
+                    edit(lines, round);
+                    full[round] = post(client, base + "/debug",
+                            Map.of("language", "java", "code", String.join("\n", lines))).latencyMillis();
+                }
+                report("full /debug", full, stub.requestCount() - before, promptChars.get());
+
+                lines = new ArrayList<>(file());
+                Timed session = post(client, base + "/debug/incremental",
+                        Map.of("language", "java", "code", String.join("\n", lines)));
+                String sessionId = session.body().get("sessionId").asText();
+                long revision = session.body().get("revision").asLong();
+                long[] incremental = new long[rounds];
+                before = stub.requestCount();
+                promptChars.set(0);
+                for (int round = 0; round < rounds; round++) {
+                    int line = edit(lines, round);
+                    Timed response = post(client, base + "/debug/incremental", Map.of(
+                            "sessionId", sessionId,
+                            "baseRevision", revision,
+                            "edits", List.of(Map.of("startLine", line, "endLine", line, "lines", List.of(lines.get(line - 1))))));
+                    revision = response.body().get("revision").asLong();
+                    incremental[round] = response.latencyMillis();
+                }
+                report("incremental", incremental, stub.requestCount() - before, promptChars.get());
+            }
+        }
+    }
+
+    // Methods of 19 lines plus a blank line between them, inside a class: 202 lines
+    private static List<String> file() {
+        List<String> lines = new ArrayList<>(List.of("class Solution {"));
+        for (int m = 0; m < METHODS; m++) {
+            lines.add("    int method" + m + "(int[] a) {");
+            lines.add("        int s = 0;");
+            for (int line = 0; line < METHOD_LINES - 4; line++) {
+                lines.add("        for (int i = 0; i < a.length; i++) s += a[i] * " + line + ";");
+            }
+            lines.add("        return s;");
+            lines.add("    }");
+            lines.add("");
+        }
+        lines.add("}");
+        return lines;
+    }
+
+    // Changes the "int s = ..." line of one method; returns its 1-based line number
+    private static int edit(List<String> lines, int round) {
+        int line = 1 + (round % METHODS) * (METHOD_LINES + 1) + 2;
+        lines.set(line - 1, "        int s = " + (round + 1) + ";");
+        return line;
+    }
+
+    private static void report(String mode, long[] latencies, int requests, long chars) {
+        System.out.printf("%-12s median=%dms  p90=%dms  upstream-requests=%d  prompt-chars/edit=%d%n",
+                mode, percentile(latencies, 0.5), percentile(latencies, 0.9), requests, chars / latencies.length);
+    }
+
+    private record Timed(long latencyMillis, JsonNode body) {
+    }
+
+    private static Timed post(HttpClient client, String url, Object body) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(body)))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        long latency = (System.nanoTime() - start) / 1_000_000;
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("HTTP " + response.statusCode() + ": " + response.body());
+        }
+        return new Timed(latency, MAPPER.readTree(response.body()));
+    }
+
+    private static long percentile(long[] values, double percentile) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.min(sorted.length - 1, Math.floor(sorted.length * percentile))];
+    }
+}
@@ -0,0 +1,69 @@
+package com.dsaanalyzer.dsaanalyzer.bench;
+
+import com.dsaanalyzer.dsaanalyzer.service.JsonLocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the previous regex-based extraction with {@link JsonLocator} on fenced
+ * debug-shaped responses of growing size.
+ *
+ * <p>Run with: {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * "-Dexec.args=-cp %classpath org.openjdk.jmh.Main JsonExtractionBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonExtractionBenchmark {
+
+    private static final Pattern LEGACY_PATTERN =
+            Pattern.compile("\\{[^{}]*(?:\\{[^{}]*\\}[^{}]*)*\\}", Pattern.DOTALL);
+
+    @Param({"1024", "16384", "262144", "1048576"})
+    private int size;
+
+    private String response;
+
+    @Setup
+    public void setUp() {
+        StringBuilder sb = new StringBuilder("```json\n{\"issues\": [");
+        int line = 1;
+        while (sb.length() < size) {
+            if (line > 1) {
+                sb.append(", ");
+            }
+            sb.append("{\"line\": ").append(line++)
+                    .append(", \"type\": \"warning\", \"message\": \"Loop at this line re-reads arr[i] each iteration\"")
+                    .append(", \"severity\": \"medium\"}");
+        }
+        sb.append("], \"explanation\": \"Repeated work inside the loop.\", \"fixSuggestions\": [\"Cache arr[i]\"]}\n```");
+        response = sb.toString();
+    }
+
+    @Benchmark
+    public String regex() {
+        Matcher matcher = LEGACY_PATTERN.matcher(response);
+        return matcher.find() ? matcher.group() : response;
+    }
+
+    @Benchmark
+    public String locator() {
+        return JsonLocator.extract(response);
+    }
+}
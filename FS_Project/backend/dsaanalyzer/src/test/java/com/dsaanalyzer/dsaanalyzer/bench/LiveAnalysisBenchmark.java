@@ -0,0 +1,123 @@
+package com.dsaanalyzer.dsaanalyzer.bench;
+
+import com.dsaanalyzer.dsaanalyzer.DsaanalyzerApplication;
+import com.dsaanalyzer.dsaanalyzer.testing.GeminiStubServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Upstream calls spent on one simulated editing session: bursts of keystrokes 100 ms apart
+ * (each one a new revision of the code), separated by pauses, sent either as a POST /analyze per
+ * keystroke, as the editor does today, or as revisions on the /api/v1/live WebSocket. The stub
+ * answers after 400 ms. Also reports the time from a burst's last keystroke to its result.
+ *
+ * <p>Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.dsaanalyzer.dsaanalyzer.bench.LiveAnalysisBenchmark}
+ * (optional args: bursts, keystrokes per burst).
+ */
+public class LiveAnalysisBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        int bursts = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int keystrokes = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        try (GeminiStubServer stub = GeminiStubServer.start(() -> 400);
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(DsaanalyzerApplication.class)
+                     .run("--server.port=0",
+                             "--gemini.api.url=" + stub.url(),
+                             "--gemini.hedge.enabled=false",
+                             "--analysis.similarity.enabled=false",
+                             "--analysis.catalog.enabled=false",
+                             "--logging.level.com.dsaanalyzer=OFF")) {
+            String port = context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newHttpClient();
+
+            int before = stub.requestCount();
+            List<Long> postLag = new ArrayList<>();
+            for (int burst = 0; burst < bursts; burst++) {
+                List<CompletableFuture<HttpResponse<String>>> pending = new ArrayList<>();
+                for (int key = 0; key < keystrokes; key++) {
+                    String body = MAPPER.writeValueAsString(Map.of("language", "java", "code", code("post", burst * keystrokes + key)));
+                    pending.add(client.sendAsync(HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/v1/analyze"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build(), HttpResponse.BodyHandlers.ofString()));
+                    Thread.sleep(100);
+                }
+                long lastKey = System.nanoTime() - 100_000_000L;
+                pending.get(pending.size() - 1).join();
+                postLag.add((System.nanoTime() - lastKey) / 1_000_000);
+                CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+            }
+            report("POST per key", stub.requestCount() - before, bursts * keystrokes, postLag);
+
+            before = stub.requestCount();
+            LinkedBlockingQueue<String> results = new LinkedBlockingQueue<>();
+            WebSocket socket = client.newWebSocketBuilder()
+                    .buildAsync(URI.create("ws://127.0.0.1:" + port + "/api/v1/live"), new WebSocket.Listener() {
+                        private final StringBuilder text = new StringBuilder();
+
+                        @Override
+                        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+                            text.append(data);
+                            if (last) {
+                                results.add(text.toString());
+                                text.setLength(0);
+                            }
+                            webSocket.request(1);
+                            return null;
+                        }
+                    })
+                    .join();
+            List<Long> liveLag = new ArrayList<>();
+            long revision = 0;
+            for (int burst = 0; burst < bursts; burst++) {
+                for (int key = 0; key < keystrokes; key++) {
+                    socket.sendText(MAPPER.writeValueAsString(Map.of("revision", ++revision, "language", "java",
+                            "code", code("live", burst * keystrokes + key))), true).join();
+                    Thread.sleep(100);
+                }
+                long lastKey = System.nanoTime() - 100_000_000L;
+                String result = results.poll(30, TimeUnit.SECONDS);
+                if (result == null || MAPPER.readTree(result).path("revision").asLong() != revision) {
+                    throw new IllegalStateException("Unexpected live result: " + result);
+                }
+                liveLag.add((System.nanoTime() - lastKey) / 1_000_000);
+            }
+            socket.sendClose(WebSocket.NORMAL_CLOSURE, "").join();
+            report("WebSocket", stub.requestCount() - before, bursts * keystrokes, liveLag);
+        }
+    }
+
+    // The code grows by a statement per keystroke, so no revision is a cache hit (literals and
+    // names are normalized away); the two modes use different statements for the same reason
+    private static String code(String mode, int revision) {
+        StringBuilder code = new StringBuilder("int f(int[] a) {\n    int s = 0;\n");
+        for (int statement = 0; statement <= revision; statement++) {
+            code.append(mode.equals("post") ? "    s += a.length;\n" : "    s ^= a.length;\n");
+        }
+        return code.append("    return s;\n}").toString();
+    }
+
+    private static void report(String mode, int upstream, int revisions, List<Long> lag) {
+        List<Long> sorted = lag.stream().sorted().toList();
+        System.out.printf("%-13s revisions=%d  upstream-requests=%d  last-key-to-result median=%dms%n",
+                mode, revisions, upstream, sorted.get(sorted.size() / 2));
+    }
+}
@@ -0,0 +1,79 @@
+package com.dsaanalyzer.dsaanalyzer.bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * Fires a burst of concurrent JSON POSTs and summarizes wall time and latency percentiles.
+ */
+public final class LoadDriver {
+
+    private LoadDriver() {
+    }
+
+    public static Result run(String url, int concurrency, IntFunction<String> body) throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(executor)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+
+            long start = System.nanoTime();
+            List<Future<long[]>> futures = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                        .timeout(Duration.ofMinutes(5))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body.apply(i)))
+                        .build();
+                futures.add(executor.submit(() -> {
+                    long t0 = System.nanoTime();
+                    try {
+                        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        return new long[]{System.nanoTime() - t0, status};
+                    } catch (Exception e) {
+                        return new long[]{System.nanoTime() - t0, -1};
+                    }
+                }));
+            }
+
+            long[] latencies = new long[concurrency];
+            int failures = 0;
+            for (int i = 0; i < concurrency; i++) {
+                long[] outcome = futures.get(i).get();
+                latencies[i] = outcome[0];
+                if (outcome[1] != 200) {
+                    failures++;
+                }
+            }
+            return new Result(concurrency, System.nanoTime() - start, latencies, failures);
+        }
+    }
+
+    public record Result(int requests, long wallNanos, long[] latencies, int failures) {
+
+        public long percentileMillis(double p) {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            int index = (int) Math.min(sorted.length - 1, Math.ceil(p / 100.0 * sorted.length) - 1);
+            return sorted[Math.max(0, index)] / 1_000_000;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("n=%d wall=%dms p50=%dms p99=%dms max=%dms failures=%d",
+                    requests, wallNanos / 1_000_000, percentileMillis(50), percentileMillis(99),
+                    percentileMillis(100), failures);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.dsaanalyzer.dsaanalyzer.bench;
+
+import com.dsaanalyzer.dsaanalyzer.analysis.CodeNormalizer;
+import com.dsaanalyzer.dsaanalyzer.analysis.Language;
+import com.dsaanalyzer.dsaanalyzer.cache.CacheKey;
+import com.dsaanalyzer.dsaanalyzer.cache.SimilarityIndex;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills a {@link SimilarityIndex} with synthetic submissions (random token streams over a
+ * code-like vocabulary) and reports insertion throughput, heap per entry and lookup latency
+ * for near-duplicates of indexed entries and for unseen code. Then indexes the snippets of
+ * complexity-corpus.txt and checks that single-line edits of a snippet find that snippet and
+ * nothing else.
+ *
+ * <p>Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.dsaanalyzer.dsaanalyzer.bench.SimilarityIndexBenchmark}
+ * (optional arg: number of entries, default 1000000).
+ */
+public class SimilarityIndexBenchmark {
+
+    private static final String[] VOCABULARY = ("for ( int §1 = 0 ; < §2 . length ++ ) { } if else return while "
+            + "[ ] + - * / == != <= >= && || §3 §4 §5 §6 new List Map get put size add 1 2 true false").split(" ");
+    private static final int LOOKUPS = 20_000;
+
+    public static void main(String[] args) throws IOException {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random random = new Random(7);
+        SimilarityIndex index = new SimilarityIndex(true, 0.8, entries);
+
+        long heapBefore = usedHeap();
+        List<List<String>> samples = new ArrayList<>();
+        long sketchNanos = 0;
+        long addNanos = 0;
+        for (int i = 0; i < entries; i++) {
+            List<String> tokens = randomTokens(random);
+            if (i % (entries / LOOKUPS) == 0 && samples.size() < LOOKUPS) {
+                samples.add(tokens);
+            }
+            long start = System.nanoTime();
+            SimilarityIndex.Sketch sketch = SimilarityIndex.sketch(tokens, 0);
+            long sketched = System.nanoTime();
+            index.add(sketch, CacheKey.of(String.valueOf(i)));
+            addNanos += System.nanoTime() - sketched;
+            sketchNanos += sketched - start;
+        }
+        long heapAfter = usedHeap();
+        System.out.printf("%d entries: sketch %.1f us, insert %.2f us per entry, %.0f bytes of heap per entry%n",
+                entries, sketchNanos / 1_000.0 / entries, addNanos / 1_000.0 / entries,
+                (double) (heapAfter - heapBefore) / entries);
+
+        long[] nearLatencies = new long[samples.size()];
+        int found = 0;
+        for (int i = 0; i < samples.size(); i++) {
+            List<String> edited = new ArrayList<>(samples.get(i));
+            int at = random.nextInt(edited.size() - 5);
+            edited.subList(at, at + 3).replaceAll(token -> VOCABULARY[random.nextInt(VOCABULARY.length)]);
+            SimilarityIndex.Sketch sketch = SimilarityIndex.sketch(edited, 0);
+            long start = System.nanoTime();
+            found += index.find(sketch) != null ? 1 : 0;
+            nearLatencies[i] = System.nanoTime() - start;
+        }
+        long[] unseenLatencies = new long[LOOKUPS];
+        int falseMatches = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            SimilarityIndex.Sketch sketch = SimilarityIndex.sketch(randomTokens(random), 0);
+            long start = System.nanoTime();
+            falseMatches += index.find(sketch) != null ? 1 : 0;
+            unseenLatencies[i] = System.nanoTime() - start;
+        }
+        System.out.printf("near-duplicate lookups: %.1f%% found, p50 %.1f us, p99 %.1f us%n",
+                100.0 * found / samples.size(), percentile(nearLatencies, 0.5), percentile(nearLatencies, 0.99));
+        System.out.printf("unseen-code lookups:    %.2f%% matched, p50 %.1f us, p99 %.1f us%n",
+                100.0 * falseMatches / LOOKUPS, percentile(unseenLatencies, 0.5), percentile(unseenLatencies, 0.99));
+
+        corpusEdits();
+    }
+
+    // Every snippet indexed once; each edit of one line (a changed constant) should find the
+    // snippet it came from
+    private static void corpusEdits() throws IOException {
+        List<String[]> snippets = loadCorpus();
+        SimilarityIndex index = new SimilarityIndex(true, 0.8, 1000);
+        for (int i = 0; i < snippets.size(); i++) {
+            index.add(sketch(snippets.get(i)[0], snippets.get(i)[1]), CacheKey.of(String.valueOf(i)));
+        }
+        int edits = 0;
+        int reused = 0;
+        int wrong = 0;
+        for (int i = 0; i < snippets.size(); i++) {
+            String code = snippets.get(i)[1];
+            String edited = code.replaceFirst("\\b0\\b", "1");
+            if (edited.equals(code)) {
+                continue;
+            }
+            edits++;
+            SimilarityIndex.Match match = index.find(sketch(snippets.get(i)[0], edited));
+            if (match != null) {
+                reused++;
+                wrong += match.cacheKey().equals(CacheKey.of(String.valueOf(i))) ? 0 : 1;
+            }
+        }
+        System.out.printf("corpus: %d one-token edits, %d answered from their original, %d from another snippet%n",
+                edits, reused - wrong, wrong);
+    }
+
+    private static SimilarityIndex.Sketch sketch(String language, String code) {
+        return SimilarityIndex.sketch(CodeNormalizer.canonicalTokens(code, Language.from(language, code)), 0);
+    }
+
+    private static List<String> randomTokens(Random random) {
+        int length = 80 + random.nextInt(220);
+        List<String> tokens = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            tokens.add(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+        }
+        return tokens;
+    }
+
+    private static double percentile(long[] nanos, double quantile) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.min(sorted.length - 1, quantile * sorted.length)] / 1_000.0;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static List<String[]> loadCorpus() throws IOException {
+        String corpus;
+        try (InputStream in = SimilarityIndexBenchmark.class.getResourceAsStream("/complexity-corpus.txt")) {
+            corpus = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<String[]> snippets = new ArrayList<>();
+        for (String block : corpus.split("(?m)^### ")) {
+            int headerEnd = block.indexOf('\n');
+            String[] header = block.substring(0, Math.max(headerEnd, 0)).split("\\|");
+            if (header.length == 3) {
+                snippets.add(new String[]{header[0].trim(), block.substring(headerEnd + 1).strip()});
+            }
+        }
+        return snippets;
+    }
+}
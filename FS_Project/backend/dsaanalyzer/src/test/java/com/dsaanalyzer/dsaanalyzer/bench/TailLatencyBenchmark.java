@@ -0,0 +1,74 @@
+package com.dsaanalyzer.dsaanalyzer.bench;
+
+import com.dsaanalyzer.dsaanalyzer.DsaanalyzerApplication;
+import com.dsaanalyzer.dsaanalyzer.testing.GeminiStubServer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Tail latency of /analyze against a stub upstream with Pareto-distributed latency (scale 50 ms,
+ * shape 1.5: p50 ~80 ms, p95 ~370 ms, p99 ~1.1 s) that also fails 2% of requests with a 503,
+ * with and without the retry and hedging policy. Every request carries distinct code so the
+ * cache and request coalescing stay out of the way.
+ *
+ * <p>Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.dsaanalyzer.dsaanalyzer.bench.TailLatencyBenchmark}
+ * (optional args: rounds, requests per round).
+ */
+public class TailLatencyBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 25;
+        int perRound = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+
+        String[][] modes = {
+                {"no-retry-no-hedge", "1", "false"},
+                {"retry+hedge", "3", "true"},
+        };
+
+        try (GeminiStubServer stub = GeminiStubServer.start(TailLatencyBenchmark::paretoMillis)) {
+            stub.setFailureRate(0.02);
+            for (String[] mode : modes) {
+                try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DsaanalyzerApplication.class)
+                        .run("--server.port=0",
+                                "--gemini.api.url=" + stub.url(),
+                                "--gemini.retry.max-attempts=" + mode[1],
+                                "--gemini.hedge.enabled=" + mode[2],
+                                "--gemini.limit.enabled=false",
+                                "--analysis.similarity.enabled=false",
+                                "--logging.level.com.dsaanalyzer=OFF")) {
+                    String port = context.getEnvironment().getProperty("local.server.port");
+                    String url = "http://127.0.0.1:" + port + "/api/v1/analyze";
+                    int before = stub.requestCount();
+
+                    // Warm-up round: the hedging delay needs latency samples first
+                    LoadDriver.run(url, 100, i -> body(mode[0], -1 - i));
+                    long[] latencies = new long[rounds * perRound];
+                    int failures = 0;
+                    long start = System.nanoTime();
+                    for (int round = 0; round < rounds; round++) {
+                        int offset = round * perRound;
+                        LoadDriver.Result result = LoadDriver.run(url, perRound, i -> body(mode[0], offset + i));
+                        System.arraycopy(result.latencies(), 0, latencies, offset, perRound);
+                        failures += result.failures();
+                    }
+                    LoadDriver.Result total = new LoadDriver.Result(latencies.length, System.nanoTime() - start,
+                            latencies, failures);
+                    System.out.printf("%-18s %s p95=%dms p99.9=%dms upstream-requests=%d%n", mode[0], total,
+                            total.percentileMillis(95), total.percentileMillis(99.9), stub.requestCount() - before);
+                }
+            }
+        }
+    }
+
+    private static String body(String mode, int i) {
+        return "{\"language\":\"java\",\"code\":\"int " + mode.replace('-', '_').replace('+', '_') + " = " + i + ";\"}";
+    }
+
+    private static long paretoMillis() {
+        double u = 1 - ThreadLocalRandom.current().nextDouble();
+        return (long) Math.min(10_000, 50 / Math.pow(u, 1 / 1.5));
+    }
+}
@@ -0,0 +1,71 @@
+package com.dsaanalyzer.dsaanalyzer.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestCoalescerTest {
+
+    private final RequestCoalescer coalescer = new RequestCoalescer(new SimpleMeterRegistry());
+
+    @Test
+    void concurrentCallersShareOneUpstreamCall() {
+        AtomicInteger calls = new AtomicInteger();
+        Sinks.One<String> upstream = Sinks.one();
+
+        Mono<String> first = coalescer.execute("k", () -> {
+            calls.incrementAndGet();
+            return upstream.asMono();
+        }).cache();
+        Mono<String> second = coalescer.execute("k", () -> {
+            calls.incrementAndGet();
+            return upstream.asMono();
+        }).cache();
+        first.subscribe();
+        second.subscribe();
+
+        upstream.tryEmitValue("result");
+
+        assertEquals("result", first.block());
+        assertEquals("result", second.block());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void errorsPropagateToEveryWaiter() {
+        Sinks.One<String> upstream = Sinks.one();
+        Mono<String> first = coalescer.execute("k", upstream::asMono).cache();
+        Mono<String> second = coalescer.execute("k", upstream::asMono).cache();
+        first.subscribe(v -> { }, e -> { });
+        second.subscribe(v -> { }, e -> { });
+
+        upstream.tryEmitError(new IllegalStateException("boom"));
+
+        assertThrows(IllegalStateException.class, first::block);
+        assertThrows(IllegalStateException.class, second::block);
+    }
+
+    @Test
+    void upstreamIsCancelledOnlyWhenAllWaitersLeave() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Mono<String> upstream = Mono.<String>never().doOnCancel(() -> cancelled.set(true));
+
+        Disposable first = coalescer.execute("k", () -> upstream).subscribe();
+        Disposable second = coalescer.execute("k", () -> upstream).subscribe();
+
+        first.dispose();
+        assertFalse(cancelled.get());
+        second.dispose();
+        assertTrue(cancelled.get());
+    }
+}
@@ -0,0 +1,111 @@
+package com.dsaanalyzer.dsaanalyzer.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentLogTest {
+
+    private static final byte KIND = 1;
+    private static final int SEGMENT_SIZE = 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void entriesSurviveReopenAcrossSealedAndActiveSegments() throws IOException {
+        try (SegmentLog log = open()) {
+            for (int i = 0; i < 100; i++) {
+                log.put(KIND, "key-" + i, ("value-" + i).getBytes(StandardCharsets.UTF_8));
+            }
+            log.put(KIND, "key-7", "updated".getBytes(StandardCharsets.UTF_8));
+            assertTrue(log.segmentCount() > 1);
+        }
+
+        try (SegmentLog log = open()) {
+            assertEquals(100, log.size());
+            assertEquals("value-0", read(log, "key-0"));
+            assertEquals("value-99", read(log, "key-99"));
+            assertEquals("updated", read(log, "key-7"));
+            assertNull(log.get((byte) 2, "key-0"));
+        }
+    }
+
+    @Test
+    void recoveryStopsAtATornRecord() throws IOException {
+        try (SegmentLog log = open()) {
+            log.put(KIND, "first", "1".getBytes(StandardCharsets.UTF_8));
+            log.put(KIND, "second", "2".getBytes(StandardCharsets.UTF_8));
+        }
+        // Flip a byte in the second record's value, as a torn page would
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(path -> path.toString().endsWith(".seg")).findFirst().orElseThrow();
+        }
+        int secondValue = 8 + 11 + "first".length() + 1 + 8 + 11 + "second".length();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), secondValue);
+        }
+
+        try (SegmentLog log = open()) {
+            assertEquals("1", read(log, "first"));
+            assertNull(log.get(KIND, "second"));
+            log.put(KIND, "third", "3".getBytes(StandardCharsets.UTF_8));
+        }
+        try (SegmentLog log = open()) {
+            assertEquals(2, log.size());
+            assertEquals("3", read(log, "third"));
+        }
+    }
+
+    @Test
+    void compactionKeepsLiveEntriesAndDeletesOverwrittenSegments() throws IOException {
+        try (SegmentLog log = open()) {
+            byte[] value = new byte[200];
+            for (int round = 0; round < 10; round++) {
+                for (int i = 0; i < 5; i++) {
+                    log.put(KIND, "key-" + i, value);
+                }
+            }
+            log.put(KIND, "keep", "kept".getBytes(StandardCharsets.UTF_8));
+            for (int i = 0; i < 30; i++) {
+                log.put(KIND, "key-" + (i % 5), value);
+            }
+            log.compact();
+
+            // About 18 KB written, about 1.2 KB live
+            assertTrue(log.segmentCount() <= 3, log.segmentCount() + " segments");
+            try (Stream<Path> files = Files.list(directory)) {
+                assertEquals(log.segmentCount(), files.filter(path -> path.toString().endsWith(".seg")).count());
+            }
+            assertEquals("kept", read(log, "keep"));
+            assertEquals(6, log.size());
+        }
+        try (SegmentLog log = open()) {
+            assertEquals("kept", read(log, "keep"));
+            assertEquals(6, log.size());
+        }
+    }
+
+    private SegmentLog open() throws IOException {
+        return SegmentLog.open(directory, SEGMENT_SIZE, 100, Duration.ofDays(1));
+    }
+
+    private static String read(SegmentLog log, String key) {
+        ByteBuffer value = log.get(KIND, key);
+        return value == null ? null : StandardCharsets.UTF_8.decode(value).toString();
+    }
+}
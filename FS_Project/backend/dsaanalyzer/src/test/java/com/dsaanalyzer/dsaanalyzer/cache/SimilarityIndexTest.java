@@ -0,0 +1,82 @@
+package com.dsaanalyzer.dsaanalyzer.cache;
+
+import com.dsaanalyzer.dsaanalyzer.analysis.CodeNormalizer;
+import com.dsaanalyzer.dsaanalyzer.analysis.Language;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimilarityIndexTest {
+
+    private static final String BINARY_SEARCH = """
+            int search(int[] a, int target) {
+                int lo = 0, hi = a.length - 1;
+                while (lo <= hi) {
+                    int mid = lo + (hi - lo) / 2;
+                    if (a[mid] == target) return mid;
+                    if (a[mid] < target) lo = mid + 1;
+                    else hi = mid - 1;
+                }
+                return -1;
+            }""";
+    private static final String BUBBLE_SORT = """
+            void sort(int[] a) {
+                for (int i = 0; i < a.length; i++) {
+                    for (int j = 0; j + 1 < a.length - i; j++) {
+                        if (a[j] > a[j + 1]) {
+                            int t = a[j];
+                            a[j] = a[j + 1];
+                            a[j + 1] = t;
+                        }
+                    }
+                }
+            }""";
+    private static final String KEY_A = CacheKey.of("a");
+    private static final String KEY_B = CacheKey.of("b");
+
+    @Test
+    void nearDuplicateFindsTheEarlierEntry() {
+        SimilarityIndex index = new SimilarityIndex(true, 0.8, 1000);
+        index.add(sketch(BINARY_SEARCH, 1), KEY_A);
+        index.add(sketch(BUBBLE_SORT, 1), KEY_B);
+
+        // An extra early exit: a small edit to otherwise identical code
+        String edited = BINARY_SEARCH.replace("while (lo <= hi) {", "if (a.length == 0) return -1;\n    while (lo <= hi) {");
+        SimilarityIndex.Match match = index.find(sketch(edited, 1));
+        assertNotNull(match);
+        assertEquals(KEY_A, match.cacheKey());
+        assertTrue(match.similarity() >= 0.8 && match.similarity() < 1, String.valueOf(match.similarity()));
+        assertEquals(1.0, index.find(sketch(BUBBLE_SORT, 1)).similarity());
+    }
+
+    @Test
+    void unrelatedCodeAndDifferentGuardsDoNotMatch() {
+        SimilarityIndex index = new SimilarityIndex(true, 0.8, 1000);
+        index.add(sketch(BINARY_SEARCH, 1), KEY_A);
+
+        assertNull(index.find(sketch(BUBBLE_SORT, 1)));
+        assertNull(index.find(sketch(BINARY_SEARCH, 2)));
+        assertNull(new SimilarityIndex(false, 0.8, 1000).find(sketch(BINARY_SEARCH, 1)));
+    }
+
+    @Test
+    void growsAndStartsOverWhenFull() {
+        SimilarityIndex index = new SimilarityIndex(true, 0.8, 5000);
+        for (int i = 1; i < 5000; i++) {
+            index.add(sketch(BUBBLE_SORT.replace("a[j] > a[j + 1]", "a[j] > a[j + 1] + " + i), 1), CacheKey.of("key", String.valueOf(i)));
+        }
+        index.add(sketch(BINARY_SEARCH, 1), KEY_A);
+        assertEquals(KEY_A, index.find(sketch(BINARY_SEARCH, 1)).cacheKey());
+
+        index.add(sketch(BINARY_SEARCH, 2), KEY_B);
+        assertEquals(1, index.size());
+        assertNull(index.find(sketch(BINARY_SEARCH, 1)));
+    }
+
+    private static SimilarityIndex.Sketch sketch(String code, int guard) {
+        return SimilarityIndex.sketch(CodeNormalizer.canonicalTokens(code, Language.JAVA), guard);
+    }
+}
@@ -0,0 +1,89 @@
+package com.dsaanalyzer.dsaanalyzer.controller;
+
+import com.dsaanalyzer.dsaanalyzer.model.BatchAnalysisResult;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestPropertySource(properties = "analysis.batch-api.parallelism=4")
+class BatchAnalysisEndpointTest extends StubbedEndpointTest {
+
+    private static final Pattern MARKER = Pattern.compile("marker = (\\d+)");
+
+    private static String answer(String prompt) {
+        Matcher marker = MARKER.matcher(prompt);
+        marker.find();
+        return """
+                {"timeComplexity": "O(1)", "spaceComplexity": "O(1)", "pattern": "Constant",
+                 "summary": "marker %s", "intuition": ["a"], "suggestions": ["b"]}""".formatted(marker.group(1));
+    }
+
+    @BeforeAll
+    static void answerWithMarkers() {
+        STUB.setDelayMillis(() -> 200);
+        STUB.setResponder(BatchAnalysisEndpointTest::answer);
+    }
+
+    @Test
+    void everyItemGetsALineAndDuplicatesAreAnalyzedOnce() {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 12; i++) {
+            body.append("{\"id\": \"s").append(i).append("\", \"language\": \"java\", \"code\": \"int marker = ")
+                    .append(i % 4).append(";\"}\n");
+        }
+        body.append("{\"id\": \"blank\", \"language\": \"java\", \"code\": \" \"}\n");
+
+        int before = STUB.requestCount();
+        Map<Long, BatchAnalysisResult> lines = batch(body.toString());
+        assertEquals(13, lines.size());
+        for (long i = 0; i < 12; i++) {
+            BatchAnalysisResult line = lines.get(i);
+            assertEquals("s" + i, line.getId());
+            assertNull(line.getError());
+            assertEquals("marker " + (i % 4), line.getResult().getSummary());
+        }
+        assertNotNull(lines.get(12L).getError());
+        assertEquals("blank", lines.get(12L).getId());
+        // Twelve submissions, four distinct programs
+        assertEquals(4, STUB.requestCount() - before);
+    }
+
+    @Test
+    void aMalformedBodyEndsWithAnErrorLine() {
+        Map<Long, BatchAnalysisResult> lines = batch("""
+                [{"language": "java", "code": "int marker = 7;"}, 42]""");
+        assertEquals("marker 7", lines.get(0L).getResult().getSummary());
+        assertTrue(lines.get(-1L).getError().startsWith("Malformed batch body"));
+        assertEquals(2, lines.size());
+    }
+
+    private Map<Long, BatchAnalysisResult> batch(String body) {
+        List<BatchAnalysisResult> lines = WebClient.create("http://localhost:" + port)
+                .post()
+                .uri("/api/v1/analyze/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .retrieve()
+                .bodyToFlux(BatchAnalysisResult.class)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+        Map<Long, BatchAnalysisResult> byIndex = new TreeMap<>();
+        lines.forEach(line -> byIndex.put(line.getIndex(), line));
+        return byIndex;
+    }
+}
@@ -0,0 +1,141 @@
+package com.dsaanalyzer.dsaanalyzer.controller;
+
+import com.dsaanalyzer.dsaanalyzer.model.AnalyzeCodeResponse;
+import com.dsaanalyzer.dsaanalyzer.service.AnalysisBatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@TestPropertySource(properties = {
+        "analysis.batch.enabled=true",
+        "analysis.batch.window=PT1S",
+        "analysis.batch.max-size=4"})
+class BatchedAnalysisTest extends StubbedEndpointTest {
+
+    private static final Pattern SECTION = Pattern.compile("=== REQUEST (r\\d+) ===(.*?)=== END \\1 ===", Pattern.DOTALL);
+    private static final Pattern MARKER = Pattern.compile("marker = (\\d+)");
+    private static final AtomicBoolean GARBLED = new AtomicBoolean();
+
+    @Autowired
+    private AnalysisBatcher analysisBatcher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Answers single prompts with one analysis and batch prompts with an array keyed by request id, amid prose
+    private static String answer(String prompt) {
+        Matcher sections = SECTION.matcher(prompt);
+        if (!sections.find()) {
+            return analysis(prompt);
+        }
+        if (GARBLED.get()) {
+            return "I can only answer one request at a time.";
+        }
+        StringBuilder array = new StringBuilder("```json\n[");
+        do {
+            array.append(array.length() > 9 ? "," : "")
+                    .append("{\"id\": \"").append(sections.group(1)).append("\", \"result\": ")
+                    .append(analysis(sections.group(2))).append('}');
+        } while (sections.find());
+        // Brackets in the surrounding prose must not confuse the reply's parsing
+        return "All O(1) [see below]:\n" + array.append("]\n```\nUse arr[i] directly.");
+    }
+
+    private static String analysis(String prompt) {
+        Matcher marker = MARKER.matcher(prompt);
+        marker.find();
+        return """
+                {"timeComplexity": "O(1)", "spaceComplexity": "O(1)", "pattern": "Constant",
+                 "summary": "marker %s", "intuition": ["a"], "suggestions": ["b"]}""".formatted(marker.group(1));
+    }
+
+    @BeforeAll
+    static void answerBatches() {
+        STUB.setDelayMillis(() -> 50);
+        STUB.setResponder(BatchedAnalysisTest::answer);
+    }
+
+    @Test
+    void concurrentAnalysesShareUpstreamCallsAndUnusableRepliesFallBack() {
+        GARBLED.set(false);
+        int before = STUB.requestCount();
+        List<String> summaries = analyze(0, 6);
+        assertEquals(List.of("marker 0", "marker 1", "marker 2", "marker 3", "marker 4", "marker 5"), summaries);
+        // One full batch of four, then the remaining two when the window closes
+        assertEquals(2, STUB.requestCount() - before);
+
+        GARBLED.set(true);
+        summaries = analyze(10, 4);
+        assertEquals(List.of("marker 10", "marker 11", "marker 12", "marker 13"), summaries);
+        assertEquals(2 + 1 + 4, STUB.requestCount() - before);
+    }
+
+    @Test
+    void theSharedCallIsCancelledOnceEveryCallerHasCancelled() throws InterruptedException {
+        STUB.setDelayMillis(() -> 5000);
+        try {
+            double cancelled = cancelledCalls();
+            int before = STUB.requestCount();
+            Disposable first = analysisBatcher.generateContent("int marker = 20;").subscribe();
+            Disposable second = analysisBatcher.generateContent("int marker = 21;").subscribe();
+            // The window closes after 1 s
+            while (STUB.requestCount() == before) {
+                Thread.sleep(20);
+            }
+            first.dispose();
+            Thread.sleep(200);
+            assertEquals(cancelled, cancelledCalls());
+            second.dispose();
+            waitForCancelledCalls(cancelled + 1);
+
+            // A batch of one goes out as a single call
+            Disposable alone = analysisBatcher.generateContent("int marker = 22;").subscribe();
+            while (STUB.requestCount() == before + 1) {
+                Thread.sleep(20);
+            }
+            alone.dispose();
+            waitForCancelledCalls(cancelled + 2);
+        } finally {
+            STUB.setDelayMillis(() -> 50);
+        }
+    }
+
+    private double cancelledCalls() {
+        return meterRegistry.counter("gemini.calls", "outcome", "cancelled").count();
+    }
+
+    private void waitForCancelledCalls(double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + 3_000_000_000L;
+        while (cancelledCalls() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, cancelledCalls());
+    }
+
+    private List<String> analyze(int from, int count) {
+        WebClient client = WebClient.create("http://localhost:" + port);
+        return Flux.range(from, count)
+                .flatMapSequential(i -> client.post()
+                        .uri("/api/v1/analyze")
+                        .bodyValue(Map.of("language", "java", "code", "int marker = " + i + ";"))
+                        .retrieve()
+                        .bodyToMono(AnalyzeCodeResponse.class)
+                        .map(AnalyzeCodeResponse::getSummary))
+                .collectList()
+                .block(Duration.ofSeconds(30));
+    }
+}
@@ -0,0 +1,86 @@
+package com.dsaanalyzer.dsaanalyzer.controller;
+
+import com.dsaanalyzer.dsaanalyzer.model.AnalyzeCodeResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestPropertySource(properties = "gemini.hedge.enabled=false")
+class ClientDisconnectTest extends StubbedEndpointTest {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void droppingTheConnectionCancelsTheUpstreamCall() throws Exception {
+        STUB.setDelayMillis(() -> 5000);
+        double cancelledBefore = calls("cancelled");
+        double completedBefore = calls("completed");
+        int before = STUB.requestCount();
+        String body = "{\"language\": \"python\", \"code\": \"def pairs(a):\\n    return [(x, y) for x in a for y in a]\"}";
+        long start = System.nanoTime();
+        try (Socket socket = new Socket("localhost", port)) {
+            OutputStream out = socket.getOutputStream();
+            out.write(("POST /api/v1/analyze HTTP/1.1\r\nHost: localhost\r\nContent-Type: application/json\r\n"
+                    + "Content-Length: " + body.getBytes(StandardCharsets.UTF_8).length + "\r\n\r\n" + body)
+                    .getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            // Leave while the (5 s) upstream call is pending
+            while (STUB.requestCount() == before) {
+                Thread.sleep(20);
+            }
+        }
+
+        while (calls("cancelled") == cancelledBefore && System.nanoTime() - start < 4_000_000_000L) {
+            Thread.sleep(20);
+        }
+        assertEquals(1.0, calls("cancelled") - cancelledBefore);
+        assertTrue(System.nanoTime() - start < 4_000_000_000L, "cancelled before the stub answered");
+        assertEquals(0.0, calls("completed") - completedBefore);
+        assertEquals(1, STUB.requestCount() - before);
+    }
+
+    @Test
+    void aClientStillWaitingIsNotTakenForGone() {
+        // Long enough for several probes
+        STUB.setDelayMillis(() -> 1500);
+        double disconnectsBefore = meterRegistry.counter("http.client.disconnects").count();
+        double completedBefore = calls("completed");
+
+        AnalyzeCodeResponse response = WebClient.create("http://localhost:" + port)
+                .post()
+                .uri("/api/v1/analyze")
+                .bodyValue(Map.of("language", "python", "code", "def merge_sort(a):\n    return sorted(a)"))
+                .retrieve()
+                .bodyToMono(AnalyzeCodeResponse.class)
+                .block(Duration.ofSeconds(30));
+
+        assertEquals("O(n log n)", response.getTimeComplexity());
+        assertEquals(1.0, calls("completed") - completedBefore);
+        assertEquals(0.0, meterRegistry.counter("http.client.disconnects").count() - disconnectsBefore);
+    }
+
+    @Test
+    void blockingModeRefusesToProbe() {
+        assertThrows(IllegalStateException.class,
+                () -> new ClientDisconnectWatcher(Duration.ofMillis(500), "blocking", new SimpleMeterRegistry()));
+        new ClientDisconnectWatcher(Duration.ZERO, "blocking", new SimpleMeterRegistry());
+    }
+
+    private double calls(String outcome) {
+        return meterRegistry.counter("gemini.calls", "outcome", outcome).count();
+    }
+}
@@ -0,0 +1,51 @@
+package com.dsaanalyzer.dsaanalyzer.controller;
+
+import com.dsaanalyzer.dsaanalyzer.model.AnalyzeCodeResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@TestPropertySource(properties = {
+        "gemini.retry.max-attempts=1",
+        "gemini.circuit.min-calls=3",
+        "gemini.circuit.open-duration=PT0.5S",
+        "gemini.circuit.half-open-probes=1"})
+class DegradedAnalysisTest extends StubbedEndpointTest {
+
+    @Test
+    void anOutageIsAnsweredLocallyUntilTheUpstreamRecovers() throws InterruptedException {
+        int before = STUB.requestCount();
+        STUB.setFailureRate(1.0);
+        for (int i = 0; i < 10; i++) {
+            AnalyzeCodeResponse response = analyze("for (int i = 0; i < n; i++) { sum += a[i] * " + i + "; }");
+            assertEquals(Boolean.TRUE, response.getDegraded());
+            assertEquals("local", response.getSource());
+            assertEquals("O(n)", response.getTimeComplexity());
+        }
+        // The circuit opened after three failures; the rest never reached the upstream
+        assertEquals(3, STUB.requestCount() - before);
+
+        STUB.setFailureRate(0);
+        Thread.sleep(600);
+        AnalyzeCodeResponse recovered = analyze("int probe = 1;");
+        assertNull(recovered.getDegraded());
+        assertEquals("O(n log n)", recovered.getTimeComplexity());
+        assertEquals(4, STUB.requestCount() - before);
+    }
+
+    private AnalyzeCodeResponse analyze(String code) {
+        return WebClient.create("http://localhost:" + port)
+                .post()
+                .uri("/api/v1/analyze")
+                .bodyValue(Map.of("language", "java", "code", code))
+                .retrieve()
+                .bodyToMono(AnalyzeCodeResponse.class)
+                .block(Duration.ofSeconds(30));
+    }
+}
@@ -0,0 +1,117 @@
+package com.dsaanalyzer.dsaanalyzer.controller;
+
+import com.dsaanalyzer.dsaanalyzer.model.AnalyzeCodeResponse;
+import com.dsaanalyzer.dsaanalyzer.model.FunctionAnalysis;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestPropertySource(properties = "analysis.split.min-lines=10")
+class FunctionSplitAnalysisTest extends StubbedEndpointTest {
+
+    private static final String FILE = """
+            class Stats {
+                int total(int[] a) {
+                    int s = 0;
+                    for (int x : a) s += x;
+                    return s;
+                }
+
+                int pairs(int[] a) {
+                    int count = 0;
+                    for (int i = 0; i < a.length; i++)
+                        for (int j = i + 1; j < a.length; j++) if (a[i] == a[j]) count++;
+                    return count;
+                }
+
+                int first(int[] a) {
+                    return a.length > 0 ? a[%d] : -1;
+                }
+            }""";
+    private static final String CALLS = """
+            class Scores {
+                private int limit = 3;
+
+                int countAbove(int[] a, int t) {
+                    int c = 0;
+                    for (int x : a) if (x > t + limit) c++;
+                    return c;
+                }
+
+                int solve(int[] a) {
+                    int best = 0;
+                    for (int x : a) best = Math.max(best, countAbove(a, x));
+                    return best;
+                }
+            }""";
+    private static final List<String> PROMPTS = new CopyOnWriteArrayList<>();
+
+    @BeforeAll
+    static void answerByFunction() {
+        STUB.setDelayMillis(() -> 100);
+        STUB.setResponder(prompt -> {
+            PROMPTS.add(prompt);
+            String time = prompt.contains("pairs(") ? "O(n^2)"
+                    : prompt.contains("total(") || prompt.contains("countAbove(") ? "O(n)" : "O(1)";
+            return """
+                    {"timeComplexity": "%s", "spaceComplexity": "O(1)", "pattern": "Scan",
+                     "summary": "one function", "intuition": ["a"], "suggestions": ["b"]}""".formatted(time);
+        });
+    }
+
+    @Test
+    void largeFilesAreAnalyzedPerFunctionAndEditsResendOnlyChangedFunctions() {
+        int before = STUB.requestCount();
+        AnalyzeCodeResponse file = analyze(FILE.formatted(0));
+        assertEquals("O(n^2)", file.getTimeComplexity());
+        assertEquals(List.of("total:2-6:O(n)", "pairs:8-13:O(n^2)", "first:15-17:O(1)"), file.getFunctions().stream()
+                .map(function -> function.getName() + ":" + function.getStartLine() + "-" + function.getEndLine()
+                        + ":" + function.getTimeComplexity())
+                .toList());
+        assertEquals(3, STUB.requestCount() - before);
+
+        // Only the edited function goes upstream again
+        AnalyzeCodeResponse edited = analyze(FILE.formatted(1));
+        assertEquals(3, edited.getFunctions().size());
+        assertEquals("O(n^2)", edited.getTimeComplexity());
+        assertEquals(4, STUB.requestCount() - before);
+        assertEquals(List.of("O(n)", "O(n^2)", "O(1)"),
+                edited.getFunctions().stream().map(FunctionAnalysis::getTimeComplexity).toList());
+    }
+
+    @Test
+    void calleesAreAnalyzedFirstAndTheirCostComposesIntoTheCaller() {
+        int before = STUB.requestCount();
+        AnalyzeCodeResponse file = analyze(CALLS);
+
+        // The stub calls both functions O(n), but solve() runs countAbove() once per element
+        assertEquals(List.of("countAbove:O(n)", "solve:O(n^2)"), file.getFunctions().stream()
+                .map(function -> function.getName() + ":" + function.getTimeComplexity())
+                .toList());
+        assertEquals("O(n^2)", file.getTimeComplexity());
+        assertEquals(2, STUB.requestCount() - before);
+        String solvePrompt = PROMPTS.get(PROMPTS.size() - 1);
+        assertTrue(solvePrompt.contains("function `int solve(int[] a)`"), solvePrompt);
+        assertTrue(solvePrompt.contains("private int limit = 3;"), solvePrompt);
+        assertTrue(solvePrompt.contains("- int countAbove(int[] a, int t): O(n) time, O(1) space per call"), solvePrompt);
+    }
+
+    private AnalyzeCodeResponse analyze(String code) {
+        return WebClient.create("http://localhost:" + port)
+                .post()
+                .uri("/api/v1/analyze")
+                .bodyValue(Map.of("language", "java", "code", code))
+                .retrieve()
+                .bodyToMono(AnalyzeCodeResponse.class)
+                .block(Duration.ofSeconds(30));
+    }
+}
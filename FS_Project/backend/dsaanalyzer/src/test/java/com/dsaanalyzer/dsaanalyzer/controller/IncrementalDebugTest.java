@@ -0,0 +1,119 @@
+package com.dsaanalyzer.dsaanalyzer.controller;
+
+import com.dsaanalyzer.dsaanalyzer.model.CodeIssue;
+import com.dsaanalyzer.dsaanalyzer.model.IncrementalDebugRequest;
+import com.dsaanalyzer.dsaanalyzer.model.IncrementalDebugResponse;
+import com.dsaanalyzer.dsaanalyzer.model.LineEdit;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IncrementalDebugTest extends StubbedEndpointTest {
+
+    private static final String FILE = """
+            class Stats {
+                int total(int[] a) {
+                    int s = 0;
+                    for (int x : a) s += x;
+                    return s;
+                }
+
+                int pairs(int[] a) {
+                    int count = 0;
+                    for (int i = 0; i < a.length; i++)
+                        for (int j = i + 1; j < a.length; j++) if (a[i] == a[j]) count++;
+                    return count;
+                }
+
+                int first(int[] a) {
+                    return a.length > 0 ? a[0] : -1;
+                }
+            }""";
+
+    // Only pairs() has a finding, on its second line
+    @BeforeAll
+    static void answerByRegion() {
+        STUB.setDelayMillis(() -> 20);
+        STUB.setResponder(prompt -> prompt.contains("pairs(")
+                ? """
+                {"issues": [{"line": 2, "type": "warning", "message": "quadratic", "severity": "low"}],
+                 "explanation": "pairs is quadratic", "fixSuggestions": ["use a map"]}"""
+                : """
+                {"issues": [], "explanation": "looks fine", "fixSuggestions": []}""");
+    }
+
+    @Test
+    void editsReanalyzeOnlyTheTouchedRegionAndShiftTheRest() {
+        int before = STUB.requestCount();
+        IncrementalDebugResponse first = post(IncrementalDebugRequest.builder().language("java").code(FILE).build());
+        // total, pairs and first; the class header and closing brace are left to the compiler
+        assertEquals(3, first.getRegions());
+        assertEquals(3, first.getReanalyzedRegions());
+        assertEquals(List.of(9), lines(first));
+        assertEquals(3, STUB.requestCount() - before);
+
+        // A field inserted above total() changes no region, it only moves them down
+        IncrementalDebugResponse edited = post(IncrementalDebugRequest.builder()
+                .sessionId(first.getSessionId())
+                .baseRevision(first.getRevision())
+                .edits(List.of(new LineEdit(2, 1, List.of("    static final int LIMIT = 10;"))))
+                .build());
+        assertEquals(first.getRevision() + 1, edited.getRevision());
+        assertEquals(0, edited.getReanalyzedRegions());
+        assertEquals(List.of(10), lines(edited));
+        assertEquals("pairs is quadratic", edited.getDebug().getExplanation());
+        assertEquals(FILE.replace("class Stats {\n", "class Stats {\n    static final int LIMIT = 10;\n"),
+                edited.getDebug().getCode());
+        assertEquals(3, STUB.requestCount() - before);
+
+        // Edits against the older revision are refused
+        HttpStatus stale = (HttpStatus) WebClient.create("http://localhost:" + port)
+                .post()
+                .uri("/api/v1/debug/incremental")
+                .bodyValue(IncrementalDebugRequest.builder()
+                        .sessionId(first.getSessionId())
+                        .baseRevision(first.getRevision())
+                        .edits(List.of(new LineEdit(3, 3, List.of("    int total(int[] b) {"))))
+                        .build())
+                .exchangeToMono(response -> response.toBodilessEntity())
+                .block(Duration.ofSeconds(30))
+                .getStatusCode();
+        assertEquals(HttpStatus.CONFLICT, stale);
+    }
+
+    @Test
+    void anotherLanguageReanalyzesEveryRegion() {
+        // Not FILE: the debug cache is shared with the other test
+        String code = "class Sizes {\n    int size(int[] a) {\n        return a.length;\n    }\n}";
+        IncrementalDebugResponse first = post(IncrementalDebugRequest.builder().language("java").code(code).build());
+
+        // Same text, but the session's findings were asked for as Java
+        IncrementalDebugResponse relabelled = post(IncrementalDebugRequest.builder()
+                .sessionId(first.getSessionId())
+                .language("cpp")
+                .code(code)
+                .build());
+        assertEquals(1, relabelled.getRegions());
+        assertEquals(1, relabelled.getReanalyzedRegions());
+    }
+
+    private static List<Integer> lines(IncrementalDebugResponse response) {
+        return response.getDebug().getIssues().stream().map(CodeIssue::getLine).toList();
+    }
+
+    private IncrementalDebugResponse post(IncrementalDebugRequest request) {
+        return WebClient.create("http://localhost:" + port)
+                .post()
+                .uri("/api/v1/debug/incremental")
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(IncrementalDebugResponse.class)
+                .block(Duration.ofSeconds(30));
+    }
+}
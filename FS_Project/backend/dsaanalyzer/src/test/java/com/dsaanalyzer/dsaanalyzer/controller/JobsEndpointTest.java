@@ -0,0 +1,148 @@
+package com.dsaanalyzer.dsaanalyzer.controller;
+
+import com.dsaanalyzer.dsaanalyzer.model.Job;
+import com.dsaanalyzer.dsaanalyzer.model.JobRequest;
+import com.dsaanalyzer.dsaanalyzer.service.JobService;
+import com.dsaanalyzer.dsaanalyzer.service.JobStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@TestPropertySource(properties = {
+        "analysis.jobs.enabled=true",
+        "analysis.jobs.workers=1"})
+class JobsEndpointTest extends StubbedEndpointTest {
+
+    private static final Pattern MARKER = Pattern.compile("marker = (\\d+)");
+    private static final Path JOBS = seedJobs();
+
+    // Jobs left behind by a previous process: one never started, one interrupted while running
+    private static Path seedJobs() {
+        try {
+            Path directory = Files.createTempDirectory("jobs");
+            JobStore store = new JobStore(true, directory, DataSize.ofMegabytes(1), 4, Duration.ofHours(1), new ObjectMapper());
+            store.save(seed("left-queued", JobService.QUEUED, 0, 1));
+            store.save(seed("left-running", JobService.RUNNING, 1, 2));
+            store.close();
+            return directory;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Job seed(String id, String status, int attempts, int marker) {
+        return Job.builder()
+                .id(id)
+                .tenant("previous")
+                .status(status)
+                .attempts(attempts)
+                .submittedAt(System.currentTimeMillis())
+                .startedAt(attempts > 0 ? System.currentTimeMillis() : null)
+                .request(JobRequest.builder().type("analyze").priority("normal").language("java")
+                        .code("int marker = " + marker + ";").build())
+                .build();
+    }
+
+    @DynamicPropertySource
+    static void jobsDirectory(DynamicPropertyRegistry registry) {
+        registry.add("analysis.jobs.dir", JOBS::toString);
+    }
+
+    @BeforeAll
+    static void answerWithMarkers() {
+        STUB.setDelayMillis(() -> 100);
+        STUB.setResponder(prompt -> {
+            Matcher marker = MARKER.matcher(prompt);
+            marker.find();
+            return """
+                    {"timeComplexity": "O(1)", "spaceComplexity": "O(1)", "pattern": "Constant",
+                     "summary": "marker %s", "intuition": ["a"], "suggestions": ["b"]}""".formatted(marker.group(1));
+        });
+    }
+
+    @Test
+    void unfinishedJobsResumeAfterARestart() {
+        Job queued = poll("left-queued");
+        assertEquals(JobService.SUCCEEDED, queued.getStatus());
+        assertEquals("marker 1", queued.getAnalysis().getSummary());
+        assertEquals(1, queued.getAttempts());
+
+        Job interrupted = poll("left-running");
+        assertEquals(JobService.SUCCEEDED, interrupted.getStatus());
+        assertEquals("marker 2", interrupted.getAnalysis().getSummary());
+        assertEquals(2, interrupted.getAttempts());
+    }
+
+    @Test
+    void aSubmittedJobCanBeWatchedAndPolledToCompletion() {
+        ResponseEntity<Job> accepted = client().post()
+                .uri("/api/v1/jobs")
+                .header(JobController.TENANT_HEADER, "course-42")
+                .bodyValue(Map.of("language", "java", "code", "int marker = 3;", "priority", "high"))
+                .retrieve()
+                .toEntity(Job.class)
+                .block(Duration.ofSeconds(10));
+        assertEquals(HttpStatus.ACCEPTED, accepted.getStatusCode());
+        String id = accepted.getBody().getId();
+        assertEquals("/api/v1/jobs/" + id, accepted.getHeaders().getLocation().toString());
+
+        List<ServerSentEvent<Job>> events = client().get()
+                .uri("/api/v1/jobs/{id}/events", id)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .retrieve()
+                .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<Job>>() {
+                })
+                .collectList()
+                .block(Duration.ofSeconds(10));
+        assertEquals(JobService.SUCCEEDED, events.get(events.size() - 1).data().getStatus());
+
+        Job done = poll(id);
+        assertEquals("course-42", done.getTenant());
+        assertEquals("marker 3", done.getAnalysis().getSummary());
+        assertNotNull(done.getQueueWaitMillis());
+        assertNotNull(done.getProcessingMillis());
+    }
+
+    @Test
+    void unknownJobsAndInvalidSubmissionsAreRejected() {
+        assertEquals(HttpStatus.NOT_FOUND, client().get().uri("/api/v1/jobs/missing")
+                .exchangeToMono(response -> response.toBodilessEntity()).block().getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, client().post().uri("/api/v1/jobs")
+                .bodyValue(Map.of("code", "int x;", "priority", "urgent"))
+                .exchangeToMono(response -> response.toBodilessEntity()).block().getStatusCode());
+    }
+
+    private Job poll(String id) {
+        return client().get()
+                .uri("/api/v1/jobs/{id}?wait=PT10S", id)
+                .retrieve()
+                .bodyToMono(Job.class)
+                .block(Duration.ofSeconds(15));
+    }
+
+    private WebClient client() {
+        return WebClient.create("http://localhost:" + port);
+    }
+}
@@ -0,0 +1,95 @@
+package com.dsaanalyzer.dsaanalyzer.controller;
+
+import com.dsaanalyzer.dsaanalyzer.model.LiveResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@TestPropertySource(properties = "analysis.live.debounce=PT0.2S")
+class LiveAnalysisTest extends StubbedEndpointTest {
+
+    private static final Pattern MARKER = Pattern.compile("marker = (\\d+)");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void answerWithMarkers() {
+        STUB.setDelayMillis(() -> 1000);
+        STUB.setResponder(prompt -> {
+            Matcher marker = MARKER.matcher(prompt);
+            marker.find();
+            return """
+                    {"timeComplexity": "O(1)", "spaceComplexity": "O(1)", "pattern": "Constant",
+                     "summary": "marker %s", "intuition": ["a"], "suggestions": ["b"]}""".formatted(marker.group(1));
+        });
+    }
+
+    @Test
+    void burstsAreDebouncedAndNewerRevisionsCancelInFlightWork() {
+        int before = STUB.requestCount();
+        List<LiveResult> results = new CopyOnWriteArrayList<>();
+        Sinks.Empty<Void> firstResult = Sinks.empty();
+
+        new ReactorNettyWebSocketClient().execute(URI.create("ws://localhost:" + port + "/api/v1/live"), session -> {
+            // Revisions 1-5 arrive as one burst; 6 is still upstream (1 s stub) when 7 replaces it
+            Flux<WebSocketMessage> revisions = Flux.concat(
+                    Flux.range(1, 5).map(revision -> update(session, revision)),
+                    firstResult.asMono().then(Mono.fromSupplier(() -> update(session, 6))),
+                    Mono.delay(Duration.ofMillis(600)).map(tick -> update(session, 7)));
+            Mono<Void> received = session.receive()
+                    .map(message -> read(message.getPayloadAsText()))
+                    .doOnNext(results::add)
+                    .doOnNext(result -> firstResult.tryEmitEmpty())
+                    .take(2)
+                    .then();
+            return session.send(revisions).and(received);
+        }).block(Duration.ofSeconds(15));
+
+        assertEquals(List.of(5L, 7L), results.stream().map(LiveResult::getRevision).toList());
+        assertEquals("marker 7", results.get(1).getAnalysis().getSummary());
+        assertEquals(3, STUB.requestCount() - before);
+        assertEquals(4.0, meterRegistry.get("live.updates.dropped").tag("stage", "debounce").counter().count());
+        assertEquals(1.0, meterRegistry.get("live.updates.dropped").tag("stage", "in-flight").counter().count());
+        assertEquals(1.0, meterRegistry.get("analysis.coalesce.cancelled").counter().count());
+    }
+
+    private static WebSocketMessage update(WebSocketSession session, int revision) {
+        try {
+            return session.textMessage(MAPPER.writeValueAsString(Map.of(
+                    "revision", revision, "type", "analyze", "language", "java", "code", "int marker = " + revision + ";")));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static LiveResult read(String payload) {
+        try {
+            return MAPPER.readValue(payload, LiveResult.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.dsaanalyzer.dsaanalyzer.controller;
+
+import com.dsaanalyzer.dsaanalyzer.model.AnalyzeCodeResponse;
+import com.dsaanalyzer.dsaanalyzer.model.DebugCodeResponse;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LooseModelOutputTest extends StubbedEndpointTest {
+
+    // Lists sent as a single value, as models often do
+    @BeforeAll
+    static void answerWithSingleValues() {
+        STUB.setResponder(prompt -> prompt.contains("Code Debugger")
+                ? """
+                {"issues": {"line": 2, "type": "error", "message": "off by one", "severity": "high"},
+                 "explanation": "e", "fixSuggestions": "use < instead of <="}"""
+                : """
+                {"timeComplexity": "O(n)", "spaceComplexity": "O(1)", "pattern": "Linear Scan",
+                 "summary": "s", "intuition": "Visit every element once", "suggestions": ["b"]}""");
+    }
+
+    @Test
+    void aStringListIsKeptAsOneItem() {
+        AnalyzeCodeResponse analysis = post("/api/v1/analyze", AnalyzeCodeResponse.class);
+        assertNull(analysis.getDegraded());
+        assertEquals(List.of("Visit every element once"), analysis.getIntuition());
+
+        DebugCodeResponse debug = post("/api/v1/debug", DebugCodeResponse.class);
+        assertNull(debug.getDegraded());
+        assertEquals("off by one", debug.getIssues().get(0).getMessage());
+        assertEquals(List.of("use < instead of <="), debug.getFixSuggestions());
+    }
+
+    private <T> T post(String path, Class<T> type) {
+        return WebClient.create("http://localhost:" + port)
+                .post()
+                .uri(path)
+                .bodyValue(Map.of("language", "python", "code", "def last(a):\n    for i in range(len(a) + 1):\n        x = a[i]\n    return x"))
+                .retrieve()
+                .bodyToMono(type)
+                .block(Duration.ofSeconds(30));
+    }
+}
@@ -0,0 +1,87 @@
+package com.dsaanalyzer.dsaanalyzer.controller;
+
+import com.dsaanalyzer.dsaanalyzer.model.AnalyzeCodeResponse;
+import com.dsaanalyzer.dsaanalyzer.model.DebugCodeResponse;
+import com.dsaanalyzer.dsaanalyzer.model.ReviewCodeResponse;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ReviewEndpointTest extends StubbedEndpointTest {
+
+    private static final String ANALYSIS = """
+            {"timeComplexity": "O(n)", "spaceComplexity": "O(1)", "pattern": "Linear Scan",
+             "summary": "%s", "intuition": ["a"], "suggestions": ["b"]}""";
+    private static final String DEBUG = """
+            {"issues": [{"line": 1, "type": "warning", "message": "m", "severity": "medium"}],
+             "explanation": "%s", "fixSuggestions": ["c"]}""";
+
+    @BeforeAll
+    static void answerByPromptKind() {
+        STUB.setDelayMillis(() -> 20);
+        STUB.setResponder(prompt -> {
+            if (prompt.contains("DEBUG REQUIREMENTS") && prompt.contains("count_even")) {
+                return "{\"analysis\": " + ANALYSIS.formatted("analysis half") + "}";
+            }
+            if (prompt.contains("DEBUG REQUIREMENTS")) {
+                return "{\"analysis\": " + ANALYSIS.formatted("combined") + ", \"debug\": " + DEBUG.formatted("combined") + "}";
+            }
+            return prompt.contains("Code Debugger") ? DEBUG.formatted("debug only") : ANALYSIS.formatted("analysis only");
+        });
+    }
+
+    @Test
+    void bothHalvesComeFromOneCallAndServeLaterRequests() {
+        String code = "def total(a):\n    return sum(x * 2 for x in a)";
+        int before = STUB.requestCount();
+
+        ReviewCodeResponse review = post("/api/v1/review", code, ReviewCodeResponse.class);
+        assertEquals("combined", review.getAnalysis().getSummary());
+        assertEquals("combined", review.getDebug().getExplanation());
+        assertEquals(code, review.getDebug().getCode());
+        assertEquals(1, STUB.requestCount() - before);
+
+        assertEquals("combined", post("/api/v1/analyze", code, AnalyzeCodeResponse.class).getSummary());
+        assertEquals("combined", post("/api/v1/debug", code, DebugCodeResponse.class).getExplanation());
+        assertEquals(1, STUB.requestCount() - before);
+    }
+
+    @Test
+    void onlyTheMissingHalfIsRequested() {
+        String code = "def largest(a):\n    return max(a, default=None)";
+        int before = STUB.requestCount();
+        assertEquals("analysis only", post("/api/v1/analyze", code, AnalyzeCodeResponse.class).getSummary());
+
+        ReviewCodeResponse review = post("/api/v1/review", code, ReviewCodeResponse.class);
+        assertEquals("analysis only", review.getAnalysis().getSummary());
+        assertEquals("debug only", review.getDebug().getExplanation());
+        assertEquals(2, STUB.requestCount() - before);
+    }
+
+    @Test
+    void aMissingHalfDegradesAlone() {
+        String code = "def count_even(a):\n    return len([x for x in a if x % 2 == 0])";
+
+        ReviewCodeResponse review = post("/api/v1/review", code, ReviewCodeResponse.class);
+        assertEquals("analysis half", review.getAnalysis().getSummary());
+        assertNull(review.getAnalysis().getDegraded());
+        assertEquals(true, review.getDebug().getDegraded());
+        assertEquals(code, review.getDebug().getCode());
+    }
+
+    private <T> T post(String uri, String code, Class<T> type) {
+        return WebClient.create("http://localhost:" + port)
+                .post()
+                .uri(uri)
+                .bodyValue(Map.of("language", "python", "code", code))
+                .retrieve()
+                .bodyToMono(type)
+                .block(Duration.ofSeconds(30));
+    }
+}
@@ -0,0 +1,62 @@
+package com.dsaanalyzer.dsaanalyzer.controller;
+
+import com.dsaanalyzer.dsaanalyzer.testing.GeminiStubServer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamingEndpointTest extends StubbedEndpointTest {
+
+    private static final long CHUNK_DELAY_MILLIS = 200;
+
+    @BeforeAll
+    static void streamInChunks() {
+        STUB.setText("```json\n" + GeminiStubServer.ANALYSIS_JSON + "\n```");
+        STUB.setStreaming(10, CHUNK_DELAY_MILLIS);
+    }
+
+    @Test
+    void fieldsArriveBeforeTheUpstreamStreamFinishes() {
+        List<String> names = new ArrayList<>();
+        List<Long> arrivals = new ArrayList<>();
+        long start = System.nanoTime();
+
+        List<ServerSentEvent<String>> events = WebClient.create("http://localhost:" + port)
+                .post()
+                .uri("/api/v1/analyze/stream")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue("{\"language\":\"java\",\"code\":\"void sort(int[] a) {}\"}")
+                .retrieve()
+                .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {
+                })
+                .doOnNext(event -> {
+                    names.add(event.event());
+                    arrivals.add((System.nanoTime() - start) / 1_000_000);
+                })
+                .collectList()
+                .block(Duration.ofSeconds(30));
+
+        assertEquals("estimate", names.get(0));
+        assertTrue(events.get(0).data().contains("\"source\":\"local\""));
+        assertEquals("timeComplexity", names.get(1));
+        assertEquals("result", names.get(names.size() - 1));
+        assertTrue(names.contains("intuition"));
+        assertTrue(events.get(events.size() - 1).data().contains("O(n log n)"));
+
+        long firstField = arrivals.get(1);
+        long result = arrivals.get(arrivals.size() - 1);
+        assertTrue(result - firstField >= 5 * CHUNK_DELAY_MILLIS,
+                "first field at " + firstField + "ms, result at " + result + "ms");
+    }
+}
@@ -0,0 +1,46 @@
+package com.dsaanalyzer.dsaanalyzer.controller;
+
+import com.dsaanalyzer.dsaanalyzer.testing.GeminiStubServer;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+
+/**
+ * The application on a random port, calling a {@link GeminiStubServer} instead of Gemini.
+ * The stub is shared by every subclass (application contexts are cached across test classes,
+ * so it lives as long as the JVM) and reset before each class; subclasses configure it in their
+ * own {@code @BeforeAll}, add properties with {@code @TestPropertySource} and count requests
+ * relative to a starting point.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "analysis.similarity.enabled=false")
+abstract class StubbedEndpointTest {
+
+    protected static final GeminiStubServer STUB = startStub();
+
+    @LocalServerPort
+    protected int port;
+
+    private static GeminiStubServer startStub() {
+        try {
+            GeminiStubServer stub = GeminiStubServer.start(() -> 0);
+            Runtime.getRuntime().addShutdownHook(new Thread(stub::close));
+            return stub;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void geminiProperties(DynamicPropertyRegistry registry) {
+        registry.add("gemini.api.url", STUB::url);
+    }
+
+    @BeforeAll
+    static void resetStub() {
+        STUB.reset();
+    }
+}
@@ -0,0 +1,33 @@
+package com.dsaanalyzer.dsaanalyzer.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FairJobQueueTest {
+
+    @Test
+    void higherPrioritiesGoFirstAndTenantsTakeTurns() {
+        FairJobQueue queue = new FairJobQueue(3);
+        for (int i = 0; i < 4; i++) {
+            queue.offer("flood-" + i, "flood", 1);
+        }
+        queue.offer("small-0", "small", 1);
+        queue.offer("small-1", "small", 1);
+        queue.offer("low", "small", 2);
+        queue.offer("urgent", "other", 0);
+        assertEquals(8, queue.size());
+
+        List<String> order = new ArrayList<>();
+        for (String id = queue.poll(); id != null; id = queue.poll()) {
+            order.add(id);
+        }
+        assertEquals(List.of("urgent", "flood-0", "small-0", "flood-1", "small-1", "flood-2", "flood-3", "low"), order);
+        assertEquals(0, queue.size());
+        assertNull(queue.poll());
+    }
+}
@@ -0,0 +1,37 @@
+package com.dsaanalyzer.dsaanalyzer.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JsonLocatorTest {
+
+    @Test
+    void findsObjectInsideMarkdownFence() {
+        assertEquals("{\"a\": 1}", JsonLocator.extract("```json\n{\"a\": 1}\n```"));
+    }
+
+    @Test
+    void handlesDeepNestingAndBracesInStrings() {
+        String json = "{\"issues\": [{\"line\": 3, \"message\": \"missing } in if (x) {\", \"fix\": {\"code\": {\"a\": \"\\\"}\"}}}]}";
+        assertEquals(json, JsonLocator.extract("Here you go:\n" + json + "\nThanks"));
+    }
+
+    @Test
+    void skipsBracesInLeadingProse() {
+        assertEquals("{\"a\": {}}", JsonLocator.extract("Wrap blocks in {braces}. {\"a\": {}} done"));
+    }
+
+    @Test
+    void findsAnArrayOfObjectsAmongBracketsInProse() {
+        String array = "[{\"id\": \"r0\", \"result\": {\"summary\": \"reads arr[i] once]\"}}]";
+        assertEquals(array, JsonLocator.extractArray("O(n) [see below]:\n```json\n" + array + "\n```\n[end]"));
+        assertNull(JsonLocator.extractArray("arr[i] [1, 2]"));
+    }
+
+    @Test
+    void fallsBackToStrippedTextWhenTruncated() {
+        assertEquals("{\"a\": [1, 2", JsonLocator.extract("```json\n{\"a\": [1, 2\n```"));
+    }
+}
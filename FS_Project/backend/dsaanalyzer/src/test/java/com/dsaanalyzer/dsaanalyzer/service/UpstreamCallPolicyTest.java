@@ -0,0 +1,124 @@
+package com.dsaanalyzer.dsaanalyzer.service;
+
+import com.dsaanalyzer.dsaanalyzer.testing.GeminiStubServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpstreamCallPolicyTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private GeminiStubServer stub;
+    private WebClient client;
+
+    @AfterEach
+    void stopStub() {
+        if (stub != null) {
+            stub.close();
+        }
+    }
+
+    @Test
+    void slowAttemptsAreHedgedAfterTheP95() throws IOException {
+        // Every 25th upstream request is 50x slower than the rest
+        AtomicInteger requests = new AtomicInteger();
+        startStub(() -> requests.incrementAndGet() % 25 == 0 ? 500 : 10);
+        UpstreamCallPolicy policy = policy(1, 0.1, 1, true);
+
+        for (int i = 0; i < 100; i++) {
+            call(policy).block();
+        }
+        long slowest = 0;
+        for (int i = 0; i < 50; i++) {
+            long start = System.nanoTime();
+            call(policy).block();
+            slowest = Math.max(slowest, (System.nanoTime() - start) / 1_000_000);
+        }
+
+        assertTrue(slowest < 250, slowest + " ms");
+        assertTrue(counter("gemini.calls.hedge.won") >= 2, () -> String.valueOf(counter("gemini.calls.hedge.won")));
+    }
+
+    @Test
+    void failuresAreRetriedWithinTheBudget() throws IOException {
+        startStub(() -> 0);
+        stub.setFailureRate(0.5);
+        UpstreamCallPolicy generous = policy(3, 1.0, 0, false);
+        for (int i = 0; i < 20; i++) {
+            assertTrue(call(generous).block().contains("candidates"));
+        }
+        // Every second upstream request fails, so every call but the first needs one retry
+        assertEquals(19, counter("gemini.calls.retried"));
+
+        // A full outage: without the budget 200 calls would make 600 attempts
+        stub.setFailureRate(1.0);
+        int before = stub.requestCount();
+        UpstreamCallPolicy budgeted = policy(3, 0.1, 0, false);
+        for (int i = 0; i < 200; i++) {
+            assertInstanceOf(WebClientResponseException.class,
+                    assertThrows(RuntimeException.class, () -> call(budgeted).block()));
+        }
+        int attempts = stub.requestCount() - before;
+        assertTrue(attempts <= 200 + 1 + 20, attempts + " attempts");
+        assertTrue(counter("gemini.retry.budget.exhausted") > 0);
+    }
+
+    @Test
+    void theDeadlineBoundsTheCallAndIsPropagated() throws IOException {
+        startStub(() -> 3_000);
+        UpstreamCallPolicy policy = policy(3, 0.1, 1, true);
+
+        RequestDeadline deadline = policy.deadline("1500");
+        long start = System.nanoTime();
+        Throwable error = assertThrows(RuntimeException.class, () -> call(policy).contextWrite(deadline::addTo).block());
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+
+        assertInstanceOf(TimeoutException.class, error.getCause());
+        assertTrue(elapsed >= 1_490 && elapsed < 2_500, elapsed + " ms");
+        long propagated = Long.parseLong(stub.lastServerTimeout());
+        assertTrue(propagated > 500 && propagated <= 1_500, propagated + " ms");
+
+        assertEquals(Duration.ofSeconds(2), policy.deadline("PT2S").timeout());
+        assertEquals(Duration.ofSeconds(120), policy.deadline("600000").timeout());
+        assertEquals(Duration.ofSeconds(30), policy.deadline("soon").timeout());
+        assertEquals(Duration.ofSeconds(30), policy.deadline(null).timeout());
+    }
+
+    private void startStub(LongSupplier delayMillis) throws IOException {
+        stub = GeminiStubServer.start(delayMillis);
+        client = WebClient.create(stub.url());
+    }
+
+    private Mono<String> call(UpstreamCallPolicy policy) {
+        return policy.call(deadline -> client.post()
+                .header("X-Server-Timeout", String.valueOf(deadline.remaining().toMillis()))
+                .bodyValue("{}")
+                .retrieve()
+                .bodyToMono(String.class));
+    }
+
+    private UpstreamCallPolicy policy(int maxAttempts, double budgetRatio, double budgetMinPerSecond, boolean hedge) {
+        return new UpstreamCallPolicy(Duration.ofSeconds(30), Duration.ofSeconds(120), maxAttempts,
+                Duration.ofMillis(1), Duration.ofMillis(5), budgetRatio, budgetMinPerSecond,
+                hedge, 0.95, Duration.ofMillis(5), meterRegistry);
+    }
+
+    private double counter(String name) {
+        return meterRegistry.counter(name).count();
+    }
+}
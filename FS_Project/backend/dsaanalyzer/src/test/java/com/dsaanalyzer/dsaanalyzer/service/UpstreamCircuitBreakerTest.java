@@ -0,0 +1,70 @@
+package com.dsaanalyzer.dsaanalyzer.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UpstreamCircuitBreakerTest {
+
+    private final UpstreamCircuitBreaker breaker = new UpstreamCircuitBreaker(true, Duration.ofSeconds(10), 5, 0.5,
+            Duration.ofMillis(100), 0.5, Duration.ofMillis(200), 2, new SimpleMeterRegistry());
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void slowCallsOpenTheCircuitAndProbesCloseIt() throws InterruptedException {
+        for (int i = 0; i < 5; i++) {
+            call(Mono.delay(Duration.ofMillis(120)).thenReturn("slow"));
+        }
+        assertEquals(UpstreamCircuitBreaker.State.OPEN, breaker.state());
+        assertThrows(CircuitOpenException.class, () -> call(Mono.just("ok")));
+        assertEquals(5, calls.get());
+
+        Thread.sleep(250);
+        assertEquals(UpstreamCircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertEquals("ok", call(Mono.just("ok")));
+        assertEquals("ok", call(Mono.just("ok")));
+        assertEquals(UpstreamCircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void aFailedProbeReopensAndBadRequestsDoNotCount() throws InterruptedException {
+        for (int i = 0; i < 10; i++) {
+            Mono<String> badRequest = Mono.error(WebClientResponseException.create(400, "Bad Request", null, null, null));
+            assertThrows(WebClientResponseException.class, () -> call(badRequest));
+        }
+        assertEquals(UpstreamCircuitBreaker.State.CLOSED, breaker.state());
+
+        // 3 of 5 fail: over the failure rate
+        for (int i = 0; i < 5; i++) {
+            Mono<String> outcome = i % 2 == 0
+                    ? Mono.error(WebClientResponseException.create(503, "Unavailable", null, null, null))
+                    : Mono.just("ok");
+            try {
+                call(outcome);
+            } catch (WebClientResponseException expected) {
+                // counted
+            }
+        }
+        assertEquals(UpstreamCircuitBreaker.State.OPEN, breaker.state());
+
+        Thread.sleep(250);
+        assertThrows(WebClientResponseException.class,
+                () -> call(Mono.error(WebClientResponseException.create(500, "Error", null, null, null))));
+        assertEquals(UpstreamCircuitBreaker.State.OPEN, breaker.state());
+        assertThrows(CircuitOpenException.class, () -> call(Mono.just("ok")));
+    }
+
+    private String call(Mono<String> upstream) {
+        return breaker.execute(() -> {
+            calls.incrementAndGet();
+            return upstream;
+        }).block();
+    }
+}
@@ -0,0 +1,109 @@
+package com.dsaanalyzer.dsaanalyzer.service;
+
+import com.dsaanalyzer.dsaanalyzer.testing.GeminiStubServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpstreamLimiterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UpstreamLimiter limiter = new UpstreamLimiter(true, 10, 2, 50, 20,
+            Duration.ofMillis(100), Duration.ofMillis(300), Duration.ofSeconds(2), meterRegistry);
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+    private GeminiStubServer stub;
+
+    @AfterEach
+    void stopStub() {
+        if (stub != null) {
+            stub.close();
+        }
+    }
+
+    @Test
+    void latencySpikeShrinksTheLimitAndShedsTheExcess() throws IOException {
+        stub = GeminiStubServer.start(() -> 20);
+        WebClient client = WebClient.create(stub.url());
+
+        List<String> steady = run(client, 200, 8);
+        assertTrue(steady.stream().allMatch("ok"::equals), steady::toString);
+        double steadyLimit = limiter.limit();
+
+        // Upstream latency jumps 20x and a burst arrives at once
+        stub.setDelayMillis(() -> 400);
+        peak.set(0);
+        long start = System.nanoTime();
+        List<String> burst = run(client, 150, 150);
+        long burstMillis = (System.nanoTime() - start) / 1_000_000;
+
+        long tooMany = burst.stream().filter("429"::equals).count();
+        long unavailable = burst.stream().filter("503"::equals).count();
+        long served = burst.stream().filter("ok"::equals).count();
+        assertEquals(150, tooMany + unavailable + served, burst::toString);
+        assertTrue(tooMany >= 150 - 20 - (int) steadyLimit, burst::toString);
+        assertTrue(served > 0 && unavailable > 0, burst::toString);
+        assertTrue(peak.get() <= (int) steadyLimit, peak + " concurrent calls, limit " + steadyLimit);
+        assertTrue(limiter.limit() < steadyLimit, limiter.limit() + " vs " + steadyLimit);
+        assertTrue(burstMillis < 2_500, burstMillis + " ms");
+        assertEquals(0, limiter.queueDepth());
+        assertEquals(tooMany, shed("queue-full"));
+        assertEquals(unavailable, shed("queue-delay") + shed("wait-timeout"));
+
+        // Back to normal: nothing is shed and the limit grows again
+        stub.setDelayMillis(() -> 20);
+        double spikeLimit = limiter.limit();
+        List<String> recovered = run(client, 300, 8);
+        assertTrue(recovered.stream().allMatch("ok"::equals), recovered::toString);
+        assertTrue(limiter.limit() > spikeLimit, limiter.limit() + " vs " + spikeLimit);
+        assertEquals(0, limiter.inFlight());
+    }
+
+    private List<String> run(WebClient client, int calls, int concurrency) {
+        return Flux.range(0, calls)
+                .flatMap(i -> limiter.execute(() -> call(client))
+                        .map(body -> "ok")
+                        .onErrorResume(UpstreamOverloadedException.class, e -> {
+                            assertTrue(e.getRetryAfter().toSeconds() >= 1);
+                            return Mono.just(String.valueOf(e.getStatus().value()));
+                        }), concurrency)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+    }
+
+    private Mono<String> call(WebClient client) {
+        return Mono.defer(() -> {
+                    peak.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                    return client.post().bodyValue("{}").retrieve().bodyToMono(String.class);
+                })
+                .doFinally(signal -> concurrent.decrementAndGet());
+    }
+
+    private long shed(String reason) {
+        return (long) meterRegistry.counter("gemini.concurrency.shed", "reason", reason).count();
+    }
+
+    @Test
+    void rejectionsCarryTheirStatus() {
+        UpstreamLimiter tiny = new UpstreamLimiter(true, 1, 1, 1, 0,
+                Duration.ofMillis(100), Duration.ofMillis(300), Duration.ofSeconds(1), new SimpleMeterRegistry());
+        Mono<String> slow = tiny.execute(() -> Mono.delay(Duration.ofMillis(300)).map(tick -> "slow"));
+        Mono<String> rejected = tiny.execute(() -> Mono.just("never"))
+                .onErrorResume(UpstreamOverloadedException.class, e -> Mono.just(e.getStatus().name()));
+        List<String> results = Flux.merge(slow, Mono.delay(Duration.ofMillis(50)).then(rejected)).collectList().block();
+        assertEquals(List.of(HttpStatus.TOO_MANY_REQUESTS.name(), "slow"), results);
+    }
+}
@@ -0,0 +1,182 @@
+package com.dsaanalyzer.dsaanalyzer.testing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Local stand-in for the Gemini generateContent endpoint with injectable latency,
+ * used by the benchmarks and integration tests instead of the real API.
+ */
+public class GeminiStubServer implements AutoCloseable {
+
+    public static final String ANALYSIS_JSON = """
+            {"timeComplexity": "O(n log n)", "spaceComplexity": "O(n)", "pattern": "Divide & Conquer",
+             "summary": "Sorts by recursively splitting and merging.", "intuition": ["Split", "Merge"],
+             "suggestions": ["Use insertion sort for small runs"]}""";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile LongSupplier delayMillis;
+    private volatile String text;
+    private volatile int streamChunks = 8;
+    private volatile long streamChunkDelayMillis;
+    private volatile double failureRate;
+    private volatile String lastServerTimeout;
+    private volatile UnaryOperator<String> responder;
+
+    private GeminiStubServer(LongSupplier delayMillis, String text) throws IOException {
+        this.delayMillis = delayMillis;
+        this.text = text;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.createContext("/", this::handle);
+        this.server.start();
+    }
+
+    public static GeminiStubServer start(LongSupplier delayMillis) throws IOException {
+        return new GeminiStubServer(delayMillis, ANALYSIS_JSON);
+    }
+
+    public static GeminiStubServer start(LongSupplier delayMillis, String text) throws IOException {
+        return new GeminiStubServer(delayMillis, text);
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/v1beta/models/stub:generateContent";
+    }
+
+    public int requestCount() {
+        return requests.get();
+    }
+
+    public void setDelayMillis(LongSupplier delayMillis) {
+        this.delayMillis = delayMillis;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Answers this fraction of requests with a 503, spread evenly over the request sequence
+     * (0.5 fails every second request) so tests stay deterministic.
+     */
+    public void setFailureRate(double failureRate) {
+        this.failureRate = failureRate;
+    }
+
+    /** Answers each generateContent request with {@code responder} applied to its prompt instead of the fixed text. */
+    public void setResponder(UnaryOperator<String> responder) {
+        this.responder = responder;
+    }
+
+    /** Back to the fixed analysis, answered at once; the request count keeps counting. */
+    public void reset() {
+        this.delayMillis = () -> 0;
+        this.text = ANALYSIS_JSON;
+        this.streamChunks = 8;
+        this.streamChunkDelayMillis = 0;
+        this.failureRate = 0;
+        this.responder = null;
+        this.lastServerTimeout = null;
+    }
+
+    /** The X-Server-Timeout header of the latest request, or {@code null}. */
+    public String lastServerTimeout() {
+        return lastServerTimeout;
+    }
+
+    /**
+     * Configures the streamGenerateContent variant: the text is split into {@code chunks}
+     * SSE events sent {@code delayMillis} apart (after the initial delay).
+     */
+    public void setStreaming(int chunks, long delayMillis) {
+        this.streamChunks = chunks;
+        this.streamChunkDelayMillis = delayMillis;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            int request = requests.incrementAndGet();
+            lastServerTimeout = exchange.getRequestHeaders().getFirst("X-Server-Timeout");
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            sleep(delayMillis.getAsLong());
+
+            double rate = failureRate;
+            if ((long) (request * rate) != (long) ((request - 1) * rate)) {
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+
+            if (exchange.getRequestURI().getPath().contains(":streamGenerateContent")) {
+                stream(exchange);
+                return;
+            }
+
+            UnaryOperator<String> respond = responder;
+            String answer = respond == null ? text
+                    : respond.apply(MAPPER.readTree(body).at("/contents/0/parts/0/text").asText());
+            byte[] bytes = MAPPER.writeValueAsString(candidate(answer)).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    private void stream(HttpExchange exchange) throws IOException {
+        String full = text;
+        int chunks = Math.max(1, streamChunks);
+        int size = (full.length() + chunks - 1) / chunks;
+
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (int start = 0; start < full.length(); start += size) {
+                if (start > 0) {
+                    sleep(streamChunkDelayMillis);
+                }
+                String piece = full.substring(start, Math.min(full.length(), start + size));
+                out.write(("data: " + MAPPER.writeValueAsString(candidate(piece)) + "\n\n")
+                        .getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            }
+        }
+    }
+
+    private static Map<String, Object> candidate(String text) {
+        return Map.of("candidates", List.of(
+                Map.of("content", Map.of("parts", List.of(Map.of("text", text))))));
+    }
+
+    public static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
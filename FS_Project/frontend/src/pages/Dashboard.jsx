@@ -133,6 +133,9 @@ export default function Dashboard() {
     }
   };
 
+  // Measured reports carry their real input sizes; estimated graphs use nominal points
+  const graphLabels = (data) => data.measurement?.sizes?.map(String) ?? data.timeGraph.map((_, i) => String(i + 1));
+
   const chartOptions = (yLabel) => ({
     responsive: true,
     plugins: {
@@ -231,7 +234,7 @@ export default function Dashboard() {
               {showTime ? (
                 <Line
                   data={{
-                    labels: ['1', '2', '3', '4', '5'],
+                    labels: graphLabels(report),
                     datasets: [{ label: 'Time', data: report.timeGraph, backgroundColor: '#d8b4fe', borderColor: '#c4b5fd', borderWidth: 2 }]
                   }}
                   options={chartOptions('Time')}
@@ -239,7 +242,7 @@ export default function Dashboard() {
               ) : (
                 <Bar
                   data={{
-                    labels: ['1', '2', '3', '4', '5'],
+                    labels: graphLabels(report),
                     datasets: [{ label: 'Space', data: report.spaceGraph, backgroundColor: '#d8b4fe', borderColor: '#c4b5fd', borderWidth: 2 }]
                   }}
                   options={chartOptions('Space')}